@@ -19,6 +19,7 @@ import groovy.xml.MarkupBuilder
 import illarion.build.imagepacker.ImagePacker
 import illarion.common.data.Book
 import illarion.common.data.BookLanguage
+import illarion.common.graphics.TextureAtlasIndex
 import illarion.common.util.Crypto
 import org.gradle.api.DefaultTask
 import org.gradle.api.file.FileCollection
@@ -301,12 +302,16 @@ public class ResourceConverter extends DefaultTask {
         def atlasFiles = 0
         def atlasMarkupWriter = new StringWriter()
         def atlasMarkup = new MarkupBuilder(atlasMarkupWriter)
+        def atlasIndex = new TextureAtlasIndex.Builder()
         while (!packer.everythingDone) {
             def fileName = "${baseName}-${atlasFiles++}.png"
 
             def spriteMarkupWriter = new StringWriter()
             def spriteMarkup = new MarkupBuilder(spriteMarkupWriter)
-            def resultImage = packer.packImages(spriteMarkup)
+            def sprites = []
+            def resultImage = packer.packImages(spriteMarkup) { String name, int x, int y, int width, int height ->
+                sprites << [name, x, y, width, height]
+            }
 
             if (resultImage == null) {
                 break
@@ -314,6 +319,12 @@ public class ResourceConverter extends DefaultTask {
 
             ImageIO.write(resultImage, "png", new File(targetDirectory, fileName));
 
+            def atlas = atlasIndex.addAtlas(fileName.substring(0, fileName.length() - 4))
+            sprites.each { sprite ->
+                atlasIndex.addSprite(atlas, sprite[0] as String, sprite[1] as int, sprite[2] as int,
+                        sprite[3] as int, sprite[4] as int)
+            }
+
             atlasMarkup.atlas(file: fileName) {
                 mkp.yieldUnescaped(spriteMarkupWriter.toString())
             }
@@ -329,5 +340,9 @@ public class ResourceConverter extends DefaultTask {
             xmlWriter?.flush()
             xmlWriter?.close()
         }
+
+        new File(targetDirectory, "${getAtlasName()}${TextureAtlasIndex.FILE_SUFFIX}").withOutputStream { os ->
+            atlasIndex.write(new BufferedOutputStream(os))
+        }
     }
 }
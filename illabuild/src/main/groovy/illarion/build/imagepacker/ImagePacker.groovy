@@ -215,12 +215,14 @@ public final class ImagePacker implements Comparator<TextureElement> {
      * @param targetDoc the XML document reference that is supposed to store the definition where the images are
      *                        located
      * @param spriteDefTarget the node inside the document where the sprite definition are supposed to be stored
+     * @param spriteListener the closure that is called with name, x, y, width and height of every packed sprite
      * @return The generated sprite sheet
      * @throws IOException Indicates a failure to write out files
      */
     @Nullable
     @SuppressWarnings("nls")
-    public BufferedImage packImages(@Nonnull final MarkupBuilder defBuilder) throws IOException {
+    public BufferedImage packImages(@Nonnull final MarkupBuilder defBuilder,
+                                    @Nullable final Closure spriteListener = null) throws IOException {
         logger.info("Packing images")
         shutdownExecutionService()
 
@@ -358,6 +360,7 @@ public final class ImagePacker implements Comparator<TextureElement> {
                 defBuilder.sprite(name: imageName,
                         x: image.x, y: image.y,
                         height: image.height, width: image.width) {}
+                spriteListener?.call(imageName, image.x, image.y, image.width, image.height)
             }
             usedImages.clear()
 
@@ -22,6 +22,7 @@ import illarion.client.input.InputReceiver;
 import illarion.client.states.*;
 import illarion.client.util.ConnectionPerformanceClock;
 import illarion.client.util.Lang;
+import illarion.client.util.StartupTracer;
 import illarion.client.world.World;
 import illarion.common.config.ConfigChangedEvent;
 import org.bushe.swing.event.annotation.AnnotationProcessor;
@@ -146,66 +147,73 @@ public final class Game implements GameListener {
         texManager.addTextureDirectory("tiles");
         texManager.addTextureDirectory("effects");
 
-        try {
+        try (StartupTracer.Span ignored = StartupTracer.begin("Fonts")) {
             FontLoader.getInstance().prepareAllFonts(container.getEngine().getAssets());
         } catch (@Nonnull IOException e) {
             LOGGER.error("Error while loading fonts!", e);
         }
 
-        InputReceiver inputReceiver = new InputReceiver(container.getEngine().getInput());
-        // Prepare the game's Nifty and its properties
-        nifty = new Nifty(new IgeRenderDevice(container, "gui/"), new IgeSoundDevice(container.getEngine()),
-                          new IgeInputSystem(container.getEngine().getInput(), inputReceiver),
-                          new AccurateTimeProvider());
-
-        Properties niftyProperties = nifty.getGlobalProperties();
-        if (niftyProperties == null) {
-            niftyProperties = new Properties();
-            nifty.setGlobalProperties(niftyProperties);
-        }
-        niftyProperties.setProperty("MULTI_CLICK_TIME",
-                                    Integer.toString(IllaClient.getCfg().getInteger("doubleClickInterval")));
-        nifty.setLocale(Lang.getInstance().getLocale());
-        container.getEngine().getInput().addForwardingListener(new ForwardingListener() {
-            @Override
-            public void forwardingEnabledFor(@Nonnull ForwardingTarget target) {
-                // nothing
+        StartupTracer.Span niftySpan = StartupTracer.begin("Nifty setup");
+        try {
+            InputReceiver inputReceiver = new InputReceiver(container.getEngine().getInput());
+            // Prepare the game's Nifty and its properties
+            nifty = new Nifty(new IgeRenderDevice(container, "gui/"), new IgeSoundDevice(container.getEngine()),
+                              new IgeInputSystem(container.getEngine().getInput(), inputReceiver),
+                              new AccurateTimeProvider());
+
+            Properties niftyProperties = nifty.getGlobalProperties();
+            if (niftyProperties == null) {
+                niftyProperties = new Properties();
+                nifty.setGlobalProperties(niftyProperties);
             }
+            niftyProperties.setProperty("MULTI_CLICK_TIME",
+                                        Integer.toString(IllaClient.getCfg().getInteger("doubleClickInterval")));
+            nifty.setLocale(Lang.getInstance().getLocale());
+            container.getEngine().getInput().addForwardingListener(new ForwardingListener() {
+                @Override
+                public void forwardingEnabledFor(@Nonnull ForwardingTarget target) {
+                    // nothing
+                }
 
-            @Override
-            public void forwardingDisabledFor(@Nonnull ForwardingTarget target) {
-                if ((target == ForwardingTarget.Mouse) || (target == ForwardingTarget.All)) {
-                    nifty.resetMouseInputEvents();
+                @Override
+                public void forwardingDisabledFor(@Nonnull ForwardingTarget target) {
+                    if ((target == ForwardingTarget.Mouse) || (target == ForwardingTarget.All)) {
+                        nifty.resetMouseInputEvents();
+                    }
                 }
+            });
+
+            gameStates[STATE_LOGIN] = new LoginState();
+            gameStates[STATE_LOADING] = new LoadingState();
+            gameStates[STATE_PLAYING] = new PlayingState(inputReceiver);
+            gameStates[STATE_ENDING] = new EndState();
+            gameStates[STATE_LOGOUT] = new LogoutState();
+            gameStates[STATE_DISCONNECT] = new DisconnectedState();
+            // Prepare the sounds and music for use, set volume based on the current configuration settings
+            Sounds sounds = container.getEngine().getSounds();
+            if (IllaClient.getCfg().getBoolean("musicOn")) {
+                sounds.setMusicVolume(IllaClient.getCfg().getFloat("musicVolume") / 100.f);
+            } else {
+                sounds.setMusicVolume(0.f);
+            }
+            if (IllaClient.getCfg().getBoolean("soundOn")) {
+                sounds.setSoundVolume(IllaClient.getCfg().getFloat("soundVolume") / 100.f);
+            } else {
+                sounds.setSoundVolume(0.f);
             }
-        });
-
-        gameStates[STATE_LOGIN] = new LoginState();
-        gameStates[STATE_LOADING] = new LoadingState();
-        gameStates[STATE_PLAYING] = new PlayingState(inputReceiver);
-        gameStates[STATE_ENDING] = new EndState();
-        gameStates[STATE_LOGOUT] = new LogoutState();
-        gameStates[STATE_DISCONNECT] = new DisconnectedState();
-        // Prepare the sounds and music for use, set volume based on the current configuration settings
-        Sounds sounds = container.getEngine().getSounds();
-        if (IllaClient.getCfg().getBoolean("musicOn")) {
-            sounds.setMusicVolume(IllaClient.getCfg().getFloat("musicVolume") / 100.f);
-        } else {
-            sounds.setMusicVolume(0.f);
-        }
-        if (IllaClient.getCfg().getBoolean("soundOn")) {
-            sounds.setSoundVolume(IllaClient.getCfg().getFloat("soundVolume") / 100.f);
-        } else {
-            sounds.setSoundVolume(0.f);
-        }
 
-        /* Loading general style and control files. */
-        nifty.loadStyleFile("nifty-illarion-style.xml");
-        nifty.loadControlFile("nifty-default-controls.xml");
-        nifty.loadControlFile("illarion-gamecontrols.xml");
+            /* Loading general style and control files. */
+            nifty.loadStyleFile("nifty-illarion-style.xml");
+            nifty.loadControlFile("nifty-default-controls.xml");
+            nifty.loadControlFile("illarion-gamecontrols.xml");
+        } finally {
+            niftySpan.end();
+        }
 
-        for (@Nonnull GameState listener : gameStates) {
-            listener.create(this, container, nifty);
+        try (StartupTracer.Span ignored = StartupTracer.begin("Game states")) {
+            for (@Nonnull GameState listener : gameStates) {
+                listener.create(this, container, nifty);
+            }
         }
 
         enterState(STATE_LOADING);
@@ -371,6 +379,12 @@ public final class Game implements GameListener {
                                 Math.max(0, netCommPing - serverPing) + " ms", Color.clouds, 10, renderLine);
                         renderLine += fpsFont.getLineHeight();
                     }
+                    if (World.isInitDone() && World.getPeople().isRemoteMoveInterpolation()) {
+                        container.getEngine().getGraphics().drawText(fpsFont, "Move jitter: " +
+                                World.getPeople().getMaxRemoteMoveJitter() + " ms (delay " +
+                                World.getPeople().getRemoteMoveDelay() + " ms)", Color.clouds, 10, renderLine);
+                        renderLine += fpsFont.getLineHeight();
+                    }
                 }
                 // If more diagnostics are wanted, add them here
             }
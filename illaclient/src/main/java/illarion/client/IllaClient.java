@@ -28,6 +28,7 @@ import illarion.client.resources.loaders.SoundLoader;
 import illarion.client.util.ChatLog;
 import illarion.client.util.GlobalExecutorService;
 import illarion.client.util.Lang;
+import illarion.client.util.StartupTracer;
 import illarion.client.util.translation.Translator;
 import illarion.client.world.Player;
 import illarion.client.world.World;
@@ -229,9 +230,11 @@ public final class IllaClient implements EventTopicSubscriber<ConfigChangedEvent
             LOGGER.error("Failed preparing the EventBus. Settings the Service handler happened too late");
         }
 
-        prepareConfig();
+        try (StartupTracer.Span ignored = StartupTracer.begin("Configuration")) {
+            prepareConfig();
+        }
         assert cfg != null;
-        try {
+        try (StartupTracer.Span ignored = StartupTracer.begin("Logging")) {
             initLogfiles();
         } catch (IOException e) {
             System.err.println("Failed to setup logging system!");
@@ -248,7 +251,7 @@ public final class IllaClient implements EventTopicSubscriber<ConfigChangedEvent
         CrashReporter.getInstance().setDialogFactory(new ReportDialogFactorySwing());
 
         // Preload sound and music
-        try {
+        try (StartupTracer.Span ignored = StartupTracer.begin("Sound tables")) {
             new SongLoader().setTarget(SongFactory.getInstance()).call();
             new SoundLoader().setTarget(SoundFactory.getInstance()).call();
         } catch (Exception e) {
@@ -287,7 +290,7 @@ public final class IllaClient implements EventTopicSubscriber<ConfigChangedEvent
         boolean isVsync = cfg.getBoolean(CFG_VSYNC);
         boolean background = cfg.getBoolean(CFG_BACKGROUNDFPS);
 
-        try {
+        try (StartupTracer.Span ignored = StartupTracer.begin("Game container")) {
             // Get the game container used to display the game from the engine, using the dimensions from earlier
             gameContainer = EngineManager
                     .createDesktopGame(Backend.libGDX, game, width, height, fullScreen, background, isVsync);
@@ -384,7 +387,15 @@ public final class IllaClient implements EventTopicSubscriber<ConfigChangedEvent
         cfg.setDefault("showAvatarTagPermanently", 0);
         cfg.set("limitPathFindingToMouseDirection", true);
         cfg.set("followMousePathFinding", true);
+        cfg.setDefault("hierarchicalPathFinding", false);
+        cfg.setDefault("incrementalPathFinding", false);
         cfg.setDefault("preLoadBagCount", 2);
+        cfg.setDefault("textureStreaming", false);
+        cfg.setDefault("textureMemoryBudget", 256);
+        cfg.setDefault("avatarCompositeCache", false);
+        cfg.setDefault("remoteMoveInterpolation", false);
+        cfg.setDefault("remoteMoveDelay", 100);
+        cfg.setDefault("remoteMoveExtrapolation", 150);
 
         cfg.setDefault(Translator.CFG_KEY_PROVIDER, Translator.CFG_VALUE_PROVIDER_NONE);
         cfg.setDefault(Translator.CFG_KEY_DIRECTION, Translator.CFG_VALUE_DIRECTION_DEFAULT);
@@ -397,9 +408,12 @@ public final class IllaClient implements EventTopicSubscriber<ConfigChangedEvent
             cfg.set("doubleClickInterval", 1000);
         }
 
-        Crypto crypt = new Crypto();
-        crypt.loadPublicKey();
-        TableLoader.setCrypto(crypt);
+        try (StartupTracer.Span ignored = StartupTracer.begin("Crypto keys")) {
+            Crypto crypt = new Crypto();
+            crypt.loadPublicKey();
+            TableLoader.setCrypto(crypt);
+        }
+        TableLoader.setCacheDirectory(DirectoryManager.getInstance().resolveFile(Directory.User, "tables"));
     }
 
     /**
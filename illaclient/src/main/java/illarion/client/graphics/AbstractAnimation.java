@@ -77,6 +77,12 @@ abstract class AbstractAnimation<T extends Animated> {
     private float storyboardStart;
     private float storyboardEnd;
 
+    /**
+     * The slot of this animation in the animation manager or {@link AnimationManager#NOT_REGISTERED} in case the
+     * animation is not registered to the manager.
+     */
+    private int managerSlot = AnimationManager.NOT_REGISTERED;
+
     /**
      * The constructor for a new animation. It does not start the animation
      * right away it rather prepares the animation and takes the first animation
@@ -301,6 +307,24 @@ abstract class AbstractAnimation<T extends Animated> {
         currentTime = 0;
     }
 
+    /**
+     * Get the slot of this animation in the animation manager.
+     *
+     * @return the slot of the animation
+     */
+    final int getManagerSlot() {
+        return managerSlot;
+    }
+
+    /**
+     * Set the slot of this animation in the animation manager. This is only to be used by the animation manager.
+     *
+     * @param slot the new slot of the animation
+     */
+    final void setManagerSlot(int slot) {
+        managerSlot = slot;
+    }
+
     protected final void setSkipNextUpdate(boolean skip) {
         skipNextUpdate = skip;
     }
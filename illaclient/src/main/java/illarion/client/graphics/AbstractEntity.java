@@ -261,6 +261,17 @@ public abstract class AbstractEntity<T extends AbstractEntityTemplate>
         }
     }
 
+    /**
+     * Get the base color the entity is currently rendered with.
+     *
+     * @return the base color or {@code null} in case no base color is applied
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Color getBaseColor() {
+        return (overWriteBaseColor == null) ? baseColor : overWriteBaseColor;
+    }
+
     /**
      * Get the frame that is currently displayed.
      *
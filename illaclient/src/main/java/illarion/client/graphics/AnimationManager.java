@@ -16,40 +16,61 @@
 package illarion.client.graphics;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
+import java.util.Arrays;
 
 /**
  * The main animation manager that handles and updates all animations that are registered. This class handles only the
  * updates to the animations. Rendering the results of the updates must be done at another position.
+ * <p/>
+ * The frame animations and the move animations are stored in separate dense arrays, so all animations of one type are
+ * updated in one run. Every animation knows its slot in the arrays. This way checking if a animation is registered
+ * and removing a animation that stopped does not require searching the animations.
  *
  * @author Nop
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
 public final class AnimationManager {
+    /**
+     * The slot value of a animation that is not registered to the manager.
+     */
+    static final int NOT_REGISTERED = -1;
+
+    /**
+     * The slot value of a animation that waits to be added to the manager.
+     */
+    static final int PENDING = -2;
 
     /**
-     * The animation to add.
+     * The initial capacity of the animation arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The animations that were registered since the last update.
      */
     @Nonnull
-    private final Queue<AbstractAnimation<?>> addAnimations;
+    private final AnimationGroup addAnimations;
 
     /**
-     * The list of animations that are registered to the manager. All animations in here need to be updated when the
-     * animate function is called.
+     * The frame animations that are registered to the manager.
      */
     @Nonnull
-    private final List<AbstractAnimation<?>> animations;
+    private final AnimationGroup frameAnimations;
+
+    /**
+     * The move animations that are registered to the manager.
+     */
+    @Nonnull
+    private final AnimationGroup moveAnimations;
 
     /**
      * The private constructor of this class. This ensures that the only instance of this class is the singleton
      * instance.
      */
     public AnimationManager() {
-        animations = new ArrayList<>();
-        addAnimations = new LinkedList<>();
+        addAnimations = new AnimationGroup();
+        frameAnimations = new AnimationGroup();
+        moveAnimations = new AnimationGroup();
     }
 
     /**
@@ -59,26 +80,31 @@ public final class AnimationManager {
      * before a rendering run
      */
     public void animate(int delta) {
-        if (!addAnimations.isEmpty()) {
-            AbstractAnimation<?> ani;
-            while ((ani = addAnimations.poll()) != null) {
-                if (!animations.contains(ani)) {
-                    animations.add(ani);
-                }
-            }
-        }
+        addPendingAnimations();
 
-        animations.removeIf(ani -> {
-            // execute those that are running
-            if (!ani.isRunning()) {
-                ani.animationFinished(false);
-            } else if (!ani.animate(delta)) {
-                ani.animationFinished(true);
+        frameAnimations.animate(delta);
+        moveAnimations.animate(delta);
+    }
+
+    /**
+     * Move the animations that were registered since the last update to the groups of their type.
+     */
+    private void addPendingAnimations() {
+        int count = addAnimations.size;
+        if (count == 0) {
+            return;
+        }
+        AbstractAnimation<?>[] pending = addAnimations.entries;
+        for (int i = 0; i < count; i++) {
+            AbstractAnimation<?> ani = pending[i];
+            pending[i] = null;
+            if (ani instanceof FrameAnimation) {
+                frameAnimations.add(ani);
             } else {
-                return false;
+                moveAnimations.add(ani);
             }
-            return true;
-        });
+        }
+        addAnimations.size = 0;
     }
 
     /**
@@ -89,8 +115,82 @@ public final class AnimationManager {
      * @param animation the animation that shall be to the animation manager
      */
     void register(@Nonnull AbstractAnimation<?> animation) {
-        if (!addAnimations.contains(animation)) {
+        if (animation.getManagerSlot() == NOT_REGISTERED) {
             addAnimations.add(animation);
+            animation.setManagerSlot(PENDING);
+        }
+    }
+
+    /**
+     * A dense array of animations. Each animation stores its index in the array as slot, so it can be removed without
+     * searching it. Removing a animation moves the last animation of the array into the free slot.
+     */
+    private static final class AnimationGroup {
+        /**
+         * The animations of this group. Only the first {@link #size} entries are used.
+         */
+        @Nonnull
+        private AbstractAnimation<?>[] entries;
+
+        /**
+         * The amount of animations in this group.
+         */
+        private int size;
+
+        AnimationGroup() {
+            entries = new AbstractAnimation<?>[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Append a animation to this group.
+         *
+         * @param animation the animation to add
+         */
+        void add(@Nonnull AbstractAnimation<?> animation) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            animation.setManagerSlot(size);
+            entries[size] = animation;
+            size++;
+        }
+
+        /**
+         * Remove the animation in a slot of this group.
+         *
+         * @param slot the slot of the animation to remove
+         */
+        private void remove(int slot) {
+            entries[slot].setManagerSlot(NOT_REGISTERED);
+            size--;
+            if (slot < size) {
+                AbstractAnimation<?> moved = entries[size];
+                moved.setManagerSlot(slot);
+                entries[slot] = moved;
+            }
+            entries[size] = null;
+        }
+
+        /**
+         * Update all animations of this group and remove those that stopped. The animation is removed before the
+         * targets are notified that it finished, so the animation can be started again by the targets right away.
+         *
+         * @param delta the time since the last update of the animations
+         */
+        void animate(int delta) {
+            int i = 0;
+            while (i < size) {
+                AbstractAnimation<?> ani = entries[i];
+                if (!ani.isRunning()) {
+                    remove(i);
+                    ani.animationFinished(false);
+                } else if (!ani.animate(delta)) {
+                    remove(i);
+                    ani.animationFinished(true);
+                } else {
+                    i++;
+                }
+            }
         }
     }
 }
@@ -35,13 +35,16 @@ import illarion.client.world.movement.TargetMovementHandler;
 import illarion.client.world.movement.TargetTurnHandler;
 import illarion.common.gui.AbstractMultiActionHelper;
 import illarion.common.types.DisplayCoordinate;
+import illarion.common.types.Rectangle;
 import illarion.common.types.ServerCoordinate;
 import illarion.common.types.ServerCoordinate;
 import org.illarion.engine.GameContainer;
 import org.illarion.engine.graphic.Color;
 import org.illarion.engine.graphic.Graphics;
 import org.illarion.engine.graphic.ImmutableColor;
+import org.illarion.engine.graphic.InteractiveSceneElement;
 import org.illarion.engine.graphic.SceneEvent;
+import org.illarion.engine.graphic.effects.TextureEffect;
 import org.illarion.engine.input.Button;
 import org.illarion.engine.input.Input;
 import org.illarion.engine.input.Key;
@@ -58,7 +61,7 @@ import javax.annotation.Nullable;
  * @author Nop
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
-public final class Avatar extends AbstractEntity<AvatarTemplate> implements Resource {
+public final class Avatar extends AbstractEntity<AvatarTemplate> implements Resource, InteractiveSceneElement {
     @Nonnull
     private static final Logger log = LoggerFactory.getLogger(Avatar.class);
     /**
@@ -129,6 +132,11 @@ public final class Avatar extends AbstractEntity<AvatarTemplate> implements Reso
     @Nonnull
     private Color targetLight;
     private int showHighlight;
+    /**
+     * The area on the display this avatar processes mouse events in. This covers the avatar and its text tag.
+     */
+    @Nonnull
+    private final Rectangle eventBounds;
 
     private Avatar(@Nonnull AvatarTemplate template, @Nonnull Char parentChar) {
         super(template);
@@ -142,6 +150,7 @@ public final class Avatar extends AbstractEntity<AvatarTemplate> implements Reso
         targetLight = DEFAULT_LIGHT;
         animateLight = false;
 
+        eventBounds = new Rectangle();
         avatarTextTag = new AvatarTextTag();
         avatarTextTag.setAvatarHeight(template.getSprite().getHeight());
 
@@ -313,12 +322,8 @@ public final class Avatar extends AbstractEntity<AvatarTemplate> implements Reso
                 attackAvailableMark.render(graphics);
             }
 
-            // draw the avatar, naked!! :O
             super.render(graphics);
 
-            // draw the clothes
-            clothRender.render(graphics);
-
             if (renderName) {
                 avatarTextTag.render(graphics);
             }
@@ -326,6 +331,25 @@ public final class Avatar extends AbstractEntity<AvatarTemplate> implements Reso
         }
     }
 
+    /**
+     * Draw the avatar along with its clothes. In case its enabled, the avatar is drawn as a single image taken from
+     * the composite cache.
+     */
+    @Override
+    protected void renderSprite(@Nonnull Graphics g, int x, int y, @Nonnull Color light,
+                                @Nonnull TextureEffect... effects) {
+        AvatarCompositeCache cache = World.getAvatarCompositeCache();
+        if (cache.isEnabled() && clothRender.renderComposite(g, cache, this, x, y, getLocalLight(), effects)) {
+            return;
+        }
+
+        // draw the avatar, naked!! :O
+        super.renderSprite(g, x, y, light, effects);
+
+        // draw the clothes
+        clothRender.render(g);
+    }
+
     @Override
     public void update(@Nonnull GameContainer container, int delta) {
         super.update(container, delta);
@@ -412,6 +436,18 @@ public final class Avatar extends AbstractEntity<AvatarTemplate> implements Reso
         return super.isEventProcessed(container, delta, event);
     }
 
+    @Nullable
+    @Override
+    public Rectangle getEventBounds() {
+        Rectangle interactionRect = getInteractionRect();
+        if (!renderName) {
+            return interactionRect;
+        }
+        eventBounds.set(interactionRect);
+        eventBounds.add(avatarTextTag.getDisplayRect());
+        return eventBounds;
+    }
+
     @Override
     public void hide() {
         super.hide();
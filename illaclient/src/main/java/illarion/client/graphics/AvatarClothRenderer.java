@@ -18,22 +18,30 @@ package illarion.client.graphics;
 import illarion.client.graphics.AvatarClothManager.AvatarClothGroup;
 import illarion.common.types.Direction;
 import illarion.common.types.DisplayCoordinate;
+import illarion.common.types.Rectangle;
 import org.illarion.engine.GameContainer;
 import org.illarion.engine.graphic.Color;
 import org.illarion.engine.graphic.Graphics;
+import org.illarion.engine.graphic.Sprite;
+import org.illarion.engine.graphic.effects.TextureEffect;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 
 /**
  * This class is able to trigger the rendering of the clothes of a avatar. The render action is invoked in the order
  * that is defined for the direction the parent avatar is looking at.
+ * <p/>
+ * The clothes are stored in a array that is never changed once its published. Changing a cloth creates a new array
+ * that replaces the old one, so the functions that are called for every frame work without locking.
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
+@ThreadSafe
 final class AvatarClothRenderer {
     /**
      * The definition of the orders that are used to render the clothes a character wears. Each direction has a
@@ -167,10 +175,16 @@ final class AvatarClothRenderer {
     }
 
     /**
-     * The list of clothes the avatar currently wears. This clothes are rendered one by one when its requested.
+     * The clothes the avatar currently wears, indexed by the ordinal of the cloth group. The array is replaced as a
+     * whole when a cloth changes, its contents are never changed.
      */
     @Nonnull
-    private final Map<AvatarClothGroup, AvatarCloth> currentClothes;
+    private volatile AvatarCloth[] currentClothes;
+    /**
+     * The cloth groups in the order they are rendered for the direction of the parent.
+     */
+    @Nonnull
+    private final AvatarClothGroup[] renderOrder;
     /**
      * The direction if the parent that defines the order that is used to render the parts of the clothes.
      */
@@ -180,33 +194,49 @@ final class AvatarClothRenderer {
      * The amount of frames the parent animation stores.
      */
     private final int parentFrames;
-    /**
-     * This is the lock used to ensure the proper access on the cloth objects.
-     */
-    @Nonnull
-    private final ReadWriteLock clothLock;
     /**
      * The current x coordinate of the avatar on the screen.
      */
     @Nullable
-    private DisplayCoordinate avatarPos;
+    private volatile DisplayCoordinate avatarPos;
     /**
      * The frame that is currently rendered.
      */
-    private int currentFrame;
+    private volatile int currentFrame;
     /**
      * The light that is currently set to the clothes.
      */
     @Nullable
-    private Color currentLight;
+    private volatile Color currentLight;
     /**
      * The scaling value that applies to all cloth graphics.
      */
-    private float scale;
+    private volatile float scale;
     /**
      * The alpha value applied to the clothes.
      */
-    private int clothAlpha;
+    private volatile int clothAlpha;
+    /**
+     * The values of the key used to fetch the image of the avatar from the composite cache. The key contains the
+     * avatar, its frame and color followed by the item and the color of each cloth group.
+     */
+    @Nonnull
+    private final int[] compositeKey;
+    /**
+     * The area covered by the avatar and its clothes.
+     */
+    @Nonnull
+    private final Rectangle compositeBounds;
+    /**
+     * The area covered by a single part of the avatar.
+     */
+    @Nonnull
+    private final Rectangle tempBounds;
+    /**
+     * The color instance used to render the parts of the avatar into the composite cache.
+     */
+    @Nonnull
+    private final Color compositeColor;
 
     /**
      * Create a cloth renderer for a avatar that looks into a defined direction.
@@ -215,12 +245,18 @@ final class AvatarClothRenderer {
      * @param frames the amount of frames the parent avatar animation contains
      */
     AvatarClothRenderer(@Nonnull Direction dir, int frames) {
-        clothLock = new ReentrantReadWriteLock();
         scale = 1.f;
-        currentClothes = new EnumMap<>(AvatarClothGroup.class);
+        currentClothes = new AvatarCloth[AvatarClothGroup.values().length];
+        List<AvatarClothGroup> order = RENDER_DIR.get(dir);
+        assert order != null;
+        renderOrder = order.toArray(new AvatarClothGroup[order.size()]);
         parentFrames = frames;
         direction = dir;
         clothAlpha = -1;
+        compositeKey = new int[4 + (renderOrder.length * 2)];
+        compositeBounds = new Rectangle();
+        tempBounds = new Rectangle();
+        compositeColor = new Color(Color.WHITE);
     }
 
     /**
@@ -234,14 +270,11 @@ final class AvatarClothRenderer {
         }
 
         clothAlpha = newAlpha;
-        clothLock.readLock().lock();
-        try {
-            currentClothes.forEach((g, cloth) -> {
+        for (AvatarCloth cloth : currentClothes) {
+            if (cloth != null) {
                 cloth.setAlpha(newAlpha);
                 cloth.setAlphaTarget(newAlpha);
-            });
-        } finally {
-            clothLock.readLock().unlock();
+            }
         }
     }
 
@@ -252,19 +285,44 @@ final class AvatarClothRenderer {
      */
     public void setFrame(int frame) {
         currentFrame = frame;
-        clothLock.readLock().lock();
-        try {
-            currentClothes.forEach((g, cloth) -> {
-                int currentFrames = cloth.getTemplate().getFrames();
-                if (currentFrames == parentFrames) {
-                    cloth.setFrame(frame);
-                } else if (currentFrames > 1) {
-                    cloth.setFrame((int) (((float) currentFrames * frame) / parentFrames));
-                }
-            });
-        } finally {
-            clothLock.readLock().unlock();
+        for (AvatarCloth cloth : currentClothes) {
+            if (cloth != null) {
+                applyFrame(cloth, frame);
+            }
+        }
+    }
+
+    /**
+     * Set the frame of one cloth to match the frame of the avatar.
+     *
+     * @param cloth the cloth
+     * @param frame the frame of the avatar
+     */
+    private void applyFrame(@Nonnull AvatarCloth cloth, int frame) {
+        int currentFrames = cloth.getTemplate().getFrames();
+        if (currentFrames == parentFrames) {
+            cloth.setFrame(frame);
+        } else if (currentFrames > 1) {
+            cloth.setFrame(getClothFrame(cloth, frame));
+        }
+    }
+
+    /**
+     * Get the frame of a cloth that matches a frame of the avatar.
+     *
+     * @param cloth the cloth
+     * @param frame the frame of the avatar
+     * @return the frame of the cloth
+     */
+    private int getClothFrame(@Nonnull AvatarCloth cloth, int frame) {
+        int currentFrames = cloth.getTemplate().getFrames();
+        if (currentFrames == parentFrames) {
+            return frame;
         }
+        if (currentFrames > 1) {
+            return (int) (((float) currentFrames * frame) / parentFrames);
+        }
+        return 0;
     }
 
     /**
@@ -276,11 +334,10 @@ final class AvatarClothRenderer {
      */
     public void setLight(@Nonnull Color light) {
         currentLight = light;
-        clothLock.readLock().lock();
-        try {
-            currentClothes.forEach((g, cloth) -> cloth.setLight(light));
-        } finally {
-            clothLock.readLock().unlock();
+        for (AvatarCloth cloth : currentClothes) {
+            if (cloth != null) {
+                cloth.setLight(light);
+            }
         }
     }
 
@@ -291,11 +348,10 @@ final class AvatarClothRenderer {
      */
     public void setScale(float newScale) {
         scale = newScale;
-        clothLock.readLock().lock();
-        try {
-            currentClothes.forEach((g, cloth) -> cloth.setScale(newScale));
-        } finally {
-            clothLock.readLock().unlock();
+        for (AvatarCloth cloth : currentClothes) {
+            if (cloth != null) {
+                cloth.setScale(newScale);
+            }
         }
     }
 
@@ -306,14 +362,9 @@ final class AvatarClothRenderer {
      * @param color the new color that shall be used as base color, {@code null} to get the default color
      */
     void changeBaseColor(@Nonnull AvatarClothGroup group, @Nullable Color color) {
-        clothLock.readLock().lock();
-        try {
-            AvatarCloth cloth = currentClothes.get(group);
-            if (cloth != null) {
-                cloth.changeBaseColor(color);
-            }
-        } finally {
-            clothLock.readLock().unlock();
+        AvatarCloth cloth = currentClothes[group.ordinal()];
+        if (cloth != null) {
+            cloth.changeBaseColor(color);
         }
     }
 
@@ -321,29 +372,162 @@ final class AvatarClothRenderer {
      * Render all clothes in the correct order.
      */
     void render(@Nonnull Graphics g) {
-        clothLock.readLock().lock();
-        try {
-            List<AvatarClothGroup> renderOrder = RENDER_DIR.get(direction);
-            assert renderOrder != null;
-
-            renderOrder.stream()
-                    .map(currentClothes::get)
-                    .filter(Objects::nonNull)
-                    .forEachOrdered(cloth -> cloth.render(g));
-        } finally {
-            clothLock.readLock().unlock();
+        AvatarCloth[] clothes = currentClothes;
+        for (AvatarClothGroup group : renderOrder) {
+            AvatarCloth cloth = clothes[group.ordinal()];
+            if (cloth != null) {
+                cloth.render(g);
+            }
+        }
+    }
+
+    /**
+     * Render the avatar along with all its clothes as a single image that is fetched from the composite cache. In
+     * case the image is not cached yet, its rendered into the cache first.
+     *
+     * @param g the graphics used to render
+     * @param cache the composite cache
+     * @param avatar the avatar the clothes belong to
+     * @param x the x coordinate of the avatar on the screen
+     * @param y the y coordinate of the avatar on the screen
+     * @param light the light of the avatar
+     * @param effects the effects applied to the avatar
+     * @return {@code true} in case the avatar was rendered, {@code false} in case the avatar can't be taken from the
+     * cache and needs to be rendered part by part
+     */
+    boolean renderComposite(@Nonnull Graphics g, @Nonnull AvatarCompositeCache cache, @Nonnull Avatar avatar, int x,
+                            int y, @Nonnull Color light, @Nonnull TextureEffect... effects) {
+        AvatarCloth[] clothes = currentClothes;
+
+        updateCompositeKey(avatar, clothes);
+        AvatarCompositeCache.Entry entry = cache.get(compositeKey);
+        if (entry == null) {
+            int frame = compositeKey[2];
+            if (!isCompositeResident(avatar, clothes, frame)) {
+                return false;
+            }
+
+            avatar.getTemplate().getSprite().getDisplayArea(0, 0, 1.0, 0.0, compositeBounds);
+            for (AvatarCloth cloth : clothes) {
+                if (cloth != null) {
+                    cloth.getTemplate().getSprite().getDisplayArea(0, 0, 1.0, 0.0, tempBounds);
+                    compositeBounds.add(tempBounds);
+                }
+            }
+
+            entry = cache.beginComposite(g, compositeKey, compositeBounds);
+            if (entry == null) {
+                return false;
+            }
+            /* The parts are rendered with the frame and the colors stored in the key, so the image matches its key
+             * even in case the colors are changed by another thread meanwhile. */
+            try {
+                int anchorX = entry.getAnchorX();
+                int anchorY = entry.getAnchorY();
+                renderCompositePart(g, avatar.getTemplate().getSprite(), anchorX, anchorY, frame, compositeKey[3]);
+                for (int i = 0; i < renderOrder.length; i++) {
+                    AvatarCloth cloth = clothes[renderOrder[i].ordinal()];
+                    if (cloth != null) {
+                        renderCompositePart(g, cloth.getTemplate().getSprite(), anchorX, anchorY,
+                                getClothFrame(cloth, frame), compositeKey[5 + (i * 2)]);
+                    }
+                }
+            } finally {
+                cache.endComposite(g);
+            }
+        }
+        entry.render(g, x, y, scale, light, effects);
+        return true;
+    }
+
+    /**
+     * Store the values that describe the current look of the avatar in the composite key.
+     *
+     * @param avatar the avatar the clothes belong to
+     * @param clothes the clothes the avatar wears
+     */
+    private void updateCompositeKey(@Nonnull Avatar avatar, @Nonnull AvatarCloth[] clothes) {
+        int index = 0;
+        compositeKey[index++] = avatar.getTemplate().getId();
+        compositeKey[index++] = direction.ordinal();
+        compositeKey[index++] = avatar.getCurrentFrame();
+        compositeKey[index++] = getColorKey(avatar.getBaseColor());
+        for (AvatarClothGroup group : renderOrder) {
+            AvatarCloth cloth = clothes[group.ordinal()];
+            if (cloth == null) {
+                compositeKey[index++] = -1;
+                compositeKey[index++] = 0;
+            } else {
+                compositeKey[index++] = cloth.getTemplate().getId();
+                compositeKey[index++] = getColorKey(cloth.getBaseColor());
+            }
+        }
+    }
+
+    /**
+     * Get the value that represents a color in the composite key.
+     *
+     * @param color the color
+     * @return the value of the color
+     */
+    private static int getColorKey(@Nullable Color color) {
+        if (color == null) {
+            return -1;
+        }
+        return ((color.getAlpha() & 0xFF) << 24) | ((color.getBlue() & 0xFF) << 16) |
+                ((color.getGreen() & 0xFF) << 8) | (color.getRed() & 0xFF);
+    }
+
+    /**
+     * Check if the graphics of the avatar and all its clothes are loaded. A image that is stored in the composite
+     * cache before that would miss the parts that are not loaded yet.
+     *
+     * @param avatar the avatar the clothes belong to
+     * @param clothes the clothes the avatar wears
+     * @param frame the frame of the avatar
+     * @return {@code true} in case all parts of the avatar are loaded
+     */
+    private boolean isCompositeResident(@Nonnull Avatar avatar, @Nonnull AvatarCloth[] clothes, int frame) {
+        if (!avatar.getTemplate().getSprite().getFrame(frame).isResident()) {
+            return false;
+        }
+        for (AvatarCloth cloth : clothes) {
+            if ((cloth != null) &&
+                    !cloth.getTemplate().getSprite().getFrame(getClothFrame(cloth, frame)).isResident()) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    /**
+     * Render one part of the avatar into the composite cache. The parts are rendered without light and scaling,
+     * those are applied once the image is drawn.
+     *
+     * @param g the graphics used to render
+     * @param sprite the sprite of the part
+     * @param x the x coordinate of the anchor
+     * @param y the y coordinate of the anchor
+     * @param frame the frame of the sprite
+     * @param colorKey the base color of the part as stored in the composite key
+     */
+    private void renderCompositePart(@Nonnull Graphics g, @Nonnull Sprite sprite, int x, int y, int frame,
+                                     int colorKey) {
+        compositeColor.setRed(colorKey & 0xFF);
+        compositeColor.setGreen((colorKey >>> 8) & 0xFF);
+        compositeColor.setBlue((colorKey >>> 16) & 0xFF);
+        compositeColor.setAlpha((colorKey >>> 24) & 0xFF);
+        g.drawSprite(sprite, x, y, compositeColor, frame, 1.0, 0.0);
     }
 
     /**
      * Update all clothes
      */
     void update(@Nonnull GameContainer container, int delta) {
-        clothLock.readLock().lock();
-        try {
-            currentClothes.values().forEach((cloth) -> cloth.update(container, delta));
-        } finally {
-            clothLock.readLock().unlock();
+        for (AvatarCloth cloth : currentClothes) {
+            if (cloth != null) {
+                cloth.update(container, delta);
+            }
         }
     }
 
@@ -354,34 +538,49 @@ final class AvatarClothRenderer {
      * @param group the group the item is a part of. So the location its shown at
      * @param item the item that shall be shown itself or {@code null} to remove the item
      */
-    void setCloth(@Nonnull AvatarClothGroup group, @Nullable AvatarCloth item) {
-        clothLock.writeLock().lock();
-        try {
-            AvatarCloth oldItem = currentClothes.get(group);
-            if (oldItem != null) {
-                if ((item != null) && (oldItem.getTemplate().getId() == item.getTemplate().getId())) {
-                    return;
-                }
-            }
-            if (item == null) {
-                currentClothes.remove(group);
-            } else {
-                currentClothes.put(group, item);
-                if (currentLight != null) {
-                    item.setLight(currentLight);
-                }
-                if (avatarPos != null) {
-                    item.setScreenPos(avatarPos);
-                }
-                item.setFrame(currentFrame);
-                item.setScale(scale);
-                if (clothAlpha > -1) {
-                    item.setAlpha(clothAlpha);
-                    item.setAlphaTarget(clothAlpha);
-                }
-            }
-        } finally {
-            clothLock.writeLock().unlock();
+    synchronized void setCloth(@Nonnull AvatarClothGroup group, @Nullable AvatarCloth item) {
+        AvatarCloth oldItem = currentClothes[group.ordinal()];
+        if (oldItem == item) {
+            return;
+        }
+        if ((oldItem != null) && (item != null) && (oldItem.getTemplate().getId() == item.getTemplate().getId())) {
+            return;
+        }
+        if (item != null) {
+            applyState(item);
+        }
+
+        AvatarCloth[] newClothes = Arrays.copyOf(currentClothes, currentClothes.length);
+        newClothes[group.ordinal()] = item;
+        currentClothes = newClothes;
+
+        /* The setters store the value before they walk over the published clothes. Applying the values again once the
+         * new cloth is published ensures that a value changed meanwhile reaches the new cloth as well. */
+        if (item != null) {
+            applyState(item);
+        }
+    }
+
+    /**
+     * Apply the light, position, frame, scale and alpha that are currently set to a cloth.
+     *
+     * @param item the cloth
+     */
+    private void applyState(@Nonnull AvatarCloth item) {
+        Color light = currentLight;
+        if (light != null) {
+            item.setLight(light);
+        }
+        DisplayCoordinate pos = avatarPos;
+        if (pos != null) {
+            item.setScreenPos(pos);
+        }
+        applyFrame(item, currentFrame);
+        item.setScale(scale);
+        int alpha = clothAlpha;
+        if (alpha > -1) {
+            item.setAlpha(alpha);
+            item.setAlphaTarget(alpha);
         }
     }
 
@@ -393,11 +592,10 @@ final class AvatarClothRenderer {
      */
     void setScreenPos(@Nonnull DisplayCoordinate coordinate) {
         avatarPos = coordinate;
-        clothLock.readLock().lock();
-        try {
-            currentClothes.forEach((g, cloth) -> cloth.setScreenPos(coordinate));
-        } finally {
-            clothLock.readLock().unlock();
+        for (AvatarCloth cloth : currentClothes) {
+            if (cloth != null) {
+                cloth.setScreenPos(coordinate);
+            }
         }
     }
 }
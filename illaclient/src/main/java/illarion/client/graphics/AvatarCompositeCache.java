@@ -0,0 +1,323 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.graphics;
+
+import illarion.common.types.Rectangle;
+import illarion.common.util.FastMath;
+import org.illarion.engine.graphic.Color;
+import org.illarion.engine.graphic.FrameBuffer;
+import org.illarion.engine.graphic.Graphics;
+import org.illarion.engine.graphic.Texture;
+import org.illarion.engine.graphic.effects.TextureEffect;
+import org.jetbrains.annotations.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This cache stores the images of avatars with all the clothes they wear. The naked avatar and the clothes are
+ * rendered once into a cell of a frame buffer and after that the avatar is drawn with a single render operation
+ * as long as the look of the avatar does not change.
+ * <p/>
+ * The images are stored without the light of the avatar. The light is applied when the image is drawn. In case all
+ * cells of the frame buffer are used, the image that was not used for the longest time is replaced.
+ */
+@NotThreadSafe
+public final class AvatarCompositeCache {
+    /**
+     * The logger that is used for the log output of this class.
+     */
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(AvatarCompositeCache.class);
+
+    /**
+     * The width of the frame buffer that stores the images.
+     */
+    private static final int BUFFER_WIDTH = 2048;
+
+    /**
+     * The height of the frame buffer that stores the images.
+     */
+    private static final int BUFFER_HEIGHT = 2048;
+
+    /**
+     * The width of a single cell of the frame buffer. Avatars that are wider are not cached.
+     */
+    private static final int CELL_WIDTH = 128;
+
+    /**
+     * The height of a single cell of the frame buffer. Avatars that are higher are not cached.
+     */
+    private static final int CELL_HEIGHT = 192;
+
+    /**
+     * The amount of cells in one row of the frame buffer.
+     */
+    private static final int CELL_COLUMNS = BUFFER_WIDTH / CELL_WIDTH;
+
+    /**
+     * The total amount of cells in the frame buffer.
+     */
+    private static final int CELL_COUNT = CELL_COLUMNS * (BUFFER_HEIGHT / CELL_HEIGHT);
+
+    /**
+     * {@code true} in case the cache is used.
+     */
+    private final boolean enabled;
+
+    /**
+     * The images that are currently stored. The iteration order of the map is the order the images were used in,
+     * starting with the one that was not used for the longest time.
+     */
+    @Nonnull
+    private final Map<Key, Entry> entries;
+
+    /**
+     * The key instance that is used to look up the images.
+     */
+    @Nonnull
+    private final Key lookupKey;
+
+    /**
+     * The cells of the frame buffer that are not used yet.
+     */
+    @Nonnull
+    private final int[] freeCells;
+
+    /**
+     * The amount of valid entries in {@link #freeCells}.
+     */
+    private int freeCellCount;
+
+    /**
+     * The frame buffer that stores the images. Its created once the first image is stored.
+     */
+    @Nullable
+    private FrameBuffer frameBuffer;
+
+    /**
+     * Create the cache.
+     *
+     * @param enabled {@code true} in case the cache is supposed to be used
+     */
+    public AvatarCompositeCache(boolean enabled) {
+        this.enabled = enabled;
+        entries = new LinkedHashMap<>(CELL_COUNT, 0.75f, true);
+        lookupKey = new Key(new int[0]);
+        freeCells = new int[CELL_COUNT];
+        for (int i = 0; i < CELL_COUNT; i++) {
+            freeCells[i] = CELL_COUNT - i - 1;
+        }
+        freeCellCount = CELL_COUNT;
+    }
+
+    /**
+     * Check if the cache is supposed to be used.
+     *
+     * @return {@code true} in case the avatars are supposed to be drawn from the cache
+     */
+    @Contract(pure = true)
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get a stored image.
+     *
+     * @param key the values of the key of the image, see {@link Key}
+     * @return the image or {@code null} in case its not stored
+     */
+    @Nullable
+    Entry get(@Nonnull int[] key) {
+        lookupKey.set(key);
+        return entries.get(lookupKey);
+    }
+
+    /**
+     * Start storing a new image. In case this function returns a entry, all following render operations are send to
+     * the cell of the entry until {@link #endComposite(Graphics)} is called. The image needs to be rendered at the
+     * anchor of the entry.
+     *
+     * @param g the graphics used to render
+     * @param key the values of the key of the new image, see {@link Key}
+     * @param bounds the area the image covers, relative to the location the avatar is rendered at
+     * @return the entry of the image or {@code null} in case the image is too large to be stored
+     */
+    @Nullable
+    Entry beginComposite(@Nonnull Graphics g, @Nonnull int[] key, @Nonnull Rectangle bounds) {
+        if ((bounds.getWidth() > CELL_WIDTH) || (bounds.getHeight() > CELL_HEIGHT) || bounds.isEmpty()) {
+            return null;
+        }
+
+        FrameBuffer buffer = frameBuffer;
+        if (buffer == null) {
+            buffer = g.createFrameBuffer(BUFFER_WIDTH, BUFFER_HEIGHT);
+            frameBuffer = buffer;
+            log.debug("Created the avatar composite buffer with {} cells.", CELL_COUNT);
+        }
+
+        int cell;
+        if (freeCellCount > 0) {
+            freeCellCount--;
+            cell = freeCells[freeCellCount];
+        } else {
+            Iterator<Entry> oldest = entries.values().iterator();
+            cell = oldest.next().cell;
+            oldest.remove();
+        }
+
+        int cellX = (cell % CELL_COLUMNS) * CELL_WIDTH;
+        int cellY = (cell / CELL_COLUMNS) * CELL_HEIGHT;
+        Texture texture = buffer.getTexture().getSubTexture(cellX, cellY, bounds.getWidth(), bounds.getHeight());
+        Entry entry = new Entry(cell, texture, bounds);
+        entries.put(new Key(key.clone()), entry);
+
+        g.beginFrameBuffer(buffer, cellX, cellY, CELL_WIDTH, CELL_HEIGHT);
+        return entry;
+    }
+
+    /**
+     * Finish storing a image that was started with {@link #beginComposite(Graphics, int[], Rectangle)}.
+     *
+     * @param g the graphics used to render
+     */
+    void endComposite(@Nonnull Graphics g) {
+        g.endFrameBuffer();
+    }
+
+    /**
+     * The key of a stored image. The key consists of values that describe everything that changes the look of the
+     * avatar, such as the avatar itself, the frame and the clothes along with their colors.
+     */
+    private static final class Key {
+        /**
+         * The values that make up the key.
+         */
+        @Nonnull
+        private int[] values;
+
+        /**
+         * The pre-calculated hash code of the key.
+         */
+        private int hash;
+
+        /**
+         * Create a new key.
+         *
+         * @param values the values that make up the key
+         */
+        Key(@Nonnull int[] values) {
+            set(values);
+        }
+
+        /**
+         * Change the values of the key. This must not be used on keys that are stored in the cache.
+         *
+         * @param values the values that make up the key
+         */
+        void set(@Nonnull int[] values) {
+            this.values = values;
+            hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            return (obj instanceof Key) && (hash == ((Key) obj).hash) && Arrays.equals(values, ((Key) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A image that is stored in the cache.
+     */
+    static final class Entry {
+        /**
+         * The cell of the frame buffer the image is stored in.
+         */
+        private final int cell;
+
+        /**
+         * The texture that shows the image.
+         */
+        @Nonnull
+        private final Texture texture;
+
+        /**
+         * The offset of the image to the location the avatar is rendered at.
+         */
+        private final int offsetX;
+        private final int offsetY;
+
+        Entry(int cell, @Nonnull Texture texture, @Nonnull Rectangle bounds) {
+            this.cell = cell;
+            this.texture = texture;
+            offsetX = bounds.getX();
+            offsetY = bounds.getY();
+        }
+
+        /**
+         * Get the x coordinate in the cell the parts of the image need to be rendered at.
+         *
+         * @return the x coordinate of the anchor
+         */
+        @Contract(pure = true)
+        int getAnchorX() {
+            return -offsetX;
+        }
+
+        /**
+         * Get the y coordinate in the cell the parts of the image need to be rendered at.
+         *
+         * @return the y coordinate of the anchor
+         */
+        @Contract(pure = true)
+        int getAnchorY() {
+            return -offsetY;
+        }
+
+        /**
+         * Draw the image.
+         *
+         * @param g the graphics used to render
+         * @param x the x coordinate of the avatar on the screen
+         * @param y the y coordinate of the avatar on the screen
+         * @param scale the scaling value of the avatar
+         * @param color the light of the avatar
+         * @param effects the effects applied to the avatar
+         */
+        void render(@Nonnull Graphics g, int x, int y, float scale, @Nonnull Color color,
+                    @Nonnull TextureEffect... effects) {
+            int width = FastMath.floor(texture.getWidth() * scale);
+            int height = FastMath.floor(texture.getHeight() * scale);
+            g.drawTexture(texture, FastMath.floor(x + (offsetX * scale)), FastMath.floor(y + (offsetY * scale)),
+                    width, height, color, effects);
+        }
+    }
+}
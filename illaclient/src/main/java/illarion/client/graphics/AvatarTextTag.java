@@ -136,7 +136,7 @@ public final class AvatarTextTag {
     public void setCharNameColor(@Nonnull Color newColor) {
         if (newColor instanceof ImmutableColor) {
             charNameColor = newColor;
-        } else if ((charNameColor == null) || charNameColor.equals(newColor)) {
+        } else if ((charNameColor == null) || !charNameColor.equals(newColor)) {
             charNameColor = new ImmutableColor(newColor);
         }
     }
@@ -149,7 +149,7 @@ public final class AvatarTextTag {
     public void setHealthStateColor(@Nonnull Color newColor) {
         if (newColor instanceof ImmutableColor) {
             healthStateColor = newColor;
-        } else if ((healthStateColor == null) || healthStateColor.equals(newColor)) {
+        } else if ((healthStateColor == null) || !healthStateColor.equals(newColor)) {
             healthStateColor = new ImmutableColor(newColor);
         }
     }
@@ -198,11 +198,27 @@ public final class AvatarTextTag {
         dimensionsDirty = true;
     }
 
+    /**
+     * Update the location of the tag on the screen. The texts are only measured again in case they changed.
+     */
     private void calculateTextLocations() {
-        if (!dimensionsDirty || (displayCoordinate == null)) {
+        if (displayCoordinate == null) {
             return;
         }
 
+        if (dimensionsDirty) {
+            measureTexts();
+            dimensionsDirty = false;
+        }
+
+        displayRect.set(displayCoordinate.getX() - (getWidth() / 2),
+                        displayCoordinate.getY() - avatarHeight - getHeight() - 5, width, height);
+    }
+
+    /**
+     * Measure the texts of the tag and calculate the size of the tag and the offsets of the texts.
+     */
+    private void measureTexts() {
         int nameWidth;
         int nameHeight;
         if (charName == null) {
@@ -234,9 +250,6 @@ public final class AvatarTextTag {
 
         healthStateOffsetX = (width - healthWidth) / 2;
         healthStateOffsetY = nameHeight;
-
-        displayRect.set(displayCoordinate.getX() - (getWidth() / 2),
-                        displayCoordinate.getY() - avatarHeight - getHeight() - 5, width, height);
     }
 
     public boolean render(@Nonnull Graphics g) {
@@ -21,6 +21,7 @@ import illarion.common.types.DisplayCoordinate;
 import illarion.common.types.Rectangle;
 import org.illarion.engine.GameContainer;
 import org.illarion.engine.graphic.Graphics;
+import org.illarion.engine.graphic.InteractiveSceneElement;
 import org.illarion.engine.graphic.SceneEvent;
 import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
@@ -35,7 +36,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 /**
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
-public class ItemStack implements DisplayItem, List<Item> {
+public class ItemStack implements DisplayItem, InteractiveSceneElement, List<Item> {
     @Nonnull
     private static final Logger log = LoggerFactory.getLogger(ItemStack.class);
     @Nonnull
@@ -275,6 +276,12 @@ public class ItemStack implements DisplayItem, List<Item> {
         return false;
     }
 
+    @Nullable
+    @Override
+    public Rectangle getEventBounds() {
+        return interactiveRectangle;
+    }
+
     @Override
     public int size() {
         return items.size();
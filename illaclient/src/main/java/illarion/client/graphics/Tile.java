@@ -37,6 +37,7 @@ import org.illarion.engine.EngineException;
 import org.illarion.engine.GameContainer;
 import org.illarion.engine.graphic.Color;
 import org.illarion.engine.graphic.Graphics;
+import org.illarion.engine.graphic.InteractiveSceneElement;
 import org.illarion.engine.graphic.SceneEvent;
 import org.illarion.engine.graphic.effects.TextureEffect;
 import org.illarion.engine.graphic.effects.TileLightEffect;
@@ -58,7 +59,7 @@ import java.util.EnumSet;
  * @author Nop
  */
 @SuppressWarnings("ClassNamingConvention")
-public class Tile extends AbstractEntity<TileTemplate> implements Resource {
+public class Tile extends AbstractEntity<TileTemplate> implements Resource, InteractiveSceneElement {
     /**
      * The instance of the logging class for this class.
      */
@@ -272,6 +273,15 @@ public class Tile extends AbstractEntity<TileTemplate> implements Resource {
         return false;
     }
 
+    @Nullable
+    @Override
+    public Rectangle getEventBounds() {
+        if (!isVisible() && !parentTile.isAtPlayerLevel()) {
+            return null;
+        }
+        return getInteractionRect();
+    }
+
     @Override
     public void hide() {
         super.hide();
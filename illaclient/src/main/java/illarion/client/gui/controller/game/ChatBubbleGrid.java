@@ -0,0 +1,270 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.gui.controller.game;
+
+import illarion.common.util.FastMath;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * This grid places the chat bubbles above their characters. In case a bubble would cover a bubble placed before, it
+ * is moved up above this bubble. To find the colliding bubbles quickly, the placed bubbles are stored in a grid that
+ * covers the screen.
+ */
+final class ChatBubbleGrid {
+    /**
+     * The distance in pixels between the bubble and the avatar.
+     */
+    static final int AVATAR_SPACING = 5;
+
+    /**
+     * The distance in pixels between two stacked bubbles.
+     */
+    static final int BUBBLE_SPACING = 2;
+
+    /**
+     * The maximal amount of times a bubble is moved up to avoid other bubbles.
+     */
+    private static final int MAX_STACK_ATTEMPTS = 8;
+
+    /**
+     * The size of the cells of the grid in pixels.
+     */
+    private static final int CELL_SIZE = 64;
+
+    /**
+     * The width of the area covered by the grid.
+     */
+    private int areaWidth;
+
+    /**
+     * The height of the area covered by the grid.
+     */
+    private int areaHeight;
+
+    /**
+     * The amount of columns of the grid.
+     */
+    private int gridColumns;
+
+    /**
+     * The amount of rows of the grid.
+     */
+    private int gridRows;
+
+    /**
+     * The first node of each cell of the grid or {@code -1} in case the cell is empty.
+     */
+    @Nonnull
+    private int[] cellHeads;
+
+    /**
+     * The index of the placed bubble each node refers to.
+     */
+    @Nonnull
+    private int[] nodeBubbles;
+
+    /**
+     * The next node in the same cell or {@code -1} in case this is the last node.
+     */
+    @Nonnull
+    private int[] nodeNext;
+
+    /**
+     * The amount of nodes in use.
+     */
+    private int nodeCount;
+
+    /**
+     * The areas of the placed bubbles. Every bubble uses four values: x, y, width and height.
+     */
+    @Nonnull
+    private int[] placedAreas;
+
+    /**
+     * The amount of placed bubbles.
+     */
+    private int placedCount;
+
+    ChatBubbleGrid() {
+        cellHeads = new int[0];
+        nodeBubbles = new int[64];
+        nodeNext = new int[64];
+        placedAreas = new int[64];
+    }
+
+    /**
+     * Remove all placed bubbles.
+     *
+     * @param width the width of the area covered by the grid
+     * @param height the height of the area covered by the grid
+     * @param bubbleCount the amount of bubbles that are going to be placed
+     */
+    void reset(int width, int height, int bubbleCount) {
+        areaWidth = width;
+        areaHeight = height;
+        gridColumns = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+        gridRows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+        int cellCount = gridColumns * gridRows;
+        if (cellHeads.length < cellCount) {
+            cellHeads = new int[cellCount];
+        }
+        Arrays.fill(cellHeads, 0, cellCount, -1);
+        if (placedAreas.length < (bubbleCount * 4)) {
+            placedAreas = new int[bubbleCount * 4];
+        }
+        nodeCount = 0;
+        placedCount = 0;
+    }
+
+    /**
+     * Place a bubble above a character. The bubble is kept inside the area covered by the grid. Bubbles larger than
+     * this area are aligned with its top left corner.
+     *
+     * @param anchorX the horizontal center of the character
+     * @param anchorY the bottom of the character
+     * @param width the width of the bubble
+     * @param height the height of the bubble
+     * @return the index of the placed bubble
+     */
+    int place(int anchorX, int anchorY, int width, int height) {
+        int x = FastMath.clamp(anchorX - (width / 2), 0, Math.max(0, areaWidth - width));
+        int y = FastMath.clamp(anchorY - height - AVATAR_SPACING, 0, Math.max(0, areaHeight - height));
+        y = findFreeLocation(x, y, width, height);
+        return addToGrid(x, y, width, height);
+    }
+
+    /**
+     * Get the x coordinate of a placed bubble.
+     *
+     * @param index the index of the placed bubble
+     * @return the x coordinate
+     */
+    int getX(int index) {
+        return placedAreas[index * 4];
+    }
+
+    /**
+     * Get the y coordinate of a placed bubble.
+     *
+     * @param index the index of the placed bubble
+     * @return the y coordinate
+     */
+    int getY(int index) {
+        return placedAreas[(index * 4) + 1];
+    }
+
+    /**
+     * Find the vertical location of a bubble where it does not cover any bubble placed before.
+     *
+     * @param x the horizontal location of the bubble
+     * @param y the preferred vertical location of the bubble
+     * @param width the width of the bubble
+     * @param height the height of the bubble
+     * @return the vertical location of the bubble, in case no free location is found this is the preferred location
+     */
+    private int findFreeLocation(int x, int y, int width, int height) {
+        int currentY = y;
+        for (int i = 0; i < MAX_STACK_ATTEMPTS; i++) {
+            int collision = findCollision(x, currentY, width, height);
+            if (collision == -1) {
+                return currentY;
+            }
+            currentY = placedAreas[(collision * 4) + 1] - height - BUBBLE_SPACING;
+            if (currentY < 0) {
+                break;
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Find a placed bubble that intersects with a area.
+     *
+     * @param x the x coordinate of the area
+     * @param y the y coordinate of the area
+     * @param width the width of the area
+     * @param height the height of the area
+     * @return the index of the intersecting bubble or {@code -1} in case there is none
+     */
+    private int findCollision(int x, int y, int width, int height) {
+        int firstColumn = getColumn(x);
+        int lastColumn = getColumn((x + width) - 1);
+        int firstRow = getRow(y);
+        int lastRow = getRow((y + height) - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int node = cellHeads[(row * gridColumns) + column]; node != -1; node = nodeNext[node]) {
+                    int placed = nodeBubbles[node];
+                    int offset = placed * 4;
+                    if ((x < (placedAreas[offset] + placedAreas[offset + 2])) &&
+                            (placedAreas[offset] < (x + width)) &&
+                            (y < (placedAreas[offset + 1] + placedAreas[offset + 3])) &&
+                            (placedAreas[offset + 1] < (y + height))) {
+                        return placed;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a placed bubble to the grid.
+     *
+     * @param x the x coordinate of the bubble
+     * @param y the y coordinate of the bubble
+     * @param width the width of the bubble
+     * @param height the height of the bubble
+     * @return the index of the placed bubble
+     */
+    private int addToGrid(int x, int y, int width, int height) {
+        int placed = placedCount++;
+        int offset = placed * 4;
+        placedAreas[offset] = x;
+        placedAreas[offset + 1] = y;
+        placedAreas[offset + 2] = width;
+        placedAreas[offset + 3] = height;
+
+        int firstColumn = getColumn(x);
+        int lastColumn = getColumn((x + width) - 1);
+        int firstRow = getRow(y);
+        int lastRow = getRow((y + height) - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (nodeCount == nodeBubbles.length) {
+                    nodeBubbles = Arrays.copyOf(nodeBubbles, nodeCount * 2);
+                    nodeNext = Arrays.copyOf(nodeNext, nodeCount * 2);
+                }
+                int cell = (row * gridColumns) + column;
+                nodeBubbles[nodeCount] = placed;
+                nodeNext[nodeCount] = cellHeads[cell];
+                cellHeads[cell] = nodeCount;
+                nodeCount++;
+            }
+        }
+        return placed;
+    }
+
+    private int getColumn(int x) {
+        return FastMath.clamp(x / CELL_SIZE, 0, gridColumns - 1);
+    }
+
+    private int getRow(int y) {
+        return FastMath.clamp(y / CELL_SIZE, 0, gridRows - 1);
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.gui.controller.game;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.EffectBuilder;
+import de.lessvoid.nifty.controls.label.builder.LabelBuilder;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.elements.render.TextRenderer;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.SizeValue;
+import illarion.client.graphics.Avatar;
+import illarion.client.graphics.Camera;
+import illarion.client.graphics.FontLoader;
+import illarion.client.world.Char;
+import illarion.common.types.Rectangle;
+import org.illarion.engine.graphic.Font;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * This class manages the chat bubbles shown above the characters on the map. The bubble elements are kept in a pool
+ * and reused for the following bubbles. Bubbles that would cover each other are stacked above each other using a
+ * {@link ChatBubbleGrid}.
+ */
+final class ChatBubbleManager {
+    /**
+     * The maximal width of a bubble. Longer texts are wrapped.
+     */
+    private static final int MAX_BUBBLE_WIDTH = 300;
+
+    /**
+     * The time in milliseconds a bubble is shown at least.
+     */
+    private static final int BUBBLE_DURATION = 3500;
+
+    /**
+     * The time in milliseconds a bubble is shown longer for each character of the text.
+     */
+    private static final int BUBBLE_DURATION_PER_CHAR = 50;
+
+    /**
+     * The maximal amount of bubble elements kept for later use.
+     */
+    private static final int MAX_POOLED_BUBBLES = 32;
+
+    @Nonnull
+    private final Nifty nifty;
+
+    @Nonnull
+    private final Screen screen;
+
+    /**
+     * The layer that contains the bubbles.
+     */
+    @Nonnull
+    private final Element chatLayer;
+
+    /**
+     * The bubbles currently shown, ordered by the time they were shown.
+     */
+    @Nonnull
+    private final Map<Char, Bubble> activeBubbles;
+
+    /**
+     * The bubble elements that are currently not in use.
+     */
+    @Nonnull
+    private final Deque<Element> bubblePool;
+
+    /**
+     * The bubble elements that are currently fading out. They are put into the pool once they are hidden.
+     */
+    @Nonnull
+    private final Set<Element> releasingElements;
+
+    /**
+     * The grid used to place the bubbles.
+     */
+    @Nonnull
+    private final ChatBubbleGrid bubbleGrid;
+
+    /**
+     * The amount of bubble elements created.
+     */
+    private int createdBubbles;
+
+    /**
+     * This flag is set in case the bubbles have to be placed again.
+     */
+    private boolean placementDirty;
+
+    /**
+     * This flag is set in case the text of a bubble changed and the size of the bubbles has to be calculated again.
+     */
+    private boolean sizeDirty;
+
+    ChatBubbleManager(@Nonnull Nifty nifty, @Nonnull Screen screen, @Nonnull Element chatLayer) {
+        this.nifty = nifty;
+        this.screen = screen;
+        this.chatLayer = chatLayer;
+        activeBubbles = new LinkedHashMap<>();
+        bubblePool = new ArrayDeque<>();
+        releasingElements = new HashSet<>();
+        bubbleGrid = new ChatBubbleGrid();
+    }
+
+    /**
+     * Show a bubble above a character. A bubble that is already shown for the character is replaced.
+     *
+     * @param character the character who is talking
+     * @param message the message to display
+     * @param color the color to show the text in
+     */
+    void show(@Nonnull Char character, @Nonnull String message, @Nonnull Color color) {
+        Bubble bubble = activeBubbles.remove(character);
+        if (bubble == null) {
+            bubble = new Bubble(character, obtainElement());
+        }
+
+        Font font = FontLoader.getInstance().getFont(FontLoader.BUBBLE_FONT);
+        int textWidth = font.getWidth(message);
+        Element element = bubble.element;
+        element.setConstraintWidth(SizeValue.px(Math.min(textWidth, MAX_BUBBLE_WIDTH)));
+        TextRenderer renderer = element.getRenderer(TextRenderer.class);
+        if (renderer != null) {
+            renderer.setLineWrapping(textWidth > MAX_BUBBLE_WIDTH);
+            renderer.setText(message);
+            renderer.setColor(color);
+        }
+
+        bubble.expiryTime = System.currentTimeMillis() + BUBBLE_DURATION +
+                (message.length() * BUBBLE_DURATION_PER_CHAR);
+        bubble.updateAnchor();
+        activeBubbles.put(character, bubble);
+        sizeDirty = true;
+        placementDirty = true;
+    }
+
+    /**
+     * Remove the bubbles that expired and place the bubbles again in case any of them moved.
+     */
+    void update() {
+        long currentTime = System.currentTimeMillis();
+        Iterator<Bubble> bubbleItr = activeBubbles.values().iterator();
+        while (bubbleItr.hasNext()) {
+            Bubble bubble = bubbleItr.next();
+            if (currentTime >= bubble.expiryTime) {
+                bubbleItr.remove();
+                releaseElement(bubble.element);
+                placementDirty = true;
+            } else if (bubble.updateAnchor()) {
+                placementDirty = true;
+            }
+        }
+
+        if (placementDirty) {
+            placeBubbles();
+        }
+    }
+
+    /**
+     * Remove all bubbles and the elements kept for later use.
+     */
+    void clear() {
+        activeBubbles.values().forEach(bubble -> bubble.element.markForRemoval());
+        activeBubbles.clear();
+        releasingElements.forEach(Element::markForRemoval);
+        releasingElements.clear();
+        bubblePool.forEach(Element::markForRemoval);
+        bubblePool.clear();
+    }
+
+    /**
+     * Get a bubble element from the pool or create a new one. The element stays hidden until the bubble is placed,
+     * so a pooled element is not shown at its old location.
+     *
+     * @return the bubble element
+     */
+    @Nonnull
+    private Element obtainElement() {
+        Element element = bubblePool.poll();
+        if (element != null) {
+            return element;
+        }
+
+        LabelBuilder labelBuilder = new LabelBuilder();
+        labelBuilder.id("chatBubble-" + createdBubbles++);
+        labelBuilder.style("nifty-label");
+        labelBuilder.font(FontLoader.BUBBLE_FONT);
+        labelBuilder.text("");
+
+        EffectBuilder hideEffectBuilder = new EffectBuilder("fade");
+        hideEffectBuilder.length(200);
+        hideEffectBuilder.effectParameter("start", "FF");
+        hideEffectBuilder.effectParameter("end", "00");
+        labelBuilder.onHideEffect(hideEffectBuilder);
+
+        labelBuilder.visible(false);
+
+        return labelBuilder.build(nifty, screen, chatLayer);
+    }
+
+    /**
+     * Fade out a bubble element and put it into the pool once it is hidden.
+     *
+     * @param element the bubble element
+     */
+    private void releaseElement(@Nonnull Element element) {
+        releasingElements.add(element);
+        element.hide(() -> {
+            if (!releasingElements.remove(element)) {
+                // the element was removed by clear() meanwhile
+                return;
+            }
+            if (bubblePool.size() < MAX_POOLED_BUBBLES) {
+                bubblePool.push(element);
+            } else {
+                nifty.removeElement(screen, element);
+            }
+        });
+    }
+
+    /**
+     * Place all bubbles above their characters. In case a bubble would cover a bubble placed before, it is moved up
+     * above this bubble. Bubbles are shown once they are placed for the first time.
+     */
+    private void placeBubbles() {
+        placementDirty = false;
+        if (sizeDirty) {
+            sizeDirty = false;
+            chatLayer.layoutElements();
+        }
+
+        bubbleGrid.reset(chatLayer.getWidth(), chatLayer.getHeight(), activeBubbles.size());
+
+        boolean layoutRequired = false;
+        for (Bubble bubble : activeBubbles.values()) {
+            if (!bubble.hasAnchor) {
+                continue;
+            }
+            int placed = bubbleGrid.place(bubble.anchorX, bubble.anchorY, bubble.element.getWidth(),
+                                          bubble.element.getHeight());
+            if (bubble.setLocation(bubbleGrid.getX(placed), bubbleGrid.getY(placed))) {
+                layoutRequired = true;
+            }
+        }
+        if (layoutRequired) {
+            chatLayer.layoutElements();
+        }
+        for (Bubble bubble : activeBubbles.values()) {
+            if (bubble.hasAnchor && !bubble.element.isVisible()) {
+                bubble.element.show();
+            }
+        }
+    }
+
+    /**
+     * A single bubble that is shown above a character.
+     */
+    private static final class Bubble {
+        /**
+         * The character the bubble belongs to.
+         */
+        @Nonnull
+        private final Char character;
+
+        /**
+         * The element that displays the bubble.
+         */
+        @Nonnull
+        private final Element element;
+
+        /**
+         * The time the bubble starts to fade out.
+         */
+        private long expiryTime;
+
+        /**
+         * This flag is {@code true} once the location of the character on the screen is known.
+         */
+        private boolean hasAnchor;
+
+        /**
+         * The horizontal center of the character on the screen.
+         */
+        private int anchorX;
+
+        /**
+         * The bottom of the character on the screen.
+         */
+        private int anchorY;
+
+        /**
+         * The x coordinate of the bubble.
+         */
+        private int x;
+
+        /**
+         * The y coordinate of the bubble.
+         */
+        private int y;
+
+        Bubble(@Nonnull Char character, @Nonnull Element element) {
+            this.character = character;
+            this.element = element;
+            x = Integer.MIN_VALUE;
+            y = Integer.MIN_VALUE;
+        }
+
+        /**
+         * Update the location of the character on the screen.
+         *
+         * @return {@code true} in case the character moved
+         */
+        boolean updateAnchor() {
+            Avatar charAvatar = character.getAvatar();
+            if (charAvatar == null) {
+                return false;
+            }
+
+            Rectangle charDisplayRect = charAvatar.getDisplayRect();
+            if (charDisplayRect.isEmpty()) {
+                return false;
+            }
+
+            int newAnchorX = charDisplayRect.getCenterX() - Camera.getInstance().getViewportOffsetX();
+            int newAnchorY = charDisplayRect.getBottom() - Camera.getInstance().getViewportOffsetY();
+            if (hasAnchor && (newAnchorX == anchorX) && (newAnchorY == anchorY)) {
+                return false;
+            }
+            hasAnchor = true;
+            anchorX = newAnchorX;
+            anchorY = newAnchorY;
+            return true;
+        }
+
+        /**
+         * Move the bubble to a new location.
+         *
+         * @param newX the new x coordinate
+         * @param newY the new y coordinate
+         * @return {@code true} in case the location changed
+         */
+        boolean setLocation(int newX, int newY) {
+            if ((newX == x) && (newY == y)) {
+                return false;
+            }
+            x = newX;
+            y = newY;
+            element.setConstraintX(SizeValue.px(newX));
+            element.setConstraintY(SizeValue.px(newY));
+            return true;
+        }
+    }
+}
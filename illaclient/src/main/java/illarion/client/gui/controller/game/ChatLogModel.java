@@ -0,0 +1,313 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.gui.controller.game;
+
+import de.lessvoid.nifty.tools.Color;
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * This is the model of the chat log. It stores the latest messages in a ring buffer and splits them into the rows
+ * shown in the log. Messages are only split into rows once they are shown for the first time. Until then they are
+ * counted as a single row.
+ */
+final class ChatLogModel {
+    /**
+     * The messages stored in the log. This array is used as ring buffer.
+     */
+    @Nonnull
+    private final Entry[] entries;
+
+    /**
+     * The index of the oldest message in the ring buffer.
+     */
+    private int head;
+
+    /**
+     * The amount of messages stored.
+     */
+    private int size;
+
+    /**
+     * The ID assigned to the next message.
+     */
+    private long nextId;
+
+    /**
+     * The amount of rows of all messages.
+     */
+    private int rowCount;
+
+    /**
+     * Create a new chat log model.
+     *
+     * @param capacity the maximal amount of messages stored
+     */
+    ChatLogModel(int capacity) {
+        entries = new Entry[capacity];
+    }
+
+    /**
+     * Add a message to the log. In case the log is full, the oldest message is removed.
+     *
+     * @param text the text of the message
+     * @param color the color of the message
+     */
+    void add(@Nonnull String text, @Nonnull Color color) {
+        if (size == entries.length) {
+            rowCount -= entries[head].getRowCount();
+            entries[head] = null;
+            head = (head + 1) % entries.length;
+            size--;
+        }
+        Entry entry = new Entry(nextId++, text, color);
+        entries[(head + size) % entries.length] = entry;
+        size++;
+        rowCount += entry.getRowCount();
+    }
+
+    /**
+     * Remove all messages from the log.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            entries[(head + i) % entries.length] = null;
+        }
+        head = 0;
+        size = 0;
+        rowCount = 0;
+    }
+
+    /**
+     * Get the amount of messages stored.
+     *
+     * @return the amount of messages
+     */
+    @Contract(pure = true)
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the total amount of rows of all messages. Messages that were not split into rows yet are counted as one
+     * row.
+     *
+     * @return the amount of rows
+     */
+    @Contract(pure = true)
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get a message.
+     *
+     * @param index the index of the message, {@code 0} is the oldest message
+     * @return the message
+     */
+    @Nonnull
+    @Contract(pure = true)
+    Entry get(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return entries[(head + index) % entries.length];
+    }
+
+    /**
+     * Get a message by its ID.
+     *
+     * @param id the ID of the message
+     * @return the message or {@code null} in case the message is not stored anymore
+     */
+    @Nullable
+    @Contract(pure = true)
+    Entry getById(long id) {
+        if (size == 0) {
+            return null;
+        }
+        long index = id - get(0).id;
+        if ((index < 0) || (index >= size)) {
+            return null;
+        }
+        return get((int) index);
+    }
+
+    /**
+     * Split a message into the rows that fit into the log. Nothing is done in case the message is already split for
+     * the width.
+     *
+     * @param entry the message
+     * @param width the width of a row in pixels
+     * @param measure the function that measures the width of a text in pixels
+     */
+    void wrap(@Nonnull Entry entry, int width, @Nonnull ToIntFunction<String> measure) {
+        if ((entry.rows != null) && (entry.wrapWidth == width)) {
+            return;
+        }
+        List<String> rows = new ArrayList<>();
+        wrapText(entry.text, width, measure, rows);
+        if (entry.translation != null) {
+            wrapText(entry.translation, width, measure, rows);
+        }
+
+        int oldRowCount = entry.getRowCount();
+        entry.rows = rows.toArray(new String[rows.size()]);
+        entry.wrapWidth = width;
+        rowCount += entry.getRowCount() - oldRowCount;
+    }
+
+    /**
+     * Set the translation shown below a message. The message has to be split into rows again after this.
+     *
+     * @param entry the message
+     * @param translation the translation or {@code null} to remove the translation
+     */
+    void setTranslation(@Nonnull Entry entry, @Nullable String translation) {
+        entry.translation = translation;
+        entry.wrapWidth = -1;
+    }
+
+    /**
+     * Split a text into rows using a greedy word wrap. Words that are longer than a row are split.
+     *
+     * @param text the text
+     * @param width the width of a row in pixels
+     * @param measure the function that measures the width of a text in pixels
+     * @param rows the list that receives the rows
+     */
+    private static void wrapText(@Nonnull String text, int width, @Nonnull ToIntFunction<String> measure,
+                                 @Nonnull List<String> rows) {
+        int length = text.length();
+        int rowStart = 0;
+        while (rowStart < length) {
+            int rowEnd = rowStart;
+            int breakIndex = -1;
+            while (rowEnd < length) {
+                int wordEnd = text.indexOf(' ', rowEnd + 1);
+                if (wordEnd == -1) {
+                    wordEnd = length;
+                }
+                if (measure.applyAsInt(text.substring(rowStart, wordEnd)) > width) {
+                    break;
+                }
+                rowEnd = wordEnd;
+                breakIndex = wordEnd;
+            }
+
+            if (breakIndex == -1) {
+                // the first word does not fit into the row, so it is split
+                breakIndex = rowStart + 1;
+                while ((breakIndex < length) &&
+                        (measure.applyAsInt(text.substring(rowStart, breakIndex + 1)) <= width)) {
+                    breakIndex++;
+                }
+            }
+            rows.add(text.substring(rowStart, breakIndex));
+
+            rowStart = breakIndex;
+            while ((rowStart < length) && (text.charAt(rowStart) == ' ')) {
+                rowStart++;
+            }
+        }
+        if (length == 0) {
+            rows.add("");
+        }
+    }
+
+    /**
+     * A single message stored in the log.
+     */
+    static final class Entry {
+        /**
+         * The ID of the message.
+         */
+        final long id;
+
+        /**
+         * The text of the message.
+         */
+        @Nonnull
+        final String text;
+
+        /**
+         * The color of the message.
+         */
+        @Nonnull
+        final Color color;
+
+        /**
+         * The translation of the message shown below the message.
+         */
+        @Nullable
+        private String translation;
+
+        /**
+         * The rows of the message or {@code null} in case the message was not split yet.
+         */
+        @Nullable
+        private String[] rows;
+
+        /**
+         * The width the rows were created for.
+         */
+        private int wrapWidth;
+
+        Entry(long id, @Nonnull String text, @Nonnull Color color) {
+            this.id = id;
+            this.text = text;
+            this.color = color;
+            wrapWidth = -1;
+        }
+
+        /**
+         * Check if a translation is shown for this message.
+         *
+         * @return {@code true} in case there is a translation
+         */
+        @Contract(pure = true)
+        boolean hasTranslation() {
+            return translation != null;
+        }
+
+        /**
+         * Get the amount of rows of the message.
+         *
+         * @return the amount of rows, {@code 1} in case the message was not split yet
+         */
+        @Contract(pure = true)
+        int getRowCount() {
+            return (rows == null) ? 1 : rows.length;
+        }
+
+        /**
+         * Get the text of a row of the message.
+         *
+         * @param row the index of the row
+         * @return the text of the row
+         */
+        @Nonnull
+        @Contract(pure = true)
+        String getRow(int row) {
+            return (rows == null) ? text : rows[row];
+        }
+    }
+}
@@ -17,10 +17,8 @@ package illarion.client.gui.controller.game;
 
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.NiftyEventSubscriber;
-import de.lessvoid.nifty.builder.EffectBuilder;
 import de.lessvoid.nifty.builder.ElementBuilder.Align;
 import de.lessvoid.nifty.controls.ButtonClickedEvent;
-import de.lessvoid.nifty.controls.Label;
 import de.lessvoid.nifty.controls.ScrollPanel;
 import de.lessvoid.nifty.controls.ScrollPanel.AutoScroll;
 import de.lessvoid.nifty.controls.TextField;
@@ -33,12 +31,10 @@ import de.lessvoid.nifty.input.NiftyStandardInputEvent;
 import de.lessvoid.nifty.screen.KeyInputHandler;
 import de.lessvoid.nifty.screen.Screen;
 import de.lessvoid.nifty.screen.ScreenController;
+import de.lessvoid.nifty.spi.render.RenderFont;
 import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.SizeValue;
 import illarion.client.IllaClient;
-import illarion.client.graphics.Avatar;
-import illarion.client.graphics.Camera;
-import illarion.client.graphics.FontLoader;
 import illarion.client.gui.ChatGui;
 import illarion.client.net.client.IntroduceCmd;
 import illarion.client.net.client.SayCmd;
@@ -48,20 +44,12 @@ import illarion.client.util.UpdateTask;
 import illarion.client.util.translation.Translator;
 import illarion.client.world.Char;
 import illarion.client.world.World;
-import illarion.common.types.Rectangle;
-import illarion.common.util.FastMath;
 import org.bushe.swing.event.annotation.AnnotationProcessor;
 import org.illarion.engine.GameContainer;
-import org.illarion.engine.graphic.Font;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -192,7 +180,9 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
 
         @Override
         public void onUpdateGame(@Nonnull GameContainer container, int delta) {
-            addMessageBubble(targetChar, text, color);
+            if ((targetChar != null) && (chatBubbles != null)) {
+                chatBubbles.show(targetChar, text, color);
+            }
         }
     }
 
@@ -214,6 +204,23 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
     @Nonnull
     private static final SizeValue CHAT_COLLAPSED_HEIGHT = SizeValue.px(170);
 
+    /**
+     * The maximal amount of messages stored in the Chat log.
+     */
+    private static final int CHAT_LOG_CAPACITY = 400;
+
+    /**
+     * The maximal amount of times the rows of the Chat log are displayed again during one update because splitting
+     * the visible messages changed the height of the log.
+     */
+    private static final int MAX_CHAT_LOG_LAYOUT_PASSES = 4;
+
+    /**
+     * The prefix of the IDs of the elements that display the rows of the Chat log.
+     */
+    @Nonnull
+    private static final String CHAT_LOG_ROW_PREFIX = "chatLog#row-";
+
     /**
      * The log that is used to display the text.
      */
@@ -232,6 +239,12 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
     @Nullable
     private Element chatLayer;
 
+    /**
+     * The manager of the Chat bubbles shown on the map.
+     */
+    @Nullable
+    private ChatBubbleManager chatBubbles;
+
     /**
      * The screen that displays the GUI.
      */
@@ -245,10 +258,44 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
     private Nifty nifty;
 
     /**
-     * This flag shows of the Chat log is dirty and needs to be cleaned up.
+     * This flag shows of the Chat log is dirty and needs to be displayed again.
      */
     private boolean dirty;
 
+    /**
+     * This flag is set in case new messages were added to the Chat log and the log needs to scroll to the bottom.
+     */
+    private boolean scrollToBottom;
+
+    /**
+     * The messages of the Chat log.
+     */
+    @Nonnull
+    private final ChatLogModel chatLogModel = new ChatLogModel(CHAT_LOG_CAPACITY);
+
+    /**
+     * The elements that display the rows of the Chat log. Only the rows that are visible are backed by a element,
+     * the elements are reused once the log is scrolled.
+     */
+    @Nonnull
+    private final List<Element> chatLogRows = new ArrayList<>();
+
+    /**
+     * The IDs of the messages displayed by the row elements or {@code -1} for unused elements.
+     */
+    @Nonnull
+    private long[] chatLogRowEntries = new long[0];
+
+    /**
+     * The scroll position the rows of the Chat log were last displayed for.
+     */
+    private float chatLogScrollPos = -1.f;
+
+    /**
+     * The height of the Chat log the rows were last displayed for.
+     */
+    private int chatLogViewHeight = -1;
+
     /**
      * The pattern used to detect the introduce command.
      */
@@ -334,6 +381,9 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
         chatMsg.getElement().addInputHandler(this);
 
         chatLayer = screen.findElementById("chatLayer");
+        if (chatLayer != null) {
+            chatBubbles = new ChatBubbleManager(nifty, screen, chatLayer);
+        }
     }
 
     /**
@@ -444,84 +494,178 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
 
     @Override
     public void update(GameContainer container, int delta) {
-        cleanupChatLog();
-        updateChatBubbleLocations();
+        updateChatLog();
+        if (chatBubbles != null) {
+            chatBubbles.update();
+        }
     }
 
     private void clearChatLog() {
-        if (chatLog == null) {
-            return;
-        }
-        Element chatLogElement = chatLog.getElement();
-        if (chatLogElement != null) {
-            Element contentPane = chatLogElement.findElementById("chatLog");
-            if (contentPane != null) {
-                int entryCount = contentPane.getChildren().size();
-                for (int i = 0; i < entryCount; i++) {
-                    contentPane.getChildren().get(i).markForRemoval();
-                }
-            }
-        }
+        chatLogModel.clear();
+        chatLogRows.forEach(Element::markForRemoval);
+        chatLogRows.clear();
+        chatLogRowEntries = new long[0];
+        chatLogScrollPos = -1.f;
+        chatLogViewHeight = -1;
     }
 
     private void clearChatBubbles() {
-        activeBubbles.values().forEach(Element::markForRemoval);
-        activeBubbles.clear();
+        if (chatBubbles != null) {
+            chatBubbles.clear();
+        }
     }
 
     /**
-     * Remove all entries that do not belong in the list anymore from it. Also update the layout and the scrolling
-     * position.
+     * Display the rows of the Chat log that are visible. This is done in case the messages in the log changed or the
+     * log was scrolled. Messages are split into rows once they become visible. As this changes the height of the
+     * log, the rows are displayed again until the height stays the same. In case the height still changes after
+     * {@link #MAX_CHAT_LOG_LAYOUT_PASSES} passes, the log is updated again during the next update.
      */
-    private void cleanupChatLog() {
-        if (!dirty || (chatLog == null)) {
+    private void updateChatLog() {
+        if (chatLog == null) {
+            return;
+        }
+        Element contentPane = chatLog.getElement().findElementById("chatLog");
+        if (contentPane == null) {
             return;
         }
 
+        float scrollPos = chatLog.getVerticalPos();
+        int viewHeight = chatLog.getElement().getHeight();
+        if (!dirty && (scrollPos == chatLogScrollPos) && (viewHeight == chatLogViewHeight)) {
+            return;
+        }
         dirty = false;
 
-        Element contentPane = chatLog.getElement().findElementById("chatLog");
-
-        int entryCount = contentPane.getChildren().size();
-        for (int i = 0; i < (entryCount - 400); i++) {
-            Element elementToRemove = contentPane.getChildren().get(i);
-            if (i == (entryCount - 401)) {
-                elementToRemove.markForRemoval(() -> chatLog.getElement().layoutElements());
-            } else {
-                elementToRemove.markForRemoval();
+        RenderFont font = getChatLogFont(contentPane);
+        if (font == null) {
+            return;
+        }
+        int lineHeight = Math.max(1, font.getHeight());
+
+        int rowCount;
+        int layoutPasses = 0;
+        do {
+            rowCount = chatLogModel.getRowCount();
+            contentPane.setConstraintHeight(SizeValue.px(Math.max(1, rowCount) * lineHeight));
+            chatLog.getElement().layoutElements();
+            if (scrollToBottom) {
+                chatLog.setAutoScroll(AutoScroll.BOTTOM);
+                chatLog.setAutoScroll(AutoScroll.OFF);
             }
+            scrollPos = chatLog.getVerticalPos();
+            showChatLogRows(contentPane, font, scrollPos, viewHeight, lineHeight);
+            layoutPasses++;
+        } while ((rowCount != chatLogModel.getRowCount()) && (layoutPasses < MAX_CHAT_LOG_LAYOUT_PASSES));
+        if (rowCount != chatLogModel.getRowCount()) {
+            dirty = true;
         }
+        contentPane.layoutElements();
 
-        contentPane.setConstraintHeight(SizeValue.def());
-        chatLog.getElement().layoutElements();
-        chatLog.setAutoScroll(AutoScroll.BOTTOM);
-        chatLog.setAutoScroll(AutoScroll.OFF);
+        scrollToBottom = false;
+        chatLogScrollPos = scrollPos;
+        chatLogViewHeight = viewHeight;
     }
 
-    private void updateChatBubbleLocations() {
-        if (chatLayer == null) {
+    /**
+     * Get the font used to display the Chat log.
+     *
+     * @param contentPane the panel that contains the rows of the log
+     * @return the font or {@code null} in case it is not available
+     */
+    @Nullable
+    private RenderFont getChatLogFont(@Nonnull Element contentPane) {
+        createChatLogRows(contentPane, 1);
+        TextRenderer renderer = chatLogRows.get(0).getRenderer(TextRenderer.class);
+        return (renderer == null) ? null : renderer.getFont();
+    }
+
+    /**
+     * Make sure that at least the specified amount of row elements exists.
+     *
+     * @param contentPane the panel that contains the rows of the log
+     * @param count the amount of row elements required
+     */
+    private void createChatLogRows(@Nonnull Element contentPane, int count) {
+        if (chatLogRows.size() >= count) {
             return;
         }
+        int oldCount = chatLogRows.size();
+        chatLogRowEntries = Arrays.copyOf(chatLogRowEntries, count);
+        Arrays.fill(chatLogRowEntries, oldCount, count, -1L);
+
+        for (int i = oldCount; i < count; i++) {
+            LabelBuilder label = new LabelBuilder();
+            label.id(CHAT_LOG_ROW_PREFIX + i);
+            label.font("chatFont");
+            label.text("");
+            label.textHAlign(Align.Left);
+            label.wrap(false);
+            label.width(contentPane.getConstraintWidth().toString());
+            label.visibleToMouse(true);
+            label.visible(false);
+            Element row = label.build(nifty, screen, contentPane);
+            row.setConstraintX(SizeValue.px(0));
+            chatLogRows.add(row);
+        }
+    }
 
-        boolean layoutRequired = false;
-        for (Entry<Char, Element> charBubbleEntry : activeBubbles.entrySet()) {
-            if (updateChatBubbleLocation(charBubbleEntry.getKey(), charBubbleEntry.getValue())) {
-                layoutRequired = true;
+    /**
+     * Assign the visible rows of the Chat log to the row elements.
+     *
+     * @param contentPane the panel that contains the rows of the log
+     * @param font the font used to display the log
+     * @param scrollPos the vertical scroll position of the log
+     * @param viewHeight the height of the visible area of the log
+     * @param lineHeight the height of a single row
+     */
+    private void showChatLogRows(@Nonnull Element contentPane, @Nonnull RenderFont font, float scrollPos,
+                                 int viewHeight, int lineHeight) {
+        int firstRow = Math.max(0, (int) (scrollPos / lineHeight));
+        int visibleRows = (viewHeight / lineHeight) + 2;
+        createChatLogRows(contentPane, visibleRows);
+
+        int entryCount = chatLogModel.size();
+        int entryIndex = 0;
+        int entryFirstRow = 0;
+        while ((entryIndex < entryCount) &&
+                ((entryFirstRow + chatLogModel.get(entryIndex).getRowCount()) <= firstRow)) {
+            entryFirstRow += chatLogModel.get(entryIndex).getRowCount();
+            entryIndex++;
+        }
+
+        int rowWidth = contentPane.getWidth();
+        int rowInEntry = firstRow - entryFirstRow;
+        int rowIndex = 0;
+        while ((rowIndex < visibleRows) && (entryIndex < entryCount)) {
+            ChatLogModel.Entry entry = chatLogModel.get(entryIndex);
+            chatLogModel.wrap(entry, rowWidth, font::getWidth);
+            if (rowInEntry >= entry.getRowCount()) {
+                entryIndex++;
+                rowInEntry = 0;
+                continue;
             }
+
+            Element row = chatLogRows.get(rowIndex);
+            TextRenderer renderer = row.getRenderer(TextRenderer.class);
+            if (renderer != null) {
+                renderer.setText(entry.getRow(rowInEntry));
+                renderer.setColor(entry.color);
+            }
+            row.setConstraintY(SizeValue.px((firstRow + rowIndex) * lineHeight));
+            row.setVisible(true);
+            chatLogRowEntries[rowIndex] = entry.id;
+
+            rowIndex++;
+            rowInEntry++;
         }
-        if (cleanOverlappingBubbles()) {
-            layoutRequired = true;
-        }
-        if (layoutRequired) {
-            chatLayer.layoutElements();
+
+        for (; rowIndex < chatLogRows.size(); rowIndex++) {
+            chatLogRows.get(rowIndex).setVisible(false);
+            chatLogRowEntries[rowIndex] = -1L;
         }
     }
 
-    @Nonnull
-    private final AtomicLong chatLineCounter = new AtomicLong(0L);
-
-    private SizeValue emptyLineHeight;
-
     /**
      * Add a entry to the Chat log.
      *
@@ -529,226 +673,46 @@ public final class GUIChatHandler implements ChatGui, KeyInputHandler, ScreenCon
      * @param color the color of the text to add
      */
     private void addChatLogText(@Nonnull String text, @Nonnull Color color) {
-        if (chatLog == null) {
-            return;
-        }
-        Element contentPane = chatLog.getElement().findElementById("chatLog");
-
-        long index = chatLineCounter.getAndIncrement();
-
-        LabelBuilder label = new LabelBuilder();
-        label.id("chatLog#chatLine-" + index);
-        label.font("chatFont");
-        label.text(text);
-        label.color(color);
-        label.textHAlign(Align.Left);
-        label.wrap(true);
-        label.width(contentPane.getConstraintWidth().toString());
-        label.visibleToMouse(true);
-        label.build(nifty, screen, contentPane);
-
-        LabelBuilder translationLabel = new LabelBuilder();
-        translationLabel.id("chatLog#transChatLine-" + index);
-        translationLabel.font("chatFont");
-        translationLabel.text("");
-        translationLabel.color(color);
-        translationLabel.textHAlign(Align.Left);
-        translationLabel.wrap(true);
-        translationLabel.visible(false);
-        if (emptyLineHeight != null) {
-            translationLabel.marginTop(emptyLineHeight.toString());
-        }
-        translationLabel.width(contentPane.getConstraintWidth().toString());
-        Element translationElement = translationLabel.build(nifty, screen, contentPane);
-
-        if (emptyLineHeight == null) {
-            TextRenderer renderer = translationElement.getRenderer(TextRenderer.class);
-            if (renderer != null) {
-                int height = renderer.getTextHeight();
-                emptyLineHeight = SizeValue.px(-height);
-                translationElement.setMarginTop(emptyLineHeight);
-            }
-        }
-
+        chatLogModel.add(text, color);
         dirty = true;
+        scrollToBottom = true;
     }
 
     @Nonnull
     private final Translator translator = new Translator();
 
-    @NiftyEventSubscriber(pattern = "chatLog#chatLine-[0-9]+")
+    @NiftyEventSubscriber(pattern = CHAT_LOG_ROW_PREFIX + "[0-9]+")
     public void onChatLineDoubleClick(@Nonnull String id, @Nonnull NiftyMousePrimaryMultiClickedEvent event) {
         if ((screen == null) || !translator.isServiceEnabled() || (chatLog == null) || (event.getClickCount() != 2)) {
             return;
         }
 
-        Element panel = chatLog.getElement().findElementById("chatLog");
-        if (panel == null) {
+        int rowIndex;
+        try {
+            rowIndex = Integer.parseInt(id.substring(CHAT_LOG_ROW_PREFIX.length()));
+        } catch (@Nonnull NumberFormatException e) {
             return;
         }
-
-        String strId = id.substring("chatLog#chatLine-".length());
-        String translateId = "chatLog#transChatLine-" + strId;
-
-        Element sourceElement = panel.findElementById(id);
-        Label sourceLabel = (sourceElement != null) ? sourceElement.getNiftyControl(Label.class) : null;
-
-        Element translationElement = panel.findElementById(translateId);
-        Label translationLabel = (translationElement != null) ? translationElement.getNiftyControl(Label.class) :
-                null;
-
-        if ((sourceLabel == null) || (sourceLabel.getText() == null) || (translationLabel == null)) {
+        if ((rowIndex < 0) || (rowIndex >= chatLogRowEntries.length)) {
             return;
         }
 
-        if ((translationLabel.getText() == null) || translationLabel.getText().isEmpty()) {
-            translationElement.setMarginTop(SizeValue.def());
-            translationElement.setConstraintHeight(SizeValue.def());
-            translationLabel.setText(Lang.getMsg("chat.translating"));
-            translationElement.setVisible(true);
-            sourceElement.setVisibleToMouseEvents(false);
-            dirty = true;
-            translator.translate(sourceLabel.getText(),
-                    translation -> World.getUpdateTaskManager().addTask((container, delta) -> {
-                        if (translation == null) {
-                            translationLabel.setText("");
-                            translationElement.setVisible(false);
-                            if (emptyLineHeight != null) {
-                                translationElement.setMarginTop(emptyLineHeight);
-                            }
-                        } else {
-                            translationElement.setMarginTop(SizeValue.def());
-                            translationLabel.setText(Lang.getMsg("chat.translation.header") + ' ' + translation);
-                }
-                        dirty = true;
-                    }));
-        }
-    }
-
-    private final Map<Char, Element> activeBubbles = new HashMap<>();
-
-    /**
-     * The the Chat bubble of a character talking on the map.
-     *
-     * @param character the character who is talking
-     * @param message the message to display
-     * @param color the color to show the text in
-     */
-    private void addMessageBubble(@Nullable Char character, @Nonnull String message, @Nonnull Color color) {
-        if ((character == null) || (chatLayer == null)) {
+        ChatLogModel.Entry entry = chatLogModel.getById(chatLogRowEntries[rowIndex]);
+        if ((entry == null) || entry.hasTranslation()) {
             return;
         }
 
-        @Nullable Element oldBubble = activeBubbles.remove(character);
-        if (oldBubble != null) {
-            nifty.removeElement(screen, oldBubble);
-        }
-
-        LabelBuilder labelBuilder = new LabelBuilder();
-        labelBuilder.style("nifty-label");
-
-        Font font = FontLoader.getInstance().getFont(FontLoader.BUBBLE_FONT);
-        int textWidth = font.getWidth(message);
-        if (textWidth > 300) {
-            labelBuilder.width("300px");
-            labelBuilder.wrap(true);
-        } else {
-            labelBuilder.width(SizeValue.px(textWidth).toString());
-            labelBuilder.wrap(false);
-        }
-        labelBuilder.font(FontLoader.BUBBLE_FONT);
-        labelBuilder.color(color);
-        labelBuilder.text(message);
-
-        EffectBuilder hideEffectBuilder = new EffectBuilder("fade");
-        hideEffectBuilder.startDelay(3500 + (message.length() * 50));
-        hideEffectBuilder.length(200);
-        hideEffectBuilder.effectParameter("start", "FF");
-        hideEffectBuilder.effectParameter("end", "00");
-
-        labelBuilder.onHideEffect(hideEffectBuilder);
-
-        Element bubble = labelBuilder.build(nifty, screen, chatLayer);
-
-        if (updateChatBubbleLocation(character, bubble)) {
-            chatLayer.layoutElements();
-        }
-
-        bubble.hide(() -> {
-            nifty.removeElement(screen, bubble);
-            activeBubbles.remove(character);
-        });
-        activeBubbles.put(character, bubble);
-    }
-
-    private boolean updateChatBubbleLocation(@Nonnull Char character, @Nonnull Element bubble) {
-        if (chatLayer == null) {
-            return false;
-        }
-        Avatar charAvatar = character.getAvatar();
-        if (charAvatar == null) {
-            return false;
-        }
-
-        Rectangle charDisplayRect = charAvatar.getDisplayRect();
-        if (charDisplayRect.isEmpty()) {
-            return false;
-        }
-
-        int charDisplayCenterX = charDisplayRect.getCenterX() - Camera.getInstance().getViewportOffsetX();
-        int charDisplayY = charDisplayRect.getBottom() - Camera.getInstance().getViewportOffsetY();
-
-        int bubblePosX = FastMath
-                .clamp(charDisplayCenterX - (bubble.getWidth() / 2), 0, chatLayer.getWidth() - bubble.getWidth());
-        int bubblePosY = FastMath
-                .clamp(charDisplayY - bubble.getHeight() - 5, 0, chatLayer.getHeight() - bubble.getHeight());
-
-        SizeValue newConstraintX = SizeValue.px(bubblePosX);
-        SizeValue newConstraintY = SizeValue.px(bubblePosY);
-        if (!bubble.getConstraintX().equals(newConstraintX) || !bubble.getConstraintY().equals(newConstraintY)) {
-            bubble.setConstraintX(newConstraintX);
-            bubble.setConstraintY(newConstraintY);
-            return true;
-        }
-        return false;
-    }
-
-    private boolean cleanOverlappingBubbles() {
-        if ((chatLayer == null) || (nifty == null) || (screen == null)) {
-            return false;
-        }
-
-        int elementCount = chatLayer.getChildrenCount();
-        if (elementCount <= 1) {
-            return false;
-        }
-
-        Collection<Element> elementsToRemove = new ArrayList<>();
-        Collection<Rectangle> coveredAreas = new ArrayList<>();
-        for (int i = elementCount - 1; i >= 0; i--) {
-            Element child = chatLayer.getChildren().get(i);
-            Rectangle elementArea = new Rectangle(child.getConstraintX().getValueAsInt(1.f),
-                                                  child.getConstraintY().getValueAsInt(1.f), child.getWidth(),
-                                                  child.getHeight());
-
-            boolean childWillBeRemoved = false;
-            for (@Nonnull Rectangle coveredArea : coveredAreas) {
-                if (coveredArea.intersects(elementArea)) {
-                    elementsToRemove.add(child);
-                    childWillBeRemoved = true;
-                    break;
-                }
-            }
-
-            if (!childWillBeRemoved) {
-                coveredAreas.add(elementArea);
-            }
-        }
-
-        for (@Nonnull Element elementToRemove : elementsToRemove) {
-            nifty.removeElement(screen, elementToRemove);
-        }
-
-        return !elementsToRemove.isEmpty();
+        chatLogModel.setTranslation(entry, Lang.getMsg("chat.translating"));
+        dirty = true;
+        translator.translate(entry.text,
+                translation -> World.getUpdateTaskManager().addTask((container, delta) -> {
+                    if (translation == null) {
+                        chatLogModel.setTranslation(entry, null);
+                    } else {
+                        chatLogModel.setTranslation(entry,
+                                Lang.getMsg("chat.translation.header") + ' ' + translation);
+                    }
+                    dirty = true;
+                }));
     }
 }
@@ -15,8 +15,9 @@
  */
 package illarion.client.input;
 
+import illarion.client.graphics.Camera;
 import illarion.common.memory.Poolable;
-import org.illarion.engine.graphic.SceneEvent;
+import org.illarion.engine.graphic.PointerSceneEvent;
 
 import javax.annotation.Nonnull;
 
@@ -25,7 +26,7 @@ import javax.annotation.Nonnull;
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
-public abstract class AbstractMouseLocationEvent implements SceneEvent, Poolable {
+public abstract class AbstractMouseLocationEvent implements PointerSceneEvent, Poolable {
     /**
      * The x coordinate on the screen where the click occurred.
      */
@@ -75,6 +76,21 @@ public abstract class AbstractMouseLocationEvent implements SceneEvent, Poolable
         return y;
     }
 
+    @Override
+    public int getSceneX() {
+        return x + Camera.getInstance().getViewportOffsetX();
+    }
+
+    @Override
+    public int getSceneY() {
+        return y + Camera.getInstance().getViewportOffsetY();
+    }
+
+    @Override
+    public boolean isCoalescing() {
+        return false;
+    }
+
     /**
     * set x and y coordinate
      *
@@ -57,6 +57,11 @@ public final class CurrentMouseLocationEvent extends AbstractMouseLocationEvent
         this(input.getMouseX(), input.getMouseY());
     }
 
+    @Override
+    public boolean isCoalescing() {
+        return true;
+    }
+
     public boolean isHighlightHandled() {
         return highlightHandled;
     }
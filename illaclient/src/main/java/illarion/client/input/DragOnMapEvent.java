@@ -15,6 +15,7 @@
  */
 package illarion.client.input;
 
+import illarion.client.graphics.Camera;
 import org.illarion.engine.input.Button;
 
 import javax.annotation.Nonnull;
@@ -104,6 +105,20 @@ public class DragOnMapEvent extends AbstractMouseOnMapEvent {
         return getY();
     }
 
+    /**
+     * The location of a dragging operation in the scene is the location where the dragging started, because the
+     * dragging is applied to the element located there.
+     */
+    @Override
+    public int getSceneX() {
+        return oldX + Camera.getInstance().getViewportOffsetX();
+    }
+
+    @Override
+    public int getSceneY() {
+        return oldY + Camera.getInstance().getViewportOffsetY();
+    }
+
     @Nonnull
     public InputReceiver getInputReceiver() {
         return inputReceiver;
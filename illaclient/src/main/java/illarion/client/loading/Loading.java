@@ -15,6 +15,7 @@
  */
 package illarion.client.loading;
 
+import illarion.client.util.StartupTracer;
 import illarion.common.util.ProgressMonitor;
 import org.illarion.engine.Engine;
 
@@ -80,7 +81,11 @@ public final class Loading {
         }
 
         LoadingTask currentTask = tasks.get(0);
-        currentTask.load();
+        /* The span only covers the work of this frame, so spans started elsewhere during the frame are not nested
+         * into the span of the loading task. */
+        try (StartupTracer.Span ignored = StartupTracer.begin(currentTask.getClass().getSimpleName())) {
+            currentTask.load();
+        }
         if (currentTask.isLoadingDone()) {
             tasks.remove(0);
         }
@@ -17,21 +17,123 @@ package illarion.client.loading;
 
 import illarion.client.resources.*;
 import illarion.client.resources.loaders.*;
+import illarion.client.util.StartupTracer;
+import illarion.common.util.PoolThreadFactory;
 import illarion.common.util.ProgressMonitor;
 import org.illarion.engine.Engine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is used to allow the loading sequence of the client to load the resource tables.
+ * <p/>
+ * The tables are read and parsed by a pool of worker threads. Only the parts of the loaders that fetch the textures
+ * and sprites are executed in the graphics context during the calls to {@link #load()}. A loader is only started
+ * once all the loaders it depends on are done.
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
 @NotThreadSafe
 final class ResourceTableLoading implements LoadingTask {
+    /**
+     * The logger of this class.
+     */
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(ResourceTableLoading.class);
+
+    /**
+     * The time in milliseconds that is spend during one call of {@link #load()} at most to execute the tasks that
+     * require the graphics context.
+     */
+    private static final long RENDER_TASK_TIME = 50;
+
+    /**
+     * This is one stage of the loading pipeline. Each stage executes one loader.
+     */
+    private static final class Stage {
+        /**
+         * The loader of this stage.
+         */
+        @Nonnull
+        private final AbstractResourceLoader<? extends Resource> loader;
+
+        /**
+         * The stages that need to be done before this stage is allowed to start.
+         */
+        @Nonnull
+        private final List<Stage> dependencies;
+
+        /**
+         * This flag is {@code true} once the stage was handed over to the worker threads.
+         */
+        private boolean started;
+
+        /**
+         * This flag is {@code true} once the stage is done and the timing was reported.
+         */
+        private boolean done;
+
+        /**
+         * This flag is {@code true} once the loader finished its work on the worker thread.
+         */
+        private volatile boolean parsingDone;
+
+        /**
+         * This flag is {@code true} in case the loader failed.
+         */
+        private volatile boolean failed;
+
+        /**
+         * The time in nanoseconds when the stage was started.
+         */
+        private long startTime;
+
+        /**
+         * The time in nanoseconds the loader spend on the worker thread.
+         */
+        private volatile long parsingTime;
+
+        /**
+         * The time in nanoseconds the tasks of this stage spend in the graphics context.
+         */
+        private long renderTime;
+
+        Stage(@Nonnull AbstractResourceLoader<? extends Resource> loader, @Nonnull Stage... dependencies) {
+            this.loader = loader;
+            this.dependencies = Arrays.asList(dependencies);
+        }
+
+        @Nonnull
+        String getName() {
+            return loader.getClass().getSimpleName();
+        }
+
+        boolean isDone() {
+            return parsingDone && (failed || loader.isLoadingDone());
+        }
+
+        boolean isReady() {
+            for (Stage dependency : dependencies) {
+                if (!dependency.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * The progress monitor that tracks the loading activity of this task.
      */
@@ -39,10 +141,27 @@ final class ResourceTableLoading implements LoadingTask {
     private final ProgressMonitor progressMonitor;
 
     /**
-     * The list of tasks that need to be finished during the resource table loading.
+     * The list of stages that need to be finished during the resource table loading.
+     */
+    @Nonnull
+    private final List<Stage> stages;
+
+    /**
+     * The tasks of the loaders that need to be executed in the graphics context.
      */
     @Nonnull
-    private final List<AbstractResourceLoader<? extends Resource>> taskList;
+    private final Queue<Runnable> renderTasks;
+
+    /**
+     * The worker threads that execute the loaders.
+     */
+    @Nullable
+    private ExecutorService workerExecutor;
+
+    /**
+     * The time in nanoseconds when the loading started.
+     */
+    private long loadingStartTime;
 
     /**
      * Create a new resource table loading task and enlist all the sub-tasks.
@@ -50,14 +169,16 @@ final class ResourceTableLoading implements LoadingTask {
      * @param gameEngine the engine of the game
      */
     ResourceTableLoading(@Nonnull Engine gameEngine) {
-        taskList = new ArrayList<>();
+        stages = new ArrayList<>();
+        renderTasks = new ConcurrentLinkedQueue<>();
         progressMonitor = new ProgressMonitor();
 
         addTask(new TileLoader(gameEngine.getAssets()), TileFactory.getInstance());
         addTask(new OverlayLoader(gameEngine.getAssets()), OverlayFactory.getInstance());
         addTask(new ItemLoader(gameEngine.getAssets()), ItemFactory.getInstance());
-        addTask(new CharacterLoader(gameEngine.getAssets()), CharacterFactory.getInstance());
-        addTask(new ClothLoader(gameEngine.getAssets()), new ClothFactoryRelay());
+        Stage characters = addTask(new CharacterLoader(gameEngine.getAssets()), CharacterFactory.getInstance());
+        // the clothes are attached to the avatar templates
+        addTask(new ClothLoader(gameEngine.getAssets()), new ClothFactoryRelay(), characters);
         addTask(new EffectLoader(gameEngine.getAssets()), EffectFactory.getInstance());
         addTask(new MiscImageLoader(gameEngine.getAssets()), MiscImageFactory.getInstance());
         addTask(new BookLoader(), BookFactory.getInstance());
@@ -68,35 +189,104 @@ final class ResourceTableLoading implements LoadingTask {
      *
      * @param loader the loader of this task
      * @param factory the factory that is supposed to be filled
+     * @param dependencies the stages that need to be done before this task is started
      * @param <T> the resource type that is load in this case
+     * @return the stage that was created for the task
      */
-    private <T extends Resource> void addTask(
-            @Nonnull AbstractResourceLoader<T> loader, @Nonnull ResourceFactory<T> factory) {
+    @Nonnull
+    private <T extends Resource> Stage addTask(
+            @Nonnull AbstractResourceLoader<T> loader,
+            @Nonnull ResourceFactory<T> factory,
+            @Nonnull Stage... dependencies) {
+        Stage stage = new Stage(loader, dependencies);
         loader.setTarget(factory);
+        loader.setRenderThreadExecutor(task -> renderTasks.add(() -> {
+            long startTime = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Loading the resource table with {} failed.", stage.getName(), e);
+                stage.failed = true;
+            }
+            stage.renderTime += System.nanoTime() - startTime;
+        }));
         progressMonitor.addChild(loader.getProgressMonitor());
-        taskList.add(loader);
+        stages.add(stage);
+        return stage;
     }
 
     @Override
     public void load() {
-        if (!taskList.isEmpty()) {
-            AbstractResourceLoader<? extends Resource> loader = taskList.remove(0);
-            try {
-                loader.call();
-            } catch (Exception e) {
-                e.printStackTrace(System.err);
+        if (workerExecutor == null) {
+            int workerCount = Math.max(1, Math.min(stages.size(), Runtime.getRuntime().availableProcessors()));
+            workerExecutor = Executors.newFixedThreadPool(workerCount,
+                                                          new PoolThreadFactory("ResourceTableLoading", true));
+            loadingStartTime = System.nanoTime();
+        }
+
+        for (Stage stage : stages) {
+            if (!stage.started && stage.isReady()) {
+                startStage(workerExecutor, stage);
             }
         }
+
+        long startTime = System.currentTimeMillis();
+        do {
+            Runnable task = renderTasks.poll();
+            if (task == null) {
+                break;
+            }
+            task.run();
+        } while ((System.currentTimeMillis() - startTime) < RENDER_TASK_TIME);
+
+        for (Stage stage : stages) {
+            if (!stage.done && stage.isDone()) {
+                stage.done = true;
+                log.info("{} done after {}ms. Parsing: {}ms Graphics: {}ms", stage.getName(),
+                         TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stage.startTime),
+                         TimeUnit.NANOSECONDS.toMillis(stage.parsingTime),
+                         TimeUnit.NANOSECONDS.toMillis(stage.renderTime));
+            }
+        }
+    }
+
+    /**
+     * Hand a stage over to the worker threads.
+     *
+     * @param executor the executor of the worker threads
+     * @param stage the stage to start
+     */
+    private static void startStage(@Nonnull ExecutorService executor, @Nonnull Stage stage) {
+        stage.started = true;
+        stage.startTime = System.nanoTime();
+        executor.execute(() -> {
+            long startTime = System.nanoTime();
+            try (StartupTracer.Span ignored = StartupTracer.begin(stage.getName())) {
+                stage.loader.call();
+            } catch (Exception e) {
+                log.error("Loading the resource table with {} failed.", stage.getName(), e);
+                stage.failed = true;
+            } finally {
+                stage.parsingTime = System.nanoTime() - startTime;
+                stage.parsingDone = true;
+            }
+        });
     }
 
     @Override
     public boolean isLoadingDone() {
-        for (AbstractResourceLoader<? extends Resource> loader : taskList) {
-            if (!loader.isLoadingDone()) {
+        for (Stage stage : stages) {
+            if (!stage.done) {
                 return false;
             }
         }
 
+        if (workerExecutor != null) {
+            workerExecutor.shutdown();
+            workerExecutor = null;
+            log.info("Loading the resource tables took {}ms.",
+                     TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadingStartTime));
+        }
         return true;
     }
 
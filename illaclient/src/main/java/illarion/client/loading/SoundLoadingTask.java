@@ -15,19 +15,17 @@
  */
 package illarion.client.loading;
 
-import illarion.client.resources.SongFactory;
 import illarion.client.resources.SoundFactory;
 import illarion.common.util.ProgressMonitor;
 import org.illarion.engine.Engine;
 
 import javax.annotation.Nonnull;
-import java.util.Collection;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Queue;
 
 /**
- * This loading task is used to load all songs and sounds.
+ * This loading task is used to load all sounds. The music tracks are not loaded here. They are streamed once the
+ * {@link illarion.client.world.MusicBox} requests them.
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
@@ -44,12 +42,6 @@ class SoundLoadingTask implements LoadingTask {
     @Nonnull
     private final Engine engine;
 
-    /**
-     * The list of songs that need to be loaded.
-     */
-    @Nonnull
-    private final Queue<String> songsToLoad;
-
     /**
      * The list of sounds that need to be loaded.
      */
@@ -70,27 +62,24 @@ class SoundLoadingTask implements LoadingTask {
         this.engine = engine;
         monitor = new ProgressMonitor(3.f);
 
-        songsToLoad = new LinkedList<>(SongFactory.getInstance().getSongNames());
         soundsToLoad = new LinkedList<>(SoundFactory.getInstance().getSoundNames());
-        initialAmount = songsToLoad.size() + soundsToLoad.size();
+        initialAmount = soundsToLoad.size();
         remaining = initialAmount;
     }
 
     @Override
     public void load() {
-        if (!songsToLoad.isEmpty()) {
-            SongFactory.getInstance().loadSong(engine.getAssets().getSoundsManager(), songsToLoad.poll());
-        } else if (!soundsToLoad.isEmpty()) {
+        if (!soundsToLoad.isEmpty()) {
             SoundFactory.getInstance().loadSound(engine.getAssets().getSoundsManager(), soundsToLoad.poll());
+            remaining--;
         }
-        remaining--;
 
-        monitor.setProgress(1.f - (remaining / (float) initialAmount));
+        monitor.setProgress((initialAmount == 0) ? 1.f : (1.f - (remaining / (float) initialAmount)));
     }
 
     @Override
     public boolean isLoadingDone() {
-        return songsToLoad.isEmpty() && soundsToLoad.isEmpty();
+        return soundsToLoad.isEmpty();
     }
 
     @Nonnull
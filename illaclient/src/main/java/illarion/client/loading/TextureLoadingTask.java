@@ -15,8 +15,10 @@
  */
 package illarion.client.loading;
 
+import illarion.client.IllaClient;
 import illarion.common.util.ProgressMonitor;
 import org.illarion.engine.Engine;
+import org.illarion.engine.assets.TextureManager;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -51,7 +53,12 @@ final class TextureLoadingTask implements LoadingTask {
     @Override
     public void load() {
         if (!loadingStarted) {
-            usedEngine.getAssets().getTextureManager().startLoading();
+            TextureManager textureManager = usedEngine.getAssets().getTextureManager();
+            if (IllaClient.getCfg().getBoolean("textureStreaming")) {
+                long memoryBudget = IllaClient.getCfg().getInteger("textureMemoryBudget") * 1024L * 1024L;
+                textureManager.enableStreaming(memoryBudget);
+            }
+            textureManager.startLoading();
             loadingStarted = true;
         }
     }
@@ -155,12 +155,17 @@ public final class SongFactory implements ResourceFactory<IdWrapper<String>> {
     }
 
     /**
-     * Load a specific music track.
+     * Load all variations of a song, so they are ready once the song is requested with
+     * {@link #getSong(int, SoundsManager)}. The music tracks are streamed, so this only opens the tracks.
      *
-     * @param manager the manager used to load the track
-     * @param song the name of the song to load
+     * @param id the id of the song
+     * @param manager the manager used to load the tracks
      */
-    public void loadSong(@Nonnull SoundsManager manager, @Nonnull String song) {
-        manager.getMusic(song);
+    public void prefetchSong(int id, @Nonnull SoundsManager manager) {
+        if (songs != null) {
+            for (String variantRef : songs.get(id)) {
+                manager.getMusic(variantRef);
+            }
+        }
     }
 }
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * This abstract resource loader contains the shared code for all resource loaders.
@@ -48,6 +49,13 @@ public abstract class AbstractResourceLoader<T extends Resource> implements Call
     @Nonnull
     private final ProgressMonitor monitor;
 
+    /**
+     * The executor that runs the parts of the loading process that require the graphics context. In case its not set,
+     * those parts are executed right away by the thread that runs the loader.
+     */
+    @Nullable
+    private Executor renderThreadExecutor;
+
     /**
      * Create a new resource loader and apply the weight value for the progress tracker.
      *
@@ -101,6 +109,32 @@ public abstract class AbstractResourceLoader<T extends Resource> implements Call
         return this;
     }
 
+    /**
+     * Set the executor that runs the parts of the loading process that require the graphics context. Once this is
+     * set, the loader can be executed by any thread.
+     *
+     * @param executor the executor that executes its tasks in the graphics context
+     */
+    @Nonnull
+    public final AbstractResourceLoader<T> setRenderThreadExecutor(@Nonnull Executor executor) {
+        renderThreadExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Run a task that requires the graphics context. This applies to everything that fetches textures or sprites and
+     * to storing the templates in the target factory. The tasks are executed in the order they are scheduled.
+     *
+     * @param task the task
+     */
+    protected final void runOnRenderThread(@Nonnull Runnable task) {
+        if (renderThreadExecutor == null) {
+            task.run();
+        } else {
+            renderThreadExecutor.execute(task);
+        }
+    }
+
     /**
      * Get the progress monitor that is assigned to this loader.
      *
@@ -114,7 +148,7 @@ public abstract class AbstractResourceLoader<T extends Resource> implements Call
     /**
      * This variable is set {@code true} once the loading is done.
      */
-    private boolean loadingDone;
+    private volatile boolean loadingDone;
 
     /**
      * Report the loading progress as done.
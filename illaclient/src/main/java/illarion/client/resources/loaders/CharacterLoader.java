@@ -72,10 +72,11 @@ public final class CharacterLoader extends AbstractResourceLoader<AvatarTemplate
 
         factory.init();
         new TableLoaderCharacters(this);
-        factory.loadingFinished();
         AvatarInfo.cleanup();
-
-        loadingDone();
+        runOnRenderThread(() -> {
+            factory.loadingFinished();
+            loadingDone();
+        });
 
         return factory;
     }
@@ -109,24 +110,26 @@ public final class CharacterLoader extends AbstractResourceLoader<AvatarTemplate
 
         Color defaultColor = new Color(skinRed, skinGreen, skinBlue);
 
-        Texture[] textures = getTextures(assets.getTextureManager(), CHAR_PATH, name, frames);
-        for (Texture texture : textures) {
-            if (texture == null) {
-                log.error("Failed adding avatar to internal factory. ID: {} - Filename: {}", avatarId, name);
-                return true;
+        runOnRenderThread(() -> {
+            Texture[] textures = getTextures(assets.getTextureManager(), CHAR_PATH, name, frames);
+            for (Texture texture : textures) {
+                if (texture == null) {
+                    log.error("Failed adding avatar to internal factory. ID: {} - Filename: {}", avatarId, name);
+                    return;
+                }
             }
-        }
-        Sprite avatarSprite = assets.getSpriteFactory()
-                .createSprite(textures, offsetX, offsetY, SpriteFactory.CENTER, SpriteFactory.BOTTOM, mirror);
+            Sprite avatarSprite = assets.getSpriteFactory()
+                    .createSprite(textures, offsetX, offsetY, SpriteFactory.CENTER, SpriteFactory.BOTTOM, mirror);
 
-        AvatarTemplate template = new AvatarTemplate(avatarId, avatarSprite, frames, stillFrame, defaultColor,
-                                                           shadowOffset, direction, info);
+            AvatarTemplate template = new AvatarTemplate(avatarId, avatarSprite, frames, stillFrame, defaultColor,
+                                                         shadowOffset, direction, info);
 
-        try {
-            getTargetFactory().storeResource(template);
-        } catch (@Nonnull IllegalStateException ex) {
-            log.error("Failed adding avatar to internal factory. ID: {} - Filename: {}", avatarId, name);
-        }
+            try {
+                getTargetFactory().storeResource(template);
+            } catch (@Nonnull IllegalStateException ex) {
+                log.error("Failed adding avatar to internal factory. ID: {} - Filename: {}", avatarId, name);
+            }
+        });
 
         return true;
     }
@@ -68,9 +68,10 @@ public final class ClothLoader extends AbstractResourceLoader<AvatarClothTemplat
 
         factory.init();
         new TableLoaderClothes(this);
-        factory.loadingFinished();
-
-        loadingDone();
+        runOnRenderThread(() -> {
+            factory.loadingFinished();
+            loadingDone();
+        });
 
         return factory;
     }
@@ -99,24 +100,27 @@ public final class ClothLoader extends AbstractResourceLoader<AvatarClothTemplat
         String name = loader.getResourceName();
         int frames = loader.getFrameCount();
         boolean mirror = loader.isMirrored();
-
-        AvatarTemplate avatarTemplate = CharacterFactory.getInstance().getTemplate(avatarID);
-
-        int offsetX = loader.getOffsetX() + avatarTemplate.getSprite().getOffsetX();
-        int offsetY = loader.getOffsetY() + avatarTemplate.getSprite().getOffsetY();
-
-        Sprite clothSprite = assets.getSpriteFactory()
-                .createSprite(getTextures(assets.getTextureManager(), CLOTH_PATH, name, frames), offsetX, offsetY,
-                              SpriteFactory.CENTER, SpriteFactory.BOTTOM, mirror);
-        AvatarClothTemplate template = new AvatarClothTemplate(itemID, clothSprite, loader.getFrameCount(), avatarID,
-                                                               location);
-
-        try {
-            getTargetFactory().storeResource(template);
-        } catch (@Nonnull IllegalStateException e) {
-            log.error("Error adding paperdolling item to avatar: {} in group: {} to item: {}", avatarID, location,
-                    itemID);
-        }
+        int clothOffsetX = loader.getOffsetX();
+        int clothOffsetY = loader.getOffsetY();
+
+        runOnRenderThread(() -> {
+            AvatarTemplate avatarTemplate = CharacterFactory.getInstance().getTemplate(avatarID);
+
+            int offsetX = clothOffsetX + avatarTemplate.getSprite().getOffsetX();
+            int offsetY = clothOffsetY + avatarTemplate.getSprite().getOffsetY();
+
+            Sprite clothSprite = assets.getSpriteFactory()
+                    .createSprite(getTextures(assets.getTextureManager(), CLOTH_PATH, name, frames), offsetX, offsetY,
+                                  SpriteFactory.CENTER, SpriteFactory.BOTTOM, mirror);
+            AvatarClothTemplate template = new AvatarClothTemplate(itemID, clothSprite, frames, avatarID, location);
+
+            try {
+                getTargetFactory().storeResource(template);
+            } catch (@Nonnull IllegalStateException e) {
+                log.error("Error adding paperdolling item to avatar: {} in group: {} to item: {}", avatarID,
+                          location, itemID);
+            }
+        });
         return true;
     }
 }
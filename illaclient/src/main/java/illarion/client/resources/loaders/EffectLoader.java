@@ -78,9 +78,10 @@ public final class EffectLoader extends AbstractResourceLoader<EffectTemplate>
 
         factory.init();
         new TableLoaderEffects(this);
-        factory.loadingFinished();
-
-        loadingDone();
+        runOnRenderThread(() -> {
+            factory.loadingFinished();
+            loadingDone();
+        });
 
         return factory;
     }
@@ -98,16 +99,18 @@ public final class EffectLoader extends AbstractResourceLoader<EffectTemplate>
         int speed = loader.getAnimationSpeed();
         int light = loader.getEffectLight();
 
-        Sprite effectSprite = assets.getSpriteFactory()
-                .createSprite(getTextures(assets.getTextureManager(), EFFECTS_PATH, name, frames), offsetX, offsetY,
-                              SpriteFactory.CENTER, SpriteFactory.CENTER, false);
+        runOnRenderThread(() -> {
+            Sprite effectSprite = assets.getSpriteFactory()
+                    .createSprite(getTextures(assets.getTextureManager(), EFFECTS_PATH, name, frames), offsetX,
+                                  offsetY, SpriteFactory.CENTER, SpriteFactory.CENTER, false);
 
-        EffectTemplate template = new EffectTemplate(effectID, effectSprite, frames, speed, light);
-        try {
-            getTargetFactory().storeResource(template);
-        } catch (@Nonnull IllegalStateException ex) {
-            log.error("Failed adding effect to internal factory. ID: {} - Filename: {}", effectID, name);
-        }
+            EffectTemplate template = new EffectTemplate(effectID, effectSprite, frames, speed, light);
+            try {
+                getTargetFactory().storeResource(template);
+            } catch (@Nonnull IllegalStateException ex) {
+                log.error("Failed adding effect to internal factory. ID: {} - Filename: {}", effectID, name);
+            }
+        });
 
         return true;
     }
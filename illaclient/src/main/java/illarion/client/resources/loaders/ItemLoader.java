@@ -85,9 +85,10 @@ public final class ItemLoader extends AbstractResourceLoader<ItemTemplate>
 
         factory.init();
         new TableLoaderItems(this);
-        factory.loadingFinished();
-
-        loadingDone();
+        runOnRenderThread(() -> {
+            factory.loadingFinished();
+            loadingDone();
+        });
 
         return factory;
     }
@@ -102,9 +103,11 @@ public final class ItemLoader extends AbstractResourceLoader<ItemTemplate>
         int colorBlue = loader.getColorModBlue();
         int colorAlpha = loader.getColorModAlpha();
 
-        Color paperdollingColor = null;
+        Color paperdollingColor;
         if ((colorRed >= 0) && (colorGreen >= 0) && (colorBlue >= 0) && (colorAlpha >= 0)) {
             paperdollingColor = new Color(colorRed, colorGreen, colorBlue, colorAlpha);
+        } else {
+            paperdollingColor = null;
         }
 
         int mode = loader.getItemMode();
@@ -144,29 +147,31 @@ public final class ItemLoader extends AbstractResourceLoader<ItemTemplate>
             speed = 0;
         }
 
-        Sprite itemSprite;
-        try {
-            itemSprite = assets.getSpriteFactory()
-                    .createSprite(getTextures(assets.getTextureManager(), ITEM_PATH, name, frames), offsetX, offsetY,
-                                  SpriteFactory.CENTER, SpriteFactory.BOTTOM, false);
-        } catch (@Nonnull IllegalArgumentException e) {
-            log.error("Failed to fetch graphics for item {} (ID: {}) because: {}", name, itemID, e.getMessage());
-            return true;
-        }
-
-        Texture guiTexture = assets.getTextureManager().getTexture(GUI_PATH, "items/" + name);
-        Texture usedGuiTexture;
-        usedGuiTexture = (guiTexture == null) ? itemSprite.getFrame(0) : guiTexture;
-
-        ItemTemplate template = new ItemTemplate(itemID, itemSprite, usedGuiTexture, frames, offsetShadow, speed,
-                                                       info, paperdollingRef, paperdollingColor);
-
-        // register item with factory
-        try {
-            getTargetFactory().storeResource(template);
-        } catch (@Nonnull IllegalStateException e) {
-            log.error("Failed to register item {} in factory due a duplicated ID: {}", name, itemID);
-        }
+        runOnRenderThread(() -> {
+            Sprite itemSprite;
+            try {
+                itemSprite = assets.getSpriteFactory()
+                        .createSprite(getTextures(assets.getTextureManager(), ITEM_PATH, name, frames), offsetX,
+                                      offsetY, SpriteFactory.CENTER, SpriteFactory.BOTTOM, false);
+            } catch (@Nonnull IllegalArgumentException e) {
+                log.error("Failed to fetch graphics for item {} (ID: {}) because: {}", name, itemID, e.getMessage());
+                return;
+            }
+
+            Texture guiTexture = assets.getTextureManager().getTexture(GUI_PATH, "items/" + name);
+            Texture usedGuiTexture;
+            usedGuiTexture = (guiTexture == null) ? itemSprite.getFrame(0) : guiTexture;
+
+            ItemTemplate template = new ItemTemplate(itemID, itemSprite, usedGuiTexture, frames, offsetShadow, speed,
+                                                     info, paperdollingRef, paperdollingColor);
+
+            // register item with factory
+            try {
+                getTargetFactory().storeResource(template);
+            } catch (@Nonnull IllegalStateException e) {
+                log.error("Failed to register item {} in factory due a duplicated ID: {}", name, itemID);
+            }
+        });
 
         return true;
     }
@@ -66,6 +66,15 @@ public final class MiscImageLoader extends AbstractResourceLoader<MiscImageTempl
 
         factory.init();
 
+        runOnRenderThread(this::loadImages);
+
+        return factory;
+    }
+
+    /**
+     * Fetch the sprites of the images and store them in the target factory. This requires the graphics context.
+     */
+    private void loadImages() {
         SpriteFactory sf = assets.getSpriteFactory();
         ResourceFactory<MiscImageTemplate> tf = getTargetFactory();
         TextureManager tm = assets.getTextureManager();
@@ -100,10 +109,8 @@ public final class MiscImageLoader extends AbstractResourceLoader<MiscImageTempl
                               SpriteFactory.BOTTOM, false);
         tf.storeResource(new MiscImageTemplate(MiscImageFactory.QUEST_MARKER_EXCLAMATION_MARK, questMarker2, 1));
 
-        factory.loadingFinished();
+        tf.loadingFinished();
 
         loadingDone();
-
-        return factory;
     }
 }
@@ -75,9 +75,10 @@ public final class OverlayLoader extends AbstractResourceLoader<OverlayTemplate>
 
         factory.init();
         new TableLoaderOverlay(this);
-        factory.loadingFinished();
-
-        loadingDone();
+        runOnRenderThread(() -> {
+            factory.loadingFinished();
+            loadingDone();
+        });
 
         return factory;
     }
@@ -90,17 +91,19 @@ public final class OverlayLoader extends AbstractResourceLoader<OverlayTemplate>
         int id = loader.getTileId();
         String name = loader.getOverlayFile();
 
-        Sprite overlaySprite = assets.getSpriteFactory()
-                .createSprite(getTextures(assets.getTextureManager(), OVERLAY_PATH, name, OVERLAY_VARIATIONS), 0, 0,
-                              SpriteFactory.CENTER, SpriteFactory.CENTER, false);
+        runOnRenderThread(() -> {
+            Sprite overlaySprite = assets.getSpriteFactory()
+                    .createSprite(getTextures(assets.getTextureManager(), OVERLAY_PATH, name, OVERLAY_VARIATIONS),
+                                  0, 0, SpriteFactory.CENTER, SpriteFactory.CENTER, false);
 
-        OverlayTemplate template = new OverlayTemplate(id, overlaySprite);
+            OverlayTemplate template = new OverlayTemplate(id, overlaySprite);
 
-        try {
-            getTargetFactory().storeResource(template);
-        } catch (@Nonnull IllegalStateException ex) {
-            log.error("Failed adding overlay to internal factory. ID: {} - Filename: {}", id, name);
-        }
+            try {
+                getTargetFactory().storeResource(template);
+            } catch (@Nonnull IllegalStateException ex) {
+                log.error("Failed adding overlay to internal factory. ID: {} - Filename: {}", id, name);
+            }
+        });
 
         return true;
     }
@@ -72,9 +72,10 @@ public final class TileLoader extends AbstractResourceLoader<TileTemplate>
 
         factory.init();
         new TableLoaderTiles(this);
-        factory.loadingFinished();
-
-        loadingDone();
+        runOnRenderThread(() -> {
+            factory.loadingFinished();
+            loadingDone();
+        });
 
         return factory;
     }
@@ -113,16 +114,18 @@ public final class TileLoader extends AbstractResourceLoader<TileTemplate>
                 break;
         }
 
-        Sprite tileSprite = assets.getSpriteFactory()
-                .createSprite(getTextures(assets.getTextureManager(), TILE_PATH, name, frames), 0, 0,
-                              SpriteFactory.CENTER, SpriteFactory.CENTER, false);
-
-        try {
-            TileTemplate template = new TileTemplate(id, tileSprite, frames, speed, info);
-            getTargetFactory().storeResource(template);
-        } catch (@Nonnull IllegalStateException ex) {
-            log.error("Failed adding tile to internal factory. ID: {} - Filename: {}", id, name);
-        }
+        runOnRenderThread(() -> {
+            Sprite tileSprite = assets.getSpriteFactory()
+                    .createSprite(getTextures(assets.getTextureManager(), TILE_PATH, name, frames), 0, 0,
+                                  SpriteFactory.CENTER, SpriteFactory.CENTER, false);
+
+            try {
+                TileTemplate template = new TileTemplate(id, tileSprite, frames, speed, info);
+                getTargetFactory().storeResource(template);
+            } catch (@Nonnull IllegalStateException ex) {
+                log.error("Failed adding tile to internal factory. ID: {} - Filename: {}", id, name);
+            }
+        });
 
         return true;
     }
@@ -21,11 +21,18 @@ import illarion.client.IllaClient;
 import illarion.client.gui.controller.CharScreenController;
 import illarion.client.gui.controller.CreditsStartScreenController;
 import illarion.client.gui.controller.LoginScreenController;
+import illarion.client.util.StartupTracer;
+import illarion.common.util.StartupProperties;
 import org.illarion.engine.GameContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * This game state is used to display the login and character selection dialog. Also the option dialog is displayed in
@@ -84,6 +91,32 @@ public class LoginState implements GameState {
     @Override
     public void enterState(@Nonnull GameContainer container, @Nonnull Nifty nifty) {
         nifty.gotoScreen("login");
+        StartupTracer.finish();
+
+        if (Boolean.getBoolean(StartupProperties.EXIT_AFTER_STARTUP_PROPERTY)) {
+            long startupTime = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("Login screen reached after {}ms.", startupTime);
+            writeStartupTime(startupTime);
+            IllaClient.exitGameContainer();
+        }
+    }
+
+    /**
+     * Write the time until the login screen was reached to the file that is set in the system property
+     * {@value StartupProperties#STARTUP_TIME_FILE_PROPERTY}.
+     *
+     * @param startupTime the time in milliseconds since the start of the virtual machine
+     */
+    private static void writeStartupTime(long startupTime) {
+        String timeFile = System.getProperty(StartupProperties.STARTUP_TIME_FILE_PROPERTY);
+        if (timeFile == null) {
+            return;
+        }
+        try {
+            Files.write(Paths.get(timeFile), Long.toString(startupTime).getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            log.error("Failed to write the startup time to {}", timeFile, e);
+        }
     }
 
     @Override
@@ -86,6 +86,7 @@ public class PlayingState implements GameState {
         World.getGameGui().onUpdateGame(container, delta);
         World.getWeather().update(delta);
         World.getMapDisplay().update(container, delta);
+        World.getPeople().updateRemoteMoves();
         World.getAnimationManager().animate(delta);
         World.getMusicBox().update();
     }
@@ -0,0 +1,378 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util;
+
+import com.google.gson.stream.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class records the time spend in the different phases of the client startup. Every phase is recorded as span
+ * with its wall time and the CPU time of the thread that executed it. Spans executed by the same thread can be
+ * nested.
+ * <p/>
+ * Once the startup is done, a report of the spans is written to the log. In case the system property
+ * {@value #TRACE_FILE_PROPERTY} is set, the spans are also written to this file in the trace event format that is
+ * understood by the Chrome tracing tools ({@code chrome://tracing}).
+ */
+public final class StartupTracer {
+    /**
+     * The system property that contains the path to the trace file.
+     */
+    @Nonnull
+    public static final String TRACE_FILE_PROPERTY = "illarion.startupTrace";
+
+    /**
+     * The logger that is used for the report.
+     */
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(StartupTracer.class);
+
+    /**
+     * A span of the startup.
+     */
+    public static final class Span implements AutoCloseable {
+        /**
+         * The name of the span.
+         */
+        @Nonnull
+        private final String name;
+
+        /**
+         * The ID of the thread that started the span.
+         */
+        private final long threadId;
+
+        /**
+         * The name of the thread that started the span.
+         */
+        @Nonnull
+        private final String threadName;
+
+        /**
+         * The open spans of the thread that started the span. The span is part of this deque until it ends.
+         */
+        @Nonnull
+        private final Deque<Span> openSpans;
+
+        /**
+         * The nesting depth of this span in the spans of the thread.
+         */
+        private final int depth;
+
+        /**
+         * The time in nanoseconds when the span started.
+         */
+        private final long startTime;
+
+        /**
+         * The CPU time of the thread in nanoseconds when the span started or {@code -1} in case the CPU time is not
+         * measured.
+         */
+        private final long startCpuTime;
+
+        /**
+         * The duration of the span in nanoseconds or {@code -1} in case the span did not end yet.
+         */
+        private long duration;
+
+        /**
+         * The CPU time in nanoseconds the thread used during the span or {@code -1} in case its not known.
+         */
+        private long cpuTime;
+
+        Span(@Nonnull String name, @Nonnull Deque<Span> openSpans, long startTime, long startCpuTime) {
+            this.name = name;
+            this.openSpans = openSpans;
+            depth = openSpans.size();
+            this.startTime = startTime;
+            this.startCpuTime = startCpuTime;
+            Thread currentThread = Thread.currentThread();
+            threadId = currentThread.getId();
+            threadName = currentThread.getName();
+            duration = -1;
+            cpuTime = -1;
+        }
+
+        /**
+         * End this span. Calling this function more then once or after the startup is done has no effect.
+         */
+        public void end() {
+            if ((duration >= 0) || !active) {
+                return;
+            }
+            duration = System.nanoTime() - startTime;
+            if ((startCpuTime >= 0) && (Thread.currentThread().getId() == threadId)) {
+                cpuTime = getCurrentThreadCpuTime() - startCpuTime;
+            }
+            /* Spans are not always ended in the reverse order they were started in, so only this span is removed. */
+            openSpans.removeFirstOccurrence(this);
+            FINISHED_SPANS.add(this);
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+    }
+
+    /**
+     * The span that is returned while the tracer is not active anymore.
+     */
+    @Nonnull
+    private static final Span INACTIVE_SPAN = new Span("inactive", new ConcurrentLinkedDeque<>(), 0, -1);
+
+    /**
+     * The spans that were not ended yet, for each thread. A span may be ended by another thread then the one that
+     * started it, so the deque has to be thread safe.
+     */
+    @Nonnull
+    private static final ThreadLocal<Deque<Span>> OPEN_SPANS = ThreadLocal.withInitial(ConcurrentLinkedDeque::new);
+
+    /**
+     * The spans that ended.
+     */
+    @Nonnull
+    private static final Queue<Span> FINISHED_SPANS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The time in nanoseconds that matches the start of the virtual machine.
+     */
+    private static final long VM_START_TIME;
+
+    /**
+     * The bean used to measure the CPU time of the threads or {@code null} in case its not supported.
+     */
+    @Nullable
+    private static final ThreadMXBean THREAD_BEAN;
+
+    /**
+     * This flag is {@code true} as long as the startup is running.
+     */
+    private static volatile boolean active = true;
+
+    static {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        VM_START_TIME = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(uptime);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean.isCurrentThreadCpuTimeSupported()) {
+            if (!threadBean.isThreadCpuTimeEnabled()) {
+                threadBean.setThreadCpuTimeEnabled(true);
+            }
+            THREAD_BEAN = threadBean;
+        } else {
+            THREAD_BEAN = null;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StartupTracer() {
+    }
+
+    /**
+     * Get the CPU time of the current thread.
+     *
+     * @return the CPU time in nanoseconds or {@code -1} in case its not supported
+     */
+    private static long getCurrentThreadCpuTime() {
+        return (THREAD_BEAN == null) ? -1 : THREAD_BEAN.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Start a new span. The span is ended using {@link Span#end()}. In case another thread ends the span, its CPU time
+     * is not recorded. Spans started while another span of the same thread is open are nested into this span.
+     *
+     * @param name the name of the span
+     * @return the span
+     */
+    @Nonnull
+    public static Span begin(@Nonnull String name) {
+        if (!active) {
+            return INACTIVE_SPAN;
+        }
+        Deque<Span> stack = OPEN_SPANS.get();
+        Span span = new Span(name, stack, System.nanoTime(), getCurrentThreadCpuTime());
+        stack.push(span);
+        return span;
+    }
+
+    /**
+     * Report that the startup is done. This writes the report and the trace file in case its requested. Spans that
+     * are started after this call are not recorded anymore.
+     */
+    public static void finish() {
+        if (!active) {
+            return;
+        }
+        active = false;
+
+        long endTime = System.nanoTime();
+        List<Span> spans = new ArrayList<>(FINISHED_SPANS);
+        FINISHED_SPANS.clear();
+        spans.sort(Comparator.comparingLong((Span s) -> s.startTime).thenComparingInt(s -> s.depth));
+
+        logReport(spans, endTime);
+
+        @Nullable String traceFile = System.getProperty(TRACE_FILE_PROPERTY);
+        if ((traceFile != null) && !traceFile.isEmpty()) {
+            Path tracePath = Paths.get(traceFile);
+            try {
+                writeTrace(tracePath, spans, endTime);
+                log.info("Startup trace written to {}", tracePath.toAbsolutePath());
+            } catch (@Nonnull IOException e) {
+                log.error("Failed to write the startup trace to {}", tracePath, e);
+            }
+        }
+    }
+
+    /**
+     * Write the report of the startup to the log. Spans with the same name, thread and depth, like the spans of a
+     * task that is executed over multiple frames, are reported as one entry.
+     *
+     * @param spans the recorded spans sorted by their start time
+     * @param endTime the time in nanoseconds the startup ended
+     */
+    private static void logReport(@Nonnull Collection<Span> spans, long endTime) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        Map<String, long[]> entries = new LinkedHashMap<>();
+        Map<String, Span> firstSpans = new HashMap<>();
+        for (Span span : spans) {
+            String key = span.threadId + "/" + span.depth + '/' + span.name;
+            long[] entry = entries.get(key);
+            if (entry == null) {
+                // duration, CPU time and the amount of spans
+                entries.put(key, new long[]{span.duration, span.cpuTime, 1});
+                firstSpans.put(key, span);
+            } else {
+                entry[0] += span.duration;
+                entry[1] = ((entry[1] < 0) || (span.cpuTime < 0)) ? -1 : (entry[1] + span.cpuTime);
+                entry[2]++;
+            }
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append("Startup done after ").append(toMillis(endTime - VM_START_TIME)).append("ms");
+        for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+            Span span = firstSpans.get(entry.getKey());
+            long[] values = entry.getValue();
+            report.append(System.lineSeparator());
+            for (int i = 0; i <= span.depth; i++) {
+                report.append("  ");
+            }
+            report.append(span.name).append(" [").append(span.threadName).append("]: ");
+            report.append(toMillis(values[0])).append("ms wall");
+            if (values[1] >= 0) {
+                report.append(", ").append(toMillis(values[1])).append("ms cpu");
+            }
+            if (values[2] > 1) {
+                report.append(" in ").append(values[2]).append(" parts");
+            }
+            report.append(" (starts at ").append(toMillis(span.startTime - VM_START_TIME)).append("ms)");
+        }
+        log.info(report.toString());
+    }
+
+    /**
+     * Write the spans in the Chrome trace event format.
+     *
+     * @param file the file to write
+     * @param spans the recorded spans
+     * @param endTime the time in nanoseconds the startup ended
+     * @throws IOException in case writing the file fails
+     */
+    private static void writeTrace(@Nonnull Path file, @Nonnull Collection<Span> spans, long endTime)
+            throws IOException {
+        Map<Long, String> threadNames = new HashMap<>();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.beginObject();
+            json.name("displayTimeUnit").value("ms");
+            json.name("traceEvents").beginArray();
+
+            long mainThreadId = spans.isEmpty() ? 1 : spans.iterator().next().threadId;
+            writeEvent(json, "JVM startup to login screen", mainThreadId, VM_START_TIME, endTime - VM_START_TIME,
+                       -1);
+            for (Span span : spans) {
+                threadNames.put(span.threadId, span.threadName);
+                writeEvent(json, span.name, span.threadId, span.startTime, span.duration, span.cpuTime);
+            }
+            for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+                json.beginObject();
+                json.name("name").value("thread_name");
+                json.name("ph").value("M");
+                json.name("pid").value(1);
+                json.name("tid").value(thread.getKey());
+                json.name("args").beginObject().name("name").value(thread.getValue()).endObject();
+                json.endObject();
+            }
+
+            json.endArray();
+            json.endObject();
+        }
+    }
+
+    /**
+     * Write a single complete event.
+     *
+     * @param json the writer
+     * @param name the name of the event
+     * @param threadId the ID of the thread
+     * @param startTime the start time in nanoseconds
+     * @param duration the duration in nanoseconds
+     * @param cpuTime the CPU time in nanoseconds or {@code -1}
+     * @throws IOException in case writing fails
+     */
+    private static void writeEvent(
+            @Nonnull JsonWriter json, @Nonnull String name, long threadId, long startTime, long duration,
+            long cpuTime) throws IOException {
+        json.beginObject();
+        json.name("name").value(name);
+        json.name("cat").value("startup");
+        json.name("ph").value("X");
+        json.name("pid").value(1);
+        json.name("tid").value(threadId);
+        json.name("ts").value(TimeUnit.NANOSECONDS.toMicros(startTime - VM_START_TIME));
+        json.name("dur").value(TimeUnit.NANOSECONDS.toMicros(duration));
+        if (cpuTime >= 0) {
+            json.name("tdur").value(TimeUnit.NANOSECONDS.toMicros(cpuTime));
+        }
+        json.endObject();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -24,77 +24,89 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.*;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Collection;
 
 /**
  * This class implements the A* path finding algorithm.
+ * <p/>
+ * The search is limited to a window of the map around the start and the target location. The data of the search is
+ * stored in a {@link SearchWorkspace} that is reused by all searches of this instance, so a search does not create
+ * any objects except for the resulting path.
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
+@NotThreadSafe
 public final class AStar implements PathFindingAlgorithm {
     @Nonnull
     private static final Logger log = LoggerFactory.getLogger(AStar.class);
 
+    /**
+     * The amount of tiles the search window extends beyond the start and the target location.
+     */
+    static final int WINDOW_MARGIN = 16;
+
+    /**
+     * The maximal width and height of the search window.
+     */
+    static final int MAX_WINDOW_SIZE = 256;
+
+    /**
+     * Additional cost for the distance of a straight step while walking.
+     */
+    static final int WALK_COST = 150;
+
+    /**
+     * Additional cost for the distance of a diagonal step while walking.
+     */
+    static final int WALK_COST_DIAGONAL = (int) (WALK_COST * 1.4142135623730951);
+
+    /**
+     * Additional cost for the distance of a straight step while running.
+     */
+    static final int RUN_COST = 300;
+
+    /**
+     * Additional cost for the distance of a diagonal step while running.
+     */
+    static final int RUN_COST_DIAGONAL = (int) (RUN_COST * 1.4142135623730951);
+
+    /**
+     * The amount of expanded nodes after which the search checks if it got cancelled.
+     */
+    static final int CANCEL_CHECK_INTERVAL = 64;
+
+    /**
+     * All directions in the order of their declaration.
+     */
     @Nonnull
-    private static Path buildPath(@Nonnull AStarPathNode lastNode) {
-        LinkedList<PathNode> path = new LinkedList<>();
-        @Nullable AStarPathNode nextNode = lastNode;
-        while (nextNode != null) {
-            path.addFirst(nextNode);
-            nextNode = nextNode.getParentNode();
-        }
-        return new Path(path);
-    }
+    private static final Direction[] DIRECTIONS = Direction.values();
 
-    private static void expandNode(
-            @Nonnull MoveCostProvider costProvider,
-            @Nonnull ServerCoordinate end,
-            @Nullable AStarPathNode nodeToExpand,
-            @Nonnull ServerCoordinate origin, @Nonnull Iterable<Direction> allowedDirections,
-            @Nonnull Collection<CharMovementMode> movementMethods,
-            @Nonnull Collection<AStarPathNode> storage) {
-        if (movementMethods.isEmpty()) {
-            throw new IllegalArgumentException("No movement methods selected. This is not valid.");
-        }
-        for (Direction dir : allowedDirections) {
-            ServerCoordinate walkingCoordinates = new ServerCoordinate(origin, dir);
-            if (movementMethods.contains(CharMovementMode.Walk)) {
-                int moveCost = costProvider.getMovementCost(origin, CharMovementMode.Walk, dir);
-                if (moveCost == MoveCostProvider.BLOCKED) {
-                    continue;
-                } else {
-                    /* Additional cost for distance. */
-                    moveCost += (int) (150 * (dir.isDiagonal() ? 1.4142135623730951 : 1.0));
-                    /* Additional cost for current ping. */
-                    moveCost += (int) ConnectionPerformanceClock.getMaxServerPing();
-
-                    storage.add(new AStarPathNode(nodeToExpand, walkingCoordinates, CharMovementMode.Walk, moveCost,
-                            getHeuristic(walkingCoordinates, end)));
-                }
-            }
-            if (walkingCoordinates.equals(end)) {
-                continue;
-            }
-            if (movementMethods.contains(CharMovementMode.Run)) {
-                ServerCoordinate runningCoordinates = new ServerCoordinate(walkingCoordinates, dir);
-                int moveCost = costProvider.getMovementCost(origin, CharMovementMode.Run, dir);
-                if (moveCost != MoveCostProvider.BLOCKED) {
-                    /* Additional cost for distance. */
-                    moveCost += (int) (300 * (dir.isDiagonal() ? 1.4142135623730951 : 1.0));
-                    /* Additional cost for current ping. */
-                    moveCost += (int) ConnectionPerformanceClock.getMaxServerPing();
+    /**
+     * The working memory of the search.
+     */
+    @Nonnull
+    private final SearchWorkspace workspace = new SearchWorkspace();
 
-                    storage.add(new AStarPathNode(nodeToExpand, runningCoordinates, CharMovementMode.Run, moveCost,
-                            getHeuristic(runningCoordinates, end)));
-                }
-            }
-        }
-    }
+    /**
+     * The directions that are allowed during the current search.
+     */
+    @Nonnull
+    private final Direction[] allowedDirections = new Direction[DIRECTIONS.length];
+
+    /**
+     * The amount of entries in {@link #allowedDirections} that are valid.
+     */
+    private int allowedDirectionCount;
 
-    private static int getHeuristic(@Nonnull ServerCoordinate currentLocation,
-                                    @Nonnull ServerCoordinate targetLocation) {
-        int dX = Math.abs(currentLocation.getX() - targetLocation.getX());
-        int dY = Math.abs(currentLocation.getY() - targetLocation.getY());
+    /**
+     * The amount of nodes expanded during the last search.
+     */
+    private int expandedNodes;
+
+    static int getHeuristic(int currentX, int currentY, int targetX, int targetY) {
+        int dX = Math.abs(currentX - targetX);
+        int dY = Math.abs(currentY - targetY);
 
         int dMax = Math.max(dX, dY);
         int dMin = Math.min(dX, dY);
@@ -102,6 +114,31 @@ public final class AStar implements PathFindingAlgorithm {
         return (int) (((dMax - dMin) + (dMin * 1.4142135623730951)) * 300);
     }
 
+    /**
+     * Prepare the search window. The window covers the start and the target location including a margin around them.
+     * In case this is larger then the maximal size of the window, the window is centered around the start location.
+     *
+     * @param workspace the workspace to prepare
+     * @param start the start location
+     * @param end the target location
+     */
+    static void prepareWindow(
+            @Nonnull SearchWorkspace workspace, @Nonnull ServerCoordinate start, @Nonnull ServerCoordinate end) {
+        int minX = Math.min(start.getX(), end.getX()) - WINDOW_MARGIN;
+        int minY = Math.min(start.getY(), end.getY()) - WINDOW_MARGIN;
+        int width = (Math.max(start.getX(), end.getX()) + WINDOW_MARGIN + 1) - minX;
+        int height = (Math.max(start.getY(), end.getY()) + WINDOW_MARGIN + 1) - minY;
+        if (width > MAX_WINDOW_SIZE) {
+            minX = start.getX() - (MAX_WINDOW_SIZE / 2);
+            width = MAX_WINDOW_SIZE;
+        }
+        if (height > MAX_WINDOW_SIZE) {
+            minY = start.getY() - (MAX_WINDOW_SIZE / 2);
+            height = MAX_WINDOW_SIZE;
+        }
+        workspace.reset(minX, minY, start.getZ(), width, height);
+    }
+
     @Nullable
     @Override
     public Path findPath(
@@ -111,6 +148,7 @@ public final class AStar implements PathFindingAlgorithm {
             int approachDistance, @Nonnull Collection<Direction> allowedDirections,
             @Nonnull CharMovementMode movementMethod,
             @Nonnull CharMovementMode... movementMethods) {
+        expandedNodes = 0;
         if (start.equals(end)) {
             throw new IllegalArgumentException("Start and target location must not be equal.");
         }
@@ -127,34 +165,118 @@ public final class AStar implements PathFindingAlgorithm {
             return null;
         }
         log.debug("Searching path from {} to {} getting as close as {} tiles", start, end, approachDistance);
-        /* Setting up the data structures. */
-        /* Nodes that are in this set were yet not fully processed. */
-        NavigableSet<AStarPathNode> openNodes = new TreeSet<>();
-        /* The list of nodes and their corresponding locations. */
-        Map<ServerCoordinate, AStarPathNode> knownNodes = new HashMap<>();
+
         /* The methods of movement that apply. */
-        EnumSet<CharMovementMode> movementOptions = EnumSet.of(movementMethod, movementMethods);
+        boolean walking = isMovementMethodSelected(CharMovementMode.Walk, movementMethod, movementMethods);
+        boolean running = isMovementMethodSelected(CharMovementMode.Run, movementMethod, movementMethods);
+
+        allowedDirectionCount = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (allowedDirections.contains(direction)) {
+                this.allowedDirections[allowedDirectionCount++] = direction;
+            }
+        }
 
-        expandNode(costProvider, end, null, start, allowedDirections, movementOptions, openNodes);
+        prepareWindow(workspace, start, end);
+        costProvider.prepareArea(workspace.getOriginX(), workspace.getOriginY(), start.getZ(), workspace.getWidth(),
+                                 workspace.getHeight());
+        int startIndex = workspace.getIndex(start.getX(), start.getY());
+        workspace.setStart(startIndex);
 
-        while (!openNodes.isEmpty()) {
+        int level = start.getZ();
+        int endX = end.getX();
+        int endY = end.getY();
+        int ping = (int) ConnectionPerformanceClock.getMaxServerPing();
+
+        expandNode(costProvider, startIndex, level, endX, endY, ping, walking, running);
+        while (true) {
             /* Take the unchecked node closest to the target. */
-            AStarPathNode currentNode = openNodes.pollFirst();
-            assert currentNode != null;
+            int currentNode = workspace.poll();
+            if (currentNode == SearchWorkspace.NONE) {
+                return null;
+            }
 
-            if (currentNode.getLocation().getStepDistance(end) <= approachDistance) {
-                Path createdPath = buildPath(currentNode);
+            int currentX = workspace.getX(currentNode);
+            int currentY = workspace.getY(currentNode);
+            if (Math.max(Math.abs(currentX - endX), Math.abs(currentY - endY)) <= approachDistance) {
+                Path createdPath = workspace.buildPath(currentNode);
                 log.debug("Current node is within range. Building path: {}", createdPath);
                 return createdPath;
             }
-            AStarPathNode alternative = knownNodes.get(currentNode.getLocation());
-            if ((alternative == null) || (alternative.getCost() > currentNode.getCost())) {
-                knownNodes.put(currentNode.getLocation(), currentNode);
-                expandNode(costProvider, end, currentNode, currentNode.getLocation(), allowedDirections, movementOptions,
-                           openNodes);
+            if ((expandedNodes % CANCEL_CHECK_INTERVAL) == 0) {
+                AsyncPathFinder.checkCancelled();
+            }
+            expandNode(costProvider, currentNode, level, endX, endY, ping, walking, running);
+        }
+    }
+
+    private static boolean isMovementMethodSelected(
+            @Nonnull CharMovementMode requested,
+            @Nonnull CharMovementMode movementMethod,
+            @Nonnull CharMovementMode... movementMethods) {
+        if (movementMethod == requested) {
+            return true;
+        }
+        for (CharMovementMode mode : movementMethods) {
+            if (mode == requested) {
+                return true;
             }
         }
+        return false;
+    }
 
-        return null;
+    private void expandNode(
+            @Nonnull MoveCostProvider costProvider,
+            int nodeToExpand,
+            int level,
+            int endX,
+            int endY,
+            int ping,
+            boolean walking,
+            boolean running) {
+        expandedNodes++;
+        int originX = workspace.getX(nodeToExpand);
+        int originY = workspace.getY(nodeToExpand);
+        int originCost = workspace.getCost(nodeToExpand);
+        for (int i = 0; i < allowedDirectionCount; i++) {
+            Direction dir = allowedDirections[i];
+            int walkingX = originX + dir.getDirectionVectorX();
+            int walkingY = originY + dir.getDirectionVectorY();
+            if (walking) {
+                int moveCost = costProvider.getMovementCost(originX, originY, level, CharMovementMode.Walk, dir);
+                if (moveCost == MoveCostProvider.BLOCKED) {
+                    continue;
+                }
+                /* Additional cost for distance and for the current ping. */
+                moveCost += (dir.isDiagonal() ? WALK_COST_DIAGONAL : WALK_COST) + ping;
+                offerNode(walkingX, walkingY, endX, endY, originCost + moveCost, nodeToExpand,
+                          CharMovementMode.Walk);
+            }
+            if ((walkingX == endX) && (walkingY == endY)) {
+                continue;
+            }
+            if (running) {
+                int moveCost = costProvider.getMovementCost(originX, originY, level, CharMovementMode.Run, dir);
+                if (moveCost != MoveCostProvider.BLOCKED) {
+                    /* Additional cost for distance and for the current ping. */
+                    moveCost += (dir.isDiagonal() ? RUN_COST_DIAGONAL : RUN_COST) + ping;
+                    offerNode(walkingX + dir.getDirectionVectorX(), walkingY + dir.getDirectionVectorY(), endX, endY,
+                              originCost + moveCost, nodeToExpand, CharMovementMode.Run);
+                }
+            }
+        }
+    }
+
+    private void offerNode(
+            int x, int y, int endX, int endY, int cost, int parent, @Nonnull CharMovementMode mode) {
+        int index = workspace.getIndex(x, y);
+        if (index != SearchWorkspace.NONE) {
+            workspace.offer(index, cost, getHeuristic(x, y, endX, endY), parent, mode);
+        }
+    }
+
+    @Override
+    public int getExpandedNodeCount() {
+        return expandedNodes;
     }
 }
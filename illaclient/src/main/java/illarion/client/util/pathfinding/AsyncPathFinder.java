@@ -0,0 +1,122 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * This class runs the path searches on a background thread. Only the newest search is of interest, so submitting a
+ * search cancels the search submitted before.
+ * <p/>
+ * All searches run on the same thread, so the path finding algorithms and cost providers used by the searches do not
+ * need to be thread safe.
+ */
+@ThreadSafe
+public final class AsyncPathFinder {
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(AsyncPathFinder.class);
+
+    /**
+     * The executor that runs the searches.
+     */
+    @Nonnull
+    private final ExecutorService executorService;
+
+    /**
+     * The search that was submitted last.
+     */
+    @Nullable
+    @GuardedBy("this")
+    private Future<Path> currentSearch;
+
+    public AsyncPathFinder() {
+        executorService = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Path Finding Thread-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Check if the search running on the current thread got cancelled. The path finding algorithms call this
+     * regularly, so a cancelled search stops right away.
+     *
+     * @throws CancellationException in case the search got cancelled
+     */
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("The path search got cancelled.");
+        }
+    }
+
+    /**
+     * Submit a new search. Any search submitted before is cancelled.
+     *
+     * @param search the search
+     * @param searchDone the task that is executed once the search is done, it is not executed in case the search
+     * got cancelled
+     * @return the future that provides the result of the search
+     */
+    @Nonnull
+    public synchronized Future<Path> submit(@Nonnull Callable<Path> search, @Nonnull Runnable searchDone) {
+        cancel();
+        FutureTask<Path> task = new FutureTask<Path>(search) {
+            @Override
+            protected void done() {
+                if (!isCancelled()) {
+                    searchDone.run();
+                }
+            }
+        };
+        currentSearch = task;
+        executorService.execute(task);
+        return task;
+    }
+
+    /**
+     * Cancel the search that is currently running or waiting to run.
+     */
+    public synchronized void cancel() {
+        Future<Path> search = currentSearch;
+        if (search != null) {
+            if (search.cancel(true)) {
+                log.debug("Cancelled the previous path search.");
+            }
+            currentSearch = null;
+        }
+    }
+
+    /**
+     * Cancel the current search and stop the background thread.
+     */
+    public void shutdown() {
+        cancel();
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,685 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.util.ConnectionPerformanceClock;
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+import org.jetbrains.annotations.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * This is a incremental path finding algorithm based on D* Lite. The search runs backwards from the target location
+ * to the start location and is kept between the calls of {@link #findPath}. In case the next path is requested from a
+ * new start location, towards a target that moved a little or after some movement costs changed, only the nodes
+ * affected by those changes are expanded again. This makes it a good fit for walking along a path that has to be
+ * repaired now and then.
+ * <p/>
+ * The start location moving is handled by the key modifier, the target location moving is handled like a change of
+ * the costs of the moves that end at the old and the new target. In case the cost provider tracks the changes of the
+ * movement costs, only the moves around the changed locations are checked again. Otherwise all known moves are
+ * checked.
+ * <p/>
+ * The search is started over after {@link #reset()}, in case the target moved far, in case the new start or target
+ * location is outside of the search window or in case the allowed directions, the movement methods or the approach
+ * distance are different. The ping that is added to the cost of every move is read once the search is started over.
+ */
+@NotThreadSafe
+public final class DStarLite implements PathFindingAlgorithm {
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(DStarLite.class);
+
+    /**
+     * The value of nodes that can't reach the target.
+     */
+    private static final int INFINITE = Integer.MAX_VALUE;
+
+    /**
+     * The amount of moves that are possible from every node. The first half are the walking moves, the second half
+     * the running moves.
+     */
+    private static final int EDGES = 16;
+
+    /**
+     * All directions in the order of their declaration.
+     */
+    @Nonnull
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The maximal amount of nodes that are checked for changed movement costs. In case more nodes are known, the
+     * search is started over.
+     */
+    private static final int MAX_CHECKED_NODES = 32 * 1024;
+
+    /**
+     * The maximal distance in tiles the target location is allowed to move while the search is continued. All the
+     * costs stored in the search are relative to the target, so repairing them after a larger move expands more
+     * nodes then a new search.
+     */
+    private static final int MAX_TARGET_MOVE = 2;
+
+    private int originX;
+    private int originY;
+    private int level;
+    private int width;
+    private int height;
+
+    /**
+     * This is {@code true} while there is a search that can be continued.
+     */
+    private boolean searchValid;
+
+    private int approachDistance;
+    private boolean walking;
+    private boolean running;
+    @Nonnull
+    private final boolean[] allowedDirections = new boolean[DIRECTIONS.length];
+    private int ping;
+
+    private int startIndex;
+    private int endX;
+    private int endY;
+
+    /**
+     * The modifier of the keys that is increased every time the start location moves.
+     */
+    private int keyModifier;
+
+    /**
+     * The version of the movement costs the search used the last time.
+     */
+    private int costVersion;
+
+    @Nonnull
+    private int[] costs = new int[0];
+    @Nonnull
+    private int[] lookAheadCosts = new int[0];
+
+    /**
+     * The costs of the moves starting at each node. Only valid for nodes listed in {@link #knownNodes}.
+     */
+    @Nonnull
+    private int[] edgeCosts = new int[0];
+
+    /**
+     * This is {@code true} for all nodes the costs of the moves are known for.
+     */
+    @Nonnull
+    private boolean[] edgesKnown = new boolean[0];
+
+    /**
+     * The nodes that have their moves stored in {@link #edgeCosts}.
+     */
+    @Nonnull
+    private int[] knownNodes = new int[0];
+    private int knownNodeCount;
+
+    /**
+     * The call of {@link #findPath} that expanded each node the last time.
+     */
+    @Nonnull
+    private int[] expandedInCall = new int[0];
+    private int callCount;
+
+    @Nonnull
+    private long[] keys = new long[0];
+    @Nonnull
+    private int[] heapPositions = new int[0];
+    @Nonnull
+    private int[] heap = new int[0];
+    private int heapSize;
+
+    private int expandedNodes;
+    private int reExpandedNodes;
+
+    @Nullable
+    @Override
+    public Path findPath(
+            @Nonnull MoveCostProvider costProvider,
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            int approachDistance, @Nonnull Collection<Direction> allowedDirections,
+            @Nonnull CharMovementMode movementMethod,
+            @Nonnull CharMovementMode... movementMethods) {
+        expandedNodes = 0;
+        reExpandedNodes = 0;
+        callCount++;
+        if (start.equals(end)) {
+            throw new IllegalArgumentException("Start and target location must not be equal.");
+        }
+        if (approachDistance < 0) {
+            throw new IllegalArgumentException("The approach distance must not be negative.");
+        }
+        if (start.getZ() != end.getZ()) {
+            /* Different levels are not supported by this algorithm. */
+            return null;
+        }
+        if (start.getDistance(end) <= approachDistance) {
+            /* close enough */
+            return null;
+        }
+
+        EnumSet<CharMovementMode> modes = EnumSet.of(movementMethod, movementMethods);
+        if (canContinue(start, end, approachDistance, allowedDirections, modes)) {
+            costProvider.prepareArea(originX, originY, level, width, height);
+            continueSearch(costProvider, start, end);
+            log.debug("Continuing the search towards {} from {}", end, start);
+        } else {
+            startSearch(start, end, approachDistance, allowedDirections, modes);
+            costProvider.prepareArea(originX, originY, level, width, height);
+            costVersion = costProvider.getCostVersion();
+            setTarget(costProvider, endX, endY);
+            log.debug("Starting a new search towards {} from {}", end, start);
+        }
+
+        computeShortestPath(costProvider);
+        if (costs[startIndex] == INFINITE) {
+            return null;
+        }
+        return buildPath(costProvider);
+    }
+
+    /**
+     * Check if the last search can be continued for a new request.
+     */
+    private boolean canContinue(
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            int requestedApproachDistance,
+            @Nonnull Collection<Direction> requestedDirections,
+            @Nonnull Collection<CharMovementMode> modes) {
+        if (!searchValid || (start.getZ() != level) || (requestedApproachDistance != approachDistance)) {
+            return false;
+        }
+        if (Math.max(Math.abs(end.getX() - endX), Math.abs(end.getY() - endY)) > MAX_TARGET_MOVE) {
+            return false;
+        }
+        if ((walking != modes.contains(CharMovementMode.Walk)) || (running != modes.contains(CharMovementMode.Run))) {
+            return false;
+        }
+        for (Direction dir : DIRECTIONS) {
+            if (allowedDirections[dir.ordinal()] != requestedDirections.contains(dir)) {
+                return false;
+            }
+        }
+        if (knownNodeCount > MAX_CHECKED_NODES) {
+            return false;
+        }
+        return (getIndex(start.getX(), start.getY()) != SearchWorkspace.NONE) &&
+                (getIndex(end.getX(), end.getY()) != SearchWorkspace.NONE);
+    }
+
+    private void startSearch(
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            int requestedApproachDistance,
+            @Nonnull Collection<Direction> requestedDirections,
+            @Nonnull Collection<CharMovementMode> modes) {
+        int minX = Math.min(start.getX(), end.getX()) - AStar.WINDOW_MARGIN;
+        int minY = Math.min(start.getY(), end.getY()) - AStar.WINDOW_MARGIN;
+        int newWidth = (Math.max(start.getX(), end.getX()) + AStar.WINDOW_MARGIN + 1) - minX;
+        int newHeight = (Math.max(start.getY(), end.getY()) + AStar.WINDOW_MARGIN + 1) - minY;
+        if (newWidth > AStar.MAX_WINDOW_SIZE) {
+            minX = start.getX() - (AStar.MAX_WINDOW_SIZE / 2);
+            newWidth = AStar.MAX_WINDOW_SIZE;
+        }
+        if (newHeight > AStar.MAX_WINDOW_SIZE) {
+            minY = start.getY() - (AStar.MAX_WINDOW_SIZE / 2);
+            newHeight = AStar.MAX_WINDOW_SIZE;
+        }
+        originX = minX;
+        originY = minY;
+        level = start.getZ();
+        width = newWidth;
+        height = newHeight;
+
+        int size = width * height;
+        if (costs.length < size) {
+            costs = new int[size];
+            lookAheadCosts = new int[size];
+            edgeCosts = new int[size * EDGES];
+            edgesKnown = new boolean[size];
+            knownNodes = new int[size];
+            expandedInCall = new int[size];
+            keys = new long[size];
+            heapPositions = new int[size];
+            heap = new int[size];
+        }
+        Arrays.fill(costs, 0, size, INFINITE);
+        Arrays.fill(lookAheadCosts, 0, size, INFINITE);
+        Arrays.fill(edgesKnown, 0, size, false);
+        Arrays.fill(expandedInCall, 0, size, 0);
+        Arrays.fill(heapPositions, 0, size, SearchWorkspace.NONE);
+        knownNodeCount = 0;
+        heapSize = 0;
+        keyModifier = 0;
+
+        approachDistance = requestedApproachDistance;
+        walking = modes.contains(CharMovementMode.Walk);
+        running = modes.contains(CharMovementMode.Run);
+        for (Direction dir : DIRECTIONS) {
+            allowedDirections[dir.ordinal()] = requestedDirections.contains(dir);
+        }
+        ping = (int) ConnectionPerformanceClock.getMaxServerPing();
+        startIndex = getIndex(start.getX(), start.getY());
+        endX = end.getX();
+        endY = end.getY();
+        searchValid = true;
+    }
+
+    private void continueSearch(
+            @Nonnull MoveCostProvider costProvider, @Nonnull ServerCoordinate start, @Nonnull ServerCoordinate end) {
+        int newStartIndex = getIndex(start.getX(), start.getY());
+        if (newStartIndex != startIndex) {
+            int oldStartIndex = startIndex;
+            keyModifier += getHeuristic(oldStartIndex, getX(newStartIndex), getY(newStartIndex));
+            startIndex = newStartIndex;
+            /* The start location is never treated as target, so those two might change. */
+            checkMoves(costProvider, oldStartIndex);
+            updateNode(costProvider, oldStartIndex);
+            updateNode(costProvider, newStartIndex);
+        }
+        checkChangedCosts(costProvider);
+
+        if ((end.getX() != endX) || (end.getY() != endY)) {
+            int oldEndX = endX;
+            int oldEndY = endY;
+            endX = end.getX();
+            endY = end.getY();
+            /* Running is not allowed to overshoot the target, so the moves next to both targets change. */
+            checkMovesAround(costProvider, oldEndX, oldEndY);
+            checkMovesAround(costProvider, endX, endY);
+            setTarget(costProvider, oldEndX, oldEndY);
+            setTarget(costProvider, endX, endY);
+        }
+    }
+
+    /**
+     * Check the known moves for changed costs. In case the cost provider reports the locations that changed since the
+     * last search, only the moves around those locations are checked. The moves of the start location are checked
+     * always, as the cost provider may prefer some of them.
+     */
+    private void checkChangedCosts(@Nonnull MoveCostProvider costProvider) {
+        int[] changedLocations = (costVersion == MoveCostProvider.NO_VERSION) ? null :
+                costProvider.getChangedLocations(costVersion);
+        costVersion = costProvider.getCostVersion();
+
+        if (changedLocations == null) {
+            for (int i = 0; i < knownNodeCount; i++) {
+                checkMoves(costProvider, knownNodes[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < changedLocations.length; i += 2) {
+            checkMovesAround(costProvider, changedLocations[i], changedLocations[i + 1]);
+        }
+        checkMoves(costProvider, startIndex);
+    }
+
+    /**
+     * Check the known moves that end at or run across a location for changed costs.
+     */
+    private void checkMovesAround(@Nonnull MoveCostProvider costProvider, int x, int y) {
+        for (Direction dir : DIRECTIONS) {
+            for (int steps = 1; steps <= 2; steps++) {
+                int origin = getIndex(x - (dir.getDirectionVectorX() * steps), y - (dir.getDirectionVectorY() * steps));
+                if (origin != SearchWorkspace.NONE) {
+                    checkMoves(costProvider, origin);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the moves of a node for changed costs and update the node in case any cost changed.
+     */
+    private void checkMoves(@Nonnull MoveCostProvider costProvider, int index) {
+        if (!edgesKnown[index]) {
+            return;
+        }
+        int offset = index * EDGES;
+        boolean changed = false;
+        for (int edge = 0; edge < EDGES; edge++) {
+            int cost = queryEdgeCost(costProvider, index, edge);
+            if (cost != edgeCosts[offset + edge]) {
+                edgeCosts[offset + edge] = cost;
+                changed = true;
+            }
+        }
+        if (changed) {
+            updateNode(costProvider, index);
+        }
+    }
+
+    /**
+     * Update the nodes around a target location once the target is set or removed.
+     */
+    private void setTarget(@Nonnull MoveCostProvider costProvider, int targetX, int targetY) {
+        for (int y = targetY - approachDistance; y <= (targetY + approachDistance); y++) {
+            for (int x = targetX - approachDistance; x <= (targetX + approachDistance); x++) {
+                int index = getIndex(x, y);
+                if (index != SearchWorkspace.NONE) {
+                    updateNode(costProvider, index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a node is one of the target nodes. The path always contains at least one step, so the start node is
+     * never a target.
+     */
+    @Contract(pure = true)
+    private boolean isTarget(int index) {
+        return (index != startIndex) && Math.max(Math.abs(getX(index) - endX), Math.abs(getY(index) - endY)) <= approachDistance;
+    }
+
+    private void computeShortestPath(@Nonnull MoveCostProvider costProvider) {
+        while ((heapSize > 0) &&
+                ((keys[heap[0]] < calculateKey(startIndex)) || (lookAheadCosts[startIndex] != costs[startIndex]))) {
+            int index = heap[0];
+            long oldKey = keys[index];
+            long newKey = calculateKey(index);
+            if (oldKey < newKey) {
+                keys[index] = newKey;
+                siftDown(0);
+                continue;
+            }
+
+            expandedNodes++;
+            if ((expandedNodes % AStar.CANCEL_CHECK_INTERVAL) == 0) {
+                /* The search stays consistent when it stops here, it is continued with the next request. */
+                AsyncPathFinder.checkCancelled();
+            }
+            if ((expandedInCall[index] != 0) && (expandedInCall[index] != callCount)) {
+                reExpandedNodes++;
+            }
+            expandedInCall[index] = callCount;
+
+            if (costs[index] > lookAheadCosts[index]) {
+                costs[index] = lookAheadCosts[index];
+                removeFromHeap(index);
+            } else {
+                costs[index] = INFINITE;
+                updateNode(costProvider, index);
+            }
+            updatePredecessors(costProvider, index);
+        }
+    }
+
+    /**
+     * Update all nodes that have a move leading to the node.
+     */
+    private void updatePredecessors(@Nonnull MoveCostProvider costProvider, int index) {
+        int x = getX(index);
+        int y = getY(index);
+        for (Direction dir : DIRECTIONS) {
+            if (!allowedDirections[dir.ordinal()]) {
+                continue;
+            }
+            int walkingOrigin = getIndex(x - dir.getDirectionVectorX(), y - dir.getDirectionVectorY());
+            if (walkingOrigin != SearchWorkspace.NONE) {
+                updateNode(costProvider, walkingOrigin);
+            }
+            if (running) {
+                int runningOrigin = getIndex(x - (2 * dir.getDirectionVectorX()), y - (2 * dir.getDirectionVectorY()));
+                if (runningOrigin != SearchWorkspace.NONE) {
+                    updateNode(costProvider, runningOrigin);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculate the look ahead cost of a node again and queue it in case its inconsistent.
+     */
+    private void updateNode(@Nonnull MoveCostProvider costProvider, int index) {
+        if (isTarget(index)) {
+            lookAheadCosts[index] = 0;
+        } else {
+            ensureEdgesKnown(costProvider, index);
+            int best = INFINITE;
+            int offset = index * EDGES;
+            for (int edge = 0; edge < EDGES; edge++) {
+                int edgeCost = edgeCosts[offset + edge];
+                if (edgeCost == MoveCostProvider.BLOCKED) {
+                    continue;
+                }
+                int neighbourCost = costs[getEdgeTarget(index, edge)];
+                if ((neighbourCost != INFINITE) && ((edgeCost + neighbourCost) < best)) {
+                    best = edgeCost + neighbourCost;
+                }
+            }
+            lookAheadCosts[index] = best;
+        }
+
+        if (costs[index] != lookAheadCosts[index]) {
+            keys[index] = calculateKey(index);
+            int position = heapPositions[index];
+            if (position == SearchWorkspace.NONE) {
+                position = heapSize++;
+                heap[position] = index;
+                heapPositions[index] = position;
+            }
+            siftUp(position);
+            siftDown(heapPositions[index]);
+        } else {
+            removeFromHeap(index);
+        }
+    }
+
+    private void ensureEdgesKnown(@Nonnull MoveCostProvider costProvider, int index) {
+        if (edgesKnown[index]) {
+            return;
+        }
+        int offset = index * EDGES;
+        for (int edge = 0; edge < EDGES; edge++) {
+            edgeCosts[offset + edge] = queryEdgeCost(costProvider, index, edge);
+        }
+        edgesKnown[index] = true;
+        knownNodes[knownNodeCount++] = index;
+    }
+
+    /**
+     * Get the cost of a move. This uses the same costs as the {@link AStar} algorithm.
+     */
+    private int queryEdgeCost(@Nonnull MoveCostProvider costProvider, int index, int edge) {
+        Direction dir = DIRECTIONS[edge % DIRECTIONS.length];
+        boolean runningEdge = edge >= DIRECTIONS.length;
+        if (!allowedDirections[dir.ordinal()] || (runningEdge ? !running : !walking)) {
+            return MoveCostProvider.BLOCKED;
+        }
+        if (getEdgeTarget(index, edge) == SearchWorkspace.NONE) {
+            return MoveCostProvider.BLOCKED;
+        }
+        int x = getX(index);
+        int y = getY(index);
+        if (runningEdge) {
+            /* Running is not possible where walking is blocked and it would overshoot the target. */
+            if (walking && (costProvider.getMovementCost(x, y, level, CharMovementMode.Walk, dir) ==
+                    MoveCostProvider.BLOCKED)) {
+                return MoveCostProvider.BLOCKED;
+            }
+            if (((x + dir.getDirectionVectorX()) == endX) && ((y + dir.getDirectionVectorY()) == endY)) {
+                return MoveCostProvider.BLOCKED;
+            }
+        }
+        CharMovementMode mode = runningEdge ? CharMovementMode.Run : CharMovementMode.Walk;
+        int cost = costProvider.getMovementCost(x, y, level, mode, dir);
+        if (cost == MoveCostProvider.BLOCKED) {
+            return MoveCostProvider.BLOCKED;
+        }
+        if (runningEdge) {
+            return cost + (dir.isDiagonal() ? AStar.RUN_COST_DIAGONAL : AStar.RUN_COST) + ping;
+        }
+        return cost + (dir.isDiagonal() ? AStar.WALK_COST_DIAGONAL : AStar.WALK_COST) + ping;
+    }
+
+    @Contract(pure = true)
+    private int getEdgeTarget(int index, int edge) {
+        Direction dir = DIRECTIONS[edge % DIRECTIONS.length];
+        int steps = (edge >= DIRECTIONS.length) ? 2 : 1;
+        return getIndex(getX(index) + (dir.getDirectionVectorX() * steps),
+                        getY(index) + (dir.getDirectionVectorY() * steps));
+    }
+
+    @Nonnull
+    private Path buildPath(@Nonnull MoveCostProvider costProvider) {
+        List<PathNode> path = new ArrayList<>();
+        int current = startIndex;
+        int remainingSteps = width * height;
+        do {
+            ensureEdgesKnown(costProvider, current);
+            int offset = current * EDGES;
+            int bestEdge = -1;
+            int best = INFINITE;
+            for (int edge = 0; edge < EDGES; edge++) {
+                int edgeCost = edgeCosts[offset + edge];
+                if (edgeCost == MoveCostProvider.BLOCKED) {
+                    continue;
+                }
+                int neighbourCost = costs[getEdgeTarget(current, edge)];
+                if ((neighbourCost != INFINITE) && ((edgeCost + neighbourCost) < best)) {
+                    best = edgeCost + neighbourCost;
+                    bestEdge = edge;
+                }
+            }
+            if (bestEdge == -1) {
+                break;
+            }
+            current = getEdgeTarget(current, bestEdge);
+            CharMovementMode mode = (bestEdge >= DIRECTIONS.length) ? CharMovementMode.Run : CharMovementMode.Walk;
+            path.add(new GridPathNode(new ServerCoordinate(getX(current), getY(current), level), mode));
+        } while (!isTarget(current) && (remainingSteps-- > 0));
+        return new Path(path);
+    }
+
+    @Contract(pure = true)
+    private long calculateKey(int index) {
+        int value = Math.min(costs[index], lookAheadCosts[index]);
+        if (value == INFINITE) {
+            return Long.MAX_VALUE;
+        }
+        long primary = (long) value + getHeuristic(startIndex, getX(index), getY(index)) + keyModifier;
+        return (primary << 32) | value;
+    }
+
+    @Contract(pure = true)
+    private int getHeuristic(int fromIndex, int toX, int toY) {
+        return AStar.getHeuristic(getX(fromIndex), getY(fromIndex), toX, toY);
+    }
+
+    @Contract(pure = true)
+    private int getIndex(int x, int y) {
+        int localX = x - originX;
+        int localY = y - originY;
+        if ((localX < 0) || (localY < 0) || (localX >= width) || (localY >= height)) {
+            return SearchWorkspace.NONE;
+        }
+        return (localY * width) + localX;
+    }
+
+    @Contract(pure = true)
+    private int getX(int index) {
+        return originX + (index % width);
+    }
+
+    @Contract(pure = true)
+    private int getY(int index) {
+        return originY + (index / width);
+    }
+
+    private void removeFromHeap(int index) {
+        int position = heapPositions[index];
+        if (position == SearchWorkspace.NONE) {
+            return;
+        }
+        heapPositions[index] = SearchWorkspace.NONE;
+        heapSize--;
+        if (position < heapSize) {
+            int last = heap[heapSize];
+            heap[position] = last;
+            heapPositions[last] = position;
+            siftUp(position);
+            siftDown(heapPositions[last]);
+        }
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        int current = position;
+        while (current > 0) {
+            int parentPosition = (current - 1) >>> 1;
+            int parentIndex = heap[parentPosition];
+            if (keys[index] >= keys[parentIndex]) {
+                break;
+            }
+            heap[current] = parentIndex;
+            heapPositions[parentIndex] = current;
+            current = parentPosition;
+        }
+        heap[current] = index;
+        heapPositions[index] = current;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        int current = position;
+        int half = heapSize >>> 1;
+        while (current < half) {
+            int child = (current << 1) + 1;
+            int right = child + 1;
+            if ((right < heapSize) && (keys[heap[right]] < keys[heap[child]])) {
+                child = right;
+            }
+            if (keys[index] <= keys[heap[child]]) {
+                break;
+            }
+            heap[current] = heap[child];
+            heapPositions[heap[child]] = current;
+            current = child;
+        }
+        heap[current] = index;
+        heapPositions[index] = current;
+    }
+
+    @Override
+    public int getExpandedNodeCount() {
+        return expandedNodes;
+    }
+
+    @Override
+    public int getReExpandedNodeCount() {
+        return reExpandedNodes;
+    }
+
+    @Override
+    public void reset() {
+        searchValid = false;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.ServerCoordinate;
+
+import javax.annotation.Nonnull;
+
+/**
+ * This is the path node that is created by the path finding algorithms that work on a grid of tiles.
+ */
+final class GridPathNode extends AbstractPathNode {
+    /**
+     * Create a node on the path.
+     *
+     * @param location the location this node is bound to
+     * @param method the movement method to reach this node
+     */
+    GridPathNode(@Nonnull ServerCoordinate location, @Nonnull CharMovementMode method) {
+        super(location, method);
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        return getLocation() + " " + getMovementMethod();
+    }
+}
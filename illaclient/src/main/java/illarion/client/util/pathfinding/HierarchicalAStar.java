@@ -0,0 +1,599 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+import org.jetbrains.annotations.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * This is a two level path finding algorithm. The map is split into square clusters of tiles and every cluster is
+ * split further into the areas of tiles that are connected within the cluster. At first a path through those areas
+ * is searched. Crossing from the area of one cluster to a area of the next cluster is possible in case a tile of the
+ * area on the border between the clusters allows the step. After that the {@link AStar} algorithm searches the actual
+ * path, but only on the clusters along the area path and the clusters right next to them.
+ * <p/>
+ * The movement costs vary from tile to tile, so jump point search does not apply here. The cluster path only limits
+ * the area searched, the costs of the final path are still calculated tile by tile. In case the limited area does
+ * not contain a path or no path on the clusters is found, the search is repeated without limits.
+ */
+@NotThreadSafe
+public final class HierarchicalAStar implements PathFindingAlgorithm {
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(HierarchicalAStar.class);
+
+    /**
+     * The width and the height of a cluster in tiles.
+     */
+    static final int CLUSTER_SIZE = 8;
+
+    /**
+     * The amount of tiles in a cluster.
+     */
+    private static final int TILES_PER_CLUSTER = CLUSTER_SIZE * CLUSTER_SIZE;
+
+    /**
+     * The maximal amount of separated areas within one cluster. Any further areas are merged into the last one.
+     */
+    static final int MAX_AREAS = 4;
+
+    /**
+     * The value of tiles that are not assigned to a area yet.
+     */
+    private static final byte NO_AREA = -1;
+
+    /**
+     * Paths to targets closer then this are searched right away without the cluster level.
+     */
+    private static final int MIN_CLUSTER_DISTANCE = 2 * CLUSTER_SIZE;
+
+    /**
+     * All directions in the order of their declaration.
+     */
+    @Nonnull
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The algorithm used to search the path on the tiles.
+     */
+    @Nonnull
+    private final AStar tileSearch = new AStar();
+
+    /**
+     * The working memory of the search on the clusters.
+     */
+    @Nonnull
+    private final SearchWorkspace clusterWorkspace = new SearchWorkspace();
+
+    /**
+     * The cost provider that limits the tile search to the clusters along the cluster path.
+     */
+    @Nonnull
+    private final CorridorCostProvider corridorCostProvider = new CorridorCostProvider();
+
+    /**
+     * The lowest costs to cross to each area of the next cluster.
+     */
+    @Nonnull
+    private final int[] crossingCosts = new int[MAX_AREAS];
+
+    /**
+     * The directions of the links of every tile of the cluster that is split into areas.
+     */
+    @Nonnull
+    private final byte[] tileLinks = new byte[TILES_PER_CLUSTER];
+
+    /**
+     * Tiles of the cluster that is split into areas that can be entered from within the cluster.
+     */
+    @Nonnull
+    private final boolean[] tileEnterable = new boolean[TILES_PER_CLUSTER];
+
+    /**
+     * The queue used to fill the areas of a cluster.
+     */
+    @Nonnull
+    private final int[] floodQueue = new int[TILES_PER_CLUSTER];
+
+    /**
+     * The areas of the tiles of all clusters in the search window.
+     */
+    @Nonnull
+    private byte[] tileAreas = new byte[0];
+
+    /**
+     * The clusters that were split into areas already. A cluster is split in case it stores the current value of
+     * {@link #areaGeneration}.
+     */
+    @Nonnull
+    private int[] areaStamps = new int[0];
+
+    /**
+     * The generation of the areas.
+     */
+    private int areaGeneration;
+
+    private int clusterOriginX;
+    private int clusterOriginY;
+    private int clusterWidth;
+    private int clusterHeight;
+    private int level;
+    private int startX;
+    private int startY;
+
+    /**
+     * The clusters that are part of the corridor. A cluster is part of the corridor in case it stores the current
+     * value of {@link #corridorGeneration}.
+     */
+    @Nonnull
+    private int[] corridor = new int[0];
+
+    /**
+     * The generation of the current corridor.
+     */
+    private int corridorGeneration;
+
+    /**
+     * The amount of nodes expanded during the last search on both levels.
+     */
+    private int expandedNodes;
+
+    @Nullable
+    @Override
+    public Path findPath(
+            @Nonnull MoveCostProvider costProvider,
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            int approachDistance, @Nonnull Collection<Direction> allowedDirections,
+            @Nonnull CharMovementMode movementMethod,
+            @Nonnull CharMovementMode... movementMethods) {
+        expandedNodes = 0;
+        if ((start.getZ() != end.getZ()) || (start.getStepDistance(end) < MIN_CLUSTER_DISTANCE)) {
+            Path path = tileSearch.findPath(costProvider, start, end, approachDistance, allowedDirections,
+                                            movementMethod, movementMethods);
+            expandedNodes = tileSearch.getExpandedNodeCount();
+            return path;
+        }
+
+        if (!findCorridor(costProvider, start, end, allowedDirections)) {
+            log.debug("No cluster path from {} to {} found. Searching the entire area.", start, end);
+            Path path = tileSearch.findPath(costProvider, start, end, approachDistance, allowedDirections,
+                                            movementMethod, movementMethods);
+            expandedNodes += tileSearch.getExpandedNodeCount();
+            return path;
+        }
+
+        corridorCostProvider.costProvider = costProvider;
+        Path path;
+        try {
+            path = tileSearch.findPath(corridorCostProvider, start, end, approachDistance, allowedDirections,
+                                       movementMethod, movementMethods);
+        } finally {
+            corridorCostProvider.costProvider = null;
+        }
+        expandedNodes += tileSearch.getExpandedNodeCount();
+
+        if (path == null) {
+            log.debug("Path from {} to {} is not within the cluster corridor. Searching the entire area.", start, end);
+            path = tileSearch.findPath(costProvider, start, end, approachDistance, allowedDirections, movementMethod,
+                                       movementMethods);
+            expandedNodes += tileSearch.getExpandedNodeCount();
+        }
+        return path;
+    }
+
+    /**
+     * Search the path on the clusters and store the clusters along it in the corridor.
+     *
+     * @param costProvider the provider of the movement costs
+     * @param start the start location
+     * @param end the target location
+     * @param allowedDirections the directions allowed for the moves
+     * @return {@code true} in case a path was found
+     */
+    private boolean findCorridor(
+            @Nonnull MoveCostProvider costProvider,
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            @Nonnull Collection<Direction> allowedDirections) {
+        int minX = Math.floorDiv(Math.min(start.getX(), end.getX()) - AStar.WINDOW_MARGIN, CLUSTER_SIZE);
+        int minY = Math.floorDiv(Math.min(start.getY(), end.getY()) - AStar.WINDOW_MARGIN, CLUSTER_SIZE);
+        int maxX = Math.floorDiv(Math.max(start.getX(), end.getX()) + AStar.WINDOW_MARGIN, CLUSTER_SIZE);
+        int maxY = Math.floorDiv(Math.max(start.getY(), end.getY()) + AStar.WINDOW_MARGIN, CLUSTER_SIZE);
+        int maxClusters = AStar.MAX_WINDOW_SIZE / CLUSTER_SIZE;
+        if (((maxX - minX) + 1) > maxClusters) {
+            minX = Math.floorDiv(start.getX(), CLUSTER_SIZE) - (maxClusters / 2);
+            maxX = (minX + maxClusters) - 1;
+        }
+        if (((maxY - minY) + 1) > maxClusters) {
+            minY = Math.floorDiv(start.getY(), CLUSTER_SIZE) - (maxClusters / 2);
+            maxY = (minY + maxClusters) - 1;
+        }
+        clusterOriginX = minX;
+        clusterOriginY = minY;
+        clusterWidth = (maxX - minX) + 1;
+        clusterHeight = (maxY - minY) + 1;
+        level = start.getZ();
+        startX = start.getX();
+        startY = start.getY();
+
+        costProvider.prepareArea(minX * CLUSTER_SIZE, minY * CLUSTER_SIZE, level, clusterWidth * CLUSTER_SIZE,
+                                 clusterHeight * CLUSTER_SIZE);
+        clusterWorkspace.reset(minX * MAX_AREAS, minY, level, clusterWidth * MAX_AREAS, clusterHeight);
+        resetAreas();
+
+        int endClusterX = Math.floorDiv(end.getX(), CLUSTER_SIZE);
+        int endClusterY = Math.floorDiv(end.getY(), CLUSTER_SIZE);
+        if (getClusterIndex(endClusterX, endClusterY) == SearchWorkspace.NONE) {
+            /* The target is too far away. Searching without the cluster level reports the path, if there is one. */
+            return false;
+        }
+
+        int startClusterX = Math.floorDiv(startX, CLUSTER_SIZE);
+        int startClusterY = Math.floorDiv(startY, CLUSTER_SIZE);
+        int startArea = getArea(costProvider, startX, startY);
+        int currentNode = clusterWorkspace.getIndex((startClusterX * MAX_AREAS) + startArea, startClusterY);
+        clusterWorkspace.setStart(currentNode);
+        while (true) {
+            int clusterX = Math.floorDiv(clusterWorkspace.getX(currentNode), MAX_AREAS);
+            int clusterY = clusterWorkspace.getY(currentNode);
+            if ((clusterX == endClusterX) && (clusterY == endClusterY)) {
+                buildCorridor(currentNode);
+                return true;
+            }
+            if ((expandedNodes % AStar.CANCEL_CHECK_INTERVAL) == 0) {
+                AsyncPathFinder.checkCancelled();
+            }
+            expandArea(costProvider, currentNode, endClusterX, endClusterY, allowedDirections);
+            currentNode = clusterWorkspace.poll();
+            if (currentNode == SearchWorkspace.NONE) {
+                return false;
+            }
+        }
+    }
+
+    private void expandArea(
+            @Nonnull MoveCostProvider costProvider,
+            int node,
+            int endClusterX,
+            int endClusterY,
+            @Nonnull Collection<Direction> allowedDirections) {
+        expandedNodes++;
+        int clusterX = Math.floorDiv(clusterWorkspace.getX(node), MAX_AREAS);
+        int clusterY = clusterWorkspace.getY(node);
+        int area = Math.floorMod(clusterWorkspace.getX(node), MAX_AREAS);
+        int nodeCost = clusterWorkspace.getCost(node);
+        for (Direction dir : DIRECTIONS) {
+            if (!allowedDirections.contains(dir)) {
+                continue;
+            }
+            int neighbourX = clusterX + dir.getDirectionVectorX();
+            int neighbourY = clusterY + dir.getDirectionVectorY();
+            if (getClusterIndex(neighbourX, neighbourY) == SearchWorkspace.NONE) {
+                continue;
+            }
+            if (!findCrossings(costProvider, clusterX, clusterY, area, dir, allowedDirections)) {
+                continue;
+            }
+            int distanceCost = (dir.isDiagonal() ? AStar.WALK_COST_DIAGONAL : AStar.WALK_COST) * CLUSTER_SIZE;
+            int heuristic = AStar.getHeuristic(neighbourX, neighbourY, endClusterX, endClusterY) * CLUSTER_SIZE;
+            for (int neighbourArea = 0; neighbourArea < MAX_AREAS; neighbourArea++) {
+                int crossingCost = crossingCosts[neighbourArea];
+                if (crossingCost != MoveCostProvider.BLOCKED) {
+                    int neighbourNode = clusterWorkspace.getIndex((neighbourX * MAX_AREAS) + neighbourArea, neighbourY);
+                    clusterWorkspace.offer(neighbourNode, nodeCost + crossingCost + distanceCost, heuristic, node,
+                                           CharMovementMode.Walk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the steps from an area of a cluster to the areas of the next cluster. The lowest costs of the steps to
+     * each area of the next cluster are stored in {@link #crossingCosts}. Next to the straight steps across the
+     * border between the clusters, the diagonal steps that end in the next cluster are checked as well.
+     *
+     * @param costProvider the provider of the movement costs
+     * @param clusterX the x coordinate of the cluster
+     * @param clusterY the y coordinate of the cluster
+     * @param area the area of the cluster the steps start in
+     * @param dir the direction to the next cluster
+     * @param allowedDirections the directions allowed for the steps
+     * @return {@code true} in case at least one step is possible
+     */
+    private boolean findCrossings(
+            @Nonnull MoveCostProvider costProvider,
+            int clusterX,
+            int clusterY,
+            int area,
+            @Nonnull Direction dir,
+            @Nonnull Collection<Direction> allowedDirections) {
+        Arrays.fill(crossingCosts, MoveCostProvider.BLOCKED);
+
+        int dX = dir.getDirectionVectorX();
+        int dY = dir.getDirectionVectorY();
+        int firstX = clusterX * CLUSTER_SIZE;
+        int firstY = clusterY * CLUSTER_SIZE;
+        int lastX = (firstX + CLUSTER_SIZE) - 1;
+        int lastY = (firstY + CLUSTER_SIZE) - 1;
+
+        /* Only the tile in the corner touches the diagonal neighbour. */
+        int borderTiles = dir.isDiagonal() ? 1 : CLUSTER_SIZE;
+        boolean found = false;
+        for (int i = 0; i < borderTiles; i++) {
+            int x;
+            int y;
+            if (dX == 0) {
+                x = firstX + i;
+            } else {
+                x = (dX > 0) ? lastX : firstX;
+            }
+            if (dY == 0) {
+                y = firstY + i;
+            } else {
+                y = (dY > 0) ? lastY : firstY;
+            }
+            if (getArea(costProvider, x, y) != area) {
+                continue;
+            }
+            for (Direction stepDir : DIRECTIONS) {
+                if (!allowedDirections.contains(stepDir)) {
+                    continue;
+                }
+                int stepX = stepDir.getDirectionVectorX();
+                int stepY = stepDir.getDirectionVectorY();
+                /* Every step that crosses the border the same way the direction to the next cluster does. */
+                if (((dX != 0) && (stepX != dX)) || ((dY != 0) && (stepY != dY))) {
+                    continue;
+                }
+                int targetX = x + stepX;
+                int targetY = y + stepY;
+                if ((Math.floorDiv(targetX, CLUSTER_SIZE) != (clusterX + dX)) ||
+                        (Math.floorDiv(targetY, CLUSTER_SIZE) != (clusterY + dY))) {
+                    continue;
+                }
+                int cost = costProvider.getMovementCost(x, y, level, CharMovementMode.Walk, stepDir);
+                if (cost == MoveCostProvider.BLOCKED) {
+                    continue;
+                }
+                int targetArea = getArea(costProvider, targetX, targetY);
+                int knownCost = crossingCosts[targetArea];
+                if ((knownCost == MoveCostProvider.BLOCKED) || (cost < knownCost)) {
+                    crossingCosts[targetArea] = cost;
+                }
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    @Contract(pure = true)
+    private int getClusterIndex(int clusterX, int clusterY) {
+        int localX = clusterX - clusterOriginX;
+        int localY = clusterY - clusterOriginY;
+        if ((localX < 0) || (localY < 0) || (localX >= clusterWidth) || (localY >= clusterHeight)) {
+            return SearchWorkspace.NONE;
+        }
+        return (localY * clusterWidth) + localX;
+    }
+
+    /**
+     * Discard the areas of all clusters. The areas are determined again once they are needed.
+     */
+    private void resetAreas() {
+        int size = clusterWidth * clusterHeight;
+        if (areaStamps.length < size) {
+            areaStamps = new int[size];
+            tileAreas = new byte[size * TILES_PER_CLUSTER];
+            areaGeneration = 0;
+        }
+        areaGeneration++;
+        if (areaGeneration == 0) {
+            Arrays.fill(areaStamps, 0);
+            areaGeneration = 1;
+        }
+    }
+
+    /**
+     * Get the area of the cluster a tile belongs to. The tile has to be located in a cluster of the search window.
+     *
+     * @param costProvider the provider of the movement costs
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     * @return the area of the tile
+     */
+    private int getArea(@Nonnull MoveCostProvider costProvider, int x, int y) {
+        int clusterX = Math.floorDiv(x, CLUSTER_SIZE);
+        int clusterY = Math.floorDiv(y, CLUSTER_SIZE);
+        int clusterIndex = getClusterIndex(clusterX, clusterY);
+        if (areaStamps[clusterIndex] != areaGeneration) {
+            findAreas(costProvider, clusterIndex, clusterX, clusterY);
+            areaStamps[clusterIndex] = areaGeneration;
+        }
+        int localX = x - (clusterX * CLUSTER_SIZE);
+        int localY = y - (clusterY * CLUSTER_SIZE);
+        return tileAreas[(clusterIndex * TILES_PER_CLUSTER) + (localY * CLUSTER_SIZE) + localX];
+    }
+
+    /**
+     * Split a cluster into the areas that are connected within the cluster. Tiles that can't be entered from
+     * within the cluster and all areas beyond the maximal amount of areas are assigned to the last area.
+     *
+     * @param costProvider the provider of the movement costs
+     * @param clusterIndex the index of the cluster
+     * @param clusterX the x coordinate of the cluster
+     * @param clusterY the y coordinate of the cluster
+     */
+    private void findAreas(@Nonnull MoveCostProvider costProvider, int clusterIndex, int clusterX, int clusterY) {
+        int firstX = clusterX * CLUSTER_SIZE;
+        int firstY = clusterY * CLUSTER_SIZE;
+
+        Arrays.fill(tileLinks, (byte) 0);
+        Arrays.fill(tileEnterable, false);
+        for (int tile = 0; tile < TILES_PER_CLUSTER; tile++) {
+            int localX = tile % CLUSTER_SIZE;
+            int localY = tile / CLUSTER_SIZE;
+            for (Direction dir : DIRECTIONS) {
+                int neighbourX = localX + dir.getDirectionVectorX();
+                int neighbourY = localY + dir.getDirectionVectorY();
+                if ((neighbourX < 0) || (neighbourY < 0) || (neighbourX >= CLUSTER_SIZE) ||
+                        (neighbourY >= CLUSTER_SIZE)) {
+                    continue;
+                }
+                int cost = costProvider.getMovementCost(firstX + localX, firstY + localY, level,
+                                                        CharMovementMode.Walk, dir);
+                if (cost != MoveCostProvider.BLOCKED) {
+                    int neighbour = (neighbourY * CLUSTER_SIZE) + neighbourX;
+                    /* The areas are undirected, so the link is stored for both tiles. */
+                    tileLinks[tile] |= 1 << dir.ordinal();
+                    tileLinks[neighbour] |= 1 << ((dir.ordinal() + 4) % DIRECTIONS.length);
+                    tileEnterable[neighbour] = true;
+                }
+            }
+        }
+        if ((Math.floorDiv(startX, CLUSTER_SIZE) == clusterX) && (Math.floorDiv(startY, CLUSTER_SIZE) == clusterY)) {
+            /* The start location is occupied by the character that is moving, but of course its part of the area. */
+            tileEnterable[((startY - firstY) * CLUSTER_SIZE) + (startX - firstX)] = true;
+        }
+
+        int offset = clusterIndex * TILES_PER_CLUSTER;
+        Arrays.fill(tileAreas, offset, offset + TILES_PER_CLUSTER, NO_AREA);
+        int nextArea = 0;
+        for (int tile = 0; tile < TILES_PER_CLUSTER; tile++) {
+            if (tileAreas[offset + tile] != NO_AREA) {
+                continue;
+            }
+            if (!tileEnterable[tile]) {
+                tileAreas[offset + tile] = MAX_AREAS - 1;
+                continue;
+            }
+            byte area = (byte) nextArea;
+            if (nextArea < (MAX_AREAS - 1)) {
+                nextArea++;
+            }
+            tileAreas[offset + tile] = area;
+            int queueHead = 0;
+            int queueTail = 0;
+            floodQueue[queueTail++] = tile;
+            while (queueHead < queueTail) {
+                int current = floodQueue[queueHead++];
+                int links = tileLinks[current];
+                for (Direction dir : DIRECTIONS) {
+                    if ((links & (1 << dir.ordinal())) == 0) {
+                        continue;
+                    }
+                    int neighbour = current + (dir.getDirectionVectorY() * CLUSTER_SIZE) + dir.getDirectionVectorX();
+                    if (tileEnterable[neighbour] && (tileAreas[offset + neighbour] == NO_AREA)) {
+                        tileAreas[offset + neighbour] = area;
+                        floodQueue[queueTail++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark the clusters along the path to the target cluster and the clusters right next to them as corridor.
+     *
+     * @param endNode the node of the target cluster
+     */
+    private void buildCorridor(int endNode) {
+        int size = clusterWidth * clusterHeight;
+        if (corridor.length < size) {
+            corridor = new int[size];
+            corridorGeneration = 0;
+        }
+        corridorGeneration++;
+        if (corridorGeneration == 0) {
+            Arrays.fill(corridor, 0);
+            corridorGeneration = 1;
+        }
+
+        int current = endNode;
+        while (current != SearchWorkspace.NONE) {
+            int clusterX = Math.floorDiv(clusterWorkspace.getX(current), MAX_AREAS);
+            int clusterY = clusterWorkspace.getY(current);
+            for (int dY = -1; dY <= 1; dY++) {
+                for (int dX = -1; dX <= 1; dX++) {
+                    int index = getClusterIndex(clusterX + dX, clusterY + dY);
+                    if (index != SearchWorkspace.NONE) {
+                        corridor[index] = corridorGeneration;
+                    }
+                }
+            }
+            current = clusterWorkspace.getParent(current);
+        }
+    }
+
+    @Contract(pure = true)
+    private boolean isInCorridor(int x, int y) {
+        int index = getClusterIndex(Math.floorDiv(x, CLUSTER_SIZE), Math.floorDiv(y, CLUSTER_SIZE));
+        return (index != SearchWorkspace.NONE) && (corridor[index] == corridorGeneration);
+    }
+
+    @Override
+    public int getExpandedNodeCount() {
+        return expandedNodes;
+    }
+
+    /**
+     * This cost provider blocks all moves that leave the corridor and forwards all other requests.
+     */
+    private final class CorridorCostProvider implements MoveCostProvider {
+        @Nullable
+        private MoveCostProvider costProvider;
+
+        @Nonnull
+        private MoveCostProvider getCostProvider() {
+            MoveCostProvider provider = costProvider;
+            if (provider == null) {
+                throw new IllegalStateException("The corridor is not in use.");
+            }
+            return provider;
+        }
+
+        @Override
+        public int getMovementCost(
+                @Nonnull ServerCoordinate origin, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+            return getMovementCost(origin.getX(), origin.getY(), origin.getZ(), mode, direction);
+        }
+
+        @Override
+        public int getMovementCost(
+                int originX, int originY, int originZ, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+            int steps = (mode == CharMovementMode.Run) ? 2 : 1;
+            if (!isInCorridor(originX + (direction.getDirectionVectorX() * steps),
+                              originY + (direction.getDirectionVectorY() * steps))) {
+                return BLOCKED;
+            }
+            return getCostProvider().getMovementCost(originX, originY, originZ, mode, direction);
+        }
+
+        @Override
+        public void prepareArea(int originX, int originY, int level, int width, int height) {
+            getCostProvider().prepareArea(originX, originY, level, width, height);
+        }
+    }
+}
@@ -68,10 +68,27 @@ public class MeasureWrapper implements PathFindingAlgorithm {
                 .findPath(costProvider, start, end, approachDistance, allowedDirections, movementMethod, movementMethods);
         if (LOGGER.isInfoEnabled()) {
             long timeElapsed = System.currentTimeMillis() - startTime;
-            LOGGER.info("Path finding from {} to {} took {} milliseconds to create {} using the directions {}", start,
-                        end, timeElapsed, path, allowedDirections);
+            LOGGER.info("Path finding from {} to {} took {} milliseconds and {} expanded nodes ({} expanded again) " +
+                                "to create {} using the directions {}", start, end, timeElapsed,
+                        wrappedAlgorithm.getExpandedNodeCount(), wrappedAlgorithm.getReExpandedNodeCount(), path,
+                        allowedDirections);
         }
 
         return path;
     }
+
+    @Override
+    public int getExpandedNodeCount() {
+        return wrappedAlgorithm.getExpandedNodeCount();
+    }
+
+    @Override
+    public int getReExpandedNodeCount() {
+        return wrappedAlgorithm.getReExpandedNodeCount();
+    }
+
+    @Override
+    public void reset() {
+        wrappedAlgorithm.reset();
+    }
 }
@@ -20,6 +20,7 @@ import illarion.common.types.Direction;
 import illarion.common.types.ServerCoordinate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * This interface is used in the path finding algorithms to supply them with the movement costs for a step from one
@@ -34,6 +35,12 @@ public interface MoveCostProvider {
      */
     int BLOCKED = -1;
 
+    /**
+     * Constant return value for {@link #getCostVersion()} in case the provider does not track the changes of the
+     * costs.
+     */
+    int NO_VERSION = -1;
+
     /**
      * Get the cost for a move from the origin.
      *
@@ -43,4 +50,56 @@ public interface MoveCostProvider {
      * @return the cost of the move or {@link #BLOCKED} in case the move is not possible
      */
     int getMovementCost(@Nonnull ServerCoordinate origin, @Nonnull CharMovementMode mode, @Nonnull Direction direction);
+
+    /**
+     * Get the cost for a move from the origin. Providers that are able to supply the costs without the coordinate
+     * object should override this function, as its called by the path finding algorithms for every expanded node.
+     *
+     * @param originX the x coordinate of the start location of the move
+     * @param originY the y coordinate of the start location of the move
+     * @param originZ the z coordinate of the start location of the move
+     * @param mode the movement method
+     * @param direction the direction of the move
+     * @return the cost of the move or {@link #BLOCKED} in case the move is not possible
+     */
+    default int getMovementCost(
+            int originX, int originY, int originZ, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        return getMovementCost(new ServerCoordinate(originX, originY, originZ), mode, direction);
+    }
+
+    /**
+     * This function is called by the path finding algorithms before a search starts. It reports the area the
+     * algorithm is going to query. Providers that cache the movement costs are able to prepare the caches here.
+     *
+     * @param originX the x coordinate of the north western corner of the area
+     * @param originY the y coordinate of the north western corner of the area
+     * @param level the level of the area
+     * @param width the width of the area
+     * @param height the height of the area
+     */
+    default void prepareArea(int originX, int originY, int level, int width, int height) {
+    }
+
+    /**
+     * Get the version of the movement costs. Incremental algorithms remember the version of the costs they used, so
+     * they are able to request the locations that changed since then by {@link #getChangedLocations(int)}.
+     *
+     * @return the version of the costs or {@link #NO_VERSION} in case the changes are not tracked
+     */
+    default int getCostVersion() {
+        return NO_VERSION;
+    }
+
+    /**
+     * Get the locations that changed their movement costs after a earlier version of the costs. All moves that start
+     * at, end at or run across those locations have to be checked again.
+     *
+     * @param sinceVersion the version of the costs the changes are requested for
+     * @return the x and y coordinates of the changed locations stored alternately or {@code null} in case the changes
+     * are not known and all costs have to be checked again
+     */
+    @Nullable
+    default int[] getChangedLocations(int sinceVersion) {
+        return null;
+    }
 }
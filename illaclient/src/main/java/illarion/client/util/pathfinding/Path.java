@@ -79,6 +79,26 @@ public final class Path {
         return node;
     }
 
+    /**
+     * Remove all steps of the path up to the step that leads to the location. This is used to continue a path from a
+     * location along the path.
+     *
+     * @param location the location
+     * @return {@code true} in case the path leads to the location, {@code false} in case it does not and the path
+     * remains unchanged
+     */
+    public boolean skipTo(@Nonnull ServerCoordinate location) {
+        int index = 0;
+        for (PathNode node : path) {
+            index++;
+            if (location.equals(node.getLocation())) {
+                path.subList(0, index).clear();
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Check if the path is now empty.
      *
@@ -53,4 +53,29 @@ public interface PathFindingAlgorithm {
             int approachDistance, @Nonnull Collection<Direction> allowedDirections,
             @Nonnull CharMovementMode movementMethod,
             @Nonnull CharMovementMode... movementMethods);
+
+    /**
+     * Get the amount of nodes that were expanded by the last search. This is used to compare the algorithms.
+     *
+     * @return the amount of expanded nodes or {@code -1} in case the algorithm does not count them
+     */
+    default int getExpandedNodeCount() {
+        return -1;
+    }
+
+    /**
+     * Get the amount of nodes expanded by the last search that were expanded by a earlier search already. This is the
+     * work a incremental algorithm had to repeat.
+     *
+     * @return the amount of nodes expanded again or {@code -1} in case the algorithm does not count them
+     */
+    default int getReExpandedNodeCount() {
+        return -1;
+    }
+
+    /**
+     * Discard any data kept from earlier searches. The next search starts over.
+     */
+    default void reset() {
+    }
 }
@@ -0,0 +1,342 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.ServerCoordinate;
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * This is the reusable working memory of the path finding algorithms that search a grid of tiles. The search is
+ * limited to a rectangular window of the map. All the data of a node is stored in primitive arrays that are indexed by
+ * the location of the node inside the window. The arrays only grow and are reused by the following searches. Nodes
+ * that were touched by previous searches are detected with a generation counter, so the arrays never need to be
+ * cleared.
+ * <p/>
+ * The open nodes are kept in a binary heap that supports lowering the cost of a node that is already queued.
+ */
+@NotThreadSafe
+final class SearchWorkspace {
+    /**
+     * The value used for nodes without a parent and for nodes that are not part of the heap.
+     */
+    static final int NONE = -1;
+
+    /**
+     * The movement modes in the order used to store them.
+     */
+    @Nonnull
+    private static final CharMovementMode[] MODES = CharMovementMode.values();
+
+    /**
+     * The state of a node that is queued in the open heap.
+     */
+    private static final byte STATE_OPEN = 1;
+
+    /**
+     * The state of a node that was expanded.
+     */
+    private static final byte STATE_CLOSED = 2;
+
+    private int originX;
+    private int originY;
+    private int level;
+    private int width;
+    private int height;
+
+    /**
+     * The generation of the current search. Nodes with a different generation stamp are unvisited.
+     */
+    private int generation;
+
+    @Nonnull
+    private int[] stamps = new int[0];
+    @Nonnull
+    private byte[] states = new byte[0];
+    @Nonnull
+    private int[] costs = new int[0];
+    @Nonnull
+    private int[] estimates = new int[0];
+    @Nonnull
+    private int[] heuristics = new int[0];
+    @Nonnull
+    private int[] parents = new int[0];
+    @Nonnull
+    private byte[] modes = new byte[0];
+    @Nonnull
+    private int[] heapPositions = new int[0];
+    @Nonnull
+    private int[] heap = new int[0];
+    private int heapSize;
+
+    /**
+     * Prepare the workspace for a new search.
+     *
+     * @param originX the x coordinate of the north western corner of the search window
+     * @param originY the y coordinate of the north western corner of the search window
+     * @param level the level of the search
+     * @param width the width of the search window
+     * @param height the height of the search window
+     */
+    void reset(int originX, int originY, int level, int width, int height) {
+        this.originX = originX;
+        this.originY = originY;
+        this.level = level;
+        this.width = width;
+        this.height = height;
+
+        int size = width * height;
+        if (stamps.length < size) {
+            stamps = new int[size];
+            states = new byte[size];
+            costs = new int[size];
+            estimates = new int[size];
+            heuristics = new int[size];
+            parents = new int[size];
+            modes = new byte[size];
+            heapPositions = new int[size];
+            heap = new int[size];
+            generation = 0;
+        }
+        generation++;
+        if (generation == 0) {
+            // the counter wrapped around, old stamps could be mistaken for the current generation
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        heapSize = 0;
+    }
+
+    @Contract(pure = true)
+    int getOriginX() {
+        return originX;
+    }
+
+    @Contract(pure = true)
+    int getOriginY() {
+        return originY;
+    }
+
+    @Contract(pure = true)
+    int getWidth() {
+        return width;
+    }
+
+    @Contract(pure = true)
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the index of a location.
+     *
+     * @param x the x coordinate of the location
+     * @param y the y coordinate of the location
+     * @return the index of the node or {@link #NONE} in case the location is outside of the search window
+     */
+    @Contract(pure = true)
+    int getIndex(int x, int y) {
+        int localX = x - originX;
+        int localY = y - originY;
+        if ((localX < 0) || (localY < 0) || (localX >= width) || (localY >= height)) {
+            return NONE;
+        }
+        return (localY * width) + localX;
+    }
+
+    @Contract(pure = true)
+    int getX(int index) {
+        return originX + (index % width);
+    }
+
+    @Contract(pure = true)
+    int getY(int index) {
+        return originY + (index / width);
+    }
+
+    @Contract(pure = true)
+    boolean isVisited(int index) {
+        return stamps[index] == generation;
+    }
+
+    @Contract(pure = true)
+    boolean isClosed(int index) {
+        return isVisited(index) && (states[index] == STATE_CLOSED);
+    }
+
+    @Contract(pure = true)
+    int getCost(int index) {
+        return costs[index];
+    }
+
+    @Contract(pure = true)
+    int getParent(int index) {
+        return parents[index];
+    }
+
+    @Nonnull
+    @Contract(pure = true)
+    CharMovementMode getMode(int index) {
+        return MODES[modes[index]];
+    }
+
+    /**
+     * Set the start node of the search. The start node is closed right away.
+     *
+     * @param index the index of the start node
+     */
+    void setStart(int index) {
+        stamps[index] = generation;
+        states[index] = STATE_CLOSED;
+        costs[index] = 0;
+        heuristics[index] = 0;
+        estimates[index] = 0;
+        parents[index] = NONE;
+        modes[index] = (byte) CharMovementMode.None.ordinal();
+        heapPositions[index] = NONE;
+    }
+
+    /**
+     * Offer a new way to reach a node. The node is queued in case its not visited yet or in case the new way is
+     * cheaper then the known one. Nodes that were already expanded are queued again in this case.
+     *
+     * @param index the index of the node
+     * @param cost the cost to reach the node on the new way
+     * @param heuristic the estimated cost to reach the target from the node
+     * @param parent the index of the node the new way comes from
+     * @param mode the movement mode used for the last step
+     * @return {@code true} in case the node was queued or its cost got lowered
+     */
+    boolean offer(int index, int cost, int heuristic, int parent, @Nonnull CharMovementMode mode) {
+        if (isVisited(index)) {
+            if (costs[index] <= cost) {
+                return false;
+            }
+        } else {
+            stamps[index] = generation;
+            heapPositions[index] = NONE;
+        }
+        costs[index] = cost;
+        heuristics[index] = heuristic;
+        estimates[index] = cost + heuristic;
+        parents[index] = parent;
+        modes[index] = (byte) mode.ordinal();
+        states[index] = STATE_OPEN;
+
+        int position = heapPositions[index];
+        if (position == NONE) {
+            position = heapSize++;
+            heap[position] = index;
+            heapPositions[index] = position;
+        }
+        siftUp(position);
+        return true;
+    }
+
+    /**
+     * Remove the open node with the lowest estimated total cost from the heap and close it.
+     *
+     * @return the index of the node or {@link #NONE} in case there are no open nodes left
+     */
+    int poll() {
+        if (heapSize == 0) {
+            return NONE;
+        }
+        int result = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            int last = heap[heapSize];
+            heap[0] = last;
+            heapPositions[last] = 0;
+            siftDown(0);
+        }
+        heapPositions[result] = NONE;
+        states[result] = STATE_CLOSED;
+        return result;
+    }
+
+    /**
+     * Build the path that leads to a node. The start node is not part of the path.
+     *
+     * @param index the index of the last node of the path
+     * @return the path
+     */
+    @Nonnull
+    Path buildPath(int index) {
+        LinkedList<PathNode> path = new LinkedList<>();
+        int current = index;
+        while (parents[current] != NONE) {
+            path.addFirst(new GridPathNode(new ServerCoordinate(getX(current), getY(current), level),
+                                           getMode(current)));
+            current = parents[current];
+        }
+        return new Path(path);
+    }
+
+    @Contract(pure = true)
+    private boolean isBefore(int index, int otherIndex) {
+        int result = Integer.compare(estimates[index], estimates[otherIndex]);
+        if (result == 0) {
+            // prefer the nodes closer to the target
+            return heuristics[index] < heuristics[otherIndex];
+        }
+        return result < 0;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        int current = position;
+        while (current > 0) {
+            int parentPosition = (current - 1) >>> 1;
+            int parentIndex = heap[parentPosition];
+            if (!isBefore(index, parentIndex)) {
+                break;
+            }
+            heap[current] = parentIndex;
+            heapPositions[parentIndex] = current;
+            current = parentPosition;
+        }
+        heap[current] = index;
+        heapPositions[index] = current;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        int current = position;
+        int half = heapSize >>> 1;
+        while (current < half) {
+            int child = (current << 1) + 1;
+            int right = child + 1;
+            if ((right < heapSize) && isBefore(heap[right], heap[child])) {
+                child = right;
+            }
+            int childIndex = heap[child];
+            if (!isBefore(childIndex, index)) {
+                break;
+            }
+            heap[current] = childIndex;
+            heapPositions[childIndex] = current;
+            current = child;
+        }
+        heap[current] = index;
+        heapPositions[index] = current;
+    }
+}
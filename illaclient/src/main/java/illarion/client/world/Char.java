@@ -90,6 +90,14 @@ public final class Char implements AnimatedMove {
      * Minimal scale value for the character.
      */
     private static final float MINIMAL_SCALE = 0.8f;
+    /**
+     * The largest part of a step the movement of the character is continued in case the next move is overdue.
+     */
+    private static final float MAX_EXTRAPOLATION_STEP = 0.5f;
+    /**
+     * The time in milliseconds used to move the character back in case its continued movement was wrong.
+     */
+    private static final int CORRECTION_DURATION = 100;
     /**
      * This color is used to display the name in case the character is a player character.
      */
@@ -230,6 +238,17 @@ public final class Char implements AnimatedMove {
      * Once this value is turned {@code true} the character is removed from the game.
      */
     private boolean removedCharacter;
+    /**
+     * The buffer of the moves received for this character. This is only used in case the moves of the characters are
+     * interpolated.
+     */
+    @Nullable
+    private RemoteMoveInterpolator remoteMoves;
+    /**
+     * This flag is {@code true} while the character is displayed ahead of its location, because its movement was
+     * continued while the next move is overdue.
+     */
+    private boolean extrapolating;
 
     /**
      * Constructor to create a new character.
@@ -394,6 +413,10 @@ public final class Char implements AnimatedMove {
      */
     @Override
     public void animationFinished(boolean finished) {
+        if (extrapolating) {
+            animationInProgress = false;
+            return;
+        }
         if (location != null) {
             displayPos = getDisplayCoordinatesAt(location);
         }
@@ -846,6 +869,7 @@ public final class Char implements AnimatedMove {
             log.debug("{}: Setting character location to: {}", this, newLoc);
             setPosition(getDisplayCoordinatesAt(newLoc));
         }
+        World.getUpdateTaskManager().addTask((container, delta) -> resetRemoteMoves());
     }
 
     /**
@@ -1022,7 +1046,176 @@ public final class Char implements AnimatedMove {
      * @param duration the duration of the animation in milliseconds
      */
     public void moveTo(@Nonnull ServerCoordinate newPos, @Nonnull CharMovementMode mode, int duration) {
-        World.getUpdateTaskManager().addTask((container, delta) -> moveToInternal(newPos, mode, duration));
+        long arrivalTime = System.currentTimeMillis();
+        World.getUpdateTaskManager().addTask((container, delta) -> {
+            if (isMoveInterpolated()) {
+                bufferMove(arrivalTime, newPos, mode, duration);
+            } else {
+                moveToInternal(newPos, mode, duration);
+            }
+        });
+    }
+
+    /**
+     * Check if the moves of this character are buffered and played back with a delay.
+     *
+     * @return {@code true} in case the moves of this character are interpolated
+     */
+    private boolean isMoveInterpolated() {
+        CharacterId characterId = getCharId();
+        return (characterId != null) && !World.getPlayer().isPlayer(characterId) &&
+                World.getPeople().isRemoteMoveInterpolation();
+    }
+
+    /**
+     * Store a move in the buffer of this character. The move is played back once it is due.
+     *
+     * @param arrivalTime the time the move was received
+     * @param newPos the target location of the move
+     * @param mode the mode of the move
+     * @param duration the duration of the animation in milliseconds
+     */
+    private void bufferMove(long arrivalTime, @Nonnull ServerCoordinate newPos, @Nonnull CharMovementMode mode,
+                            int duration) {
+        RemoteMoveInterpolator interpolator = remoteMoves;
+        if (interpolator == null) {
+            interpolator = new RemoteMoveInterpolator();
+            remoteMoves = interpolator;
+        }
+        interpolator.add(arrivalTime, newPos, mode, duration);
+    }
+
+    /**
+     * Get the statistics of the moves of this character that were buffered.
+     *
+     * @return the move buffer of this character or {@code null} in case the moves of this character were never
+     * interpolated
+     */
+    @Nullable
+    @Contract(pure = true)
+    public RemoteMoveInterpolator getRemoteMoveStatistics() {
+        return remoteMoves;
+    }
+
+    /**
+     * Play back the buffered moves of this character that are due. In case the next move is overdue the movement
+     * of the character is continued for a short while and reverted in case it turns out to be wrong.
+     *
+     * @param currentTime the current time
+     * @param delay the delay in milliseconds applied to the playback of the moves
+     * @param extrapolationLimit the maximal time in milliseconds the movement is continued without a move
+     */
+    void updateRemoteMoves(long currentTime, int delay, int extrapolationLimit) {
+        RemoteMoveInterpolator interpolator = remoteMoves;
+        if ((interpolator == null) || removedCharacter) {
+            return;
+        }
+        if (move.isRunning() && !extrapolating) {
+            return;
+        }
+
+        RemoteMoveInterpolator.BufferedMove next = interpolator.poll(currentTime, delay);
+        if (next != null) {
+            playRemoteMove(interpolator, next);
+        } else if (!move.isRunning()) {
+            if (extrapolating) {
+                if (interpolator.isCorrectionRequired(currentTime)) {
+                    revertExtrapolation(interpolator);
+                }
+            } else if ((extrapolationLimit > 0) && interpolator.isExtrapolationRequired()) {
+                startExtrapolation(interpolator, currentTime, extrapolationLimit);
+            }
+        }
+    }
+
+    /**
+     * Play back a move from the buffer.
+     *
+     * @param interpolator the move buffer of this character
+     * @param bufferedMove the move to play back
+     */
+    private void playRemoteMove(@Nonnull RemoteMoveInterpolator interpolator,
+                                @Nonnull RemoteMoveInterpolator.BufferedMove bufferedMove) {
+        DisplayCoordinate startPos = null;
+        if (extrapolating) {
+            startPos = displayPos;
+            extrapolating = false;
+            move.stop();
+            if (location != null) {
+                DisplayCoordinate locationPos = getDisplayCoordinatesAt(location);
+                if (startPos != null) {
+                    interpolator.notifyCorrection(getDistance(startPos, locationPos));
+                }
+                setPosition(locationPos);
+            }
+        }
+        moveToInternal(bufferedMove.target, bufferedMove.mode, bufferedMove.playbackDuration, startPos);
+    }
+
+    /**
+     * Continue the last step of the character, because the next move is overdue.
+     *
+     * @param interpolator the move buffer of this character
+     * @param currentTime the current time
+     * @param extrapolationLimit the maximal time in milliseconds the movement is continued
+     */
+    private void startExtrapolation(@Nonnull RemoteMoveInterpolator interpolator, long currentTime,
+                                    int extrapolationLimit) {
+        ServerCoordinate origin = interpolator.getLastStepOrigin();
+        int stepDuration = interpolator.getLastStepDuration();
+        if ((origin == null) || (location == null) || (displayPos == null) || (stepDuration <= 0)) {
+            return;
+        }
+
+        int duration = Math.min(extrapolationLimit, Math.round(stepDuration * MAX_EXTRAPOLATION_STEP));
+        DisplayCoordinate originPos = getDisplayCoordinatesAt(origin);
+        DisplayCoordinate targetPos = getDisplayCoordinatesAt(location);
+        float fraction = (float) duration / stepDuration;
+        DisplayCoordinate extrapolatedPos = new DisplayCoordinate(displayPos,
+                Math.round((targetPos.getX() - originPos.getX()) * fraction),
+                Math.round((targetPos.getY() - originPos.getY()) * fraction), 0);
+
+        interpolator.notifyExtrapolation(currentTime, duration);
+        extrapolating = true;
+        move.start(displayPos, extrapolatedPos, duration);
+    }
+
+    /**
+     * Move the character back to its location, because no move arrived after its movement was continued.
+     *
+     * @param interpolator the move buffer of this character
+     */
+    private void revertExtrapolation(@Nonnull RemoteMoveInterpolator interpolator) {
+        extrapolating = false;
+        if ((location == null) || (displayPos == null)) {
+            return;
+        }
+        DisplayCoordinate locationPos = getDisplayCoordinatesAt(location);
+        interpolator.notifyCorrection(getDistance(displayPos, locationPos));
+        move.start(displayPos, locationPos, CORRECTION_DURATION);
+    }
+
+    /**
+     * Remove all buffered moves, because the location of the character was set directly.
+     */
+    private void resetRemoteMoves() {
+        RemoteMoveInterpolator interpolator = remoteMoves;
+        if (interpolator == null) {
+            return;
+        }
+        interpolator.clear();
+        if (extrapolating) {
+            extrapolating = false;
+            move.stop();
+            if (location != null) {
+                setPosition(getDisplayCoordinatesAt(location));
+            }
+        }
+    }
+
+    @Contract(pure = true)
+    private static int getDistance(@Nonnull DisplayCoordinate from, @Nonnull DisplayCoordinate to) {
+        return (int) Math.round(Math.hypot(to.getX() - from.getX(), to.getY() - from.getY()));
     }
 
     public void updateMoveDuration(int newDuration) {
@@ -1039,6 +1232,19 @@ public final class Char implements AnimatedMove {
     }
 
     private void moveToInternal(@Nonnull ServerCoordinate newPos, @Nonnull CharMovementMode mode, int duration) {
+        moveToInternal(newPos, mode, duration, null);
+    }
+
+    /**
+     * Move the character to a new position.
+     *
+     * @param newPos the target location of the move
+     * @param mode the mode of the move
+     * @param duration the duration of the animation in milliseconds
+     * @param startPos the display position the animation starts at or {@code null} to start at the current location
+     */
+    private void moveToInternal(@Nonnull ServerCoordinate newPos, @Nonnull CharMovementMode mode, int duration,
+                                @Nullable DisplayCoordinate startPos) {
         if (mode == CharMovementMode.None) {
             return;
         }
@@ -1121,7 +1327,7 @@ public final class Char implements AnimatedMove {
                     startAnimation(CharAnimations.RUN, duration, true, dir.isDiagonal() ? FastMath.sqrt(2.f) : 1.f);
                 }
 
-                DisplayCoordinate oldDisplayPos = getDisplayCoordinatesAt(oldPos);
+                DisplayCoordinate oldDisplayPos = (startPos == null) ? getDisplayCoordinatesAt(oldPos) : startPos;
                 DisplayCoordinate newDisplayPos = getDisplayCoordinatesAt(newPos);
 
                 if (oldDisplayPos.getLayer() > newDisplayPos.getLayer()) {
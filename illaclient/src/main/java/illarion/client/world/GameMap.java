@@ -74,6 +74,11 @@ public final class GameMap implements LightingMap, Stoppable {
      */
     @Nonnull
     private final GameMiniMap miniMap;
+    /**
+     * The raster of the movement costs used by the path finding.
+     */
+    @Nonnull
+    private final MovementCostGrid movementCostGrid;
     /**
      * The tiles of the map. The key of the hash map is the location key of the tiles location.
      */
@@ -118,6 +123,7 @@ public final class GameMap implements LightingMap, Stoppable {
         mapLock = new ReentrantReadWriteLock();
 
         miniMap = new GameMiniMap(engine);
+        movementCostGrid = new MovementCostGrid(this);
 
         showQuestsOnMiniMap = IllaClient.getCfg().getBoolean("showQuestsOnMiniMap");
         showQuestsOnGameMap = IllaClient.getCfg().getBoolean("showQuestsOnGameMap");
@@ -382,6 +388,7 @@ public final class GameMap implements LightingMap, Stoppable {
         } finally {
             mapLock.writeLock().unlock();
         }
+        movementCostGrid.markAllChanged();
 
         for (MapTile oldTile : oldTiles) {
             oldTile.markAsRemoved();
@@ -466,6 +473,33 @@ public final class GameMap implements LightingMap, Stoppable {
         }
     }
 
+    /**
+     * Get the raster of the movement costs that is used by the path finding.
+     *
+     * @return the movement cost raster
+     */
+    @Nonnull
+    @Contract(pure = true)
+    public MovementCostGrid getMovementCostGrid() {
+        return movementCostGrid;
+    }
+
+    /**
+     * Transfer the movement costs of all tiles to the movement cost raster.
+     *
+     * @param grid the raster that receives the costs
+     */
+    void readMovementCosts(@Nonnull MovementCostGrid grid) {
+        mapLock.readLock().lock();
+        try {
+            for (Entry<ServerCoordinate, MapTile> tile : tiles.entrySet()) {
+                grid.setTileCost(tile.getKey(), tile.getValue());
+            }
+        } finally {
+            mapLock.readLock().unlock();
+        }
+    }
+
     /**
      * Get the overview map handler that is used currently.
      *
@@ -492,6 +526,8 @@ public final class GameMap implements LightingMap, Stoppable {
         }
 
         if (removedTile != null) {
+            movementCostGrid.markTileChanged(coordinate);
+
             @Nullable QuestMarkerCarrier marker = activeQuestTargetMarkers.remove(coordinate);
             if (marker != null) {
                 QuestMarker questMarker = marker.getMapMarker();
@@ -605,6 +641,7 @@ public final class GameMap implements LightingMap, Stoppable {
                 } finally {
                     mapLock.writeLock().unlock();
                 }
+                movementCostGrid.markTileChanged(coordinate);
 
                 QuestMarkerCarrier inactiveMarker = inactiveQuestTargetLocations.remove(updateData.getLocation());
                 if (inactiveMarker != null) {
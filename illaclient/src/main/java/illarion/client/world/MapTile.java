@@ -635,7 +635,12 @@ public final class MapTile {
     }
 
     public void setMovementCost(int newMovementCost) {
-        movementCost = newMovementCost;
+        if (movementCost != newMovementCost) {
+            movementCost = newMovementCost;
+            if (!removedTile) {
+                World.getMap().getMovementCostGrid().markTileChanged(tileCoordinate);
+            }
+        }
     }
 
     /**
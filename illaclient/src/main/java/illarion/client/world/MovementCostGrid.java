@@ -0,0 +1,437 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.world;
+
+import illarion.common.types.ServerCoordinate;
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This is a raster of the movement costs of the tiles in an area of the map. It allows the path finding to read the
+ * costs of the tiles without querying the map and the characters for every step that is checked.
+ * <p/>
+ * The costs of the tiles are maintained incrementally. The map reports every tile that changed and those changes are
+ * applied the next time the raster is updated. The locations occupied by characters are collected again with every
+ * update, as the characters move all the time.
+ * <p/>
+ * Every update creates a new version of the raster. The locations that changed their costs are logged along with the
+ * version, so incremental path finding algorithms are able to check only those locations.
+ * <p/>
+ * Reporting changes is thread safe. Updating and reading the raster has to be done by one thread only. Other threads
+ * read the costs from a {@link Snapshot} of the raster.
+ */
+public final class MovementCostGrid {
+    /**
+     * The value of a location that can't be entered.
+     */
+    public static final int BLOCKED = -1;
+
+    /**
+     * The amount of tiles the raster is extended beyond the requested area, so small changes of the requested area
+     * do not require the raster to be rebuild.
+     */
+    private static final int MARGIN = 16;
+
+    /**
+     * The maximal amount of changed locations stored in the log. In case more locations change, the log starts over
+     * and the changes before are reported as unknown.
+     */
+    private static final int MAX_LOGGED_CHANGES = 1024;
+
+    /**
+     * The map the costs are read from.
+     */
+    @Nonnull
+    private final GameMap map;
+
+    /**
+     * The locations of tiles that changed since the last update.
+     */
+    @Nonnull
+    private final Queue<ServerCoordinate> changedTiles = new ConcurrentLinkedQueue<>();
+
+    /**
+     * This is set {@code true} in case the entire raster needs to be read again.
+     */
+    private volatile boolean invalid = true;
+
+    private int originX;
+    private int originY;
+    private int level;
+    private int width;
+    private int height;
+
+    /**
+     * The movement costs of the tiles or {@link #BLOCKED} for tiles that can't be entered.
+     */
+    @Nonnull
+    private int[] tileCosts = new int[0];
+
+    /**
+     * The generation stamps of the locations occupied by characters.
+     */
+    @Nonnull
+    private int[] occupied = new int[0];
+
+    /**
+     * The generation of the occupied locations. Locations with a different stamp are free.
+     */
+    private int occupiedGeneration;
+
+    /**
+     * The indices of the locations occupied during the current update.
+     */
+    @Nonnull
+    private int[] occupiedIndices = new int[16];
+    private int occupiedCount;
+
+    /**
+     * The indices of the locations occupied during the previous update.
+     */
+    @Nonnull
+    private int[] previousOccupiedIndices = new int[16];
+    private int previousOccupiedCount;
+
+    /**
+     * The version of the raster. It is increased with every update.
+     */
+    private int version;
+
+    /**
+     * The log contains all changes that happened after this version.
+     */
+    private int logStartVersion;
+
+    /**
+     * The indices of the locations that changed their costs.
+     */
+    @Nonnull
+    private final int[] loggedIndices = new int[MAX_LOGGED_CHANGES];
+
+    /**
+     * The versions the logged locations changed in.
+     */
+    @Nonnull
+    private final int[] loggedVersions = new int[MAX_LOGGED_CHANGES];
+    private int logSize;
+
+    MovementCostGrid(@Nonnull GameMap map) {
+        this.map = map;
+    }
+
+    /**
+     * Report that the movement cost of a tile may have changed. The tile is read again during the next update.
+     *
+     * @param coordinate the location of the tile
+     */
+    void markTileChanged(@Nonnull ServerCoordinate coordinate) {
+        if (!invalid) {
+            changedTiles.offer(coordinate);
+        }
+    }
+
+    /**
+     * Report that the entire map changed or that the costs of all tiles have to be checked again for another reason.
+     * All tiles are read again during the next update.
+     */
+    public void markAllChanged() {
+        invalid = true;
+        changedTiles.clear();
+    }
+
+    /**
+     * Update the raster so it covers the specified area and contains the current state of the map and of the
+     * characters.
+     *
+     * @param areaX the x coordinate of the north western corner of the area
+     * @param areaY the y coordinate of the north western corner of the area
+     * @param areaLevel the level of the area
+     * @param areaWidth the width of the area
+     * @param areaHeight the height of the area
+     */
+    public void update(int areaX, int areaY, int areaLevel, int areaWidth, int areaHeight) {
+        version++;
+        boolean covered = (areaLevel == level) && (areaX >= originX) && (areaY >= originY) &&
+                ((areaX + areaWidth) <= (originX + width)) && ((areaY + areaHeight) <= (originY + height));
+        if (invalid || !covered) {
+            rebuild(areaX - MARGIN, areaY - MARGIN, areaLevel, areaWidth + (2 * MARGIN),
+                    areaHeight + (2 * MARGIN));
+        } else {
+            applyChangedTiles();
+        }
+        updateOccupied();
+    }
+
+    private void rebuild(int newOriginX, int newOriginY, int newLevel, int newWidth, int newHeight) {
+        /* Changes reported while the map is read are applied again during the next update. */
+        invalid = false;
+        changedTiles.clear();
+
+        originX = newOriginX;
+        originY = newOriginY;
+        level = newLevel;
+        width = newWidth;
+        height = newHeight;
+
+        int size = newWidth * newHeight;
+        if (tileCosts.length < size) {
+            tileCosts = new int[size];
+            occupied = new int[size];
+            occupiedGeneration = 0;
+        }
+        Arrays.fill(tileCosts, 0, size, BLOCKED);
+        map.readMovementCosts(this);
+        clearLog();
+    }
+
+    private void applyChangedTiles() {
+        while (true) {
+            ServerCoordinate coordinate = changedTiles.poll();
+            if (coordinate == null) {
+                return;
+            }
+            if (coordinate.getZ() == level) {
+                setTileCost(coordinate, map.getMapAt(coordinate));
+            }
+        }
+    }
+
+    private void updateOccupied() {
+        int[] indices = previousOccupiedIndices;
+        previousOccupiedIndices = occupiedIndices;
+        previousOccupiedCount = occupiedCount;
+        occupiedIndices = indices;
+        occupiedCount = 0;
+
+        occupiedGeneration++;
+        if (occupiedGeneration == 0) {
+            Arrays.fill(occupied, 0);
+            occupiedGeneration = 1;
+            /* The locations occupied before are lost, so are the changes. */
+            previousOccupiedCount = 0;
+            clearLog();
+        }
+        World.getPeople().readCharacterLocations(this);
+
+        for (int i = 0; i < previousOccupiedCount; i++) {
+            int index = previousOccupiedIndices[i];
+            if (occupied[index] != occupiedGeneration) {
+                logChange(index);
+            }
+        }
+    }
+
+    /**
+     * Discard the logged changes. All changes up to the current version are unknown after this.
+     */
+    private void clearLog() {
+        logSize = 0;
+        logStartVersion = version;
+    }
+
+    private void logChange(int index) {
+        if (logSize == MAX_LOGGED_CHANGES) {
+            clearLog();
+        }
+        loggedIndices[logSize] = index;
+        loggedVersions[logSize] = version;
+        logSize++;
+    }
+
+    /**
+     * Store the movement cost of a tile in the raster. Locations outside of the raster are ignored.
+     *
+     * @param coordinate the location of the tile
+     * @param tile the tile or {@code null} in case there is no tile at this location
+     */
+    void setTileCost(@Nonnull ServerCoordinate coordinate, @Nullable MapTile tile) {
+        if (coordinate.getZ() != level) {
+            return;
+        }
+        int index = getIndex(coordinate.getX(), coordinate.getY());
+        if (index != BLOCKED) {
+            int cost = ((tile == null) || tile.isObstacle()) ? BLOCKED : tile.getMovementCost();
+            if (tileCosts[index] != cost) {
+                tileCosts[index] = cost;
+                logChange(index);
+            }
+        }
+    }
+
+    /**
+     * Mark a location as occupied by a character. Locations outside of the raster are ignored.
+     *
+     * @param coordinate the location of the character
+     */
+    void setOccupied(@Nonnull ServerCoordinate coordinate) {
+        if (coordinate.getZ() != level) {
+            return;
+        }
+        int index = getIndex(coordinate.getX(), coordinate.getY());
+        if ((index != BLOCKED) && (occupied[index] != occupiedGeneration)) {
+            if (occupied[index] != (occupiedGeneration - 1)) {
+                logChange(index);
+            }
+            occupied[index] = occupiedGeneration;
+            if (occupiedCount == occupiedIndices.length) {
+                occupiedIndices = Arrays.copyOf(occupiedIndices, occupiedCount * 2);
+            }
+            occupiedIndices[occupiedCount++] = index;
+        }
+    }
+
+    @Contract(pure = true)
+    private int getIndex(int x, int y) {
+        int localX = x - originX;
+        int localY = y - originY;
+        if ((localX < 0) || (localY < 0) || (localX >= width) || (localY >= height)) {
+            return BLOCKED;
+        }
+        return (localY * width) + localX;
+    }
+
+    /**
+     * Create a copy of the current state of the raster. The locations occupied by characters are stored as blocked
+     * in the copy.
+     *
+     * @return the copy of the raster
+     */
+    @Nonnull
+    public Snapshot createSnapshot() {
+        int size = width * height;
+        int[] costs = Arrays.copyOf(tileCosts, size);
+        for (int i = 0; i < size; i++) {
+            if (occupied[i] == occupiedGeneration) {
+                costs[i] = BLOCKED;
+            }
+        }
+        int[] changedLocations = new int[logSize * 2];
+        int[] changeVersions = Arrays.copyOf(loggedVersions, logSize);
+        for (int i = 0; i < logSize; i++) {
+            changedLocations[i * 2] = originX + (loggedIndices[i] % width);
+            changedLocations[(i * 2) + 1] = originY + (loggedIndices[i] / width);
+        }
+        return new Snapshot(originX, originY, level, width, height, costs, version, logStartVersion,
+                            changedLocations, changeVersions);
+    }
+
+    /**
+     * This is a copy of the movement cost raster that does not change anymore. It can be read by any thread.
+     */
+    @Immutable
+    public static final class Snapshot {
+        private final int originX;
+        private final int originY;
+        private final int level;
+        private final int width;
+        private final int height;
+        @Nonnull
+        private final int[] costs;
+        private final int version;
+        private final int logStartVersion;
+
+        /**
+         * The x and y coordinates of the logged locations that changed their costs, stored alternately.
+         */
+        @Nonnull
+        private final int[] changedLocations;
+
+        /**
+         * The versions the logged locations changed in.
+         */
+        @Nonnull
+        private final int[] changeVersions;
+
+        private Snapshot(
+                int originX,
+                int originY,
+                int level,
+                int width,
+                int height,
+                @Nonnull int[] costs,
+                int version,
+                int logStartVersion,
+                @Nonnull int[] changedLocations,
+                @Nonnull int[] changeVersions) {
+            this.originX = originX;
+            this.originY = originY;
+            this.level = level;
+            this.width = width;
+            this.height = height;
+            this.costs = costs;
+            this.version = version;
+            this.logStartVersion = logStartVersion;
+            this.changedLocations = changedLocations;
+            this.changeVersions = changeVersions;
+        }
+
+        /**
+         * Get the version of the raster this snapshot was created from.
+         *
+         * @return the version
+         */
+        @Contract(pure = true)
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Get the locations that changed their costs after a earlier version of the raster.
+         *
+         * @param sinceVersion the earlier version
+         * @return the x and y coordinates of the changed locations stored alternately or {@code null} in case the
+         * changes are not known
+         */
+        @Nullable
+        @Contract(pure = true)
+        public int[] getChangedLocations(int sinceVersion) {
+            if ((sinceVersion < logStartVersion) || (sinceVersion > version)) {
+                return null;
+            }
+            int first = changeVersions.length;
+            while ((first > 0) && (changeVersions[first - 1] > sinceVersion)) {
+                first--;
+            }
+            return Arrays.copyOfRange(changedLocations, first * 2, changedLocations.length);
+        }
+
+        /**
+         * Get the movement cost of a location. This reports the same cost {@link MapTile#getMovementCost()} reports
+         * for all tiles that are not blocked according to {@link MapTile#isBlocked()}.
+         *
+         * @param x the x coordinate of the location
+         * @param y the y coordinate of the location
+         * @param z the z coordinate of the location
+         * @return the movement cost or {@link #BLOCKED} in case the location can't be entered or is outside of the
+         * raster
+         */
+        @Contract(pure = true)
+        public int getMovementCost(int x, int y, int z) {
+            int localX = x - originX;
+            int localY = y - originY;
+            if ((z != level) || (localX < 0) || (localY < 0) || (localX >= width) || (localY >= height)) {
+                return BLOCKED;
+            }
+            return costs[(localY * width) + localX];
+        }
+    }
+}
@@ -64,6 +64,11 @@ public final class MusicBox implements Stoppable{
      */
     private int overrideSoundId;
 
+    /**
+     * The ID of the default track that was prefetched last.
+     */
+    private int prefetchedTrack;
+
     @Nonnull
     private final Engine engine;
 
@@ -77,6 +82,7 @@ public final class MusicBox implements Stoppable{
         this.engine = engine;
         overrideSoundId = NO_TRACK;
         currentDefaultTrack = NO_TRACK;
+        prefetchedTrack = NO_TRACK;
         audioPlayer = AudioPlayer.getInstance();
         audioPlayer.initAudioPlayer(engine.getSounds());
         AnnotationProcessor.process(this);
@@ -159,6 +165,13 @@ public final class MusicBox implements Stoppable{
      * sure that changing the music is in sync with the rest of the game.
      */
     public void update() {
+        // the music of the tile the player stands on is loaded even if its not played right now, so switching back
+        // to it after a fight or a overwritten track does not need to load it
+        if ((currentDefaultTrack != prefetchedTrack) && (currentDefaultTrack > NO_TRACK)) {
+            SongFactory.getInstance().prefetchSong(currentDefaultTrack, engine.getAssets().getSoundsManager());
+            prefetchedTrack = currentDefaultTrack;
+        }
+
         if (World.getPlayer().getCombatHandler().isAttacking()) {
             setSoundTrack(COMBAT_TRACK);
         } else if (overrideSoundId > NO_TRACK) {
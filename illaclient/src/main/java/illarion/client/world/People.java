@@ -75,6 +75,21 @@ public final class People {
 
     private int permanentAvatarTagState;
 
+    /**
+     * {@code true} in case the moves of the characters are buffered and played back with a delay.
+     */
+    private boolean remoteMoveInterpolation;
+
+    /**
+     * The delay in milliseconds applied to the playback of the moves of the characters.
+     */
+    private int remoteMoveDelay;
+
+    /**
+     * The maximal time in milliseconds the movement of a character is continued in case its next move is overdue.
+     */
+    private int remoteMoveExtrapolation;
+
     /**
      * Default constructor. Sets up all needed base variables to init the class.
      */
@@ -84,6 +99,9 @@ public final class People {
         charsLock = new ReentrantReadWriteLock();
 
         permanentAvatarTagState = IllaClient.getCfg().getInteger("showAvatarTagPermanently");
+        remoteMoveInterpolation = IllaClient.getCfg().getBoolean("remoteMoveInterpolation");
+        remoteMoveDelay = IllaClient.getCfg().getInteger("remoteMoveDelay");
+        remoteMoveExtrapolation = IllaClient.getCfg().getInteger("remoteMoveExtrapolation");
         AnnotationProcessor.process(this);
     }
 
@@ -94,6 +112,81 @@ public final class People {
         }
     }
 
+    @EventTopicSubscriber(topic = "remoteMoveInterpolation")
+    public void onRemoteMoveInterpolationChanged(@Nonnull String topic, @Nonnull ConfigChangedEvent event) {
+        remoteMoveInterpolation = event.getConfig().getBoolean(topic);
+    }
+
+    @EventTopicSubscriber(topic = "remoteMoveDelay")
+    public void onRemoteMoveDelayChanged(@Nonnull String topic, @Nonnull ConfigChangedEvent event) {
+        remoteMoveDelay = event.getConfig().getInteger(topic);
+    }
+
+    @EventTopicSubscriber(topic = "remoteMoveExtrapolation")
+    public void onRemoteMoveExtrapolationChanged(@Nonnull String topic, @Nonnull ConfigChangedEvent event) {
+        remoteMoveExtrapolation = event.getConfig().getInteger(topic);
+    }
+
+    /**
+     * Check if the moves of the characters are buffered and played back with a delay.
+     *
+     * @return {@code true} in case the moves are interpolated
+     */
+    @Contract(pure = true)
+    public boolean isRemoteMoveInterpolation() {
+        return remoteMoveInterpolation;
+    }
+
+    /**
+     * Get the delay applied to the playback of the moves of the characters.
+     *
+     * @return the delay in milliseconds
+     */
+    @Contract(pure = true)
+    public int getRemoteMoveDelay() {
+        return remoteMoveDelay;
+    }
+
+    /**
+     * Play back the buffered moves of all characters that are due. This has to be called during the update of the
+     * game.
+     */
+    public void updateRemoteMoves() {
+        long currentTime = System.currentTimeMillis();
+        int delay = Math.max(0, remoteMoveDelay);
+        int extrapolation = Math.max(0, remoteMoveExtrapolation);
+
+        charsLock.readLock().lock();
+        try {
+            for (Char character : chars.values()) {
+                character.updateRemoteMoves(currentTime, delay, extrapolation);
+            }
+        } finally {
+            charsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the largest jitter of the moves of the characters.
+     *
+     * @return the largest jitter in milliseconds
+     */
+    public int getMaxRemoteMoveJitter() {
+        int maxJitter = 0;
+        charsLock.readLock().lock();
+        try {
+            for (Char character : chars.values()) {
+                RemoteMoveInterpolator statistics = character.getRemoteMoveStatistics();
+                if (statistics != null) {
+                    maxJitter = Math.max(maxJitter, statistics.getJitter());
+                }
+            }
+        } finally {
+            charsLock.readLock().unlock();
+        }
+        return maxJitter;
+    }
+
     @Contract(value = "null->false", pure = true)
     public boolean isAvatarTagShown(@Nullable CharacterId id) {
         if (id == null) {
@@ -340,6 +433,30 @@ public final class People {
         return null;
     }
 
+    /**
+     * Mark the locations of all characters including the player character as occupied in the movement cost raster.
+     *
+     * @param grid the raster that receives the locations
+     */
+    void readCharacterLocations(@Nonnull MovementCostGrid grid) {
+        ServerCoordinate playerLocation = World.getPlayer().getCharacter().getLocation();
+        if (playerLocation != null) {
+            grid.setOccupied(playerLocation);
+        }
+
+        charsLock.readLock().lock();
+        try {
+            for (Char character : chars.values()) {
+                ServerCoordinate location = character.getLocation();
+                if (location != null) {
+                    grid.setOccupied(location);
+                }
+            }
+        } finally {
+            charsLock.readLock().unlock();
+        }
+    }
+
     /**
      * Remove a character from the game list and recycle the character reference for later usage. Also clean up
      * everything related to this character such as the attacking marker.
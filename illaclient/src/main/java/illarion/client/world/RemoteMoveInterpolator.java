@@ -0,0 +1,481 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.world;
+
+import illarion.client.util.ConnectionPerformanceClock;
+import illarion.common.types.ServerCoordinate;
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * This class buffers the moves of a character other than the player character as they are received from the server.
+ * Each move is played back with a small delay after it arrived. That way the moves of a walking character are shown
+ * without interruptions as long as the variation of the arrival times stays below this delay.
+ * <p/>
+ * In addition the class records how regular the moves arrive and how often the character had to be corrected after
+ * its move was continued without word from the server. These statistics are used to tune the playback delay.
+ */
+@NotThreadSafe
+public final class RemoteMoveInterpolator {
+    /**
+     * The maximal amount of moves buffered. In case more moves pile up, the moves are applied without animation until
+     * the buffer is back at this size.
+     */
+    private static final int MAX_BUFFERED_MOVES = 6;
+
+    /**
+     * The factor applied to the duration of a move in case the next move is already due. This way the playback
+     * catches up in case moves arrived late.
+     */
+    private static final float CATCH_UP_FACTOR = 0.75f;
+
+    /**
+     * The gain of the jitter estimation. The estimation moves by {@code 1/JITTER_GAIN} of the difference towards
+     * every new sample.
+     */
+    private static final int JITTER_GAIN = 16;
+
+    /**
+     * The amount of moves that have to be played back one after another before the movement of the character is
+     * continued in case the next move is overdue.
+     */
+    private static final int MIN_EXTRAPOLATION_STREAK = 2;
+
+    /**
+     * The moves waiting for their playback.
+     */
+    @Nonnull
+    private final Deque<BufferedMove> moves;
+
+    /**
+     * The time the last move arrived at the client.
+     */
+    private long lastArrivalTime;
+
+    /**
+     * The duration of the last animated move that arrived at the client.
+     */
+    private int lastArrivalDuration;
+
+    /**
+     * The time the playback of the last move ends.
+     */
+    private long lastPlaybackEnd;
+
+    /**
+     * The origin of the last animated move that was played back.
+     */
+    @Nullable
+    private ServerCoordinate lastStepOrigin;
+
+    /**
+     * The target of the last move that was played back.
+     */
+    @Nullable
+    private ServerCoordinate lastStepTarget;
+
+    /**
+     * The duration of the last animated move that was played back.
+     */
+    private int lastStepDuration;
+
+    /**
+     * The amount of moves played back one right after another.
+     */
+    private int moveStreak;
+
+    /**
+     * The time the current extrapolation of the movement ends or {@code -1} in case there is none.
+     */
+    private long extrapolationEnd;
+
+    /**
+     * The time in milliseconds the current extrapolation of the movement lasts.
+     */
+    private int extrapolationDuration;
+
+    /**
+     * The estimated variation of the arrival times of the moves in milliseconds.
+     */
+    private float jitter;
+
+    /**
+     * The amount of moves received.
+     */
+    private int receivedMoves;
+
+    /**
+     * The amount of moves that were not received in time to be played back right after the move before.
+     */
+    private int lateMoves;
+
+    /**
+     * The amount of moves applied without animation because too many moves piled up.
+     */
+    private int skippedMoves;
+
+    /**
+     * The amount of times the movement of the character was continued without the next move being received.
+     */
+    private int extrapolations;
+
+    /**
+     * The amount of corrections applied to the location of the character.
+     */
+    private int corrections;
+
+    /**
+     * The sum of the distances of all corrections in pixels.
+     */
+    private long correctionDistanceSum;
+
+    /**
+     * The largest correction distance in pixels.
+     */
+    private int maxCorrectionDistance;
+
+    /**
+     * Create a new and empty move buffer.
+     */
+    RemoteMoveInterpolator() {
+        moves = new ArrayDeque<>();
+        lastArrivalTime = -1;
+        lastPlaybackEnd = -1;
+        extrapolationEnd = -1;
+    }
+
+    @Contract(pure = true)
+    private static boolean isAnimated(@Nonnull CharMovementMode mode, int duration) {
+        return ((mode == CharMovementMode.Walk) || (mode == CharMovementMode.Run)) && (duration > 0);
+    }
+
+    /**
+     * Add a move received from the server to the buffer.
+     *
+     * @param arrivalTime the time the move was received
+     * @param target the target location of the move
+     * @param mode the mode of the move
+     * @param duration the duration of the move in milliseconds
+     */
+    void add(long arrivalTime, @Nonnull ServerCoordinate target, @Nonnull CharMovementMode mode, int duration) {
+        receivedMoves++;
+
+        boolean continued = false;
+        if ((lastArrivalTime > -1) && (lastArrivalDuration > 0)) {
+            long interval = arrivalTime - lastArrivalTime;
+            continued = interval < (2L * lastArrivalDuration);
+            if (continued && isAnimated(mode, duration)) {
+                float deviation = Math.abs(interval - lastArrivalDuration);
+                jitter += (deviation - jitter) / JITTER_GAIN;
+            }
+        }
+        lastArrivalTime = arrivalTime;
+        lastArrivalDuration = isAnimated(mode, duration) ? duration : 0;
+
+        moves.addLast(new BufferedMove(arrivalTime, target, mode, duration, continued));
+    }
+
+    /**
+     * Fetch the next move that is due for playback. This must only be called once the previous move is done.
+     *
+     * @param currentTime the current time
+     * @param delay the playback delay in milliseconds
+     * @return the move to play back or {@code null} in case no move is due
+     */
+    @Nullable
+    BufferedMove poll(long currentTime, int delay) {
+        BufferedMove next = moves.peekFirst();
+        if (next == null) {
+            return null;
+        }
+        if ((moves.size() <= MAX_BUFFERED_MOVES) && (currentTime < (next.arrivalTime + delay))) {
+            return null;
+        }
+        moves.removeFirst();
+
+        if (moves.size() >= MAX_BUFFERED_MOVES) {
+            skippedMoves++;
+            next.playbackDuration = 0;
+        } else {
+            BufferedMove following = moves.peekFirst();
+            if ((following != null) && (currentTime >= (following.arrivalTime + delay))) {
+                next.playbackDuration = Math.round(next.duration * CATCH_UP_FACTOR);
+            }
+        }
+
+        if (next.continued && (lastPlaybackEnd > -1) && ((next.arrivalTime + delay) > lastPlaybackEnd)) {
+            lateMoves++;
+        }
+
+        if (isAnimated(next.mode, next.playbackDuration)) {
+            moveStreak = next.continued ? (moveStreak + 1) : 1;
+            lastStepOrigin = lastStepTarget;
+            lastStepDuration = next.playbackDuration;
+        } else {
+            moveStreak = 0;
+            lastStepOrigin = null;
+            lastStepDuration = 0;
+        }
+        lastStepTarget = next.target;
+        lastPlaybackEnd = currentTime + next.playbackDuration;
+        extrapolationEnd = -1;
+        return next;
+    }
+
+    /**
+     * Remove all buffered moves. This is used once the location of the character was set by the server directly.
+     */
+    void clear() {
+        moves.clear();
+        lastArrivalTime = -1;
+        lastArrivalDuration = 0;
+        lastPlaybackEnd = -1;
+        lastStepOrigin = null;
+        lastStepTarget = null;
+        lastStepDuration = 0;
+        moveStreak = 0;
+        extrapolationEnd = -1;
+    }
+
+    /**
+     * Check if the movement of the character should be continued, because the character is walking and the next
+     * move did not arrive in time.
+     *
+     * @return {@code true} in case the movement should be continued
+     */
+    @Contract(pure = true)
+    boolean isExtrapolationRequired() {
+        return moves.isEmpty() && (extrapolationEnd == -1) && (moveStreak >= MIN_EXTRAPOLATION_STREAK) &&
+                (lastStepOrigin != null) && (lastStepDuration > 0);
+    }
+
+    /**
+     * Report that the movement of the character is now continued.
+     *
+     * @param currentTime the current time
+     * @param duration the time in milliseconds the movement is continued
+     */
+    void notifyExtrapolation(long currentTime, int duration) {
+        extrapolations++;
+        extrapolationEnd = currentTime + duration;
+        extrapolationDuration = duration;
+        moveStreak = 0;
+    }
+
+    /**
+     * Check if the continued movement has to be reverted, because no move arrived while the movement was continued
+     * and for the same time after that.
+     *
+     * @param currentTime the current time
+     * @return {@code true} in case the character has to be returned to its location
+     */
+    @Contract(pure = true)
+    boolean isCorrectionRequired(long currentTime) {
+        if ((extrapolationEnd == -1) || !moves.isEmpty()) {
+            return false;
+        }
+        return currentTime >= (extrapolationEnd + extrapolationDuration);
+    }
+
+    /**
+     * Report that the location of the character was corrected.
+     *
+     * @param distance the distance in pixels the character was moved by the correction
+     */
+    void notifyCorrection(int distance) {
+        corrections++;
+        correctionDistanceSum += distance;
+        maxCorrectionDistance = Math.max(maxCorrectionDistance, distance);
+        extrapolationEnd = -1;
+    }
+
+    /**
+     * Get the origin of the last step that was played back.
+     *
+     * @return the origin of the last step or {@code null} in case the last move was no step
+     */
+    @Nullable
+    @Contract(pure = true)
+    ServerCoordinate getLastStepOrigin() {
+        return lastStepOrigin;
+    }
+
+    /**
+     * Get the duration of the last step that was played back.
+     *
+     * @return the duration of the last step in milliseconds
+     */
+    @Contract(pure = true)
+    int getLastStepDuration() {
+        return lastStepDuration;
+    }
+
+    /**
+     * Get the estimated variation of the arrival times of the moves.
+     *
+     * @return the jitter in milliseconds
+     */
+    @Contract(pure = true)
+    public int getJitter() {
+        return Math.round(jitter);
+    }
+
+    /**
+     * Get the amount of moves that are currently waiting for their playback.
+     *
+     * @return the amount of buffered moves
+     */
+    @Contract(pure = true)
+    public int getBufferedMoves() {
+        return moves.size();
+    }
+
+    /**
+     * Get the amount of moves received for this character.
+     *
+     * @return the amount of received moves
+     */
+    @Contract(pure = true)
+    public int getReceivedMoves() {
+        return receivedMoves;
+    }
+
+    /**
+     * Get the amount of moves that did not arrive in time to be played back right after the previous move.
+     *
+     * @return the amount of late moves
+     */
+    @Contract(pure = true)
+    public int getLateMoves() {
+        return lateMoves;
+    }
+
+    /**
+     * Get the amount of moves that were applied without animation, because too many moves piled up.
+     *
+     * @return the amount of skipped moves
+     */
+    @Contract(pure = true)
+    public int getSkippedMoves() {
+        return skippedMoves;
+    }
+
+    /**
+     * Get the amount of times the movement of the character was continued without a move from the server.
+     *
+     * @return the amount of extrapolated moves
+     */
+    @Contract(pure = true)
+    public int getExtrapolations() {
+        return extrapolations;
+    }
+
+    /**
+     * Get the amount of corrections that were applied to the displayed location of the character.
+     *
+     * @return the amount of corrections
+     */
+    @Contract(pure = true)
+    public int getCorrections() {
+        return corrections;
+    }
+
+    /**
+     * Get the average distance the character was moved by a correction.
+     *
+     * @return the average correction distance in pixels
+     */
+    @Contract(pure = true)
+    public int getAverageCorrectionDistance() {
+        if (corrections == 0) {
+            return 0;
+        }
+        return (int) (correctionDistanceSum / corrections);
+    }
+
+    /**
+     * Get the largest distance the character was moved by a correction.
+     *
+     * @return the largest correction distance in pixels
+     */
+    @Contract(pure = true)
+    public int getMaxCorrectionDistance() {
+        return maxCorrectionDistance;
+    }
+
+    @Nonnull
+    @Override
+    @Contract(pure = true)
+    public String toString() {
+        return "Remote moves - received: " + receivedMoves + ", buffered: " + moves.size() + ", jitter: " +
+                getJitter() + "ms, late: " + lateMoves + ", skipped: " + skippedMoves + ", extrapolated: " +
+                extrapolations + ", corrections: " + corrections + " (avg. " + getAverageCorrectionDistance() +
+                "px, max. " + maxCorrectionDistance + "px), ping: " + ConnectionPerformanceClock.getServerPing() +
+                "ms";
+    }
+
+    /**
+     * A single move waiting for its playback.
+     */
+    static final class BufferedMove {
+        /**
+         * The time the move was received.
+         */
+        final long arrivalTime;
+
+        /**
+         * The target location of the move.
+         */
+        @Nonnull
+        final ServerCoordinate target;
+
+        /**
+         * The mode of the move.
+         */
+        @Nonnull
+        final CharMovementMode mode;
+
+        /**
+         * The duration of the move as sent by the server.
+         */
+        final int duration;
+
+        /**
+         * {@code true} in case this move continues the previous move of the character without a pause.
+         */
+        final boolean continued;
+
+        /**
+         * The duration used to play back the move.
+         */
+        int playbackDuration;
+
+        BufferedMove(long arrivalTime, @Nonnull ServerCoordinate target, @Nonnull CharMovementMode mode,
+                     int duration, boolean continued) {
+            this.arrivalTime = arrivalTime;
+            this.target = target;
+            this.mode = mode;
+            this.duration = duration;
+            this.continued = continued;
+            playbackDuration = duration;
+        }
+    }
+}
@@ -15,7 +15,9 @@
  */
 package illarion.client.world;
 
+import illarion.client.IllaClient;
 import illarion.client.graphics.AnimationManager;
+import illarion.client.graphics.AvatarCompositeCache;
 import illarion.client.graphics.MapDisplayManager;
 import illarion.client.gui.GameGui;
 import illarion.client.gui.controller.GameScreenController;
@@ -101,6 +103,15 @@ public final class World {
         return instance;
     }
 
+    @Nonnull
+    public static AvatarCompositeCache getAvatarCompositeCache() {
+        AvatarCompositeCache instance = INSTANCE.avatarCompositeCache;
+        if (instance == null) {
+            throw new IllegalStateException("World is not yet initialized");
+        }
+        return instance;
+    }
+
     @Nonnull
     public static Clock getClock() {
         Clock instance = INSTANCE.clock;
@@ -229,6 +240,13 @@ public final class World {
     @Nullable
     private AnimationManager aniManager;
 
+    /**
+     * The cache of the composited avatar images. The cache is kept when the environment is cleaned, as the frame
+     * buffer of the cache can only be released by the render thread.
+     */
+    @Nullable
+    private AvatarCompositeCache avatarCompositeCache;
+
     /**
      * The manager that takes care for the interaction between map and GUI.
      */
@@ -331,6 +349,10 @@ public final class World {
         INSTANCE.init = true;
         INSTANCE.updateManager = new UpdateTaskManager();
         INSTANCE.aniManager = new AnimationManager();
+        if (INSTANCE.avatarCompositeCache == null) {
+            INSTANCE.avatarCompositeCache =
+                    new AvatarCompositeCache(IllaClient.getCfg().getBoolean("avatarCompositeCache"));
+        }
         INSTANCE.chatHandler = new ChatHandler();
         INSTANCE.clock = new Clock();
         INSTANCE.map = new GameMap(engine);
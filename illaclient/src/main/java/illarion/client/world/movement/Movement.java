@@ -20,6 +20,7 @@ import illarion.client.graphics.AnimatedMove;
 import illarion.client.graphics.MoveAnimation;
 import illarion.client.net.client.MoveCmd;
 import illarion.client.net.client.TurnCmd;
+import illarion.client.util.pathfinding.AsyncPathFinder;
 import illarion.client.world.CharMovementMode;
 import illarion.client.world.MapTile;
 import illarion.client.world.Player;
@@ -65,6 +66,11 @@ public class Movement {
     private final Player player;
     @Nonnull
     private final ExecutorService executorService;
+    /**
+     * The path finder that searches the paths of the movement handlers in the background.
+     */
+    @Nonnull
+    private final AsyncPathFinder pathFinder;
     @Nonnull
     private final MoveAnimator animator;
 
@@ -104,6 +110,7 @@ public class Movement {
 
     public Movement(@Nonnull Player player, @Nonnull Input input, @Nonnull AnimatedMove movementReceiver) {
         this.player = player;
+        pathFinder = new AsyncPathFinder();
         moveAnimation = new MoveAnimation(movementReceiver);
         defaultMovementMode = CharMovementMode.Walk;
         stepInProgress = false;
@@ -124,7 +131,7 @@ public class Movement {
     }
 
     @Contract(pure = true)
-    private static int getMovementDuration(int tileMovementCost, double mods, boolean diagonal, boolean running) {
+    static int getMovementDuration(int tileMovementCost, double mods, boolean diagonal, boolean running) {
         // do not mess with this function. This one has to match the server function exactly to yield the same results
         int movementDuration = FastMath.clamp((int) (tileMovementCost * 100.0 * mods), MIN_WALK_COST, MAX_WALK_COST);
 
@@ -234,6 +241,19 @@ public class Movement {
         }
     }
 
+    /**
+     * Get the modifier of the movement duration that results from the agility and the load of the player.
+     *
+     * @return the movement duration modifier
+     */
+    @Contract(pure = true)
+    double getMovementMods() {
+        int agility = Math.min(player.getCharacter().getAttribute(CharacterAttribute.Agility), MAX_WALK_AGI);
+        double agilityMod = (10 - agility) / 100.0;
+        double loadMod = (player.getCarryLoad().getLoadFactor() / 10.0) * 3.0;
+        return agilityMod + loadMod + 1.0;
+    }
+
     @Contract(pure = true)
     public int getMovementDuration(@Nonnull ServerCoordinate current,
                                    @Nonnull CharMovementMode mode,
@@ -243,10 +263,7 @@ public class Movement {
             MapTile walkingTile = World.getMap().getMapAt(walkingTarget);
 
             if ((walkingTile != null) && !walkingTile.isBlocked()) {
-                int agility = Math.min(player.getCharacter().getAttribute(CharacterAttribute.Agility), MAX_WALK_AGI);
-                double agilityMod = (10 - agility) / 100.0;
-                double loadMod = (player.getCarryLoad().getLoadFactor() / 10.0) * 3.0;
-                double mods = agilityMod + loadMod + 1.0;
+                double mods = getMovementMods();
 
                 int movementDuration = getMovementDuration(walkingTile.getMovementCost(), mods, dir.isDiagonal(),
                         mode == CharMovementMode.Run);
@@ -453,8 +470,20 @@ public class Movement {
         return targetTurnHandler;
     }
 
+    /**
+     * Get the path finder that searches paths in the background.
+     *
+     * @return the path finder
+     */
+    @Nonnull
+    @Contract(pure = true)
+    AsyncPathFinder getPathFinder() {
+        return pathFinder;
+    }
+
     public void shutdown() {
         activeHandler = null;
+        pathFinder.shutdown();
         executorService.shutdown();
     }
 }
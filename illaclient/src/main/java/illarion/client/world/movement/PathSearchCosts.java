@@ -0,0 +1,138 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.world.movement;
+
+import illarion.client.util.pathfinding.MoveCostProvider;
+import illarion.client.world.CharMovementMode;
+import illarion.client.world.MovementCostGrid;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * This cost provider supplies the movement costs to a path search running on the path finding thread. All values
+ * are captured when the search is requested, so the search does not read the state of the movement handler or the
+ * map while it runs.
+ */
+@Immutable
+final class PathSearchCosts implements MoveCostProvider {
+    /**
+     * The movement costs of the area the search covers.
+     */
+    @Nonnull
+    private final MovementCostGrid.Snapshot costs;
+
+    /**
+     * The modifier of the movement durations that results from the agility and the load of the player.
+     */
+    private final double mods;
+
+    /**
+     * {@code true} in case the player is able to walk at all.
+     */
+    private final boolean walkingPossible;
+
+    /**
+     * The location of the player as its known to the server.
+     */
+    @Nonnull
+    private final ServerCoordinate serverLocation;
+
+    /**
+     * The movement mode the player is currently using.
+     */
+    @Nonnull
+    private final CharMovementMode preferredMode;
+
+    /**
+     * The direction the first step is preferred to go to.
+     */
+    @Nullable
+    private final Direction preferredDirection;
+
+    PathSearchCosts(
+            @Nonnull MovementCostGrid.Snapshot costs,
+            double mods,
+            boolean walkingPossible,
+            @Nonnull ServerCoordinate serverLocation,
+            @Nonnull CharMovementMode preferredMode,
+            @Nullable Direction preferredDirection) {
+        this.costs = costs;
+        this.mods = mods;
+        this.walkingPossible = walkingPossible;
+        this.serverLocation = serverLocation;
+        this.preferredMode = preferredMode;
+        this.preferredDirection = preferredDirection;
+    }
+
+    @Override
+    public int getMovementCost(
+            @Nonnull ServerCoordinate origin, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        return getMovementCost(origin.getX(), origin.getY(), origin.getZ(), mode, direction);
+    }
+
+    @Override
+    public int getMovementCost(
+            int originX, int originY, int originZ, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        int cost = getMovementDuration(originX, originY, originZ, mode, direction);
+
+        if ((cost != BLOCKED) && (serverLocation.getX() == originX) && (serverLocation.getY() == originY) &&
+                (serverLocation.getZ() == originZ) && (mode == preferredMode) && (direction == preferredDirection)) {
+            cost /= 2;
+        }
+
+        return cost;
+    }
+
+    @Override
+    public int getCostVersion() {
+        return costs.getVersion();
+    }
+
+    @Nullable
+    @Override
+    public int[] getChangedLocations(int sinceVersion) {
+        return costs.getChangedLocations(sinceVersion);
+    }
+
+    private int getMovementDuration(
+            int originX, int originY, int originZ, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        if (!walkingPossible) {
+            return BLOCKED;
+        }
+        int walkingX = originX + direction.getDirectionVectorX();
+        int walkingY = originY + direction.getDirectionVectorY();
+        int walkingCost = costs.getMovementCost(walkingX, walkingY, originZ);
+        if (walkingCost == MovementCostGrid.BLOCKED) {
+            return BLOCKED;
+        }
+
+        boolean running = mode == CharMovementMode.Run;
+        int movementDuration = Movement.getMovementDuration(walkingCost, mods, direction.isDiagonal(), running);
+        if (running) {
+            int runningCost = costs.getMovementCost(walkingX + direction.getDirectionVectorX(),
+                                                    walkingY + direction.getDirectionVectorY(), originZ);
+            if (runningCost == MovementCostGrid.BLOCKED) {
+                return BLOCKED;
+            }
+            movementDuration += Movement.getMovementDuration(runningCost, mods, direction.isDiagonal(), true);
+        }
+        return (movementDuration / 100) * 100;
+    }
+}
@@ -16,6 +16,7 @@
 package illarion.client.world.movement;
 
 import illarion.client.IllaClient;
+import illarion.client.util.pathfinding.MoveCostProvider;
 import illarion.client.util.pathfinding.Path;
 import illarion.client.world.CharMovementMode;
 import illarion.client.world.MapDimensions;
@@ -152,15 +153,20 @@ class WalkToMouseMovementHandler extends WalkToMovementHandler implements MouseT
 
     @Override
     @Nullable
-    protected Path calculateNewPath(@Nonnull ServerCoordinate currentLocation) {
-        int maxDistance = currentLocation.getStepDistance(getTargetLocation());
-
-        while (getTargetDistance() < maxDistance) {
-            Path result = super.calculateNewPath(currentLocation);
+    protected Path calculateNewPath(
+            @Nonnull MoveCostProvider costs,
+            @Nonnull ServerCoordinate currentLocation,
+            @Nonnull ServerCoordinate target,
+            int distance,
+            @Nonnull CharMovementMode mode,
+            @Nonnull Collection<Direction> directions) {
+        int maxDistance = currentLocation.getStepDistance(target);
+
+        for (int currentDistance = distance; currentDistance < maxDistance; currentDistance++) {
+            Path result = super.calculateNewPath(costs, currentLocation, target, currentDistance, mode, directions);
             if (result != null) {
                 return result;
             }
-            increaseTargetDistance();
         }
         return null;
     }
@@ -15,8 +15,10 @@
  */
 package illarion.client.world.movement;
 
+import illarion.client.IllaClient;
 import illarion.client.util.pathfinding.*;
 import illarion.client.world.CharMovementMode;
+import illarion.client.world.MovementCostGrid;
 import illarion.client.world.World;
 import illarion.common.types.Direction;
 import illarion.common.types.ServerCoordinate;
@@ -31,6 +33,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static illarion.client.world.CharMovementMode.Run;
 import static illarion.client.world.CharMovementMode.Walk;
@@ -40,12 +46,18 @@ import static illarion.client.world.CharMovementMode.Walk;
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
-class WalkToMovementHandler extends AbstractMovementHandler implements TargetMovementHandler, MoveCostProvider {
+class WalkToMovementHandler extends AbstractMovementHandler implements TargetMovementHandler {
     @Nonnull
     private static final Logger log = LoggerFactory.getLogger(WalkToMovementHandler.class);
     @Nonnull
     private static final Marker marker = MarkerFactory.getMarker("Movement");
 
+    /**
+     * The amount of tiles the movement costs are captured around the start and the target location of a search. This
+     * covers the search windows of all path finding algorithms.
+     */
+    private static final int SEARCH_AREA_MARGIN = 24;
+
     /**
      * The path finder used to calculate the paths towards the target location.
      */
@@ -59,16 +71,66 @@ class WalkToMovementHandler extends AbstractMovementHandler implements TargetMov
     @Nullable
     private Runnable targetAction;
 
+    /**
+     * The path that is currently followed.
+     */
     @Nullable
     private Path currentPath;
 
+    /**
+     * The target location the current path was searched for.
+     */
+    @Nullable
+    private ServerCoordinate currentPathTarget;
+
+    /**
+     * The result of the path search running in the background.
+     */
+    @Nullable
+    private Future<Path> pendingPath;
+
+    /**
+     * The start location of the last path search.
+     */
+    @Nullable
+    private ServerCoordinate searchStart;
+
+    /**
+     * The target location of the last path search.
+     */
+    @Nullable
+    private ServerCoordinate searchTarget;
+
     @Nonnull
     private final Collection<Direction> allowedDirections;
 
+    /**
+     * This is set {@code true} once the handler lost the control over the movement, so the next search does not
+     * continue the earlier searches. The path finding thread clears it once the algorithm is reset.
+     */
+    @Nonnull
+    private final AtomicBoolean searchResetRequested = new AtomicBoolean();
+
+    /**
+     * The movement duration modifier the last search used.
+     */
+    private double searchMods = Double.NaN;
+
+    /**
+     * This is {@code true} in case walking was possible during the last search.
+     */
+    private boolean searchWalkingPossible;
+
     WalkToMovementHandler(@Nonnull Movement movement) {
         super(movement);
         allowedDirections = EnumSet.allOf(Direction.class);
-        pathFindingAlgorithm = new AStar();
+        if (IllaClient.getCfg().getBoolean("incrementalPathFinding")) {
+            pathFindingAlgorithm = new DStarLite();
+        } else if (IllaClient.getCfg().getBoolean("hierarchicalPathFinding")) {
+            pathFindingAlgorithm = new HierarchicalAStar();
+        } else {
+            pathFindingAlgorithm = new AStar();
+        }
     }
 
     @Nullable
@@ -82,40 +144,57 @@ class WalkToMovementHandler extends AbstractMovementHandler implements TargetMov
         int remainingDistance = currentLocation.getStepDistance(target);
         log.debug(marker, "Remaining distance to target: {} Expected distance: {}", remainingDistance, targetDistance);
         if (remainingDistance <= targetDistance) {
-            return new DefaultStepData(CharMovementMode.None, finishMove(currentLocation), fetchTargetAction());
-        }
-        Path activePath;
-        if (isCurrentPathValid()) {
-            activePath = currentPath;
-        } else {
-            activePath = calculateNewPath(currentLocation);
-            currentPath = activePath;
-        }
-        if ((activePath == null) || activePath.isEmpty()) {
+            cancelPathSearch();
             return new DefaultStepData(CharMovementMode.None, finishMove(currentLocation), fetchTargetAction());
         }
 
-        PathNode node = activePath.nextStep();
-        if (node == null) {
-            return new DefaultStepData(CharMovementMode.None, finishMove(currentLocation), fetchTargetAction());
-        }
-        if (!isPathNodeValid(currentLocation, node)) {
-            activePath = calculateNewPath(currentLocation);
-            currentPath = activePath;
-            if (activePath == null) {
-                return new DefaultStepData(CharMovementMode.None, finishMove(currentLocation), fetchTargetAction());
-            }
-            node = activePath.nextStep();
-            if (node == null) {
+        if (fetchSearchedPath(currentLocation, target)) {
+            /* The search just finished. Its result is final, so the path is not searched again right away. */
+            Path activePath = currentPath;
+            if ((activePath == null) || activePath.isEmpty()) {
+                log.debug(marker, "No path to {} found.", target);
                 return new DefaultStepData(CharMovementMode.None, finishMove(currentLocation), fetchTargetAction());
             }
-            if (!isPathNodeValid(currentLocation, node)) {
+            PathNode node = activePath.nextStep();
+            if ((node == null) || !isPathNodeValid(currentLocation, node)) {
                 Direction lastDirection = currentLocation.getDirection(target);
                 targetLocation = null;
                 targetAction = null;
+                currentPath = null;
                 return new DefaultStepData(CharMovementMode.None, lastDirection);
             }
+            return performStep(currentLocation, target, activePath, node);
         }
+
+        if (!target.equals(currentPathTarget)) {
+            /* The target moved, keep walking along the old path until the new one is ready. */
+            requestPath(currentLocation, target);
+        }
+
+        Path activePath = currentPath;
+        if ((activePath == null) || activePath.isEmpty()) {
+            if (isPathSearchPending()) {
+                log.debug(marker, "Waiting for the path search to finish.");
+                return null;
+            }
+            return new DefaultStepData(CharMovementMode.None, finishMove(currentLocation), fetchTargetAction());
+        }
+
+        PathNode node = activePath.nextStep();
+        if ((node == null) || !isPathNodeValid(currentLocation, node)) {
+            currentPath = null;
+            requestPath(currentLocation, target);
+            return null;
+        }
+        return performStep(currentLocation, target, activePath, node);
+    }
+
+    @Nonnull
+    private StepData performStep(
+            @Nonnull ServerCoordinate currentLocation,
+            @Nonnull ServerCoordinate target,
+            @Nonnull Path activePath,
+            @Nonnull PathNode node) {
         log.debug(marker, "Performing step to: {}", node.getLocation());
         Direction moveDir = currentLocation.getDirection(node.getLocation());
         if (activePath.isEmpty() && (targetDistance == 0) && !target.equals(node.getLocation())) {
@@ -124,6 +203,120 @@ class WalkToMovementHandler extends AbstractMovementHandler implements TargetMov
         return new DefaultStepData(node.getMovementMethod(), moveDir);
     }
 
+    /**
+     * Start the search for a new path on the background thread. Any search still running is cancelled. Once the
+     * search is done, the movement is updated again.
+     *
+     * @param currentLocation the location the path starts at
+     * @param target the target location
+     */
+    private void requestPath(@Nonnull ServerCoordinate currentLocation, @Nonnull ServerCoordinate target) {
+        if (isPathSearchPending() && currentLocation.equals(searchStart) && target.equals(searchTarget)) {
+            return;
+        }
+        int distance = targetDistance;
+        CharMovementMode mode = getMovementMode();
+        Collection<Direction> directions = getAllowedDirections(currentLocation, target);
+        MoveCostProvider costs = createSearchCosts(currentLocation, target, mode);
+
+        searchStart = currentLocation;
+        searchTarget = target;
+        pendingPath = getMovement().getPathFinder().submit(
+                () -> {
+                    if (searchResetRequested.getAndSet(false)) {
+                        pathFindingAlgorithm.reset();
+                    }
+                    return calculateNewPath(costs, currentLocation, target, distance, mode, directions);
+                },
+                getMovement()::update);
+    }
+
+    /**
+     * Capture the movement costs and the movement state a path search needs. This updates the movement cost raster
+     * of the map, so it has to be called on the movement thread.
+     *
+     * @param currentLocation the location the path starts at
+     * @param target the target location
+     * @param mode the movement mode
+     * @return the cost provider for the search
+     */
+    @Nonnull
+    private MoveCostProvider createSearchCosts(
+            @Nonnull ServerCoordinate currentLocation,
+            @Nonnull ServerCoordinate target,
+            @Nonnull CharMovementMode mode) {
+        int minX = Math.min(currentLocation.getX(), target.getX()) - SEARCH_AREA_MARGIN;
+        int minY = Math.min(currentLocation.getY(), target.getY()) - SEARCH_AREA_MARGIN;
+        int width = (Math.max(currentLocation.getX(), target.getX()) + SEARCH_AREA_MARGIN + 1) - minX;
+        int height = (Math.max(currentLocation.getY(), target.getY()) + SEARCH_AREA_MARGIN + 1) - minY;
+
+        MovementCostGrid grid = World.getMap().getMovementCostGrid();
+        double mods = getMovement().getMovementMods();
+        boolean walkingPossible = World.getPlayer().getCarryLoad().isWalkingPossible();
+        if ((Double.compare(mods, searchMods) != 0) || (walkingPossible != searchWalkingPossible)) {
+            /* The costs of all moves changed, so incremental searches have to check all of them again. */
+            grid.markAllChanged();
+            searchMods = mods;
+            searchWalkingPossible = walkingPossible;
+        }
+        grid.update(minX, minY, currentLocation.getZ(), width, height);
+
+        return new PathSearchCosts(grid.createSnapshot(), mods, walkingPossible, getMovement().getServerLocation(),
+                                   mode, getPreferredDirection());
+    }
+
+    /**
+     * Take the result of the path search in case the search is done. The searched path replaces the current path in
+     * case it still matches the current location and target.
+     *
+     * @param currentLocation the current location
+     * @param target the current target location
+     * @return {@code true} in case the searched path replaced the current path
+     */
+    private boolean fetchSearchedPath(@Nonnull ServerCoordinate currentLocation, @Nonnull ServerCoordinate target) {
+        Future<Path> search = pendingPath;
+        if ((search == null) || !search.isDone()) {
+            return false;
+        }
+        pendingPath = null;
+
+        Path path;
+        try {
+            path = search.get();
+        } catch (@Nonnull InterruptedException | CancellationException e) {
+            return false;
+        } catch (@Nonnull ExecutionException e) {
+            log.error(marker, "Path search failed.", e.getCause());
+            path = null;
+        }
+
+        if (!target.equals(searchTarget)) {
+            log.debug(marker, "Discarding searched path to {}, the target is now {}", searchTarget, target);
+            return false;
+        }
+        if ((path != null) && !currentLocation.equals(searchStart) && !path.skipTo(currentLocation)) {
+            /* We moved along the old path while searching and the new path does not cross the current location. */
+            log.debug(marker, "Searched path from {} does not cross {}, searching again.", searchStart,
+                      currentLocation);
+            requestPath(currentLocation, target);
+            return false;
+        }
+        currentPath = path;
+        currentPathTarget = target;
+        return true;
+    }
+
+    private boolean isPathSearchPending() {
+        return pendingPath != null;
+    }
+
+    private void cancelPathSearch() {
+        if (pendingPath != null) {
+            pendingPath.cancel(true);
+            pendingPath = null;
+        }
+    }
+
     @Nullable
     private Direction finishMove(@Nonnull ServerCoordinate currentLocation) {
         if (targetLocation == null) {
@@ -166,50 +359,42 @@ class WalkToMovementHandler extends AbstractMovementHandler implements TargetMov
         return false;
     }
 
-    protected int getTargetDistance() {
-        return targetDistance;
-    }
-
-    protected void increaseTargetDistance() {
-        targetDistance++;
-    }
-
-    private boolean isCurrentPathValid() {
-        Path path = currentPath;
-        if (path == null) {
-            log.debug(marker, "Path is not valid: Current path is NULL");
-            return false;
-        }
-        ServerCoordinate destination = path.getDestination();
-        if (destination == null) {
-            log.debug(marker, "Path is not valid: Path destination is NULL");
-            return false;
-        }
-        if (!destination.equals(targetLocation)) {
-            log.debug(marker, "Path is not valid: Destination ({}) does not equal the current target location ({}).",
-                      destination, targetLocation);
-            return false;
-        }
-        return true;
-    }
-
+    /**
+     * Search a path. This is called on the path finding thread, so it must only use the values passed in.
+     *
+     * @param costs the movement costs captured when the search was requested
+     * @param currentLocation the location the path starts at
+     * @param target the target location
+     * @param distance the distance to the target location that is close enough
+     * @param mode the movement mode
+     * @param directions the directions allowed for the steps
+     * @return the path or {@code null} in case there is none
+     */
     @Nullable
-    protected Path calculateNewPath(@Nonnull ServerCoordinate currentLocation) {
-        ServerCoordinate target = getTargetLocation();
-
+    protected Path calculateNewPath(
+            @Nonnull MoveCostProvider costs,
+            @Nonnull ServerCoordinate currentLocation,
+            @Nonnull ServerCoordinate target,
+            int distance,
+            @Nonnull CharMovementMode mode,
+            @Nonnull Collection<Direction> directions) {
         log.info(marker, "Calculating a new path from {} to {}", currentLocation, target);
         PathFindingAlgorithm algorithm = pathFindingAlgorithm;
 
-        switch (getMovementMode()) {
+        Path path;
+        switch (mode) {
             case Walk:
-                return algorithm.findPath(this, currentLocation, target, targetDistance,
-                        getAllowedDirections(currentLocation, target), Walk);
+                path = algorithm.findPath(costs, currentLocation, target, distance, directions, Walk);
+                break;
             case Run:
-                return algorithm.findPath(this, currentLocation, target, targetDistance,
-                        getAllowedDirections(currentLocation, target), Walk, Run);
+                path = algorithm.findPath(costs, currentLocation, target, distance, directions, Walk, Run);
+                break;
             default:
                 return null;
         }
+        log.debug(marker, "Path search expanded {} nodes, {} of them were expanded by earlier searches.",
+                  algorithm.getExpandedNodeCount(), algorithm.getReExpandedNodeCount());
+        return path;
     }
 
     @Nonnull
@@ -227,6 +412,10 @@ class WalkToMovementHandler extends AbstractMovementHandler implements TargetMov
     @Override
     public void disengage(boolean transferAllowed) {
         super.disengage(transferAllowed);
+        cancelPathSearch();
+        searchResetRequested.set(true);
+        currentPath = null;
+        currentPathTarget = null;
         targetLocation = null;
         setTargetReachedAction(null);
     }
@@ -274,20 +463,6 @@ class WalkToMovementHandler extends AbstractMovementHandler implements TargetMov
         return targetLocation;
     }
 
-    @Override
-    public int getMovementCost(@Nonnull ServerCoordinate origin, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
-        int cost = getMovement().getMovementDuration(origin, mode, direction);
-
-        if ((cost != MoveCostProvider.BLOCKED) &&
-                origin.equals(getMovement().getServerLocation()) &&
-                (mode == getMovementMode()) &&
-                (direction == getPreferredDirection())) {
-            cost /= 2;
-        }
-
-        return cost;
-    }
-
     @Nullable
     protected Direction getPreferredDirection() {
         if (isTargetSet()) {
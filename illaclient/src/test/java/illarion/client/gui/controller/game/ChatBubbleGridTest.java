@@ -0,0 +1,113 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.gui.controller.game;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test for placing the chat bubbles on the screen.
+ */
+public class ChatBubbleGridTest {
+    private static final int SCREEN_WIDTH = 800;
+    private static final int SCREEN_HEIGHT = 600;
+    private static final int BUBBLE_WIDTH = 100;
+    private static final int BUBBLE_HEIGHT = 20;
+
+    private ChatBubbleGrid grid;
+
+    @BeforeMethod
+    public void setUp() {
+        grid = new ChatBubbleGrid();
+        grid.reset(SCREEN_WIDTH, SCREEN_HEIGHT, 4);
+    }
+
+    @Test
+    public void testPlaceAboveAnchor() {
+        int bubble = grid.place(400, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getX(bubble), 350);
+        Assert.assertEquals(grid.getY(bubble), 300 - BUBBLE_HEIGHT - ChatBubbleGrid.AVATAR_SPACING);
+    }
+
+    @Test
+    public void testStackCoveringBubbles() {
+        int first = grid.place(400, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        int second = grid.place(410, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        int third = grid.place(390, 305, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+
+        Assert.assertEquals(grid.getY(second), grid.getY(first) - BUBBLE_HEIGHT - ChatBubbleGrid.BUBBLE_SPACING);
+        Assert.assertEquals(grid.getY(third), grid.getY(second) - BUBBLE_HEIGHT - ChatBubbleGrid.BUBBLE_SPACING);
+        Assert.assertEquals(grid.getX(second), 360);
+        Assert.assertEquals(grid.getX(third), 340);
+    }
+
+    @Test
+    public void testSeparatedBubblesNotStacked() {
+        int first = grid.place(200, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        int second = grid.place(200 + BUBBLE_WIDTH, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getY(second), grid.getY(first));
+    }
+
+    @Test
+    public void testStackAcrossCellBorders() {
+        // the first bubble covers the columns 0 to 2 of the grid, the second one only the columns 2 and 3
+        int first = grid.place(110, 100, 150, BUBBLE_HEIGHT);
+        int second = grid.place(190, 100, 50, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getY(second), grid.getY(first) - BUBBLE_HEIGHT - ChatBubbleGrid.BUBBLE_SPACING);
+    }
+
+    @Test
+    public void testClampAtScreenEdges() {
+        int left = grid.place(10, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getX(left), 0);
+
+        int right = grid.place(SCREEN_WIDTH - 10, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getX(right), SCREEN_WIDTH - BUBBLE_WIDTH);
+
+        int top = grid.place(400, 10, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getY(top), 0);
+
+        int bottom = grid.place(400, SCREEN_HEIGHT + 100, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getY(bottom), SCREEN_HEIGHT - BUBBLE_HEIGHT);
+    }
+
+    @Test
+    public void testNoStackingAboveScreen() {
+        int first = grid.place(400, 10, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        int second = grid.place(400, 10, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getY(first), 0);
+        // there is no room above the first bubble, so the second one keeps its location
+        Assert.assertEquals(grid.getY(second), 0);
+    }
+
+    @Test
+    public void testBubbleLargerThanScreen() {
+        grid.reset(50, 10, 1);
+        int bubble = grid.place(25, 5, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(grid.getX(bubble), 0);
+        Assert.assertEquals(grid.getY(bubble), 0);
+    }
+
+    @Test
+    public void testResetRemovesBubbles() {
+        int first = grid.place(400, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        grid.reset(SCREEN_WIDTH, SCREEN_HEIGHT, 4);
+        int second = grid.place(400, 300, BUBBLE_WIDTH, BUBBLE_HEIGHT);
+        Assert.assertEquals(second, 0);
+        Assert.assertEquals(grid.getY(second), grid.getY(first));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.gui.controller.game;
+
+import de.lessvoid.nifty.tools.Color;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Test for storing the chat messages and splitting them into rows.
+ */
+public class ChatLogModelTest {
+    /**
+     * Every character is ten pixels wide.
+     */
+    private static final ToIntFunction<String> MEASURE = text -> text.length() * 10;
+
+    @Test
+    public void testRingEviction() {
+        ChatLogModel model = new ChatLogModel(3);
+        for (int i = 0; i < 5; i++) {
+            model.add("message " + i, Color.WHITE);
+        }
+
+        Assert.assertEquals(model.size(), 3);
+        Assert.assertEquals(model.get(0).text, "message 2");
+        Assert.assertEquals(model.get(2).text, "message 4");
+        Assert.assertNull(model.getById(1));
+        Assert.assertSame(model.getById(2), model.get(0));
+        Assert.assertSame(model.getById(4), model.get(2));
+        Assert.assertNull(model.getById(5));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        ChatLogModel model = new ChatLogModel(3);
+        model.add("message", Color.WHITE);
+        model.get(1);
+    }
+
+    @Test
+    public void testRowCount() {
+        ChatLogModel model = new ChatLogModel(2);
+        model.add("aa bb cc", Color.WHITE);
+        model.add("dd", Color.WHITE);
+        Assert.assertEquals(model.getRowCount(), 2);
+
+        ChatLogModel.Entry first = model.get(0);
+        model.wrap(first, 20, MEASURE);
+        Assert.assertEquals(first.getRowCount(), 3);
+        Assert.assertEquals(model.getRowCount(), 4);
+
+        // wrapping again for the same width changes nothing
+        model.wrap(first, 20, MEASURE);
+        Assert.assertEquals(model.getRowCount(), 4);
+
+        model.wrap(first, 50, MEASURE);
+        Assert.assertEquals(first.getRowCount(), 2);
+        Assert.assertEquals(model.getRowCount(), 3);
+
+        model.setTranslation(first, "ee ff");
+        model.wrap(first, 50, MEASURE);
+        Assert.assertTrue(first.hasTranslation());
+        Assert.assertEquals(first.getRowCount(), 3);
+        Assert.assertEquals(first.getRow(2), "ee ff");
+        Assert.assertEquals(model.getRowCount(), 4);
+
+        // the wrapped message is evicted along with its rows
+        model.add("gg", Color.WHITE);
+        Assert.assertEquals(model.getRowCount(), 2);
+
+        model.clear();
+        Assert.assertEquals(model.size(), 0);
+        Assert.assertEquals(model.getRowCount(), 0);
+        Assert.assertNull(model.getById(3));
+    }
+
+    @Test
+    public void testGreedyWrap() {
+        ChatLogModel model = new ChatLogModel(1);
+        model.add("aa bb cc dd e", Color.WHITE);
+        ChatLogModel.Entry entry = model.get(0);
+        Assert.assertEquals(entry.getRow(0), "aa bb cc dd e");
+
+        model.wrap(entry, 50, MEASURE);
+        assertRows(entry, "aa bb", "cc dd", "e");
+
+        model.wrap(entry, 80, MEASURE);
+        assertRows(entry, "aa bb cc", "dd e");
+
+        model.wrap(entry, 130, MEASURE);
+        assertRows(entry, "aa bb cc dd e");
+    }
+
+    @Test
+    public void testSplitLongWord() {
+        ChatLogModel model = new ChatLogModel(1);
+        model.add("hi abcdefghij k", Color.WHITE);
+        ChatLogModel.Entry entry = model.get(0);
+
+        model.wrap(entry, 40, MEASURE);
+        assertRows(entry, "hi", "abcd", "efgh", "ij k");
+    }
+
+    @Test
+    public void testWrapNarrowerThanCharacter() {
+        ChatLogModel model = new ChatLogModel(1);
+        model.add("abc", Color.WHITE);
+        ChatLogModel.Entry entry = model.get(0);
+
+        model.wrap(entry, 5, MEASURE);
+        assertRows(entry, "a", "b", "c");
+    }
+
+    @Test
+    public void testWrapEmptyMessage() {
+        ChatLogModel model = new ChatLogModel(1);
+        model.add("", Color.WHITE);
+        ChatLogModel.Entry entry = model.get(0);
+
+        model.wrap(entry, 50, MEASURE);
+        assertRows(entry, "");
+        Assert.assertEquals(model.getRowCount(), 1);
+    }
+
+    private static void assertRows(ChatLogModel.Entry entry, String... rows) {
+        Assert.assertEquals(entry.getRowCount(), rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            Assert.assertEquals(entry.getRow(i), rows[i]);
+        }
+    }
+}
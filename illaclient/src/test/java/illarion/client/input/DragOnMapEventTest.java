@@ -0,0 +1,150 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.input;
+
+import illarion.common.types.Rectangle;
+import org.easymock.EasyMock;
+import org.illarion.engine.GameContainer;
+import org.illarion.engine.backend.shared.AbstractScene;
+import org.illarion.engine.graphic.Graphics;
+import org.illarion.engine.graphic.InteractiveSceneElement;
+import org.illarion.engine.graphic.SceneEvent;
+import org.illarion.engine.graphic.effects.SceneEffect;
+import org.illarion.engine.input.Button;
+import org.powermock.api.easymock.PowerMock;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockObjectFactory;
+import org.testng.Assert;
+import org.testng.IObjectFactory;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test for the delivery of dragging operations on the map to the elements of the scene. A dragging operation has to
+ * reach the element located where the dragging started, even once the pointer left this element.
+ */
+@PrepareForTest(InputReceiver.class)
+@PowerMockIgnore({"javax.management.*", "ch.qos.logback.*", "org.slf4j.*"})
+public class DragOnMapEventTest {
+    @Test
+    public void testSceneLocationIsDragStart() {
+        DragOnMapEvent event = createDragEvent(10, 20, 300, 400);
+        Assert.assertEquals(event.getSceneX(), 10);
+        Assert.assertEquals(event.getSceneY(), 20);
+        Assert.assertEquals(event.getNewX(), 300);
+        Assert.assertEquals(event.getNewY(), 400);
+    }
+
+    @Test
+    public void testDragOutOfElementReachesElement() {
+        TestScene scene = new TestScene();
+        TestElement grabbed = new TestElement(0, new Rectangle(0, 0, 50, 50));
+        TestElement target = new TestElement(1, new Rectangle(250, 350, 100, 100));
+        scene.addElement(grabbed);
+        scene.addElement(target);
+
+        scene.publishEvent(createDragEvent(10, 20, 300, 400));
+        scene.update(EasyMock.createNiceMock(GameContainer.class), 0);
+
+        Assert.assertEquals(grabbed.receivedEvents.size(), 1);
+        Assert.assertTrue(target.receivedEvents.isEmpty());
+    }
+
+    @Test
+    public void testDragOutsideOfElementIgnored() {
+        TestScene scene = new TestScene();
+        TestElement element = new TestElement(0, new Rectangle(0, 0, 50, 50));
+        scene.addElement(element);
+
+        scene.publishEvent(createDragEvent(100, 100, 20, 20));
+        scene.update(EasyMock.createNiceMock(GameContainer.class), 0);
+
+        Assert.assertTrue(element.receivedEvents.isEmpty());
+    }
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new PowerMockObjectFactory();
+    }
+
+    @Nonnull
+    private static DragOnMapEvent createDragEvent(int startX, int startY, int stopX, int stopY) {
+        InputReceiver receiver = PowerMock.createMock(InputReceiver.class);
+        return new DragOnMapEvent(startX, startY, stopX, stopY, Button.Left, true, receiver);
+    }
+
+    /**
+     * The scene used to dispatch the events.
+     */
+    private static final class TestScene extends AbstractScene<SceneEffect> {
+        @Override
+        public void update(@Nonnull GameContainer container, int delta) {
+            updateScene(container, delta);
+        }
+
+        @Override
+        public void render(@Nonnull Graphics graphics, int offsetX, int offsetY) {
+            renderScene(graphics);
+        }
+    }
+
+    /**
+     * A element of the scene that takes all events it receives.
+     */
+    private static final class TestElement implements InteractiveSceneElement {
+        private final int order;
+        @Nonnull
+        private final Rectangle bounds;
+        @Nonnull
+        private final List<SceneEvent> receivedEvents = new ArrayList<>();
+
+        TestElement(int order, @Nonnull Rectangle bounds) {
+            this.order = order;
+            this.bounds = bounds;
+        }
+
+        @Nullable
+        @Override
+        public Rectangle getEventBounds() {
+            return bounds;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public void render(@Nonnull Graphics graphics) {
+        }
+
+        @Override
+        public void update(@Nonnull GameContainer container, int delta) {
+        }
+
+        @Override
+        public boolean isEventProcessed(@Nonnull GameContainer container, int delta, @Nonnull SceneEvent event) {
+            receivedEvents.add(event);
+            return true;
+        }
+    }
+}
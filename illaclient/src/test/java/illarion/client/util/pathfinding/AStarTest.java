@@ -0,0 +1,243 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * These tests compare the results of the {@link AStar} with the results of the previous search that created a node
+ * object for every expanded neighbour.
+ */
+public class AStarTest {
+    @Nonnull
+    private static final Collection<Direction> ALL_DIRECTIONS = EnumSet.allOf(Direction.class);
+
+    @Test
+    public void testSameResultsAsReference() {
+        compareWithReference(CharMovementMode.Walk);
+    }
+
+    @Test
+    public void testSameResultsAsReferenceWhileRunning() {
+        compareWithReference(CharMovementMode.Walk, CharMovementMode.Run);
+    }
+
+    @Test
+    public void testWorkspaceReused() {
+        /* The second search must not see any of the nodes of the first search. */
+        GridCostProvider grid = GridCostProvider.createRandom(60, 60, 7L, 0.2);
+        AStar aStar = new AStar();
+        ServerCoordinate start = new ServerCoordinate(5, 5, 0);
+        ServerCoordinate end = new ServerCoordinate(50, 50, 0);
+        grid.setBlocked(5, 5, false);
+        grid.setBlocked(50, 50, false);
+        Path first = aStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        aStar.findPath(grid, new ServerCoordinate(30, 5, 0), new ServerCoordinate(30, 55, 0), 0, ALL_DIRECTIONS,
+                       CharMovementMode.Walk);
+        Path second = aStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Assert.assertEquals(String.valueOf(second), String.valueOf(first));
+    }
+
+    private static void compareWithReference(
+            @Nonnull CharMovementMode movementMethod, @Nonnull CharMovementMode... movementMethods) {
+        AStar aStar = new AStar();
+        Random random = new Random(42L);
+        int searches = 0;
+        for (int map = 0; map < 20; map++) {
+            GridCostProvider grid = GridCostProvider.createRandom(48, 48, map, 0.25);
+            for (int search = 0; search < 10; search++) {
+                ServerCoordinate start = findOpenLocation(grid, random);
+                ServerCoordinate end = findOpenLocation(grid, random);
+                if (start.equals(end)) {
+                    continue;
+                }
+                int approachDistance = random.nextInt(3);
+                String message = "Path from " + start + " to " + end + " approaching " + approachDistance;
+
+                int expectedCost = findReferencePathCost(grid, start, end, approachDistance, movementMethod,
+                                                         movementMethods);
+                Path path = aStar.findPath(grid, start, end, approachDistance, ALL_DIRECTIONS, movementMethod,
+                                           movementMethods);
+                if (expectedCost < 0) {
+                    Assert.assertNull(path, message);
+                } else {
+                    Assert.assertNotNull(path, message);
+                    Assert.assertEquals(getPathCost(grid, start, end, approachDistance, path), expectedCost,
+                                        message);
+                }
+                searches++;
+            }
+        }
+        Assert.assertTrue(searches > 150);
+    }
+
+    @Nonnull
+    private static ServerCoordinate findOpenLocation(@Nonnull GridCostProvider grid, @Nonnull Random random) {
+        while (true) {
+            int x = random.nextInt(48);
+            int y = random.nextInt(48);
+            if (!grid.isBlocked(x, y)) {
+                return new ServerCoordinate(x, y, 0);
+            }
+        }
+    }
+
+    /**
+     * Get the cost of a path and check that it leads from the start location close enough to the target location
+     * without entering blocked tiles.
+     */
+    private static int getPathCost(
+            @Nonnull GridCostProvider grid,
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            int approachDistance,
+            @Nonnull Path path) {
+        int cost = 0;
+        ServerCoordinate current = start;
+        while (!path.isEmpty()) {
+            PathNode node = path.nextStep();
+            Assert.assertNotNull(node);
+            ServerCoordinate next = node.getLocation();
+            CharMovementMode mode = node.getMovementMethod();
+            int steps = (mode == CharMovementMode.Run) ? 2 : 1;
+            Assert.assertEquals(current.getStepDistance(next), steps, "Step from " + current + " to " + next);
+            Direction direction = current.getDirection(next);
+            Assert.assertNotNull(direction);
+            int moveCost = grid.getMovementCost(current, mode, direction);
+            Assert.assertNotEquals(moveCost, MoveCostProvider.BLOCKED, "Step from " + current + " to " + next);
+            cost += moveCost + getDistanceCost(mode, direction);
+            current = next;
+        }
+        Assert.assertTrue(current.getStepDistance(end) <= approachDistance, "Path ends at " + current);
+        return cost;
+    }
+
+    private static int getDistanceCost(@Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        int cost = (mode == CharMovementMode.Run) ? 300 : 150;
+        return (int) (cost * (direction.isDiagonal() ? 1.4142135623730951 : 1.0));
+    }
+
+    /**
+     * Search a path the way the previous implementation of the A* search did.
+     *
+     * @return the cost of the path found or {@code -1} in case there is none
+     */
+    private static int findReferencePathCost(
+            @Nonnull MoveCostProvider costProvider,
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            int approachDistance,
+            @Nonnull CharMovementMode movementMethod,
+            @Nonnull CharMovementMode... movementMethods) {
+        if (start.getDistance(end) <= approachDistance) {
+            return -1;
+        }
+        NavigableSet<ReferenceNode> openNodes = new TreeSet<>();
+        Map<ServerCoordinate, ReferenceNode> knownNodes = new HashMap<>();
+        EnumSet<CharMovementMode> movementOptions = EnumSet.of(movementMethod, movementMethods);
+
+        expandReferenceNode(costProvider, end, null, start, movementOptions, openNodes);
+        while (!openNodes.isEmpty()) {
+            ReferenceNode currentNode = openNodes.pollFirst();
+            assert currentNode != null;
+
+            if (currentNode.location.getStepDistance(end) <= approachDistance) {
+                return currentNode.cost;
+            }
+            ReferenceNode alternative = knownNodes.get(currentNode.location);
+            if ((alternative == null) || (alternative.cost > currentNode.cost)) {
+                knownNodes.put(currentNode.location, currentNode);
+                expandReferenceNode(costProvider, end, currentNode, currentNode.location, movementOptions,
+                                    openNodes);
+            }
+        }
+        return -1;
+    }
+
+    private static void expandReferenceNode(
+            @Nonnull MoveCostProvider costProvider,
+            @Nonnull ServerCoordinate end,
+            @Nullable ReferenceNode nodeToExpand,
+            @Nonnull ServerCoordinate origin,
+            @Nonnull Collection<CharMovementMode> movementMethods,
+            @Nonnull Collection<ReferenceNode> storage) {
+        int originCost = (nodeToExpand == null) ? 0 : nodeToExpand.cost;
+        for (Direction dir : ALL_DIRECTIONS) {
+            ServerCoordinate walkingCoordinates = new ServerCoordinate(origin, dir);
+            if (movementMethods.contains(CharMovementMode.Walk)) {
+                int moveCost = costProvider.getMovementCost(origin, CharMovementMode.Walk, dir);
+                if (moveCost == MoveCostProvider.BLOCKED) {
+                    continue;
+                }
+                moveCost += getDistanceCost(CharMovementMode.Walk, dir);
+                storage.add(new ReferenceNode(walkingCoordinates, originCost + moveCost,
+                                              AStar.getHeuristic(walkingCoordinates.getX(),
+                                                                 walkingCoordinates.getY(), end.getX(),
+                                                                 end.getY())));
+            }
+            if (walkingCoordinates.equals(end)) {
+                continue;
+            }
+            if (movementMethods.contains(CharMovementMode.Run)) {
+                ServerCoordinate runningCoordinates = new ServerCoordinate(walkingCoordinates, dir);
+                int moveCost = costProvider.getMovementCost(origin, CharMovementMode.Run, dir);
+                if (moveCost != MoveCostProvider.BLOCKED) {
+                    moveCost += getDistanceCost(CharMovementMode.Run, dir);
+                    storage.add(new ReferenceNode(runningCoordinates, originCost + moveCost,
+                                                  AStar.getHeuristic(runningCoordinates.getX(),
+                                                                     runningCoordinates.getY(), end.getX(),
+                                                                     end.getY())));
+                }
+            }
+        }
+    }
+
+    /**
+     * A node of the reference search. Nodes with the same predicted cost are ordered by their insertion.
+     */
+    private static final class ReferenceNode implements Comparable<ReferenceNode> {
+        @Nonnull
+        private final ServerCoordinate location;
+        private final int cost;
+        private final int predictedCost;
+
+        ReferenceNode(@Nonnull ServerCoordinate location, int cost, int heuristic) {
+            this.location = location;
+            this.cost = cost;
+            predictedCost = cost + heuristic;
+        }
+
+        @Override
+        public int compareTo(@Nonnull ReferenceNode o) {
+            int result = Integer.compare(predictedCost, o.predictedCost);
+            return (result == 0) ? 1 : result;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * These tests compare the paths the {@link DStarLite} algorithm finds while continuing its search with the paths the
+ * {@link AStar} algorithm finds from scratch.
+ */
+public class DStarLiteTest {
+    @Nonnull
+    private static final Collection<Direction> ALL_DIRECTIONS = EnumSet.allOf(Direction.class);
+
+    @Test
+    public void testFollowMovingTarget() {
+        GridCostProvider grid = GridCostProvider.createRandom(64, 64, 7L, 0.2);
+        grid.block(20, 20, 2, 20);
+        ServerCoordinate start = new ServerCoordinate(5, 30, 0);
+        DStarLite dStarLite = new DStarLite();
+        AStar aStar = new AStar();
+
+        /* The target moves one tile every step and the search follows the path it found. */
+        ServerCoordinate current = start;
+        for (int step = 0; step < 20; step++) {
+            ServerCoordinate target = findOpen(grid, 50 - step, 30 + (step / 2));
+            if (target.equals(current)) {
+                break;
+            }
+            Path path = dStarLite.findPath(grid, current, target, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+            Path aStarPath = aStar.findPath(grid, current, target, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+            if ((step > 0) && (dStarLite.getExpandedNodeCount() > 0)) {
+                /* The search continued, so it expanded nodes that were expanded before. */
+                Assert.assertTrue(dStarLite.getReExpandedNodeCount() > 0, "Search towards " + target + " restarted");
+            }
+            Assert.assertNotNull(path);
+            PathNode node = path.nextStep();
+            Assert.assertNotNull(node);
+            int cost = getStepCost(grid, current, node) + getCost(grid, node.getLocation(), path);
+            Assert.assertEquals(cost, getCost(grid, current, aStarPath), "Path from " + current + " to " + target);
+            current = node.getLocation();
+        }
+    }
+
+    @Test
+    public void testChangedCosts() {
+        GridCostProvider grid = new GridCostProvider(64, 64);
+        ServerCoordinate start = new ServerCoordinate(10, 30, 0);
+        ServerCoordinate end = new ServerCoordinate(50, 30, 0);
+        DStarLite dStarLite = new DStarLite();
+        Path path = dStarLite.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Assert.assertNotNull(path);
+
+        /* Block the straight line, the repaired path has to go around. */
+        grid.block(30, 25, 1, 11);
+        path = dStarLite.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Path aStarPath = new AStar().findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Assert.assertEquals(getCost(grid, start, path), getCost(grid, start, aStarPath));
+        Assert.assertTrue(dStarLite.getReExpandedNodeCount() > 0);
+
+        /* Open the line again, the repaired path has to go straight again. */
+        grid.setBlocked(30, 30, false);
+        path = dStarLite.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        aStarPath = new AStar().findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Assert.assertEquals(getCost(grid, start, path), getCost(grid, start, aStarPath));
+    }
+
+    @Test
+    public void testReset() {
+        GridCostProvider grid = new GridCostProvider(64, 64);
+        ServerCoordinate start = new ServerCoordinate(10, 30, 0);
+        ServerCoordinate end = new ServerCoordinate(50, 30, 0);
+        DStarLite dStarLite = new DStarLite();
+        dStarLite.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        grid.block(30, 25, 1, 11);
+        dStarLite.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Assert.assertTrue(dStarLite.getReExpandedNodeCount() > 0);
+
+        dStarLite.reset();
+        Path path = dStarLite.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        Assert.assertNotNull(path);
+        Assert.assertEquals(dStarLite.getReExpandedNodeCount(), 0);
+    }
+
+    @Nonnull
+    private static ServerCoordinate findOpen(@Nonnull GridCostProvider grid, int x, int y) {
+        int searchX = x;
+        while (grid.isBlocked(searchX, y)) {
+            searchX++;
+        }
+        return new ServerCoordinate(searchX, y, 0);
+    }
+
+    /**
+     * Get the sum of the costs of all remaining steps of a path. The steps are removed from the path.
+     */
+    private static int getCost(@Nonnull GridCostProvider grid, @Nonnull ServerCoordinate start, @Nullable Path path) {
+        if (path == null) {
+            return -1;
+        }
+        int cost = 0;
+        ServerCoordinate current = start;
+        while (!path.isEmpty()) {
+            PathNode node = path.nextStep();
+            Assert.assertNotNull(node);
+            cost += getStepCost(grid, current, node);
+            current = node.getLocation();
+        }
+        return cost;
+    }
+
+    /**
+     * Get the cost of a walking step, including the cost for the distance the search adds.
+     */
+    private static int getStepCost(
+            @Nonnull GridCostProvider grid, @Nonnull ServerCoordinate current, @Nonnull PathNode node) {
+        ServerCoordinate next = node.getLocation();
+        Direction dir = current.getDirection(next);
+        Assert.assertNotNull(dir);
+        int stepCost = grid.getMovementCost(current, node.getMovementMethod(), dir);
+        Assert.assertNotEquals(stepCost, MoveCostProvider.BLOCKED, "Step from " + current + " to " + next);
+        return stepCost + (dir.isDiagonal() ? AStar.WALK_COST_DIAGONAL : AStar.WALK_COST);
+    }
+}
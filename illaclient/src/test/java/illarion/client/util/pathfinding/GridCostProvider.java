@@ -0,0 +1,132 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This is a movement cost provider for the tests of the path finding algorithms. It supplies the costs of a
+ * rectangular area of tiles on level 0. All locations outside of the area are blocked.
+ * <p/>
+ * Every change of the blocked tiles creates a new version of the costs, so the changes are reported to the
+ * incremental algorithms.
+ */
+final class GridCostProvider implements MoveCostProvider {
+    /**
+     * The cost to enter a tile that is not blocked.
+     */
+    static final int TILE_COST = 300;
+
+    private final int width;
+    private final int height;
+
+    @Nonnull
+    private final boolean[] blocked;
+
+    /**
+     * The x and y coordinate and the version of every change.
+     */
+    @Nonnull
+    private final List<int[]> changes = new ArrayList<>();
+    private int version;
+
+    GridCostProvider(int width, int height) {
+        this.width = width;
+        this.height = height;
+        blocked = new boolean[width * height];
+    }
+
+    /**
+     * Create a area with randomly blocked tiles.
+     *
+     * @param width the width of the area
+     * @param height the height of the area
+     * @param seed the seed of the random generator
+     * @param blockedShare the share of the tiles that is blocked
+     * @return the created area
+     */
+    @Nonnull
+    static GridCostProvider createRandom(int width, int height, long seed, double blockedShare) {
+        GridCostProvider grid = new GridCostProvider(width, height);
+        Random random = new Random(seed);
+        for (int i = 0; i < grid.blocked.length; i++) {
+            grid.blocked[i] = random.nextDouble() < blockedShare;
+        }
+        return grid;
+    }
+
+    void setBlocked(int x, int y, boolean value) {
+        blocked[(y * width) + x] = value;
+        changes.add(new int[]{x, y, ++version});
+    }
+
+    /**
+     * Block all tiles of a rectangle.
+     */
+    void block(int x, int y, int rectWidth, int rectHeight) {
+        for (int row = y; row < (y + rectHeight); row++) {
+            for (int column = x; column < (x + rectWidth); column++) {
+                setBlocked(column, row, true);
+            }
+        }
+    }
+
+    boolean isBlocked(int x, int y) {
+        return (x < 0) || (y < 0) || (x >= width) || (y >= height) || blocked[(y * width) + x];
+    }
+
+    @Override
+    public int getMovementCost(
+            @Nonnull ServerCoordinate origin, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        return getMovementCost(origin.getX(), origin.getY(), origin.getZ(), mode, direction);
+    }
+
+    @Override
+    public int getMovementCost(
+            int originX, int originY, int originZ, @Nonnull CharMovementMode mode, @Nonnull Direction direction) {
+        int steps = (mode == CharMovementMode.Run) ? 2 : 1;
+        int cost = 0;
+        for (int step = 1; step <= steps; step++) {
+            if ((originZ != 0) || isBlocked(originX + (direction.getDirectionVectorX() * step),
+                                            originY + (direction.getDirectionVectorY() * step))) {
+                return BLOCKED;
+            }
+            cost += direction.isDiagonal() ? (int) (TILE_COST * 1.4142135623730951) : TILE_COST;
+        }
+        return (mode == CharMovementMode.Run) ? (int) (cost * 0.6) : cost;
+    }
+
+    @Override
+    public int getCostVersion() {
+        return version;
+    }
+
+    @Nullable
+    @Override
+    public int[] getChangedLocations(int sinceVersion) {
+        return changes.stream().filter(change -> change[2] > sinceVersion)
+                .flatMapToInt(change -> Arrays.stream(change, 0, 2)).toArray();
+    }
+}
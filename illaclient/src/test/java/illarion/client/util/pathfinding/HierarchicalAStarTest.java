@@ -0,0 +1,160 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.client.util.pathfinding;
+
+import illarion.client.world.CharMovementMode;
+import illarion.common.types.Direction;
+import illarion.common.types.ServerCoordinate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Random;
+
+/**
+ * These tests compare the results of the {@link HierarchicalAStar} with the results of the plain {@link AStar}.
+ */
+public class HierarchicalAStarTest {
+    @Nonnull
+    private static final Collection<Direction> ALL_DIRECTIONS = EnumSet.allOf(Direction.class);
+
+    @Test
+    public void testDiagonalBorderCrossing() {
+        /* A wall on the border between two clusters. The only way through is a diagonal step across the border. */
+        GridCostProvider grid = new GridCostProvider(64, 48);
+        grid.block(23, 0, 2, 48);
+        grid.setBlocked(23, 18, false);
+        grid.setBlocked(24, 19, false);
+
+        ServerCoordinate start = new ServerCoordinate(10, 30, 0);
+        ServerCoordinate end = new ServerCoordinate(50, 30, 0);
+
+        AStar aStar = new AStar();
+        Path aStarPath = aStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        HierarchicalAStar hierarchicalAStar = new HierarchicalAStar();
+        Path path = hierarchicalAStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+
+        assertValidPath(grid, start, end, aStarPath);
+        assertValidPath(grid, start, end, path);
+        /* The search only covers the clusters along the crossing, so it does not fall back to the plain search. */
+        Assert.assertTrue(hierarchicalAStar.getExpandedNodeCount() < aStar.getExpandedNodeCount(),
+                          "Expanded " + hierarchicalAStar.getExpandedNodeCount() + " nodes, plain A* expanded " +
+                                  aStar.getExpandedNodeCount());
+    }
+
+    @Test
+    public void testFewerNodesAroundTrap() {
+        /* A pocket that opens away from the target. The plain search fills the entire pocket before leaving it. */
+        GridCostProvider grid = new GridCostProvider(96, 64);
+        grid.block(40, 20, 2, 26);
+        grid.block(20, 20, 22, 2);
+        grid.block(20, 44, 22, 2);
+
+        ServerCoordinate start = new ServerCoordinate(30, 32, 0);
+        ServerCoordinate end = new ServerCoordinate(70, 32, 0);
+
+        AStar aStar = new AStar();
+        Path aStarPath = aStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+        HierarchicalAStar hierarchicalAStar = new HierarchicalAStar();
+        Path path = hierarchicalAStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+
+        assertValidPath(grid, start, end, aStarPath);
+        assertValidPath(grid, start, end, path);
+        Assert.assertTrue(hierarchicalAStar.getExpandedNodeCount() < aStar.getExpandedNodeCount(),
+                          "Expanded " + hierarchicalAStar.getExpandedNodeCount() + " nodes, plain A* expanded " +
+                                  aStar.getExpandedNodeCount());
+    }
+
+    @Test
+    public void testEnclosedTarget() {
+        GridCostProvider grid = new GridCostProvider(64, 48);
+        grid.block(45, 25, 11, 11);
+        grid.setBlocked(50, 30, false);
+
+        ServerCoordinate start = new ServerCoordinate(10, 30, 0);
+        ServerCoordinate end = new ServerCoordinate(50, 30, 0);
+
+        Assert.assertNull(new AStar().findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk));
+        Assert.assertNull(new HierarchicalAStar().findPath(grid, start, end, 0, ALL_DIRECTIONS,
+                                                           CharMovementMode.Walk));
+    }
+
+    @Test
+    public void testSamePathsFoundAsAStar() {
+        AStar aStar = new AStar();
+        HierarchicalAStar hierarchicalAStar = new HierarchicalAStar();
+        Random random = new Random(42L);
+        int hierarchicalNodes = 0;
+        int aStarNodes = 0;
+        for (int map = 0; map < 20; map++) {
+            GridCostProvider grid = GridCostProvider.createRandom(80, 80, map, 0.3);
+            for (int search = 0; search < 10; search++) {
+                ServerCoordinate start = findOpenLocation(grid, random);
+                ServerCoordinate end = findOpenLocation(grid, random);
+                if (start.getStepDistance(end) < 16) {
+                    continue;
+                }
+                Path aStarPath = aStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+                Path path = hierarchicalAStar.findPath(grid, start, end, 0, ALL_DIRECTIONS, CharMovementMode.Walk);
+                Assert.assertEquals(path != null, aStarPath != null, "Path from " + start + " to " + end);
+                if (path != null) {
+                    assertValidPath(grid, start, end, path);
+                }
+                aStarNodes += aStar.getExpandedNodeCount();
+                hierarchicalNodes += hierarchicalAStar.getExpandedNodeCount();
+            }
+        }
+        Assert.assertTrue(hierarchicalNodes < aStarNodes,
+                          "Expanded " + hierarchicalNodes + " nodes, plain A* expanded " + aStarNodes);
+    }
+
+    @Nonnull
+    private static ServerCoordinate findOpenLocation(@Nonnull GridCostProvider grid, @Nonnull Random random) {
+        while (true) {
+            int x = random.nextInt(80);
+            int y = random.nextInt(80);
+            if (!grid.isBlocked(x, y)) {
+                return new ServerCoordinate(x, y, 0);
+            }
+        }
+    }
+
+    /**
+     * Check that the path leads from the start to the target location without entering blocked tiles.
+     */
+    static void assertValidPath(
+            @Nonnull GridCostProvider grid,
+            @Nonnull ServerCoordinate start,
+            @Nonnull ServerCoordinate end,
+            @Nullable Path path) {
+        Assert.assertNotNull(path, "No path from " + start + " to " + end);
+        Assert.assertEquals(path.getDestination(), end);
+        ServerCoordinate current = start;
+        while (!path.isEmpty()) {
+            PathNode node = path.nextStep();
+            Assert.assertNotNull(node);
+            ServerCoordinate next = node.getLocation();
+            int steps = (node.getMovementMethod() == CharMovementMode.Run) ? 2 : 1;
+            Assert.assertEquals(current.getStepDistance(next), steps, "Step from " + current + " to " + next);
+            Assert.assertNotEquals(grid.getMovementCost(current, node.getMovementMethod(), current.getDirection(next)),
+                                   MoveCostProvider.BLOCKED, "Step from " + current + " to " + next);
+            current = next;
+        }
+    }
+}
@@ -0,0 +1,590 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.graphics;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * This is the compiled index of one texture atlas list. It is created by the resource build along with the XML
+ * definition of the atlas list and stores the same data in a compact binary form: the names of the atlas textures
+ * and the name hash, atlas and region of every sprite.
+ * <p/>
+ * The sprites are placed in the index by a minimal perfect hash of their names. Looking up a sprite requires two
+ * hash calculations and a single comparison of the name. Loading the index is a single read of the file without any
+ * further parsing.
+ */
+@ThreadSafe
+public final class TextureAtlasIndex {
+    /**
+     * The suffix that is appended to the name of the atlas list to get the name of the index file.
+     */
+    @Nonnull
+    public static final String FILE_SUFFIX = "-atlas.idx";
+
+    /**
+     * The magic number at the start of every index file.
+     */
+    private static final int MAGIC = 0x494C4149;
+
+    /**
+     * The version of the file format. Increase this in case the format changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * The size of one sprite record in bytes.
+     */
+    private static final int RECORD_SIZE = 20;
+
+    /**
+     * The average amount of sprites that share one bucket of the perfect hash.
+     */
+    private static final int SPRITES_PER_BUCKET = 4;
+
+    /**
+     * The largest value that can be stored in the 16 bit fields of the index.
+     */
+    private static final int MAX_SHORT_VALUE = 0xFFFF;
+
+    /**
+     * The data of the index.
+     */
+    @Nonnull
+    private final ByteBuffer data;
+
+    /**
+     * The names of the atlas textures.
+     */
+    @Nonnull
+    private final String[] atlasNames;
+
+    /**
+     * The amount of sprites stored in the index.
+     */
+    private final int spriteCount;
+
+    /**
+     * The amount of buckets of the perfect hash.
+     */
+    private final int bucketCount;
+
+    /**
+     * The offset of the seeds of the buckets in the data.
+     */
+    private final int seedOffset;
+
+    /**
+     * The offset of the sprite records in the data.
+     */
+    private final int recordOffset;
+
+    /**
+     * The offset of the sprite names in the data.
+     */
+    private final int nameOffset;
+
+    private TextureAtlasIndex(
+            @Nonnull ByteBuffer data,
+            @Nonnull String[] atlasNames,
+            int spriteCount,
+            int bucketCount,
+            int seedOffset) {
+        this.data = data;
+        this.atlasNames = atlasNames;
+        this.spriteCount = spriteCount;
+        this.bucketCount = bucketCount;
+        this.seedOffset = seedOffset;
+        recordOffset = seedOffset + (bucketCount * 4);
+        nameOffset = recordOffset + (spriteCount * RECORD_SIZE);
+    }
+
+    /**
+     * Read a index from a stream. The stream is not closed by this function.
+     *
+     * @param in the stream that provides the index data
+     * @return the index
+     * @throws IOException in case reading the stream fails or the data is not a valid index
+     */
+    @Nonnull
+    public static TextureAtlasIndex read(@Nonnull InputStream in) throws IOException {
+        byte[] buffer = new byte[Math.max(in.available(), 4096)];
+        int length = 0;
+        while (true) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return wrap(ByteBuffer.wrap(buffer, 0, length).slice());
+    }
+
+    /**
+     * Create a index from data that is already in memory.
+     *
+     * @param data the data of the index, the index takes ownership of this buffer
+     * @return the index
+     * @throws IOException in case the data is not a valid index
+     */
+    @Nonnull
+    public static TextureAtlasIndex wrap(@Nonnull ByteBuffer data) throws IOException {
+        if (data.limit() < HEADER_SIZE) {
+            throw new IOException("Texture atlas index is truncated.");
+        }
+        if (data.getInt(0) != MAGIC) {
+            throw new IOException("Data is not a texture atlas index.");
+        }
+        if (data.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Texture atlas index has the wrong format version: " + data.getInt(4));
+        }
+        int atlasCount = data.getInt(8);
+        int spriteCount = data.getInt(12);
+        int bucketCount = data.getInt(16);
+        int charCount = data.getInt(20);
+        if ((atlasCount < 0) || (spriteCount < 0) || (bucketCount < 1) || (charCount < 0)) {
+            throw new IOException("Texture atlas index header is damaged.");
+        }
+
+        String[] atlasNames = new String[atlasCount];
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < atlasCount; i++) {
+            if ((offset + 2) > data.limit()) {
+                throw new IOException("Texture atlas index is truncated.");
+            }
+            int nameLength = data.getChar(offset);
+            offset += 2;
+            if ((offset + (nameLength * 2)) > data.limit()) {
+                throw new IOException("Texture atlas index is truncated.");
+            }
+            char[] name = new char[nameLength];
+            for (int c = 0; c < nameLength; c++) {
+                name[c] = data.getChar(offset);
+                offset += 2;
+            }
+            atlasNames[i] = new String(name);
+        }
+
+        long expectedSize = offset + (bucketCount * 4L) + (spriteCount * (long) RECORD_SIZE) + (charCount * 2L);
+        if (expectedSize != data.limit()) {
+            throw new IOException("Texture atlas index has the wrong size.");
+        }
+        TextureAtlasIndex index = new TextureAtlasIndex(data, atlasNames, spriteCount, bucketCount, offset);
+        for (int i = 0; i < spriteCount; i++) {
+            int record = index.getRecordOffset(i);
+            if ((data.getInt(record + 4) + data.getChar(record + 8)) > charCount) {
+                throw new IOException("Texture atlas index contains a damaged sprite record.");
+            }
+            if (data.getChar(record + 10) >= atlasCount) {
+                throw new IOException("Texture atlas index contains a sprite on a unknown atlas.");
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get the amount of atlas textures in this index.
+     *
+     * @return the amount of atlas textures
+     */
+    @Contract(pure = true)
+    public int getAtlasCount() {
+        return atlasNames.length;
+    }
+
+    /**
+     * Get the name of a atlas texture.
+     *
+     * @param atlas the index of the atlas
+     * @return the name of the atlas texture, without the file extension
+     */
+    @Nonnull
+    @Contract(pure = true)
+    public String getAtlasName(int atlas) {
+        return atlasNames[atlas];
+    }
+
+    /**
+     * Get the amount of sprites in this index.
+     *
+     * @return the amount of sprites
+     */
+    @Contract(pure = true)
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    /**
+     * Find a sprite in the index.
+     *
+     * @param name the name of the sprite
+     * @return the index of the sprite or {@code -1} in case there is no sprite with this name
+     */
+    @Contract(pure = true)
+    public int find(@Nonnull CharSequence name) {
+        if (spriteCount == 0) {
+            return -1;
+        }
+        int nameHash = hash(name, 0);
+        int seed = data.getInt(seedOffset + (Integer.remainderUnsigned(nameHash, bucketCount) * 4));
+        int sprite = Integer.remainderUnsigned(hash(name, seed), spriteCount);
+
+        int record = getRecordOffset(sprite);
+        if (data.getInt(record) != nameHash) {
+            return -1;
+        }
+        int nameLength = data.getChar(record + 8);
+        if (nameLength != name.length()) {
+            return -1;
+        }
+        int charOffset = nameOffset + (data.getInt(record + 4) * 2);
+        for (int i = 0; i < nameLength; i++) {
+            if (data.getChar(charOffset + (i * 2)) != name.charAt(i)) {
+                return -1;
+            }
+        }
+        return sprite;
+    }
+
+    /**
+     * Get the name of a sprite.
+     *
+     * @param sprite the index of the sprite
+     * @return the name of the sprite
+     */
+    @Nonnull
+    @Contract(pure = true)
+    public String getSpriteName(int sprite) {
+        int record = getRecordOffset(sprite);
+        int charOffset = nameOffset + (data.getInt(record + 4) * 2);
+        char[] name = new char[data.getChar(record + 8)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = data.getChar(charOffset + (i * 2));
+        }
+        return new String(name);
+    }
+
+    /**
+     * Get the atlas texture a sprite is located on.
+     *
+     * @param sprite the index of the sprite
+     * @return the index of the atlas
+     */
+    @Contract(pure = true)
+    public int getSpriteAtlas(int sprite) {
+        return data.getChar(getRecordOffset(sprite) + 10);
+    }
+
+    /**
+     * Get the x coordinate of a sprite on its atlas texture.
+     *
+     * @param sprite the index of the sprite
+     * @return the x coordinate
+     */
+    @Contract(pure = true)
+    public int getSpriteX(int sprite) {
+        return data.getChar(getRecordOffset(sprite) + 12);
+    }
+
+    /**
+     * Get the y coordinate of a sprite on its atlas texture.
+     *
+     * @param sprite the index of the sprite
+     * @return the y coordinate
+     */
+    @Contract(pure = true)
+    public int getSpriteY(int sprite) {
+        return data.getChar(getRecordOffset(sprite) + 14);
+    }
+
+    /**
+     * Get the width of a sprite.
+     *
+     * @param sprite the index of the sprite
+     * @return the width
+     */
+    @Contract(pure = true)
+    public int getSpriteWidth(int sprite) {
+        return data.getChar(getRecordOffset(sprite) + 16);
+    }
+
+    /**
+     * Get the height of a sprite.
+     *
+     * @param sprite the index of the sprite
+     * @return the height
+     */
+    @Contract(pure = true)
+    public int getSpriteHeight(int sprite) {
+        return data.getChar(getRecordOffset(sprite) + 18);
+    }
+
+    @Contract(pure = true)
+    private int getRecordOffset(int sprite) {
+        if ((sprite < 0) || (sprite >= spriteCount)) {
+            throw new IndexOutOfBoundsException("Sprite index out of range: " + sprite);
+        }
+        return recordOffset + (sprite * RECORD_SIZE);
+    }
+
+    /**
+     * Calculate the hash of a sprite name. This is a FNV-1a hash over the characters of the name with a final
+     * avalanche step, the seed selects a different function of the same family.
+     *
+     * @param name the name
+     * @param seed the seed
+     * @return the hash value
+     */
+    @Contract(pure = true)
+    private static int hash(@Nonnull CharSequence name, int seed) {
+        int hash = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        int length = name.length();
+        for (int i = 0; i < length; i++) {
+            hash ^= name.charAt(i);
+            hash *= 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * This builder is used by the resource build to create a index file.
+     */
+    public static final class Builder {
+        /**
+         * The names of the atlas textures.
+         */
+        @Nonnull
+        private final List<String> atlasNames = new ArrayList<>();
+
+        /**
+         * The names of the sprites.
+         */
+        @Nonnull
+        private final List<String> spriteNames = new ArrayList<>();
+
+        /**
+         * The data of the sprites. Each sprite uses five values: atlas, x, y, width and height.
+         */
+        @Nonnull
+        private int[] spriteData = new int[5 * 64];
+
+        /**
+         * The names of the sprites that were already added. Used to reject duplicates.
+         */
+        @Nonnull
+        private final Set<String> knownSprites = new HashSet<>();
+
+        /**
+         * Add a atlas texture.
+         *
+         * @param name the name of the atlas texture, without the file extension
+         * @return the index of the atlas that is used to add the sprites
+         */
+        public int addAtlas(@Nonnull String name) {
+            if (atlasNames.size() >= MAX_SHORT_VALUE) {
+                throw new IllegalStateException("Too many atlas textures.");
+            }
+            if (name.length() > MAX_SHORT_VALUE) {
+                throw new IllegalArgumentException("Atlas name is too long: " + name);
+            }
+            atlasNames.add(name);
+            return atlasNames.size() - 1;
+        }
+
+        /**
+         * Add a sprite.
+         *
+         * @param atlas the index of the atlas the sprite is located on
+         * @param name the name of the sprite
+         * @param posX the x coordinate of the sprite on the atlas
+         * @param posY the y coordinate of the sprite on the atlas
+         * @param width the width of the sprite
+         * @param height the height of the sprite
+         */
+        public void addSprite(int atlas, @Nonnull String name, int posX, int posY, int width, int height) {
+            if ((atlas < 0) || (atlas >= atlasNames.size())) {
+                throw new IllegalArgumentException("Unknown atlas: " + atlas);
+            }
+            if (name.length() > MAX_SHORT_VALUE) {
+                throw new IllegalArgumentException("Sprite name is too long: " + name);
+            }
+            if (!isShortValue(posX) || !isShortValue(posY) || !isShortValue(width) || !isShortValue(height)) {
+                throw new IllegalArgumentException("Sprite region out of range: " + name);
+            }
+            if (!knownSprites.add(name)) {
+                throw new IllegalArgumentException("Duplicated sprite: " + name);
+            }
+            int sprite = spriteNames.size();
+            spriteNames.add(name);
+            if (spriteData.length < ((sprite + 1) * 5)) {
+                spriteData = Arrays.copyOf(spriteData, spriteData.length * 2);
+            }
+            spriteData[sprite * 5] = atlas;
+            spriteData[(sprite * 5) + 1] = posX;
+            spriteData[(sprite * 5) + 2] = posY;
+            spriteData[(sprite * 5) + 3] = width;
+            spriteData[(sprite * 5) + 4] = height;
+        }
+
+        private static boolean isShortValue(int value) {
+            return (value >= 0) && (value <= MAX_SHORT_VALUE);
+        }
+
+        /**
+         * Write the index. The stream is not closed by this function.
+         *
+         * @param out the stream that receives the index
+         * @throws IOException in case writing to the stream fails
+         */
+        public void write(@Nonnull OutputStream out) throws IOException {
+            int spriteCount = spriteNames.size();
+            int bucketCount = Math.max(1, (spriteCount + SPRITES_PER_BUCKET - 1) / SPRITES_PER_BUCKET);
+
+            // the slots each sprite ends up in
+            int[] spriteSlots = new int[spriteCount];
+            int[] seeds = new int[bucketCount];
+            placeSprites(spriteCount, bucketCount, spriteSlots, seeds);
+
+            int[] slotSprites = new int[spriteCount];
+            for (int i = 0; i < spriteCount; i++) {
+                slotSprites[spriteSlots[i]] = i;
+            }
+
+            int charCount = 0;
+            for (String name : spriteNames) {
+                charCount += name.length();
+            }
+
+            DataOutputStream dOut = new DataOutputStream(out);
+            dOut.writeInt(MAGIC);
+            dOut.writeInt(FORMAT_VERSION);
+            dOut.writeInt(atlasNames.size());
+            dOut.writeInt(spriteCount);
+            dOut.writeInt(bucketCount);
+            dOut.writeInt(charCount);
+            for (String name : atlasNames) {
+                dOut.writeChar(name.length());
+                dOut.writeChars(name);
+            }
+            for (int seed : seeds) {
+                dOut.writeInt(seed);
+            }
+            int charOffset = 0;
+            for (int slot = 0; slot < spriteCount; slot++) {
+                int sprite = slotSprites[slot];
+                String name = spriteNames.get(sprite);
+                dOut.writeInt(hash(name, 0));
+                dOut.writeInt(charOffset);
+                dOut.writeChar(name.length());
+                for (int i = 0; i < 5; i++) {
+                    dOut.writeChar(spriteData[(sprite * 5) + i]);
+                }
+                charOffset += name.length();
+            }
+            for (int slot = 0; slot < spriteCount; slot++) {
+                dOut.writeChars(spriteNames.get(slotSprites[slot]));
+            }
+            dOut.flush();
+        }
+
+        /**
+         * Find the seeds of the buckets so every sprite gets a slot of its own. The buckets are processed starting
+         * with the largest one, as those are the hardest to place.
+         *
+         * @param spriteCount the amount of sprites
+         * @param bucketCount the amount of buckets
+         * @param spriteSlots the array that receives the slot of every sprite
+         * @param seeds the array that receives the seed of every bucket
+         */
+        private void placeSprites(int spriteCount, int bucketCount, @Nonnull int[] spriteSlots, @Nonnull int[] seeds) {
+            List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            for (int i = 0; i < spriteCount; i++) {
+                buckets.get(Integer.remainderUnsigned(hash(spriteNames.get(i), 0), bucketCount)).add(i);
+            }
+            Integer[] bucketOrder = new Integer[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                bucketOrder[i] = i;
+            }
+            Arrays.sort(bucketOrder, (o1, o2) -> Integer.compare(buckets.get(o2).size(), buckets.get(o1).size()));
+
+            boolean[] usedSlots = new boolean[spriteCount];
+            for (int bucketIndex : bucketOrder) {
+                List<Integer> bucket = buckets.get(bucketIndex);
+                if (bucket.isEmpty()) {
+                    break;
+                }
+                for (int seed = 1; ; seed++) {
+                    if (seed == Integer.MAX_VALUE) {
+                        throw new IllegalStateException("Failed to create the perfect hash of the sprites.");
+                    }
+                    if (tryPlaceBucket(bucket, seed, spriteCount, usedSlots, spriteSlots)) {
+                        seeds[bucketIndex] = seed;
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean tryPlaceBucket(
+                @Nonnull List<Integer> bucket,
+                int seed,
+                int spriteCount,
+                @Nonnull boolean[] usedSlots,
+                @Nonnull int[] spriteSlots) {
+            int placed = 0;
+            for (int sprite : bucket) {
+                int slot = Integer.remainderUnsigned(hash(spriteNames.get(sprite), seed), spriteCount);
+                if (usedSlots[slot]) {
+                    break;
+                }
+                usedSlots[slot] = true;
+                spriteSlots[sprite] = slot;
+                placed++;
+            }
+            if (placed == bucket.size()) {
+                return true;
+            }
+            for (int i = 0; i < placed; i++) {
+                usedSlots[spriteSlots[bucket.get(i)]] = false;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.util;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The system properties that control the startup of the applications. They are used by the training runs of the
+ * class data sharing archives and by the startup measurements of the build.
+ */
+public final class StartupProperties {
+    /**
+     * The system property that makes the application quit once its first screen is shown.
+     */
+    @Nonnull
+    public static final String EXIT_AFTER_STARTUP_PROPERTY = "illarion.exitAfterStartup";
+
+    /**
+     * The system property that contains the path to the file that receives the time in milliseconds until the first
+     * screen of the application was shown.
+     */
+    @Nonnull
+    public static final String STARTUP_TIME_FILE_PROPERTY = "illarion.startupTimeFile";
+
+    private StartupProperties() {
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This is the binary cache of a parsed resource table. The cache stores the tokens of all the records of the table
+ * and is bound to the checksum of the encrypted table it was created from. Tokens that are integer values are
+ * stored as such, so reading them back does not require any parsing. All other tokens are stored as UTF-16
+ * characters that are copied straight into the line buffer of the table loader.
+ */
+final class TableCache {
+    /**
+     * The logger of this class.
+     */
+    @Nonnull
+    private static final Logger log = LoggerFactory.getLogger(TableCache.class);
+
+    /**
+     * The magic number at the start of every cache file.
+     */
+    private static final int MAGIC = 0x494C5443;
+
+    /**
+     * The version of the file format. Increase this in case the format changes.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * The tag of a token that is stored as integer value.
+     */
+    private static final byte TOKEN_INT = 0;
+
+    /**
+     * The tag of a token that is stored as string.
+     */
+    private static final byte TOKEN_STRING = 1;
+
+    /**
+     * The location of the cache file.
+     */
+    @Nonnull
+    private final Path file;
+
+    /**
+     * The key of the table data the cache belongs to.
+     */
+    private final long sourceKey;
+
+    /**
+     * Create the cache of a table.
+     *
+     * @param directory the directory that stores the cache files
+     * @param table the name of the table
+     * @param sourceKey the key of the table data the cache belongs to
+     */
+    TableCache(@Nonnull Path directory, @Nonnull String table, long sourceKey) {
+        file = directory.resolve(table.replace('/', '_') + ".tbl");
+        this.sourceKey = sourceKey;
+    }
+
+    /**
+     * Calculate the key of a table. The key changes in case the data of the table or the way it is parsed changes.
+     *
+     * @param tableData the raw data of the table
+     * @param ndsc {@code true} in case the table is a NDSC table
+     * @param delimiter the delimiter of the table
+     * @return the key of the table
+     */
+    static long getSourceKey(@Nonnull byte[] tableData, boolean ndsc, @Nonnull String delimiter) {
+        CRC32 crc = new CRC32();
+        crc.update(tableData);
+        crc.update(delimiter.getBytes(StandardCharsets.UTF_8));
+        crc.update(ndsc ? 1 : 0);
+        return ((long) tableData.length << 32) | crc.getValue();
+    }
+
+    /**
+     * Open the cache for reading. This fails in case the cache does not exist, does not belong to the current table
+     * data or is damaged.
+     *
+     * @return the reader of the cache or {@code null} in case the cache can't be used
+     */
+    @Nullable
+    Reader openReader() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return null;
+                }
+            }
+            header.flip();
+            if ((header.getInt() != MAGIC) || (header.getInt() != FORMAT_VERSION) ||
+                    (header.getLong() != sourceKey)) {
+                log.debug("Table cache {} is outdated.", file);
+                return null;
+            }
+            int payloadSize = header.getInt();
+            int payloadCrc = header.getInt();
+            if ((fileSize - HEADER_SIZE) != payloadSize) {
+                log.warn("Table cache {} is truncated.", file);
+                return null;
+            }
+            /* The file is only mapped once it is known to belong to the current table. A mapped file can't be
+             * replaced on Windows, so mapping a outdated cache would prevent storing the new one. */
+            ByteBuffer payload = channel.map(MapMode.READ_ONLY, HEADER_SIZE, payloadSize);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != payloadCrc) {
+                log.warn("Table cache {} is damaged.", file);
+                return null;
+            }
+            return new Reader(payload);
+        } catch (@Nonnull IOException e) {
+            log.warn("Failed to read table cache {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Create a writer that records the records of the table.
+     *
+     * @return the writer
+     */
+    @Nonnull
+    Writer createWriter() {
+        return new Writer();
+    }
+
+    /**
+     * The reader that provides the records stored in the cache.
+     */
+    static final class Reader {
+        /**
+         * The buffer that contains the stored records.
+         */
+        @Nonnull
+        private final ByteBuffer payload;
+
+        /**
+         * The amount of records that were not read yet.
+         */
+        private int remainingRecords;
+
+        Reader(@Nonnull ByteBuffer payload) {
+            this.payload = payload;
+            remainingRecords = payload.getInt();
+        }
+
+        /**
+         * Transfer the tokens of the next record to the table loader.
+         *
+         * @param loader the table loader that receives the tokens
+         * @return {@code true} in case a record was read, {@code false} in case there are no records left
+         */
+        boolean readRecord(@Nonnull TableLoader loader) {
+            if (remainingRecords <= 0) {
+                return false;
+            }
+            remainingRecords--;
+
+            loader.clearTokens();
+            int tokenCount = payload.getShort() & 0xFFFF;
+            for (int i = 0; i < tokenCount; i++) {
+                if (payload.get() == TOKEN_INT) {
+                    loader.addToken(payload.getInt());
+                } else {
+                    loader.addToken(payload, payload.getInt());
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The writer that records the records of a table while it is parsed.
+     */
+    final class Writer {
+        /**
+         * The buffer that receives the records.
+         */
+        @Nonnull
+        private final ByteArrayOutputStream buffer;
+
+        /**
+         * The stream used to encode the records.
+         */
+        @Nonnull
+        private final DataOutputStream out;
+
+        /**
+         * The amount of records written.
+         */
+        private int recordCount;
+
+        Writer() {
+            buffer = new ByteArrayOutputStream(64 * 1024);
+            out = new DataOutputStream(buffer);
+        }
+
+        /**
+         * Store the last line read by the table loader.
+         *
+         * @param loader the table loader
+         * @throws IOException in case encoding the record fails
+         */
+        void writeRecord(@Nonnull TableLoader loader) throws IOException {
+            int tokenCount = loader.getTokenCount();
+            out.writeShort(tokenCount);
+            for (int i = 0; i < tokenCount; i++) {
+                if (loader.isCanonicalInt(i)) {
+                    out.writeByte(TOKEN_INT);
+                    out.writeInt(loader.getInt(i));
+                } else {
+                    String token = loader.get(i);
+                    out.writeByte(TOKEN_STRING);
+                    out.writeInt(token.length());
+                    out.writeChars(token);
+                }
+            }
+            recordCount++;
+        }
+
+        /**
+         * Write the cache file. Any problems are logged, as the cache is not required for the client to work.
+         */
+        void store() {
+            byte[] records = buffer.toByteArray();
+            ByteBuffer payload = ByteBuffer.allocate(records.length + 4);
+            payload.putInt(recordCount);
+            payload.put(records);
+            payload.flip();
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putLong(sourceKey);
+            header.putInt(payload.remaining());
+            header.putInt((int) crc.getValue());
+
+            try {
+                Files.createDirectories(file.getParent());
+                Path tempFile = Files.createTempFile(file.getParent(), "table", ".tmp");
+                try {
+                    try (OutputStream fileOut = Files.newOutputStream(tempFile)) {
+                        fileOut.write(header.array());
+                        fileOut.write(payload.array());
+                    }
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (@Nonnull IOException e) {
+                log.warn("Failed to write table cache {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
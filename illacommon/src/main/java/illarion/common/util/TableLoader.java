@@ -22,7 +22,9 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Class for loading data tables with different delimiters and also the special
@@ -41,6 +43,13 @@ public class TableLoader {
     @Nullable
     private static Crypto crypto = null;
 
+    /**
+     * The directory that stores the binary caches of the tables load from the resources. In case its not set, the
+     * tables are decrypted and parsed every time.
+     */
+    @Nullable
+    private static Path cacheDirectory;
+
     /**
      * The error and debug logger of the client.
      */
@@ -54,10 +63,67 @@ public class TableLoader {
     private final String delimiter;
 
     /**
-     * The tokes of the last line that was read encoded as strings.
+     * The characters of the delimiter that is used at this table.
+     */
+    @Nonnull
+    private final char[] delimiterChars;
+
+    /**
+     * The buffer that receives the data read from the table.
+     */
+    @Nonnull
+    private final char[] readBuffer;
+
+    /**
+     * The position of the next character in the read buffer that was not processed yet.
+     */
+    private int readPosition;
+
+    /**
+     * The amount of valid characters in the read buffer.
+     */
+    private int readLimit;
+
+    /**
+     * The characters of the last line that was read. All tokens of the line are located in this buffer.
      */
     @Nonnull
-    private final ArrayList<String> tokens;
+    private char[] lineBuffer;
+
+    /**
+     * The amount of valid characters in the line buffer.
+     */
+    private int lineLength;
+
+    /**
+     * The index of the first character of each token of the last line in the line buffer.
+     */
+    @Nonnull
+    private int[] tokenStart;
+
+    /**
+     * The index after the last character of each token of the last line in the line buffer.
+     */
+    @Nonnull
+    private int[] tokenEnd;
+
+    /**
+     * The values of the tokens that are integer values. The value is only valid in case the matching entry in
+     * {@link #intTokenSet} is {@code true}.
+     */
+    @Nonnull
+    private int[] intTokens;
+
+    /**
+     * This array stores if the token was provided as integer value.
+     */
+    @Nonnull
+    private boolean[] intTokenSet;
+
+    /**
+     * The amount of tokens of the last line.
+     */
+    private int tokenCount;
 
     /**
      * Construct a table loader that loads the table from the file system. With
@@ -168,9 +234,25 @@ public class TableLoader {
             throw new NoResourceException("Missing table " + table);
         }
         try {
+            byte[] tableData = readFully(rsc);
+
+            @Nullable TableCache cache = null;
+            if (cacheDirectory != null) {
+                cache = new TableCache(cacheDirectory, table, TableCache.getSourceKey(tableData, ndsc, delimiter));
+                @Nullable TableCache.Reader cacheReader = cache.openReader();
+                if (cacheReader != null) {
+                    LOGGER.debug("Loading table {} from the cache.", table);
+                    loadTable(cacheReader, callback);
+                    return;
+                }
+            }
+
             // load data
-            InputStream decryptedStream = crypto.getDecryptedStream(rsc);
-            loadTable(decryptedStream, ndsc, callback);
+            InputStream decryptedStream = crypto.getDecryptedStream(new ByteArrayInputStream(tableData));
+            @Nullable TableCache.Writer cacheWriter = (cache == null) ? null : cache.createWriter();
+            if (loadTable(decryptedStream, ndsc, callback, cacheWriter) && (cacheWriter != null)) {
+                cacheWriter.store();
+            }
         } catch (@Nonnull IOException e) {
             LOGGER.error("Error reading table {}", table, e);
             throw new NoResourceException("Error reading table " + table, e);
@@ -211,8 +293,32 @@ public class TableLoader {
      * @param newDelimiter the delimiter used by this table loader
      */
     private TableLoader(@Nonnull String newDelimiter) {
-        tokens = new ArrayList<>();
         delimiter = newDelimiter;
+        delimiterChars = newDelimiter.toCharArray();
+        readBuffer = new char[8192];
+        lineBuffer = new char[256];
+        tokenStart = new int[32];
+        tokenEnd = new int[32];
+        intTokens = new int[32];
+        intTokenSet = new boolean[32];
+    }
+
+    /**
+     * Read all the data of a stream.
+     *
+     * @param in the stream
+     * @return the data
+     * @throws IOException in case reading the stream fails
+     */
+    @Nonnull
+    private static byte[] readFully(@Nonnull InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
     }
 
     /**
@@ -227,6 +333,116 @@ public class TableLoader {
         crypto = newCrypto;
     }
 
+    /**
+     * Set the directory that stores the binary caches of the tables load from the resources. Once a table was
+     * decrypted and parsed, a cache is stored that is used instead as long as the table in the resources does not
+     * change.
+     *
+     * @param directory the cache directory or {@code null} to disable the caching
+     */
+    public static void setCacheDirectory(@Nullable Path directory) {
+        cacheDirectory = directory;
+    }
+
+    /**
+     * Remove all tokens of the last line.
+     */
+    void clearTokens() {
+        tokenCount = 0;
+        lineLength = 0;
+    }
+
+    /**
+     * Add a token to the current line. The characters are read from the buffer.
+     *
+     * @param source the buffer that provides the characters of the token
+     * @param length the amount of characters of the token
+     */
+    void addToken(@Nonnull ByteBuffer source, int length) {
+        ensureLineCapacity(lineLength + length);
+        int start = lineLength;
+        for (int i = 0; i < length; i++) {
+            lineBuffer[lineLength++] = source.getChar();
+        }
+        addToken(start, lineLength);
+    }
+
+    /**
+     * Add a token that is a integer value to the current line.
+     *
+     * @param value the value of the token
+     */
+    void addToken(int value) {
+        addToken(lineLength, lineLength);
+        intTokens[tokenCount - 1] = value;
+        intTokenSet[tokenCount - 1] = true;
+    }
+
+    /**
+     * Add a token that is located in the line buffer.
+     *
+     * @param start the index of the first character of the token
+     * @param end the index after the last character of the token
+     */
+    private void addToken(int start, int end) {
+        if (tokenCount == tokenStart.length) {
+            int newSize = tokenCount * 2;
+            tokenStart = Arrays.copyOf(tokenStart, newSize);
+            tokenEnd = Arrays.copyOf(tokenEnd, newSize);
+            intTokens = Arrays.copyOf(intTokens, newSize);
+            intTokenSet = Arrays.copyOf(intTokenSet, newSize);
+        }
+        tokenStart[tokenCount] = start;
+        tokenEnd[tokenCount] = end;
+        intTokenSet[tokenCount] = false;
+        tokenCount++;
+    }
+
+    /**
+     * Get the amount of tokens of the last line.
+     *
+     * @return the amount of tokens
+     */
+    int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Check if a token of the last line is a integer value in its canonical form, so it turns into the same string
+     * once its converted back.
+     *
+     * @param index the index of the token
+     * @return {@code true} in case the token is a integer value in the canonical form
+     */
+    boolean isCanonicalInt(int index) {
+        if (intTokenSet[index]) {
+            return true;
+        }
+        int start = tokenStart[index];
+        int end = tokenEnd[index];
+        boolean negative = ((end - start) > 1) && (lineBuffer[start] == '-');
+        int digitsStart = negative ? (start + 1) : start;
+        int digits = end - digitsStart;
+        if ((digits == 0) || (digits > 10)) {
+            return false;
+        }
+        if ((lineBuffer[digitsStart] == '0') && ((digits > 1) || negative)) {
+            return false;
+        }
+        long value = 0;
+        for (int i = digitsStart; i < end; i++) {
+            char c = lineBuffer[i];
+            if ((c < '0') || (c > '9')) {
+                return false;
+            }
+            value = (value * 10) + (c - '0');
+        }
+        if (negative) {
+            value = -value;
+        }
+        return (value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE);
+    }
+
     /**
      * Return the string representation of a token that was read in the last
      * line with a given index.
@@ -237,14 +453,14 @@ public class TableLoader {
     @Nonnull
     @Contract(pure = true)
     public String get(int index) {
-        if (index < tokens.size()) {
-            String token = tokens.get(index);
-            if (token != null) {
-                return token;
+        if (index < tokenCount) {
+            if (intTokenSet[index]) {
+                return Integer.toString(intTokens[index]);
             }
+            return new String(lineBuffer, tokenStart[index], tokenEnd[index] - tokenStart[index]);
         }
 
-        LOGGER.error("Missing element in line at {}", tokens.get(0));
+        reportMissingToken();
 
         return "<missing>";
     }
@@ -259,8 +475,16 @@ public class TableLoader {
      */
     @Contract(pure = true)
     public boolean getBoolean(int index) {
-        String tokenValue = get(index);
-        return !"0".equals(tokenValue);
+        if (index < tokenCount) {
+            if (intTokenSet[index]) {
+                return intTokens[index] != 0;
+            }
+            return ((tokenEnd[index] - tokenStart[index]) != 1) || (lineBuffer[tokenStart[index]] != '0');
+        }
+
+        reportMissingToken();
+
+        return true;
     }
 
     /**
@@ -269,11 +493,20 @@ public class TableLoader {
      *
      * @param index the index of the token that shall be read
      * @return the integer value of the token
+     * @throws NumberFormatException in case the token is not a integer value
      */
     @Contract(pure = true)
     public int getInt(int index) {
-        String tokenValue = get(index);
-        return Integer.parseInt(tokenValue);
+        if (index < tokenCount) {
+            if (intTokenSet[index]) {
+                return intTokens[index];
+            }
+            return parseInt(tokenStart[index], tokenEnd[index]);
+        }
+
+        reportMissingToken();
+
+        throw new NumberFormatException("For input string: \"<missing>\"");
     }
 
     /**
@@ -289,6 +522,64 @@ public class TableLoader {
         return get(index);
     }
 
+    /**
+     * Report that a token was requested that is not part of the last line.
+     */
+    private void reportMissingToken() {
+        LOGGER.error("Missing element in line at {}", (tokenCount > 0) ? get(0) : null);
+    }
+
+    /**
+     * Parse a integer value located in the line buffer. This follows the same rules as
+     * {@link Integer#parseInt(String)}.
+     *
+     * @param start the index of the first character of the value
+     * @param end the index after the last character of the value
+     * @return the parsed value
+     * @throws NumberFormatException in case the characters are not a valid integer value
+     */
+    private int parseInt(int start, int end) {
+        if (start >= end) {
+            throw createNumberFormatException(start, end);
+        }
+
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        int pos = start;
+        char firstChar = lineBuffer[pos];
+        if ((firstChar == '-') || (firstChar == '+')) {
+            if ((end - start) == 1) {
+                throw createNumberFormatException(start, end);
+            }
+            if (firstChar == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            }
+            pos++;
+        }
+
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        while (pos < end) {
+            int digit = Character.digit(lineBuffer[pos++], 10);
+            if ((digit < 0) || (result < multiplyLimit)) {
+                throw createNumberFormatException(start, end);
+            }
+            result *= 10;
+            if (result < (limit + digit)) {
+                throw createNumberFormatException(start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    @Nonnull
+    private NumberFormatException createNumberFormatException(int start, int end) {
+        return new NumberFormatException(
+                "For input string: \"" + new String(lineBuffer, start, end - start) + '"');
+    }
+
     /**
      * Load a table from the stream and close the ressource stream after the
      * reading operations.
@@ -304,71 +595,219 @@ public class TableLoader {
      * @throws IOException in case there is something wrong with the ressource
      * stream
      */
-    @SuppressWarnings("unchecked")
     private <T extends TableLoader> void loadTable(
             @Nonnull InputStream rsc, boolean ndsc, @Nonnull TableLoaderSink<T> callback) throws IOException {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(rsc, "UTF-8"))) {
-            String line;
+        loadTable(rsc, ndsc, callback, null);
+    }
+
+    /**
+     * Load a table from the stream and close the resource stream after the reading operations. The records are
+     * recorded with the cache writer in case one is set.
+     *
+     * @param rsc the resource stream that provides the table data
+     * @param ndsc true for NDSC table, that causes the first two tokes ignored
+     * @param callback the callback class that is allowed to parse the values this table loader reads
+     * @param cacheWriter the writer of the table cache or {@code null}
+     * @return {@code true} in case the entire table was read
+     * @throws IOException in case there is something wrong with the resource stream
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends TableLoader> boolean loadTable(
+            @Nonnull InputStream rsc,
+            boolean ndsc,
+            @Nonnull TableLoaderSink<T> callback,
+            @Nullable TableCache.Writer cacheWriter) throws IOException {
+        try (Reader in = new InputStreamReader(rsc, "UTF-8")) {
             int lineCount = 0;
+            readPosition = 0;
+            readLimit = 0;
 
             // skip header
-            in.readLine();
+            readLine(in);
             // read all lines
-            while ((line = in.readLine()) != null) {
+            while (readLine(in)) {
                 // skip comments and empty lines
-                if (line.isEmpty() || line.startsWith("#")) {
+                if ((lineLength == 0) || (lineBuffer[0] == '#')) {
                     continue;
                 }
 
-                tokens.clear();
-
                 // find tokens
-                parseTokens(line, ndsc);
+                parseTokens(ndsc);
+
+                if (cacheWriter != null) {
+                    cacheWriter.writeRecord(this);
+                }
 
                 if (!callback.processRecord(lineCount, (T) this)) {
-                    break;
+                    return false;
                 }
 
                 lineCount++;
             }
         }
+        return true;
     }
 
     /**
-     * Parse all the tokens delimited by the set delimiter ({@link #delimiter}) from one line into the tokens array
-     * ({@link #tokens}). The tokens need to be read by the callback function after this function is done in order to
-     * clean the tokens array again.
+     * Load a table from the binary cache.
+     *
+     * @param cacheReader the reader of the cache
+     * @param callback the callback class that is allowed to parse the values this table loader reads
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends TableLoader> void loadTable(
+            @Nonnull TableCache.Reader cacheReader, @Nonnull TableLoaderSink<T> callback) {
+        int lineCount = 0;
+        while (cacheReader.readRecord(this)) {
+            if (!callback.processRecord(lineCount, (T) this)) {
+                break;
+            }
+            lineCount++;
+        }
+    }
+
+    /**
+     * Read the next line of the table into the line buffer. Line are terminated by {@code \n}, {@code \r} or
+     * {@code \r\n}.
+     *
+     * @param in the reader that supplies the table data
+     * @return {@code true} in case a line was read, {@code false} in case the end of the data was reached
+     * @throws IOException in case reading the data fails
+     */
+    private boolean readLine(@Nonnull Reader in) throws IOException {
+        lineLength = 0;
+        tokenCount = 0;
+        boolean foundData = false;
+        while (true) {
+            if (readPosition >= readLimit) {
+                readLimit = in.read(readBuffer);
+                readPosition = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    return foundData;
+                }
+            }
+            foundData = true;
+
+            int start = readPosition;
+            while (readPosition < readLimit) {
+                char c = readBuffer[readPosition];
+                if ((c == '\n') || (c == '\r')) {
+                    appendToLine(start, readPosition);
+                    readPosition++;
+                    if (c == '\r') {
+                        skipLineFeed(in);
+                    }
+                    return true;
+                }
+                readPosition++;
+            }
+            appendToLine(start, readPosition);
+        }
+    }
+
+    /**
+     * Skip a line feed character that directly follows a carriage return.
+     *
+     * @param in the reader that supplies the table data
+     * @throws IOException in case reading the data fails
+     */
+    private void skipLineFeed(@Nonnull Reader in) throws IOException {
+        if (readPosition >= readLimit) {
+            readLimit = in.read(readBuffer);
+            readPosition = 0;
+            if (readLimit <= 0) {
+                readLimit = 0;
+                return;
+            }
+        }
+        if (readBuffer[readPosition] == '\n') {
+            readPosition++;
+        }
+    }
+
+    /**
+     * Copy a part of the read buffer to the end of the line buffer.
+     *
+     * @param start the first index in the read buffer
+     * @param end the index after the last character to copy
+     */
+    private void appendToLine(int start, int end) {
+        int length = end - start;
+        ensureLineCapacity(lineLength + length);
+        System.arraycopy(readBuffer, start, lineBuffer, lineLength, length);
+        lineLength += length;
+    }
+
+    /**
+     * Make sure that the line buffer is able to store a specified amount of characters.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureLineCapacity(int capacity) {
+        if (capacity > lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, Math.max(capacity, lineBuffer.length * 2));
+        }
+    }
+
+    /**
+     * Find the next occurrence of the delimiter in the line buffer.
+     *
+     * @param fromIndex the index to start the search at
+     * @return the index of the delimiter or {@code -1} in case there is none
+     */
+    private int indexOfDelimiter(int fromIndex) {
+        int lastStart = lineLength - delimiterChars.length;
+        for (int i = Math.max(fromIndex, 0); i <= lastStart; i++) {
+            int j = 0;
+            while ((j < delimiterChars.length) && (lineBuffer[i + j] == delimiterChars[j])) {
+                j++;
+            }
+            if (j == delimiterChars.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse all the tokens delimited by the set delimiter ({@link #delimiter}) from the line buffer. The tokens only
+     * store the location in the line buffer, so they need to be read by the callback function before the next line
+     * is read.
      *
-     * @param line the string line that shall be parsed for the tokens
      * @param ndsc true for ndsc tables. For ndsc tables the first two tokens
      * are ignored
      */
-    private void parseTokens(@Nonnull String line, boolean ndsc) {
+    private void parseTokens(boolean ndsc) {
+        tokenCount = 0;
         int pos = 0;
         // skip table id and color
         if (ndsc) {
-            pos = line.indexOf(delimiter);
-            pos = line.indexOf(delimiter, pos + 1);
+            pos = indexOfDelimiter(0);
+            pos = indexOfDelimiter(pos + 1);
             pos++;
         }
 
+        boolean endsWithDelimiter = (lineLength >= delimiterChars.length) &&
+                (indexOfDelimiter(lineLength - delimiterChars.length) >= 0);
+
         boolean running = true;
         while (running) {
             // find end of token
-            int endPos = line.indexOf(delimiter, pos);
+            int endPos = indexOfDelimiter(pos);
             if (endPos < 0) {
-                if (line.endsWith(delimiter)) {
+                if (endsWithDelimiter) {
                     break;
                 }
-                endPos = line.length();
+                endPos = lineLength;
                 running = false;
             }
 
             // it's a string
-            if (line.charAt(pos) == '"') {
-                tokens.add(line.substring(pos + 1, endPos - 1));
+            if (((endPos - pos) > 1) && (lineBuffer[pos] == '"')) {
+                addToken(pos + 1, endPos - 1);
             } else { // copy other data directly
-                tokens.add(line.substring(pos, endPos));
+                addToken(pos, endPos);
             }
 
             // move onward one entry
@@ -0,0 +1,130 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.graphics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Test for writing and reading the compiled texture atlas index. A index that is not valid has to be rejected, so the
+ * XML definition of the atlas list is read instead.
+ */
+public class TextureAtlasIndexTest {
+    private static final int ATLAS_COUNT = 3;
+    private static final int SPRITE_COUNT = 300;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        TextureAtlasIndex index = TextureAtlasIndex.read(new ByteArrayInputStream(createIndexData()));
+
+        Assert.assertEquals(index.getAtlasCount(), ATLAS_COUNT);
+        for (int atlas = 0; atlas < ATLAS_COUNT; atlas++) {
+            Assert.assertEquals(index.getAtlasName(atlas), getAtlasName(atlas));
+        }
+        Assert.assertEquals(index.getSpriteCount(), SPRITE_COUNT);
+        for (int i = 0; i < SPRITE_COUNT; i++) {
+            String name = getSpriteName(i);
+            int sprite = index.find(name);
+            Assert.assertNotEquals(sprite, -1, "Sprite " + name + " not found");
+            Assert.assertEquals(index.getSpriteName(sprite), name);
+            Assert.assertEquals(index.getSpriteAtlas(sprite), i % ATLAS_COUNT, "Atlas of " + name);
+            Assert.assertEquals(index.getSpriteX(sprite), (i * 7) % 1024, "X coordinate of " + name);
+            Assert.assertEquals(index.getSpriteY(sprite), (i * 13) % 1024, "Y coordinate of " + name);
+            Assert.assertEquals(index.getSpriteWidth(sprite), 1 + (i % 64), "Width of " + name);
+            Assert.assertEquals(index.getSpriteHeight(sprite), 1 + (i % 48), "Height of " + name);
+        }
+    }
+
+    @Test
+    public void testUnknownSprite() throws IOException {
+        TextureAtlasIndex index = TextureAtlasIndex.read(new ByteArrayInputStream(createIndexData()));
+
+        Assert.assertEquals(index.find("unknown"), -1);
+        Assert.assertEquals(index.find(""), -1);
+        Assert.assertEquals(index.find(getSpriteName(SPRITE_COUNT)), -1);
+        Assert.assertEquals(index.find(getSpriteName(0) + 'x'), -1);
+    }
+
+    @Test
+    public void testEmptyIndex() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextureAtlasIndex.Builder().write(out);
+        TextureAtlasIndex index = TextureAtlasIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+        Assert.assertEquals(index.getAtlasCount(), 0);
+        Assert.assertEquals(index.getSpriteCount(), 0);
+        Assert.assertEquals(index.find(getSpriteName(0)), -1);
+    }
+
+    @Test
+    public void testTruncatedIndexRejected() throws IOException {
+        byte[] data = createIndexData();
+        for (int length : new int[]{0, 10, 30, data.length / 2, data.length - 1}) {
+            try {
+                TextureAtlasIndex.read(new ByteArrayInputStream(Arrays.copyOf(data, length)));
+                Assert.fail("Index truncated to " + length + " bytes was accepted");
+            } catch (IOException ignored) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testWrongVersionRejected() throws IOException {
+        byte[] data = createIndexData();
+        ByteBuffer.wrap(data).putInt(4, ByteBuffer.wrap(data).getInt(4) + 1);
+        TextureAtlasIndex.read(new ByteArrayInputStream(data));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testWrongMagicRejected() throws IOException {
+        byte[] data = createIndexData();
+        data[0] ^= 0xFF;
+        TextureAtlasIndex.read(new ByteArrayInputStream(data));
+    }
+
+    @Nonnull
+    private static byte[] createIndexData() throws IOException {
+        TextureAtlasIndex.Builder builder = new TextureAtlasIndex.Builder();
+        for (int atlas = 0; atlas < ATLAS_COUNT; atlas++) {
+            Assert.assertEquals(builder.addAtlas(getAtlasName(atlas)), atlas);
+        }
+        for (int i = 0; i < SPRITE_COUNT; i++) {
+            builder.addSprite(i % ATLAS_COUNT, getSpriteName(i), (i * 7) % 1024, (i * 13) % 1024, 1 + (i % 64),
+                              1 + (i % 48));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        builder.write(out);
+        return out.toByteArray();
+    }
+
+    @Nonnull
+    private static String getAtlasName(int atlas) {
+        return "data/gui/atlas-" + atlas;
+    }
+
+    @Nonnull
+    private static String getSpriteName(int sprite) {
+        return "data/items/item-" + sprite + ((sprite % 3 == 0) ? "-special" : "");
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.util;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test for storing the parsed tables in the binary cache. The records read from the cache have to match the records
+ * parsed from the table.
+ */
+public class TableCacheTest {
+    private Path cacheDirectory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("tableCache");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCachedRecordsMatchParsedRecords() {
+        for (int seed = 0; seed < 8; seed++) {
+            boolean ndsc = (seed % 2) == 0;
+            String delimiter = (seed < 4) ? "," : ";;";
+            String table = TableSamples.createTable(seed, 500, ndsc, delimiter);
+            TableCache cache = new TableCache(cacheDirectory, "test/table" + seed, seed);
+
+            List<List<String>> parsedRecords = new ArrayList<>();
+            List<List<Object>> parsedValues = new ArrayList<>();
+            TableCache.Writer writer = cache.createWriter();
+            new TableLoader(new ByteArrayInputStream(table.getBytes(StandardCharsets.UTF_8)), ndsc,
+                            (line, loader) -> {
+                                try {
+                                    writer.writeRecord(loader);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                                parsedRecords.add(TableSamples.getTokens(loader));
+                                parsedValues.add(getValues(loader));
+                                return true;
+                            }, delimiter);
+            writer.store();
+
+            TableCache.Reader reader = cache.openReader();
+            Assert.assertNotNull(reader, "Cache of table " + seed + " not readable");
+            TableLoader loader = createEmptyLoader();
+            List<List<String>> cachedRecords = new ArrayList<>();
+            List<List<Object>> cachedValues = new ArrayList<>();
+            while (reader.readRecord(loader)) {
+                cachedRecords.add(TableSamples.getTokens(loader));
+                cachedValues.add(getValues(loader));
+            }
+
+            Assert.assertFalse(parsedRecords.isEmpty());
+            Assert.assertEquals(cachedRecords, parsedRecords, "Records of table " + seed + " differ");
+            Assert.assertEquals(cachedValues, parsedValues, "Values of table " + seed + " differ");
+        }
+    }
+
+    @Test
+    public void testOutdatedCacheIgnored() {
+        storeCache(new TableCache(cacheDirectory, "table", 1L));
+        Assert.assertNotNull(new TableCache(cacheDirectory, "table", 1L).openReader());
+        Assert.assertNull(new TableCache(cacheDirectory, "table", 2L).openReader());
+    }
+
+    @Test
+    public void testOutdatedCacheReplaced() {
+        storeCache(new TableCache(cacheDirectory, "table", 1L));
+        TableCache cache = new TableCache(cacheDirectory, "table", 2L);
+        Assert.assertNull(cache.openReader());
+        storeCache(cache);
+        Assert.assertNotNull(cache.openReader());
+        Assert.assertNull(new TableCache(cacheDirectory, "table", 1L).openReader());
+    }
+
+    @Test
+    public void testMissingCacheIgnored() {
+        Assert.assertNull(new TableCache(cacheDirectory, "table", 1L).openReader());
+    }
+
+    @Test
+    public void testDamagedCacheIgnored() throws IOException {
+        storeCache(new TableCache(cacheDirectory, "table", 1L));
+        Path file = cacheDirectory.resolve("table.tbl");
+        byte[] data = Files.readAllBytes(file);
+        data[data.length - 1] ^= 0x55;
+        Files.write(file, data);
+        Assert.assertNull(new TableCache(cacheDirectory, "table", 1L).openReader());
+    }
+
+    @Test
+    public void testTruncatedCacheIgnored() throws IOException {
+        storeCache(new TableCache(cacheDirectory, "table", 1L));
+        Path file = cacheDirectory.resolve("table.tbl");
+        byte[] data = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(data, data.length - 3));
+        Assert.assertNull(new TableCache(cacheDirectory, "table", 1L).openReader());
+    }
+
+    @Test
+    public void testSourceKey() {
+        byte[] data = "some table data".getBytes(StandardCharsets.UTF_8);
+        long key = TableCache.getSourceKey(data, true, ",");
+        Assert.assertEquals(TableCache.getSourceKey(data.clone(), true, ","), key);
+        Assert.assertNotEquals(TableCache.getSourceKey(data, false, ","), key);
+        Assert.assertNotEquals(TableCache.getSourceKey(data, true, ";"), key);
+        data[0] = 'S';
+        Assert.assertNotEquals(TableCache.getSourceKey(data, true, ","), key);
+    }
+
+    private static void storeCache(@Nonnull TableCache cache) {
+        String table = TableSamples.createTable(42, 50, false, ",");
+        TableCache.Writer writer = cache.createWriter();
+        new TableLoader(new ByteArrayInputStream(table.getBytes(StandardCharsets.UTF_8)), false,
+                        (line, loader) -> {
+                            try {
+                                writer.writeRecord(loader);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            return true;
+                        }, ",");
+        writer.store();
+    }
+
+    /**
+     * Create a table loader that did not read any records. It receives the records read from the cache.
+     *
+     * @return the table loader
+     */
+    @Nonnull
+    private static TableLoader createEmptyLoader() {
+        return new TableLoader(new ByteArrayInputStream(new byte[0]), false, (line, loader) -> true, ",");
+    }
+
+    /**
+     * Get the values of the tokens of the last line the way the resource loaders read them.
+     *
+     * @param loader the table loader
+     * @return the integer value or the exception type of each token followed by the boolean value of each token
+     */
+    @Nonnull
+    private static List<Object> getValues(@Nonnull TableLoader loader) {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < loader.getTokenCount(); i++) {
+            try {
+                values.add(loader.getInt(i));
+            } catch (NumberFormatException e) {
+                values.add(NumberFormatException.class);
+            }
+        }
+        for (int i = 0; i < loader.getTokenCount(); i++) {
+            values.add(loader.getBoolean(i));
+        }
+        return values;
+    }
+}
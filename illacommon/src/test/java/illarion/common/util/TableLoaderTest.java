@@ -0,0 +1,207 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test for the tokenizer of the table loader. The tokens and values have to match the results of the previous
+ * tokenizer that created one string for each token.
+ */
+public class TableLoaderTest {
+    @Test
+    public void testTablesMatchReference() throws IOException {
+        String[] delimiters = {",", ";", ";;"};
+        for (String delimiter : delimiters) {
+            for (int seed = 0; seed < 10; seed++) {
+                boolean ndsc = (seed % 2) == 0;
+                String table = TableSamples.createTable(seed, 400, ndsc, delimiter);
+                String message = "Table " + seed + " with delimiter " + delimiter;
+
+                List<List<String>> expected = readReferenceRecords(table, ndsc, delimiter);
+                List<List<String>> records = TableSamples.readRecords(table, ndsc, delimiter);
+                Assert.assertFalse(expected.isEmpty(), message);
+                Assert.assertEquals(records, expected, message);
+            }
+        }
+    }
+
+    @Test
+    public void testValuesMatchReference() {
+        for (int seed = 0; seed < 10; seed++) {
+            String table = TableSamples.createTable(seed, 400, false, ",");
+            List<List<Object>> values = new ArrayList<>();
+            new TableLoader(new ByteArrayInputStream(table.getBytes(StandardCharsets.UTF_8)),
+                            false, (line, loader) -> {
+                values.add(getValues(loader));
+                return true;
+            }, ",");
+
+            List<List<Object>> expected = new ArrayList<>();
+            for (List<String> record : TableSamples.readRecords(table, false, ",")) {
+                expected.add(getReferenceValues(record));
+            }
+            Assert.assertEquals(values, expected, "Table " + seed);
+        }
+    }
+
+    @Test
+    public void testLineEndings() {
+        String table = "header\r\n1,2\r\n\r\n#comment\n3,4\r5,6\n\r7,8";
+        List<List<String>> records = TableSamples.readRecords(table, false, ",");
+        Assert.assertEquals(records.toString(), "[[1, 2], [3, 4], [5, 6], [7, 8]]");
+    }
+
+    @Test
+    public void testQuotedAndEmptyTokens() {
+        String table = "header\n\"quoted text\",\"\",,x\n\"a\",b,\n";
+        List<List<String>> records = TableSamples.readRecords(table, false, ",");
+        Assert.assertEquals(records.toString(), "[[quoted text, , , x], [a, b]]");
+    }
+
+    @Test
+    public void testNdscColumnsSkipped() {
+        String table = "header\n1,255,first,2\n2,0,second,3,\n";
+        List<List<String>> records = TableSamples.readRecords(table, true, ",");
+        Assert.assertEquals(records.toString(), "[[first, 2], [second, 3]]");
+    }
+
+    @Test
+    public void testMissingToken() {
+        String table = "header\n0,12\n";
+        new TableLoader(new ByteArrayInputStream(table.getBytes(StandardCharsets.UTF_8)),
+                        false, (line, loader) -> {
+            Assert.assertEquals(loader.get(2), "<missing>");
+            Assert.assertTrue(loader.getBoolean(2));
+            Assert.assertFalse(loader.getBoolean(0));
+            Assert.assertEquals(loader.getInt(1), 12);
+            try {
+                loader.getInt(2);
+                Assert.fail("Missing token parsed as integer");
+            } catch (NumberFormatException ignored) {
+            }
+            return true;
+        }, ",");
+    }
+
+    /**
+     * Get the values of the tokens of the last line the way the resource loaders read them.
+     *
+     * @param loader the table loader
+     * @return the integer value or the exception type and the boolean value of each token
+     */
+    @Nonnull
+    private static List<Object> getValues(@Nonnull TableLoader loader) {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < loader.getTokenCount(); i++) {
+            try {
+                values.add(loader.getInt(i));
+            } catch (NumberFormatException e) {
+                values.add(NumberFormatException.class);
+            }
+            values.add(loader.getBoolean(i));
+        }
+        return values;
+    }
+
+    /**
+     * Get the values of tokens the way the previous table loader parsed them.
+     *
+     * @param tokens the tokens
+     * @return the integer value or the exception type and the boolean value of each token
+     */
+    @Nonnull
+    private static List<Object> getReferenceValues(@Nonnull List<String> tokens) {
+        List<Object> values = new ArrayList<>();
+        for (String token : tokens) {
+            try {
+                values.add(Integer.parseInt(token));
+            } catch (NumberFormatException e) {
+                values.add(NumberFormatException.class);
+            }
+            values.add(!"0".equals(token));
+        }
+        return values;
+    }
+
+    /**
+     * Read the records of a table the way the previous table loader did.
+     *
+     * @param table the table
+     * @param ndsc {@code true} in case the first two tokens of each record are skipped
+     * @param delimiter the delimiter of the table
+     * @return the tokens of each record
+     * @throws IOException in case reading the table fails
+     */
+    @Nonnull
+    private static List<List<String>> readReferenceRecords(
+            @Nonnull String table, boolean ndsc, @Nonnull String delimiter) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new StringReader(table))) {
+            in.readLine();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                records.add(parseReferenceTokens(line, ndsc, delimiter));
+            }
+        }
+        return records;
+    }
+
+    @Nonnull
+    private static List<String> parseReferenceTokens(@Nonnull String line, boolean ndsc, @Nonnull String delimiter) {
+        List<String> tokens = new ArrayList<>();
+        int pos = 0;
+        if (ndsc) {
+            pos = line.indexOf(delimiter);
+            pos = line.indexOf(delimiter, pos + 1);
+            pos++;
+        }
+
+        boolean running = true;
+        while (running) {
+            int endPos = line.indexOf(delimiter, pos);
+            if (endPos < 0) {
+                if (line.endsWith(delimiter)) {
+                    break;
+                }
+                endPos = line.length();
+                running = false;
+            }
+
+            if (line.charAt(pos) == '"') {
+                tokens.add(line.substring(pos + 1, endPos - 1));
+            } else {
+                tokens.add(line.substring(pos, endPos));
+            }
+
+            pos = endPos + 1;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.common.util;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class creates the sample tables used to test the table loader and reads the records of these tables.
+ */
+final class TableSamples {
+    /**
+     * The tokens that are put into the sample tables along with random numbers and words.
+     */
+    @Nonnull
+    private static final String[] SPECIAL_TOKENS = {"0", "1", "-1", "007", "+5", "-0", "2147483647", "-2147483648",
+            "2147483648", "12a", "-", "", "\"quoted text\"", "\"\"", "Äpfel und Öl", "a;b", "#no comment"};
+
+    private TableSamples() {
+    }
+
+    /**
+     * Create a sample table. The table contains a header line, comments, empty lines and records with numbers,
+     * quoted strings and words. The lines are terminated by all supported line endings and some lines are longer than
+     * the read buffer of the table loader.
+     *
+     * @param seed the seed of the random values
+     * @param records the amount of records
+     * @param ndsc {@code true} to prefix the records with the table ID and the color like a NDSC table
+     * @param delimiter the delimiter of the table
+     * @return the table
+     */
+    @Nonnull
+    static String createTable(long seed, int records, boolean ndsc, @Nonnull String delimiter) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        builder.append("header").append(delimiter).append("line").append('\n');
+        for (int i = 0; i < records; i++) {
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                builder.append("# comment ").append(i);
+            } else if (kind == 1) {
+                // empty line
+            } else {
+                if (ndsc) {
+                    builder.append(i).append(delimiter).append(random.nextInt(256)).append(delimiter);
+                }
+                int tokens = 1 + random.nextInt(12);
+                for (int j = 0; j < tokens; j++) {
+                    if (j > 0) {
+                        builder.append(delimiter);
+                    }
+                    builder.append(createToken(random));
+                }
+                if (random.nextInt(10) == 0) {
+                    builder.append(delimiter);
+                }
+            }
+            switch (random.nextInt(3)) {
+                case 0:
+                    builder.append('\n');
+                    break;
+                case 1:
+                    builder.append("\r\n");
+                    break;
+                default:
+                    builder.append('\r');
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    @Nonnull
+    private static String createToken(@Nonnull Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return Integer.toString(random.nextInt());
+            case 1:
+                return Integer.toString(random.nextInt(100));
+            case 2:
+                return SPECIAL_TOKENS[random.nextInt(SPECIAL_TOKENS.length)];
+            case 3:
+                return '"' + createWord(random, 1 + random.nextInt(20)) + '"';
+            case 4:
+                // longer than the read buffer of the table loader
+                return (random.nextInt(8) == 0) ? createWord(random, 9000) : createWord(random, 5);
+            default:
+                return createWord(random, 1 + random.nextInt(10));
+        }
+    }
+
+    @Nonnull
+    private static String createWord(@Nonnull Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Read all records of a table with the table loader.
+     *
+     * @param table the table
+     * @param ndsc {@code true} in case the table is a NDSC table
+     * @param delimiter the delimiter of the table
+     * @return the tokens of each record
+     */
+    @Nonnull
+    static List<List<String>> readRecords(@Nonnull String table, boolean ndsc, @Nonnull String delimiter) {
+        List<List<String>> records = new ArrayList<>();
+        new TableLoader(new ByteArrayInputStream(table.getBytes(StandardCharsets.UTF_8)), ndsc, (line, loader) -> {
+            records.add(getTokens(loader));
+            return true;
+        }, delimiter);
+        return records;
+    }
+
+    /**
+     * Get the tokens of the last line read by a table loader.
+     *
+     * @param loader the table loader
+     * @return the tokens
+     */
+    @Nonnull
+    static List<String> getTokens(@Nonnull TableLoader loader) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < loader.getTokenCount(); i++) {
+            tokens.add(loader.get(i));
+        }
+        return tokens;
+    }
+}
@@ -15,11 +15,13 @@
  */
 package illarion.download.gui;
 
+import illarion.common.util.StartupProperties;
 import illarion.download.gui.model.GuiModel;
 import illarion.download.gui.view.ChannelSelectView;
 import illarion.download.gui.view.MainView;
 import illarion.download.gui.view.SceneUpdater;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -53,6 +55,10 @@ public class GuiApplication extends Application implements Storyboard {
         showNormal();
         primaryStage.setResizable(false);
         primaryStage.show();
+
+        if (Boolean.getBoolean(StartupProperties.EXIT_AFTER_STARTUP_PROPERTY)) {
+            Platform.runLater(Platform::exit);
+        }
     }
 
     private void setScene(@Nonnull Parent sceneContent) {
@@ -80,6 +80,7 @@ public class GuiModel {
         cfg.setDefault("channelEasyQuest", 1);
         cfg.setDefault("channelMapEditor", 1);
         cfg.setDefault("launchAggressive", false);
+        cfg.setDefault("launchClassDataSharing", true);
         cfg.setDefault("stayOpenAfterLaunch", true);
         cfg.setDefault("verifyArtifactChecksum", false);
         cfg.set("launchAggressive", false);
@@ -17,6 +17,7 @@ package illarion.download.launcher;
 
 import illarion.common.config.Config;
 import illarion.common.util.DirectoryManager;
+import illarion.common.util.DirectoryManager.Directory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,11 +25,14 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The use of this class is to start a independent JVM that runs the chosen application. This class requires calls
@@ -43,6 +47,33 @@ public final class JavaLauncher {
     @Nonnull
     private static final Logger log = LoggerFactory.getLogger(JavaLauncher.class);
 
+    /**
+     * The oldest version of Java that is able to run the applications.
+     */
+    private static final int MIN_JAVA_VERSION = 8;
+
+    /**
+     * The first version of Java that does not know the {@code AggressiveOpts} option anymore.
+     */
+    private static final int NO_AGGRESSIVE_OPTS_JAVA_VERSION = 11;
+
+    /**
+     * The first version of Java that is able to dump a class data sharing archive of the application classes when
+     * the application exits.
+     */
+    private static final int DYNAMIC_CDS_JAVA_VERSION = 13;
+
+    /**
+     * The first version of Java that creates and updates the class data sharing archive on its own.
+     */
+    private static final int AUTO_CDS_JAVA_VERSION = 19;
+
+    /**
+     * The pattern that matches the version in the output of {@code java -version}.
+     */
+    @Nonnull
+    private static final Pattern VERSION_PATTERN = Pattern.compile("version \"(\\d+)(?:\\.(\\d+))?[^\"]*\"");
+
     /**
      * This text contains the error data in case the launch failed.
      */
@@ -73,7 +104,8 @@ public final class JavaLauncher {
         executablePaths = OSDetection.isMacOSX() ? new MacOsXJavaExecutableIterable() : new JavaExecutableIterable();
 
         for (Path executable : executablePaths) {
-            if (isJavaExecutableWorking(executable)) {
+            int javaVersion = getJavaVersion(executable);
+            if (javaVersion >= MIN_JAVA_VERSION) {
                 List<String> callList = new ArrayList<>();
                 callList.add(escapePath(executable.toString()));
                 callList.add("-classpath");
@@ -81,9 +113,13 @@ public final class JavaLauncher {
                 if (snapshot) {
                     callList.add("-Dillarion.server=devserver");
                 }
-                if (cfg.getBoolean("launchAggressive")) {
+                if (cfg.getBoolean("launchAggressive") && (javaVersion < NO_AGGRESSIVE_OPTS_JAVA_VERSION)) {
                     callList.add("-XX:+AggressiveOpts");
                 }
+                if (cfg.getBoolean("launchClassDataSharing")) {
+                    callList.addAll(getClassDataSharingArguments(javaVersion, executable, classPathString,
+                                                                 startupClass));
+                }
                 callList.add(startupClass);
                 printCallList(callList);
                 if (launchCallList(callList)) {
@@ -97,12 +133,14 @@ public final class JavaLauncher {
     }
 
     /**
-     * This function is used to check if the java executable has the proper version.
+     * This function is used to fetch the version of a java executable. Both the old version scheme
+     * ({@code 1.8.0_121}) and the current one ({@code 11.0.2}) are understood.
      *
      * @param executable the path to the executable
-     * @return {@code true} in case java meets the required specifications
+     * @return the feature version of java, for example {@code 8} or {@code 11}, or {@code -1} in case the executable
+     * is not working
      */
-    private static boolean isJavaExecutableWorking(@Nonnull Path executable) {
+    private static int getJavaVersion(@Nonnull Path executable) {
         try {
             ProcessBuilder processBuilder = new ProcessBuilder(executable.toString(), "-version");
             processBuilder.redirectErrorStream(true);
@@ -110,33 +148,109 @@ public final class JavaLauncher {
 
             try (BufferedReader reader = new BufferedReader(
                     new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+                return parseJavaVersion(reader.lines());
+            } finally {
+                process.destroy();
+            }
+        } catch (IOException e) {
+            log.error("Launching {} failed.", executable);
+        }
+        return -1;
+    }
+
+    /**
+     * Read the version of java from the output of {@code java -version}.
+     *
+     * @param outputLines the lines printed by the executable
+     * @return the feature version of java or {@code -1} in case the output contains no version
+     */
+    static int parseJavaVersion(@Nonnull Stream<String> outputLines) {
+        Optional<Matcher> versionMatcher = outputLines
+                .filter(s -> s.contains("version"))
+                .map(VERSION_PATTERN::matcher)
+                .filter(Matcher::find)
+                .findFirst();
+
+        if (versionMatcher.isPresent()) {
+            Matcher matcher = versionMatcher.get();
+            int mainVersion = Integer.parseInt(matcher.group(1));
+            int featureVersion = mainVersion;
+            if ((mainVersion == 1) && (matcher.group(2) != null)) {
+                featureVersion = Integer.parseInt(matcher.group(2));
+            }
+
+            log.info("Matched Java version to {} ({})", featureVersion, matcher.group());
+            return featureVersion;
+        }
+        return -1;
+    }
 
-                Pattern versionRegex = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)_(\\d+)");
-                Optional<Matcher> versionMatcher = reader.lines()
-                        .filter(s -> s.contains("version"))
-                        .map(versionRegex::matcher)
-                        .filter(Matcher::find)
-                        .findFirst();
+    /**
+     * Get the arguments that make the JVM use a class data sharing archive of the application classes. Loading the
+     * classes from this archive is a lot faster then reading and verifying them from the class path. The archive is
+     * bound to the executable and the class path, so it is created by the first launch of a new version of the
+     * application.
+     *
+     * @param javaVersion the feature version of java
+     * @param executable the path to the executable
+     * @param classPath the class path of the application
+     * @param startupClass the class that is launched
+     * @return the arguments or a empty list in case the JVM does not support archiving the application classes
+     */
+    @Nonnull
+    private static List<String> getClassDataSharingArguments(
+            int javaVersion, @Nonnull Path executable, @Nonnull String classPath, @Nonnull String startupClass) {
+        if (javaVersion < DYNAMIC_CDS_JAVA_VERSION) {
+            return Collections.emptyList();
+        }
 
-                if (versionMatcher.isPresent()) {
-                    Matcher matcher = versionMatcher.get();
-                    int mainVersion = Integer.parseInt(matcher.group(1));
-                    int majorVersion = Integer.parseInt(matcher.group(2));
-                    int minorVersion = Integer.parseInt(matcher.group(3));
-                    int buildNumber = Integer.parseInt(matcher.group(4));
+        Path archiveDir = DirectoryManager.getInstance().resolveFile(Directory.User, "cds");
+        String archivePrefix = startupClass + '-';
+        Path archive;
+        try {
+            Files.createDirectories(archiveDir);
+            String archiveKey = executable.toAbsolutePath() + File.pathSeparator +
+                    Files.getLastModifiedTime(executable).toMillis() + File.pathSeparator + classPath;
+            archive = archiveDir.resolve(archivePrefix + Integer.toHexString(archiveKey.hashCode()) + ".jsa");
+        } catch (IOException e) {
+            log.warn("Failed to prepare the class data sharing archive of {}", startupClass, e);
+            return Collections.emptyList();
+        }
+        removeStaleArchives(archiveDir, archivePrefix, archive);
 
-                    log.info("Matched Java version to {}.{}.{}_b{}",
-                            mainVersion, majorVersion, minorVersion, buildNumber);
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-Xshare:auto");
+        if (javaVersion >= AUTO_CDS_JAVA_VERSION) {
+            arguments.add("-XX:+AutoCreateSharedArchive");
+            arguments.add(escapePath("-XX:SharedArchiveFile=" + archive));
+        } else if (Files.isRegularFile(archive)) {
+            arguments.add(escapePath("-XX:SharedArchiveFile=" + archive));
+        } else {
+            log.info("Creating class data sharing archive: {}", archive);
+            arguments.add(escapePath("-XX:ArchiveClassesAtExit=" + archive));
+        }
+        return arguments;
+    }
 
-                    return (mainVersion >= 1) && (majorVersion >= 8) && (buildNumber >= 0);
+    /**
+     * Remove the class data sharing archives of older versions of a application.
+     *
+     * @param archiveDir the directory that stores the archives
+     * @param archivePrefix the prefix of the archives of the application
+     * @param currentArchive the archive of the current version that is kept
+     */
+    private static void removeStaleArchives(
+            @Nonnull Path archiveDir, @Nonnull String archivePrefix, @Nonnull Path currentArchive) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(archiveDir, archivePrefix + "*.jsa")) {
+            for (Path archive : stream) {
+                if (!archive.equals(currentArchive)) {
+                    log.info("Removing outdated class data sharing archive: {}", archive);
+                    Files.deleteIfExists(archive);
                 }
-            } finally {
-                process.destroy();
             }
         } catch (IOException e) {
-            log.error("Launching {} failed.", executable);
+            log.warn("Failed to remove outdated class data sharing archives.", e);
         }
-        return false;
     }
 
     /**
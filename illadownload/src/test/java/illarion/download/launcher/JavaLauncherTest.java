@@ -0,0 +1,61 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package illarion.download.launcher;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.stream.Stream;
+
+/**
+ * Test for reading the version of java from the output of {@code java -version}.
+ */
+public class JavaLauncherTest {
+    @Test
+    public void parseLegacyVersion() {
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of(
+                "java version \"1.8.0_121\"",
+                "Java(TM) SE Runtime Environment (build 1.8.0_121-b13)",
+                "Java HotSpot(TM) 64-Bit Server VM (build 25.121-b13, mixed mode)")), 8);
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of("java version \"1.7.0_80\"")), 7);
+    }
+
+    @Test
+    public void parseCurrentVersion() {
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of(
+                "openjdk version \"11.0.2\" 2019-01-15",
+                "OpenJDK Runtime Environment 18.9 (build 11.0.2+9)",
+                "OpenJDK 64-Bit Server VM 18.9 (build 11.0.2+9, mixed mode)")), 11);
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of("openjdk version \"17\" 2021-09-14")), 17);
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of("openjdk version \"21-ea\" 2023-09-19")), 21);
+    }
+
+    @Test
+    public void parseVersionAfterOtherOutput() {
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of(
+                "Picked up JAVA_TOOL_OPTIONS: -Dfile.encoding=UTF-8",
+                "openjdk version \"19.0.1\" 2022-10-18")), 19);
+    }
+
+    @Test
+    public void parseMissingVersion() {
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of(
+                "Error: Could not create the Java Virtual Machine.",
+                "Error: A fatal exception has occurred. Program will exit.")), -1);
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.of("Unrecognized version string")), -1);
+        Assert.assertEquals(JavaLauncher.parseJavaVersion(Stream.empty()), -1);
+    }
+}
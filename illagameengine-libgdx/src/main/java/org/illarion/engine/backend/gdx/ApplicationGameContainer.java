@@ -78,6 +78,16 @@ public class ApplicationGameContainer implements DesktopGameContainer {
      */
     private int lastFrameRenderCalls;
 
+    /**
+     * The largest amount of sprites that were submitted with a single render call during the last frame.
+     */
+    private int lastFrameMaxSpritesInBatch;
+
+    /**
+     * The amount of times the render queue was submitted to the sprite batch during the last frame.
+     */
+    private int lastFrameQueueFlushes;
+
     /**
      * The width of the application in windowed mode.
      */
@@ -257,7 +267,9 @@ public class ApplicationGameContainer implements DesktopGameContainer {
     @Nonnull
     @Override
     public CharSequence[] getDiagnosticLines() {
-        return new CharSequence[]{"Render calls: " + lastFrameRenderCalls};
+        return new CharSequence[]{"Render calls: " + lastFrameRenderCalls,
+                "Largest batch: " + lastFrameMaxSpritesInBatch + " sprites",
+                "Render queue flushes: " + lastFrameQueueFlushes};
     }
 
     @Override
@@ -375,8 +387,10 @@ public class ApplicationGameContainer implements DesktopGameContainer {
         engine = new GdxEngine(gdxApplication, this);
     }
 
-    void setLastFrameRenderCalls(int calls) {
-        lastFrameRenderCalls = calls;
+    void setLastFrameRenderStatistics(int renderCalls, int maxSpritesInBatch, int queueFlushes) {
+        lastFrameRenderCalls = renderCalls;
+        lastFrameMaxSpritesInBatch = maxSpritesInBatch;
+        lastFrameQueueFlushes = queueFlushes;
     }
 
     @Override
@@ -58,7 +58,8 @@ class GdxFontManager extends AbstractFontManager {
     protected Font buildFont(@Nonnull String fntRef, @Nonnull String imageRoot, @Nullable Font outlineFont)
             throws IOException {
         String imageName = getImageName(fntRef);
-        GdxTexture imageTexture = (GdxTexture) textureManager.getTexture(imageRoot, imageName);
+        // the bitmap font keeps the texture, so it must not be a streaming placeholder
+        GdxTexture imageTexture = (GdxTexture) textureManager.getResidentTexture(imageRoot, imageName);
         if (imageTexture == null) {
             throw new IOException("Failed to load required image: " + imageRoot + imageName);
         }
@@ -1,7 +1,82 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
 package org.illarion.engine.backend.gdx;
 
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.illarion.engine.graphic.FrameBuffer;
+import org.illarion.engine.graphic.Texture;
+
+import javax.annotation.Nonnull;
+
 /**
+ * This is the implementation of a frame buffer that uses a libGDX frame buffer object.
+ *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
-public class GdxFrameBuffer {
+class GdxFrameBuffer implements FrameBuffer {
+    /**
+     * The libGDX frame buffer.
+     */
+    @Nonnull
+    private final com.badlogic.gdx.graphics.glutils.FrameBuffer frameBuffer;
+
+    /**
+     * The texture that shows the color buffer of the frame buffer.
+     */
+    @Nonnull
+    private final GdxTexture texture;
+
+    GdxFrameBuffer(int width, int height) {
+        frameBuffer = new com.badlogic.gdx.graphics.glutils.FrameBuffer(Format.RGBA8888, width, height, false);
+        texture = new GdxTexture(new TextureRegion(frameBuffer.getColorBufferTexture()));
+    }
+
+    /**
+     * Bind the frame buffer, so all following render operations are sent to it.
+     */
+    void begin() {
+        frameBuffer.begin();
+    }
+
+    /**
+     * Bind the render target again that was active before {@link #begin()} was called.
+     */
+    void end() {
+        frameBuffer.end();
+    }
+
+    @Nonnull
+    @Override
+    public Texture getTexture() {
+        return texture;
+    }
+
+    @Override
+    public int getWidth() {
+        return frameBuffer.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return frameBuffer.getHeight();
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+    }
 }
@@ -18,13 +18,13 @@ package org.illarion.engine.backend.gdx;
 import com.badlogic.gdx.graphics.Cursor.SystemCursor;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.utils.ScissorStack;
+import com.badlogic.gdx.utils.NumberUtils;
 import com.badlogic.gdx.utils.Pools;
 import illarion.common.types.Rectangle;
 import org.illarion.engine.graphic.*;
@@ -114,6 +114,37 @@ class GdxGraphics implements Graphics {
      * This is set {@code true} in case the clipping is activated.
      */
     private boolean activeClipping;
+    /**
+     * The queue that collects the sprite draws without effects and submits them grouped by texture.
+     */
+    @Nonnull
+    private final GdxRenderQueue renderQueue;
+    /**
+     * The temporary buffer used to build the vertex data of a single quad.
+     */
+    @Nonnull
+    private final float[] quadBuffer;
+    /**
+     * The cache of the glyph layouts of the texts rendered recently.
+     */
+    @Nonnull
+    private final GdxTextLayoutCache textLayouts;
+    /**
+     * The global offset that is currently applied.
+     */
+    private int currentOffsetX;
+    private int currentOffsetY;
+    /**
+     * The frame buffer that is currently the target of the render operations or {@code null} in case the render
+     * operations are send to the screen.
+     */
+    @Nullable
+    private GdxFrameBuffer activeFrameBuffer;
+    /**
+     * The blending mode that was active before the frame buffer was activated.
+     */
+    @Nullable
+    private BlendingMode frameBufferBlendingMode;
 
     /**
      * Create a new instance of the graphics engine that is using libGDX to render.
@@ -131,6 +162,9 @@ class GdxGraphics implements Graphics {
         tempColor4 = new com.badlogic.gdx.graphics.Color();
         tempRegion = new TextureRegion();
         tempEngineRectangle = new Rectangle();
+        renderQueue = new GdxRenderQueue();
+        quadBuffer = new float[GdxRenderQueue.QUAD_SIZE];
+        textLayouts = new GdxTextLayoutCache();
 
         camera = new OrthographicCamera();
         camera.zoom = 1.f;
@@ -142,6 +176,16 @@ class GdxGraphics implements Graphics {
         return spriteBatch;
     }
 
+    /**
+     * Get the render queue that collects the sprite quads before they are submitted to the sprite batch.
+     *
+     * @return the render queue
+     */
+    @Nonnull
+    GdxRenderQueue getRenderQueue() {
+        return renderQueue;
+    }
+
     void setCursor(@Nullable GdxCursor cursor) {
         if (cursor == null) {
             gdxGraphics.setSystemCursor(SystemCursor.Arrow);
@@ -162,7 +206,7 @@ class GdxGraphics implements Graphics {
         setBlendingMode(BlendingMode.AlphaBlend);
 
         if (blankBackground == null) {
-            blankBackground = engine.getAssets().getTextureManager().getTexture("gui/", "blank.png");
+            blankBackground = engine.getAssets().getTextureManager().getResidentTexture("gui/", "blank.png");
         }
     }
 
@@ -206,37 +250,40 @@ class GdxGraphics implements Graphics {
             } else {
                 usedEffect = null;
             }
-            spriteBatch.setColor(tempColor1);
             tempRegion.setRegion(gdxSprite.getFrame(frame).getTextureRegion());
             tempRegion.flip(gdxSprite.isMirrored(), true);
-            if (usedEffect != null) {
-                float u, u2;
-                if (tempRegion.isFlipX()) {
-                    u = tempRegion.getU();
-                    u2 = tempRegion.getU2();
-                } else {
-                    u2 = tempRegion.getU();
-                    u = tempRegion.getU2();
-                }
-                float v, v2;
-                if (tempRegion.isFlipY()) {
-                    v = tempRegion.getV();
-                    v2 = tempRegion.getV2();
-                } else {
-                    v2 = tempRegion.getV();
-                    v = tempRegion.getV2();
-                }
-                usedEffect.setTopLeftCoordinate(u2, v2);
-                usedEffect.setBottomRightCoordinate(u, v);
-                usedEffect.activateEffect(spriteBatch);
+            if (usedEffect == null) {
+                queueRegion(tempRegion, tempEngineRectangle.getX(), tempEngineRectangle.getY(), (float) centerTransX,
+                        (float) centerTransY, tempEngineRectangle.getWidth(), tempEngineRectangle.getHeight(),
+                        (float) rotation, tempColor1.toFloatBits());
+                return;
+            }
+            flushRenderQueue();
+            spriteBatch.setColor(tempColor1);
+            float u, u2;
+            if (tempRegion.isFlipX()) {
+                u = tempRegion.getU();
+                u2 = tempRegion.getU2();
+            } else {
+                u2 = tempRegion.getU();
+                u = tempRegion.getU2();
+            }
+            float v, v2;
+            if (tempRegion.isFlipY()) {
+                v = tempRegion.getV();
+                v2 = tempRegion.getV2();
+            } else {
+                v2 = tempRegion.getV();
+                v = tempRegion.getV2();
             }
+            usedEffect.setTopLeftCoordinate(u2, v2);
+            usedEffect.setBottomRightCoordinate(u, v);
+            usedEffect.activateEffect(spriteBatch);
             spriteBatch.draw(tempRegion, tempEngineRectangle.getX(), tempEngineRectangle.getY(), (float) centerTransX,
                     (float) centerTransY, tempEngineRectangle.getWidth(), tempEngineRectangle.getHeight(), 1.f,
                     1.f, (float) rotation);
 
-            if (usedEffect != null) {
-                usedEffect.disableEffect(spriteBatch);
-            }
+            usedEffect.disableEffect(spriteBatch);
         }
     }
 
@@ -261,75 +308,27 @@ class GdxGraphics implements Graphics {
 
         /*
         This is something where libGDX provides no function for. So in this case we need to build the data array for
-        OpenGL by hand.
+        OpenGL by hand. The geometry of the tile only depends on the sprite, so it is calculated once by the sprite
+        and only moved to the render location here. The colors of the corners depend on the light and are packed
+        with every call. Tiles without a light gradient use one color for all corners, so it is packed only once.
          */
 
         GdxSprite gdxSprite = (GdxSprite) sprite;
         activateSpriteBatch();
 
-        float bottomColorF = getFloatColor(bottomColor, tempColor1);
-        float topColorF = getFloatColor(topColor, tempColor1);
-        float leftColorF = getFloatColor(leftColor, tempColor1);
-        float rightColorF = getFloatColor(rightColor, tempColor1);
-        float centerColorF = getFloatColor(centerColor, tempColor1);
-
         TextureRegion textureRegion = gdxSprite.getFrame(frame).getTextureRegion();
+        float[] geometry = gdxSprite.getTileGeometry(frame);
 
-        int width = sprite.getWidth() + 1;
-        int height = sprite.getHeight() + 1;
-
-        gdxSprite.getDisplayArea(posX, posY, 1.f, 0.f, tempEngineRectangle);
-        float centerTransX = (width * gdxSprite.getCenterX()) + gdxSprite.getOffsetX();
-        float centerTransY = (height * gdxSprite.getCenterY()) + gdxSprite.getOffsetY();
-
-        float originX = posX - centerTransX;
-        float originY = posY + centerTransY;
-
-        float topX = originX + (width / 2.f);
-        float topY = originY - height;
-        float topU = textureRegion.getU() + ((textureRegion.getU2() - textureRegion.getU()) / 2.f);
-        float topV = textureRegion.getV();
-
-        float leftX = originX;
-        float leftY = originY - (height / 2.f);
-        float leftU = textureRegion.getU();
-        float leftV = textureRegion.getV() + ((textureRegion.getV2() - textureRegion.getV()) / 2.f);
-
-        float rightX = originX + width;
-        float rightY = originY - (height / 2.f);
-        float rightU = textureRegion.getU2();
-        float rightV = textureRegion.getV() + ((textureRegion.getV2() - textureRegion.getV()) / 2.f);
-
-        float bottomX = originX + (width / 2.f);
-        float bottomY = originY;
-        float bottomU = textureRegion.getU() + ((textureRegion.getU2() - textureRegion.getU()) / 2.f);
-        float bottomV = textureRegion.getV2();
-
+        float topColorPacked = getPackedColor(topColor);
+        float leftColorPacked = (leftColor == topColor) ? topColorPacked : getPackedColor(leftColor);
+        float bottomColorPacked = (bottomColor == topColor) ? topColorPacked : getPackedColor(bottomColor);
+        float rightColorPacked = (rightColor == topColor) ? topColorPacked : getPackedColor(rightColor);
 
         float[] vertices = FLT_BUFFER;
-        vertices[0] = topX;
-        vertices[1] = topY;
-        vertices[2] = topColorF;
-        vertices[3] = topU;
-        vertices[4] = topV;
-
-        vertices[5] = leftX;
-        vertices[6] = leftY;
-        vertices[7] = leftColorF;
-        vertices[8] = leftU;
-        vertices[9] = leftV;
-
-        vertices[10] = bottomX;
-        vertices[11] = bottomY;
-        vertices[12] = bottomColorF;
-        vertices[13] = bottomU;
-        vertices[14] = bottomV;
-
-        vertices[15] = rightX;
-        vertices[16] = rightY;
-        vertices[17] = rightColorF;
-        vertices[18] = rightU;
-        vertices[19] = rightV;
+        setTileVertex(vertices, 0, geometry, posX, posY, topColorPacked);
+        setTileVertex(vertices, 1, geometry, posX, posY, leftColorPacked);
+        setTileVertex(vertices, 2, geometry, posX, posY, bottomColorPacked);
+        setTileVertex(vertices, 3, geometry, posX, posY, rightColorPacked);
 
         @Nullable GdxTextureEffect usedEffect;
         if ((effects.length > 0) && (effects[0] instanceof GdxTextureEffect)) {
@@ -337,35 +336,35 @@ class GdxGraphics implements Graphics {
         } else {
             usedEffect = null;
         }
-        spriteBatch.setColor(tempColor1);
+        if (usedEffect == null) {
+            renderQueue.add(spriteBatch, textureRegion.getTexture(), vertices, 0);
+            return;
+        }
+        flushRenderQueue();
         tempRegion.setRegion(gdxSprite.getFrame(frame).getTextureRegion());
         tempRegion.flip(gdxSprite.isMirrored(), true);
-        if (usedEffect != null) {
-            float u, u2;
-            if (tempRegion.isFlipX()) {
-                u = tempRegion.getU();
-                u2 = tempRegion.getU2();
-            } else {
-                u2 = tempRegion.getU();
-                u = tempRegion.getU2();
-            }
-            float v, v2;
-            if (tempRegion.isFlipY()) {
-                v = tempRegion.getV();
-                v2 = tempRegion.getV2();
-            } else {
-                v2 = tempRegion.getV();
-                v = tempRegion.getV2();
-            }
-            usedEffect.setTopLeftCoordinate(u2, v2);
-            usedEffect.setBottomRightCoordinate(u, v);
-            usedEffect.activateEffect(spriteBatch);
+        float u, u2;
+        if (tempRegion.isFlipX()) {
+            u = tempRegion.getU();
+            u2 = tempRegion.getU2();
+        } else {
+            u2 = tempRegion.getU();
+            u = tempRegion.getU2();
+        }
+        float v, v2;
+        if (tempRegion.isFlipY()) {
+            v = tempRegion.getV();
+            v2 = tempRegion.getV2();
+        } else {
+            v2 = tempRegion.getV();
+            v = tempRegion.getV2();
         }
+        usedEffect.setTopLeftCoordinate(u2, v2);
+        usedEffect.setBottomRightCoordinate(u, v);
+        usedEffect.activateEffect(spriteBatch);
         spriteBatch.draw(textureRegion.getTexture(), FLT_BUFFER, 0, 20);
 
-        if (usedEffect != null) {
-            usedEffect.disableEffect(spriteBatch);
-        }
+        usedEffect.disableEffect(spriteBatch);
     }
 
     @Override
@@ -373,6 +372,7 @@ class GdxGraphics implements Graphics {
         if (lastBlendingMode == mode) {
             return;
         }
+        flushRenderQueue();
         switch (mode) {
             case AlphaBlend:
                 spriteBatch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
@@ -402,33 +402,17 @@ class GdxGraphics implements Graphics {
             double scaleY) {
         if (font instanceof GdxFont) {
             activateSpriteBatch();
-            GdxFont gdxFont = (GdxFont) font;
-
-            BitmapFont bitmapFont = gdxFont.getBitmapFont();
-            bitmapFont.getData().setScale((float) scaleX, (float) scaleY);
-            transferColor(color, tempColor1);
-            bitmapFont.setColor(tempColor1);
-            GlyphLayout layout = Pools.obtain(GlyphLayout.class);
-            layout.setText(bitmapFont, text);
-
-            BitmapFont outlineFont = gdxFont.getOutlineBitmapFont();
-            if (outlineFont != null) {
-                transferColor(Color.BLACK, tempColor1);
-                tempColor1.a = color.getAlphaf();
-                outlineFont.getData().setScale((float) scaleX, (float) scaleY);
-                outlineFont.setColor(tempColor1);
-
-                GlyphLayout outlineLayout = Pools.obtain(GlyphLayout.class);
-                outlineLayout.setText(outlineFont, text);
-
-                float widthOffset = (layout.width - outlineLayout.width) / 2.f;
-
-                outlineFont.draw(spriteBatch, outlineLayout, x + widthOffset, y - outlineFont.getAscent());
-                Pools.free(outlineLayout);
+            GdxTextLayoutCache.Layout layout =
+                    textLayouts.getLayout((GdxFont) font, text, (float) scaleX, (float) scaleY);
+            int colorBits = getColorBits(color);
+            float textColor = NumberUtils.intToFloatColor(colorBits);
+            /* The outline is black with the alpha of the text. */
+            float outlineColor = NumberUtils.intToFloatColor(colorBits & 0xFF000000);
+            int quadCount = layout.getQuadCount();
+            for (int i = 0; i < quadCount; i++) {
+                layout.getQuad(i, quadBuffer, x, y, textColor, outlineColor);
+                renderQueue.add(spriteBatch, layout.getTexture(i), quadBuffer, 0);
             }
-
-            bitmapFont.draw(spriteBatch, layout, x, y - bitmapFont.getAscent());
-            Pools.free(layout);
         }
     }
 
@@ -457,6 +441,21 @@ class GdxGraphics implements Graphics {
             @Nonnull Color topRightColor,
             @Nonnull Color bottomLeftColor,
             @Nonnull Color bottomRightColor) {
+        if (blankBackground instanceof GdxTexture) {
+            activateSpriteBatch();
+            TextureRegion region = ((GdxTexture) blankBackground).getTextureRegion();
+            float u = region.getU();
+            float v = region.getV();
+            float u2 = region.getU2();
+            float v2 = region.getV2();
+            float[] vertices = quadBuffer;
+            setVertex(vertices, 0, x, y, getFloatColor(bottomLeftColor, tempColor1), u, v);
+            setVertex(vertices, 1, x + width, y, getFloatColor(bottomRightColor, tempColor1), u2, v);
+            setVertex(vertices, 2, x + width, y + height, getFloatColor(topRightColor, tempColor1), u2, v2);
+            setVertex(vertices, 3, x, y + height, getFloatColor(topLeftColor, tempColor1), u, v2);
+            renderQueue.add(spriteBatch, region.getTexture(), vertices, 0);
+            return;
+        }
         activateShapeRenderer();
         transferColor(topLeftColor, tempColor1);
         transferColor(topRightColor, tempColor2);
@@ -484,6 +483,7 @@ class GdxGraphics implements Graphics {
             return;
         }
         if (spriteBatchActive) {
+            flushRenderQueue();
             spriteBatch.end();
             spriteBatchActive = false;
         }
@@ -524,19 +524,20 @@ class GdxGraphics implements Graphics {
             } else {
                 usedEffect = null;
             }
-            if (usedEffect != null) {
-                usedEffect.activateEffect(spriteBatch);
-            }
-            spriteBatch.setColor(tempColor1);
             tempRegion.setRegion(((GdxTexture) texture).getTextureRegion());
             if (!tempRegion.isFlipY()) {
                 tempRegion.flip(false, true);
             }
+            if (usedEffect == null) {
+                queueRegion(tempRegion, x, y, 0.f, 0.f, width, height, 0.f, tempColor1.toFloatBits());
+                return;
+            }
+            flushRenderQueue();
+            usedEffect.activateEffect(spriteBatch);
+            spriteBatch.setColor(tempColor1);
             spriteBatch.draw(tempRegion, x, y, width, height);
 
-            if (usedEffect != null) {
-                usedEffect.disableEffect(spriteBatch);
-            }
+            usedEffect.disableEffect(spriteBatch);
         }
     }
 
@@ -569,19 +570,20 @@ class GdxGraphics implements Graphics {
             } else {
                 usedEffect = null;
             }
-            if (usedEffect != null) {
-                usedEffect.activateEffect(spriteBatch);
-            }
-            spriteBatch.setColor(tempColor1);
             tempRegion.setRegion(((GdxTexture) texture).getTextureRegion(), texX, texY, texWidth, texHeight);
             if (!tempRegion.isFlipY()) {
                 tempRegion.flip(false, true);
             }
+            if (usedEffect == null) {
+                queueRegion(tempRegion, x, y, 0.f, 0.f, width, height, 0.f, tempColor1.toFloatBits());
+                return;
+            }
+            flushRenderQueue();
+            usedEffect.activateEffect(spriteBatch);
+            spriteBatch.setColor(tempColor1);
             spriteBatch.draw(tempRegion, x, y, width, height);
 
-            if (usedEffect != null) {
-                usedEffect.disableEffect(spriteBatch);
-            }
+            usedEffect.disableEffect(spriteBatch);
         }
     }
 
@@ -614,20 +616,22 @@ class GdxGraphics implements Graphics {
             } else {
                 usedEffect = null;
             }
-            if (usedEffect != null) {
-                usedEffect.activateEffect(spriteBatch);
-            }
-
-            spriteBatch.setColor(tempColor1);
             tempRegion.setRegion(((GdxTexture) texture).getTextureRegion(), texX, texY, texWidth, texHeight);
             if (!tempRegion.isFlipY()) {
                 tempRegion.flip(false, true);
             }
+            if (usedEffect == null) {
+                queueRegion(tempRegion, x, y, centerX, centerY, width, height, (float) rotate,
+                        tempColor1.toFloatBits());
+                return;
+            }
+            flushRenderQueue();
+            usedEffect.activateEffect(spriteBatch);
+
+            spriteBatch.setColor(tempColor1);
             spriteBatch.draw(tempRegion, x, y, centerX, centerY, width, height, 1.f, 1.f, (float) rotate);
 
-            if (usedEffect != null) {
-                usedEffect.disableEffect(spriteBatch);
-            }
+            usedEffect.disableEffect(spriteBatch);
         }
     }
 
@@ -664,6 +668,70 @@ class GdxGraphics implements Graphics {
         }
     }
 
+    @Nonnull
+    @Override
+    public FrameBuffer createFrameBuffer(int width, int height) {
+        return new GdxFrameBuffer(width, height);
+    }
+
+    @Override
+    public void beginFrameBuffer(@Nonnull FrameBuffer frameBuffer, int x, int y, int width, int height) {
+        if (!(frameBuffer instanceof GdxFrameBuffer)) {
+            throw new IllegalArgumentException("The frame buffer is expected to be provided by this engine.");
+        }
+        if (activeFrameBuffer != null) {
+            throw new IllegalStateException("Another frame buffer is already active.");
+        }
+        if (activeClipping) {
+            throw new IllegalStateException("A frame buffer can't be activated while a clipping area is set.");
+        }
+        flushAll();
+
+        activeFrameBuffer = (GdxFrameBuffer) frameBuffer;
+        activeFrameBuffer.begin();
+
+        GL20 gl20 = gdxGraphics.getGL20();
+        gl20.glEnable(GL20.GL_SCISSOR_TEST);
+        gl20.glScissor(x, y, width, height);
+        gl20.glClearColor(0.f, 0.f, 0.f, 0.f);
+        gl20.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        /* The camera is not flipped here. This stores the image upside down in the frame buffer, what matches the
+         * orientation the textures are drawn with. */
+        camera.setToOrtho(false, frameBuffer.getWidth(), frameBuffer.getHeight());
+        camera.position.set((camera.viewportWidth / 2.f) - x, (camera.viewportHeight / 2.f) - y, 0.f);
+        camera.update();
+        spriteBatch.setProjectionMatrix(camera.combined);
+        shapeRenderer.setProjectionMatrix(camera.combined);
+
+        /* The alpha channel of the frame buffer has to collect the coverage of all render operations. Regular alpha
+         * blending would reduce the alpha value of the target where semi-transparent pixels are drawn. */
+        frameBufferBlendingMode = lastBlendingMode;
+        spriteBatch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE,
+                GL20.GL_ONE_MINUS_SRC_ALPHA);
+        spriteBatch.enableBlending();
+        lastBlendingMode = BlendingMode.AlphaBlend;
+    }
+
+    @Override
+    public void endFrameBuffer() {
+        if (activeFrameBuffer == null) {
+            throw new IllegalStateException("There is no active frame buffer.");
+        }
+        flushAll();
+
+        gdxGraphics.getGL20().glDisable(GL20.GL_SCISSOR_TEST);
+        activeFrameBuffer.end();
+        activeFrameBuffer = null;
+
+        camera.setToOrtho(true, gdxGraphics.getWidth(), gdxGraphics.getHeight());
+        applyOffset(currentOffsetX, currentOffsetY);
+
+        lastBlendingMode = null;
+        setBlendingMode((frameBufferBlendingMode == null) ? BlendingMode.AlphaBlend : frameBufferBlendingMode);
+        frameBufferBlendingMode = null;
+    }
+
     /**
      * Stops the render operation of both the shape renderer and the sprite batch renderer to ensure that the
      * buffered data is flushed to the screen.
@@ -673,16 +741,145 @@ class GdxGraphics implements Graphics {
             shapeRenderer.end();
         }
         if (spriteBatchActive) {
+            flushRenderQueue();
             spriteBatch.end();
             spriteBatchActive = false;
         }
     }
 
+    /**
+     * Submit all quads collected by the render queue to the sprite batch. This has to be called before any change
+     * of the render state that would apply to the queued quads.
+     */
+    private void flushRenderQueue() {
+        if (!renderQueue.isEmpty()) {
+            renderQueue.flush(spriteBatch);
+        }
+    }
+
+    /**
+     * Add a texture region to the render queue. This calculates the vertex data the same way the sprite batch does.
+     *
+     * @param region the region to render
+     * @param x the x coordinate of the region
+     * @param y the y coordinate of the region
+     * @param originX the x coordinate of the rotation origin relative to the region
+     * @param originY the y coordinate of the rotation origin relative to the region
+     * @param width the width of the rendered region
+     * @param height the height of the rendered region
+     * @param rotation the rotation in degrees
+     * @param color the packed color of the region
+     */
+    private void queueRegion(@Nonnull TextureRegion region, float x, float y, float originX, float originY,
+                             float width, float height, float rotation, float color) {
+        activateSpriteBatch();
+
+        float worldOriginX = x + originX;
+        float worldOriginY = y + originY;
+        float left = -originX;
+        float top = -originY;
+        float right = width - originX;
+        float bottom = height - originY;
+
+        float x1, y1, x2, y2, x3, y3, x4, y4;
+        if (rotation == 0.f) {
+            x1 = left;
+            y1 = top;
+            x2 = left;
+            y2 = bottom;
+            x3 = right;
+            y3 = bottom;
+            x4 = right;
+            y4 = top;
+        } else {
+            float cos = MathUtils.cosDeg(rotation);
+            float sin = MathUtils.sinDeg(rotation);
+            x1 = (cos * left) - (sin * top);
+            y1 = (sin * left) + (cos * top);
+            x2 = (cos * left) - (sin * bottom);
+            y2 = (sin * left) + (cos * bottom);
+            x3 = (cos * right) - (sin * bottom);
+            y3 = (sin * right) + (cos * bottom);
+            x4 = x1 + (x3 - x2);
+            y4 = y3 - (y2 - y1);
+        }
+
+        float[] vertices = quadBuffer;
+        setVertex(vertices, 0, x1 + worldOriginX, y1 + worldOriginY, color, region.getU(), region.getV2());
+        setVertex(vertices, 1, x2 + worldOriginX, y2 + worldOriginY, color, region.getU(), region.getV());
+        setVertex(vertices, 2, x3 + worldOriginX, y3 + worldOriginY, color, region.getU2(), region.getV());
+        setVertex(vertices, 3, x4 + worldOriginX, y4 + worldOriginY, color, region.getU2(), region.getV2());
+        renderQueue.add(spriteBatch, region.getTexture(), vertices, 0);
+    }
+
+    /**
+     * Store the data of a single vertex in a vertex array.
+     *
+     * @param vertices the vertex array
+     * @param index the index of the vertex
+     * @param x the x coordinate of the vertex
+     * @param y the y coordinate of the vertex
+     * @param color the packed color of the vertex
+     * @param u the u texture coordinate of the vertex
+     * @param v the v texture coordinate of the vertex
+     */
+    private static void setVertex(@Nonnull float[] vertices, int index, float x, float y, float color, float u,
+                                  float v) {
+        int offset = index * 5;
+        vertices[offset] = x;
+        vertices[offset + 1] = y;
+        vertices[offset + 2] = color;
+        vertices[offset + 3] = u;
+        vertices[offset + 4] = v;
+    }
+
     private float getFloatColor(@Nonnull Color source, @Nonnull com.badlogic.gdx.graphics.Color workingInstance) {
         transferColor(source, workingInstance);
         return workingInstance.toFloatBits();
     }
 
+    /**
+     * Get the color packed into the float format used by the vertex data of the sprite batch. This works on the
+     * integer components of the color, so no floating point conversion is required.
+     *
+     * @param source the color
+     * @return the packed color
+     */
+    private static float getPackedColor(@Nonnull Color source) {
+        return NumberUtils.intToFloatColor(getColorBits(source));
+    }
+
+    /**
+     * Get the components of a color packed into a single integer value in the order alpha, blue, green and red.
+     *
+     * @param source the color
+     * @return the packed color
+     */
+    private static int getColorBits(@Nonnull Color source) {
+        int red = MathUtils.clamp(source.getRed(), 0, Color.MAX_INT_VALUE);
+        int green = MathUtils.clamp(source.getGreen(), 0, Color.MAX_INT_VALUE);
+        int blue = MathUtils.clamp(source.getBlue(), 0, Color.MAX_INT_VALUE);
+        int alpha = MathUtils.clamp(source.getAlpha(), 0, Color.MAX_INT_VALUE);
+        return (alpha << 24) | (blue << 16) | (green << 8) | red;
+    }
+
+    /**
+     * Store a vertex of a tile in a vertex array.
+     *
+     * @param vertices the vertex array
+     * @param index the index of the vertex
+     * @param geometry the tile geometry provided by the sprite
+     * @param posX the x coordinate of the render location
+     * @param posY the y coordinate of the render location
+     * @param color the packed color of the vertex
+     */
+    private static void setTileVertex(@Nonnull float[] vertices, int index, @Nonnull float[] geometry, int posX,
+                                      int posY, float color) {
+        int geometryOffset = index * GdxSprite.TILE_VERTEX_SIZE;
+        setVertex(vertices, index, posX + geometry[geometryOffset], posY + geometry[geometryOffset + 1], color,
+                geometry[geometryOffset + 2], geometry[geometryOffset + 3]);
+    }
+
     /**
      * Apply a global offset to all following render operations.
      *
@@ -690,6 +887,9 @@ class GdxGraphics implements Graphics {
      * @param offsetY the y component of the offset
      */
     void applyOffset(int offsetX, int offsetY) {
+        flushRenderQueue();
+        currentOffsetX = offsetX;
+        currentOffsetY = offsetY;
         camera.position.set((camera.viewportWidth / 2.f) + offsetX, (camera.viewportHeight / 2.f) + offsetY, 0.f);
         camera.update();
 
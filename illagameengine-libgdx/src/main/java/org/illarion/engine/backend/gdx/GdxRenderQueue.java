@@ -0,0 +1,299 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.backend.gdx;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * This queue collects the sprite quads rendered during a frame and submits them to the sprite batch grouped by their
+ * texture. Quads are only moved ahead of other quads in case they do not overlap, so the painter's order of all
+ * overlapping quads is kept intact.
+ * <p>
+ * Each quad is stored as the 20 vertex values the sprite batch expects, with the color already packed into the
+ * vertex data. State changes like shader effects, blending modes or clipping can't be queued. The queue has to be
+ * flushed before any of those is applied.
+ */
+final class GdxRenderQueue {
+    /**
+     * The amount of float values used for each quad.
+     */
+    static final int QUAD_SIZE = 20;
+
+    /**
+     * The maximal amount of batches that are kept before the queue is flushed.
+     */
+    private static final int MAX_BATCHES = 128;
+
+    /**
+     * The amount of quads a batch may contain before the overlap check of a batch only uses the bounds of the
+     * entire batch.
+     */
+    private static final int EXACT_OVERLAP_LIMIT = 16;
+
+    /**
+     * The vertex data of all queued quads.
+     */
+    @Nonnull
+    private float[] vertices;
+
+    /**
+     * The bounds of all queued quads. Stored as left, top, right and bottom.
+     */
+    @Nonnull
+    private float[] quadBounds;
+
+    /**
+     * The index of the next quad in the same batch or {@code -1} for the last quad of a batch.
+     */
+    @Nonnull
+    private int[] nextQuad;
+
+    /**
+     * The amount of quads currently queued.
+     */
+    private int quadCount;
+
+    /**
+     * The textures of the batches.
+     */
+    @Nonnull
+    private final Texture[] batchTextures;
+
+    /**
+     * The bounds of all quads in each batch. Stored as left, top, right and bottom.
+     */
+    @Nonnull
+    private final float[] batchBounds;
+
+    /**
+     * The index of the first quad of each batch.
+     */
+    @Nonnull
+    private final int[] batchFirstQuad;
+
+    /**
+     * The index of the last quad of each batch.
+     */
+    @Nonnull
+    private final int[] batchLastQuad;
+
+    /**
+     * The amount of quads in each batch.
+     */
+    @Nonnull
+    private final int[] batchSize;
+
+    /**
+     * The amount of batches currently used.
+     */
+    private int batchCount;
+
+    /**
+     * The amount of times queued quads were submitted to the sprite batch since the counter was reset.
+     */
+    private int flushCount;
+
+    /**
+     * Create a new and empty render queue.
+     */
+    GdxRenderQueue() {
+        vertices = new float[QUAD_SIZE * 256];
+        quadBounds = new float[4 * 256];
+        nextQuad = new int[256];
+        batchTextures = new Texture[MAX_BATCHES];
+        batchBounds = new float[4 * MAX_BATCHES];
+        batchFirstQuad = new int[MAX_BATCHES];
+        batchLastQuad = new int[MAX_BATCHES];
+        batchSize = new int[MAX_BATCHES];
+    }
+
+    /**
+     * Check if the queue currently does not contain any quads.
+     *
+     * @return {@code true} in case the queue is empty
+     */
+    boolean isEmpty() {
+        return quadCount == 0;
+    }
+
+    /**
+     * Get the amount of times queued quads were submitted to the sprite batch since the counter was reset the last
+     * time.
+     *
+     * @return the amount of flushes
+     */
+    int getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Reset the counter of the flushes.
+     */
+    void resetFlushCount() {
+        flushCount = 0;
+    }
+
+    /**
+     * Add a quad to the queue.
+     *
+     * @param batch the sprite batch the queue is flushed to, in case the queue runs full
+     * @param texture the texture of the quad
+     * @param quadVertices the array containing the vertex data of the quad
+     * @param offset the offset of the vertex data in the array
+     */
+    void add(@Nonnull SpriteBatch batch, @Nonnull Texture texture, @Nonnull float[] quadVertices, int offset) {
+        if (batchCount == MAX_BATCHES) {
+            flush(batch);
+        }
+        ensureQuadCapacity(quadCount + 1);
+
+        int quad = quadCount++;
+        System.arraycopy(quadVertices, offset, vertices, quad * QUAD_SIZE, QUAD_SIZE);
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            float x = quadVertices[offset + (i * 5)];
+            float y = quadVertices[offset + (i * 5) + 1];
+            left = Math.min(left, x);
+            top = Math.min(top, y);
+            right = Math.max(right, x);
+            bottom = Math.max(bottom, y);
+        }
+        int boundsIndex = quad * 4;
+        quadBounds[boundsIndex] = left;
+        quadBounds[boundsIndex + 1] = top;
+        quadBounds[boundsIndex + 2] = right;
+        quadBounds[boundsIndex + 3] = bottom;
+        nextQuad[quad] = -1;
+
+        /* The quad has to be rendered after every overlapping quad that is already queued. Searching from the last
+         * batch the first overlapping batch limits how far ahead the quad can be moved. */
+        int lowestBatch = 0;
+        for (int i = batchCount - 1; i >= 0; i--) {
+            if (isOverlapping(i, quad)) {
+                lowestBatch = (batchTextures[i] == texture) ? i : (i + 1);
+                break;
+            }
+        }
+
+        int targetBatch = -1;
+        for (int i = lowestBatch; i < batchCount; i++) {
+            if (batchTextures[i] == texture) {
+                targetBatch = i;
+                break;
+            }
+        }
+
+        if (targetBatch == -1) {
+            targetBatch = batchCount++;
+            batchTextures[targetBatch] = texture;
+            batchFirstQuad[targetBatch] = quad;
+            batchSize[targetBatch] = 1;
+            System.arraycopy(quadBounds, boundsIndex, batchBounds, targetBatch * 4, 4);
+        } else {
+            nextQuad[batchLastQuad[targetBatch]] = quad;
+            batchSize[targetBatch]++;
+            int batchBoundsIndex = targetBatch * 4;
+            batchBounds[batchBoundsIndex] = Math.min(batchBounds[batchBoundsIndex], left);
+            batchBounds[batchBoundsIndex + 1] = Math.min(batchBounds[batchBoundsIndex + 1], top);
+            batchBounds[batchBoundsIndex + 2] = Math.max(batchBounds[batchBoundsIndex + 2], right);
+            batchBounds[batchBoundsIndex + 3] = Math.max(batchBounds[batchBoundsIndex + 3], bottom);
+        }
+        batchLastQuad[targetBatch] = quad;
+    }
+
+    /**
+     * Submit all queued quads to the sprite batch and clear the queue. The sprite batch has to be active.
+     *
+     * @param batch the sprite batch that receives the quads
+     */
+    void flush(@Nonnull SpriteBatch batch) {
+        if (batchCount > 0) {
+            flushCount++;
+        }
+        for (int i = 0; i < batchCount; i++) {
+            Texture texture = batchTextures[i];
+            int quad = batchFirstQuad[i];
+            while (quad != -1) {
+                batch.draw(texture, vertices, quad * QUAD_SIZE, QUAD_SIZE);
+                quad = nextQuad[quad];
+            }
+        }
+        Arrays.fill(batchTextures, 0, batchCount, null);
+        batchCount = 0;
+        quadCount = 0;
+    }
+
+    /**
+     * Check if a queued quad overlaps with any quad of a batch.
+     *
+     * @param batchIndex the index of the batch
+     * @param quad the index of the quad
+     * @return {@code true} in case the quad overlaps with the batch
+     */
+    private boolean isOverlapping(int batchIndex, int quad) {
+        if (!isOverlapping(batchBounds, batchIndex * 4, quad * 4)) {
+            return false;
+        }
+        if (batchSize[batchIndex] > EXACT_OVERLAP_LIMIT) {
+            return true;
+        }
+        int batchQuad = batchFirstQuad[batchIndex];
+        while (batchQuad != -1) {
+            if (isOverlapping(quadBounds, batchQuad * 4, quad * 4)) {
+                return true;
+            }
+            batchQuad = nextQuad[batchQuad];
+        }
+        return false;
+    }
+
+    /**
+     * Check if a bounds entry overlaps with the bounds of a quad.
+     *
+     * @param bounds the array that stores the bounds
+     * @param boundsIndex the index of the bounds in the array
+     * @param quadBoundsIndex the index of the quad bounds
+     * @return {@code true} in case both bounds overlap
+     */
+    private boolean isOverlapping(@Nonnull float[] bounds, int boundsIndex, int quadBoundsIndex) {
+        return (bounds[boundsIndex] < quadBounds[quadBoundsIndex + 2]) &&
+                (bounds[boundsIndex + 2] > quadBounds[quadBoundsIndex]) &&
+                (bounds[boundsIndex + 1] < quadBounds[quadBoundsIndex + 3]) &&
+                (bounds[boundsIndex + 3] > quadBounds[quadBoundsIndex + 1]);
+    }
+
+    /**
+     * Make sure that the queue is able to store the required amount of quads.
+     *
+     * @param quads the amount of quads
+     */
+    private void ensureQuadCapacity(int quads) {
+        if (nextQuad.length >= quads) {
+            return;
+        }
+        int newCapacity = Math.max(quads, nextQuad.length * 2);
+        vertices = Arrays.copyOf(vertices, newCapacity * QUAD_SIZE);
+        quadBounds = Arrays.copyOf(quadBounds, newCapacity * 4);
+        nextQuad = Arrays.copyOf(nextQuad, newCapacity);
+    }
+}
@@ -15,9 +15,12 @@
  */
 package org.illarion.engine.backend.gdx;
 
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import org.illarion.engine.backend.shared.AbstractSprite;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * The sprite implementation of libGDX.
@@ -25,6 +28,25 @@ import javax.annotation.Nonnull;
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
 class GdxSprite extends AbstractSprite<GdxTexture> {
+    /**
+     * The amount of values stored for each vertex of the tile geometry.
+     */
+    static final int TILE_VERTEX_SIZE = 4;
+
+    /**
+     * The geometry of the frames of this sprite when rendered as tile. The array of each frame is created once it is
+     * requested for the first time.
+     */
+    @Nonnull
+    private final float[][] tileGeometry;
+
+    /**
+     * The textures the tile geometry of each frame was calculated for. The texture of a frame changes in case its
+     * texture atlas is streamed. The geometry has to be calculated again in this case.
+     */
+    @Nonnull
+    private final Texture[] tileGeometryTextures;
+
     /**
      * Create a new sprite.
      *
@@ -38,5 +60,55 @@ class GdxSprite extends AbstractSprite<GdxTexture> {
     protected GdxSprite(
             @Nonnull GdxTexture[] textures, int offsetX, int offsetY, float centerX, float centerY, boolean mirror) {
         super(textures, offsetX, offsetY, centerX, centerY, mirror);
+        tileGeometry = new float[textures.length][];
+        tileGeometryTextures = new Texture[textures.length];
+    }
+
+    /**
+     * Get the geometry of a frame of this sprite rendered as diamond shaped tile. The geometry contains the top,
+     * left, bottom and right vertex in this order. Each vertex is stored as the x and y offset from the render
+     * location and the u and v texture coordinate.
+     *
+     * @param frame the frame
+     * @return the geometry of the tile
+     */
+    @Nonnull
+    float[] getTileGeometry(int frame) {
+        TextureRegion textureRegion = getFrame(frame).getTextureRegion();
+        @Nullable float[] geometry = tileGeometry[frame];
+        if ((geometry == null) || (tileGeometryTextures[frame] != textureRegion.getTexture())) {
+            geometry = createTileGeometry(textureRegion);
+            tileGeometry[frame] = geometry;
+            tileGeometryTextures[frame] = textureRegion.getTexture();
+        }
+        return geometry;
+    }
+
+    /**
+     * Calculate the geometry of a tile.
+     *
+     * @param textureRegion the texture region of the rendered frame
+     * @return the geometry of the tile
+     */
+    @Nonnull
+    private float[] createTileGeometry(@Nonnull TextureRegion textureRegion) {
+        int width = getWidth() + 1;
+        int height = getHeight() + 1;
+
+        float centerTransX = (width * getCenterX()) + getOffsetX();
+        float centerTransY = (height * getCenterY()) + getOffsetY();
+
+        float originX = -centerTransX;
+        float originY = centerTransY;
+
+        float centerU = textureRegion.getU() + ((textureRegion.getU2() - textureRegion.getU()) / 2.f);
+        float centerV = textureRegion.getV() + ((textureRegion.getV2() - textureRegion.getV()) / 2.f);
+
+        return new float[]{
+                originX + (width / 2.f), originY - height, centerU, textureRegion.getV(),
+                originX, originY - (height / 2.f), textureRegion.getU(), centerV,
+                originX + (width / 2.f), originY, centerU, textureRegion.getV2(),
+                originX + width, originY - (height / 2.f), textureRegion.getU2(), centerV
+        };
     }
 }
@@ -0,0 +1,313 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.backend.gdx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pools;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This cache stores the glyph quads of the texts that were rendered recently. Texts like the names of characters are
+ * drawn in every frame. With this cache the layout of the glyphs is only calculated once for each combination of
+ * font, text and scaling and the quads are reused as long as the text is displayed. The color is only part of the
+ * vertex data, so it is applied when the quads are copied. Texts that fade in or out keep using the same layout.
+ */
+final class GdxTextLayoutCache {
+    /**
+     * The maximal amount of text layouts that are stored. In case more layouts are stored, the one that was not used
+     * for the longest time is removed.
+     */
+    private static final int MAX_LAYOUTS = 512;
+
+    /**
+     * The stored layouts.
+     */
+    @Nonnull
+    private final Map<Key, Layout> layouts;
+
+    /**
+     * The key instance that is used to look up the layouts.
+     */
+    @Nonnull
+    private final Key lookupKey;
+
+    /**
+     * The buffer that collects the vertex data while a layout is build.
+     */
+    @Nonnull
+    private float[] buildVertices;
+
+    /**
+     * The buffer that collects the textures of the quads while a layout is build.
+     */
+    @Nonnull
+    private Texture[] buildTextures;
+
+    /**
+     * The amount of quads collected while the layout is build.
+     */
+    private int buildQuadCount;
+
+    GdxTextLayoutCache() {
+        layouts = new LinkedHashMap<Key, Layout>(MAX_LAYOUTS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Layout> eldest) {
+                return size() > MAX_LAYOUTS;
+            }
+        };
+        lookupKey = new Key();
+        buildVertices = new float[GdxRenderQueue.QUAD_SIZE * 64];
+        buildTextures = new Texture[64];
+    }
+
+    /**
+     * Get the layout of a text. In case the layout is not stored yet, its created.
+     *
+     * @param font the font used to render the text
+     * @param text the text
+     * @param scaleX the scaling of the text along the x axis
+     * @param scaleY the scaling of the text along the y axis
+     * @return the layout of the text
+     */
+    @Nonnull
+    Layout getLayout(@Nonnull GdxFont font, @Nonnull CharSequence text, float scaleX, float scaleY) {
+        lookupKey.set(font, text, scaleX, scaleY);
+        Layout layout = layouts.get(lookupKey);
+        if (layout == null) {
+            layout = createLayout(font, text, scaleX, scaleY);
+            Key key = new Key();
+            key.set(font, text.toString(), scaleX, scaleY);
+            layouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Calculate the layout of a text. The text is placed the same way {@link BitmapFont} would draw it at the origin.
+     * The quads of the outline are placed ahead of the quads of the glyphs.
+     */
+    @Nonnull
+    private Layout createLayout(@Nonnull GdxFont font, @Nonnull CharSequence text, float scaleX, float scaleY) {
+        buildQuadCount = 0;
+
+        BitmapFont bitmapFont = font.getBitmapFont();
+        bitmapFont.getData().setScale(scaleX, scaleY);
+        GlyphLayout glyphs = Pools.obtain(GlyphLayout.class);
+        glyphs.setText(bitmapFont, text, Color.WHITE, 0.f, Align.left, false);
+
+        BitmapFont outlineFont = font.getOutlineBitmapFont();
+        if (outlineFont != null) {
+            outlineFont.getData().setScale(scaleX, scaleY);
+
+            GlyphLayout outlineGlyphs = Pools.obtain(GlyphLayout.class);
+            outlineGlyphs.setText(outlineFont, text, Color.WHITE, 0.f, Align.left, false);
+
+            float widthOffset = (glyphs.width - outlineGlyphs.width) / 2.f;
+            collectQuads(outlineFont, outlineGlyphs, widthOffset, -outlineFont.getAscent());
+            Pools.free(outlineGlyphs);
+            outlineFont.getData().setScale(1.f);
+        }
+        int outlineQuadCount = buildQuadCount;
+
+        collectQuads(bitmapFont, glyphs, 0.f, -bitmapFont.getAscent());
+        Pools.free(glyphs);
+        bitmapFont.getData().setScale(1.f);
+
+        return new Layout(Arrays.copyOf(buildVertices, buildQuadCount * GdxRenderQueue.QUAD_SIZE),
+                Arrays.copyOf(buildTextures, buildQuadCount), outlineQuadCount);
+    }
+
+    /**
+     * Add the glyph quads of a text to the layout that is currently build.
+     *
+     * @param font the font used to render the text
+     * @param glyphs the glyphs of the text
+     * @param x the x coordinate of the text
+     * @param y the y coordinate of the text
+     */
+    private void collectQuads(@Nonnull BitmapFont font, @Nonnull GlyphLayout glyphs, float x, float y) {
+        BitmapFontCache fontCache = font.getCache();
+        fontCache.clear();
+        fontCache.addText(glyphs, x, y);
+
+        Array<TextureRegion> regions = font.getRegions();
+        for (int page = 0; page < regions.size; page++) {
+            int vertexCount = fontCache.getVertexCount(page);
+            if (vertexCount == 0) {
+                continue;
+            }
+            int quads = vertexCount / GdxRenderQueue.QUAD_SIZE;
+            int newQuadCount = buildQuadCount + quads;
+            if (newQuadCount > buildTextures.length) {
+                int newSize = Math.max(newQuadCount, buildTextures.length * 2);
+                buildTextures = Arrays.copyOf(buildTextures, newSize);
+                buildVertices = Arrays.copyOf(buildVertices, newSize * GdxRenderQueue.QUAD_SIZE);
+            }
+            System.arraycopy(fontCache.getVertices(page), 0, buildVertices,
+                    buildQuadCount * GdxRenderQueue.QUAD_SIZE, quads * GdxRenderQueue.QUAD_SIZE);
+            Arrays.fill(buildTextures, buildQuadCount, newQuadCount, regions.get(page).getTexture());
+            buildQuadCount = newQuadCount;
+        }
+        fontCache.clear();
+    }
+
+    /**
+     * The glyph quads of a text placed at the origin.
+     */
+    static final class Layout {
+        /**
+         * The vertex data of all quads.
+         */
+        @Nonnull
+        private final float[] vertices;
+
+        /**
+         * The textures of the quads.
+         */
+        @Nonnull
+        private final Texture[] textures;
+
+        /**
+         * The amount of quads at the start of the layout that belong to the outline of the text.
+         */
+        private final int outlineQuadCount;
+
+        Layout(@Nonnull float[] vertices, @Nonnull Texture[] textures, int outlineQuadCount) {
+            this.vertices = vertices;
+            this.textures = textures;
+            this.outlineQuadCount = outlineQuadCount;
+        }
+
+        /**
+         * Get the amount of quads of this text.
+         *
+         * @return the amount of quads
+         */
+        int getQuadCount() {
+            return textures.length;
+        }
+
+        /**
+         * Get the texture of a quad.
+         *
+         * @param quad the index of the quad
+         * @return the texture of the quad
+         */
+        @Nonnull
+        Texture getTexture(int quad) {
+            return textures[quad];
+        }
+
+        /**
+         * Copy the vertex data of a quad to a buffer, move the quad to its location on the screen and apply the
+         * color.
+         *
+         * @param quad the index of the quad
+         * @param target the buffer that receives the vertex data
+         * @param x the x coordinate of the text
+         * @param y the y coordinate of the text
+         * @param textColor the packed color of the glyphs
+         * @param outlineColor the packed color of the outline
+         */
+        void getQuad(int quad, @Nonnull float[] target, float x, float y, float textColor, float outlineColor) {
+            System.arraycopy(vertices, quad * GdxRenderQueue.QUAD_SIZE, target, 0, GdxRenderQueue.QUAD_SIZE);
+            float color = (quad < outlineQuadCount) ? outlineColor : textColor;
+            for (int i = 0; i < GdxRenderQueue.QUAD_SIZE; i += 5) {
+                target[i] += x;
+                target[i + 1] += y;
+                target[i + 2] = color;
+            }
+        }
+    }
+
+    /**
+     * The key of a text layout.
+     */
+    private static final class Key {
+        @Nullable
+        private GdxFont font;
+        @Nullable
+        private CharSequence text;
+        private float scaleX;
+        private float scaleY;
+        private int hash;
+
+        void set(@Nonnull GdxFont font, @Nonnull CharSequence text, float scaleX, float scaleY) {
+            this.font = font;
+            this.text = text;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+
+            /* Calculated like the hash of a string, so texts that are not stored as string find the same key. */
+            int textHash = 0;
+            for (int i = 0; i < text.length(); i++) {
+                textHash = (31 * textHash) + text.charAt(i);
+            }
+            int result = System.identityHashCode(font);
+            result = (31 * result) + textHash;
+            result = (31 * result) + Float.floatToIntBits(scaleX);
+            result = (31 * result) + Float.floatToIntBits(scaleY);
+            hash = result;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (hash == other.hash) && (font == other.font) &&
+                    (Float.compare(scaleX, other.scaleX) == 0) && (Float.compare(scaleY, other.scaleY) == 0) &&
+                    isSameText(text, other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static boolean isSameText(@Nullable CharSequence text1, @Nullable CharSequence text2) {
+            if ((text1 == null) || (text2 == null)) {
+                return text1 == text2;
+            }
+            int length = text1.length();
+            if (length != text2.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (text1.charAt(i) != text2.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -16,9 +16,11 @@
 package org.illarion.engine.backend.gdx;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.illarion.engine.backend.shared.StreamedTextureAtlas;
 import org.illarion.engine.graphic.Texture;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * This is the implementation of a texture that stores a libGDX texture.
@@ -32,8 +34,19 @@ class GdxTexture implements Texture {
     @Nonnull
     private final TextureRegion backingTexture;
 
+    /**
+     * The streamed texture atlas this texture is located on or {@code null} in case the texture is always resident.
+     */
+    @Nullable
+    private final StreamedTextureAtlas<?> streamedAtlas;
+
     GdxTexture(@Nonnull TextureRegion backingTexture) {
+        this(backingTexture, null);
+    }
+
+    GdxTexture(@Nonnull TextureRegion backingTexture, @Nullable StreamedTextureAtlas<?> streamedAtlas) {
         this.backingTexture = backingTexture;
+        this.streamedAtlas = streamedAtlas;
     }
 
     @Override
@@ -57,8 +70,36 @@ class GdxTexture implements Texture {
         return backingTexture.getRegionWidth();
     }
 
+    @Override
+    public boolean isResident() {
+        return (streamedAtlas == null) || streamedAtlas.isResident();
+    }
+
+    /**
+     * Get the texture region for rendering. In case the texture is located on a streamed atlas, this marks the atlas
+     * as used.
+     *
+     * @return the texture region
+     */
     @Nonnull
     public TextureRegion getTextureRegion() {
+        if (streamedAtlas != null) {
+            streamedAtlas.markUsed();
+        }
         return backingTexture;
     }
+
+    /**
+     * Point this texture to an area of another texture region. This is used to switch streamed textures between the
+     * placeholder and the atlas texture.
+     *
+     * @param region the source region
+     * @param x the x coordinate of the area in the source region
+     * @param y the y coordinate of the area in the source region
+     * @param width the width of the area
+     * @param height the height of the area
+     */
+    void setRegion(@Nonnull TextureRegion region, int x, int y, int width, int height) {
+        backingTexture.setRegion(region, x, y, width, height);
+    }
 }
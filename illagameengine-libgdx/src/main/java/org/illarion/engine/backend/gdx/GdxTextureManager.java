@@ -18,11 +18,14 @@ package org.illarion.engine.backend.gdx;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import org.illarion.engine.backend.shared.AbstractTextureManager;
+import org.illarion.engine.backend.shared.StreamedTextureAtlas;
+import org.illarion.engine.backend.shared.TextureStreamingBackend;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -32,7 +35,13 @@ import javax.annotation.Nullable;
  *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
-class GdxTextureManager extends AbstractTextureManager<Pixmap> {
+class GdxTextureManager extends AbstractTextureManager<Pixmap> implements TextureStreamingBackend<Pixmap> {
+    /**
+     * The transparent texture that is shown for the sprites of streamed atlas textures that are not loaded.
+     */
+    @Nullable
+    private TextureRegion streamingPlaceholder;
+
     @Override
     @Nullable
     protected Pixmap loadTextureData(@Nonnull String textureName) {
@@ -60,4 +69,66 @@ class GdxTextureManager extends AbstractTextureManager<Pixmap> {
             return null;
         }
     }
+
+    @Nonnull
+    @Override
+    protected TextureStreamingBackend<Pixmap> getStreamingBackend() {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public GdxTexture createStreamingTexture(@Nonnull StreamedTextureAtlas<Pixmap> atlas, int width, int height) {
+        return new GdxTexture(new TextureRegion(getStreamingPlaceholder(), 0, 0, width, height), atlas);
+    }
+
+    @Nonnull
+    @Override
+    public GdxTexture createPlaceholderTexture(int width, int height) {
+        return new GdxTexture(new TextureRegion(getStreamingPlaceholder(), 0, 0, width, height));
+    }
+
+    @Override
+    public void bindStreamingTexture(
+            @Nonnull org.illarion.engine.graphic.Texture spriteTexture,
+            @Nonnull org.illarion.engine.graphic.Texture atlasTexture,
+            int posX,
+            int posY,
+            int width,
+            int height) {
+        ((GdxTexture) spriteTexture).setRegion(((GdxTexture) atlasTexture).getTextureRegion(), posX, posY, width,
+                                               height);
+    }
+
+    @Override
+    public void unbindStreamingTexture(@Nonnull org.illarion.engine.graphic.Texture spriteTexture) {
+        GdxTexture texture = (GdxTexture) spriteTexture;
+        texture.setRegion(getStreamingPlaceholder(), 0, 0, texture.getWidth(), texture.getHeight());
+    }
+
+    @Override
+    protected void disposeStreamedTexture(@Nonnull org.illarion.engine.graphic.Texture atlasTexture) {
+        ((GdxTexture) atlasTexture).getTextureRegion().getTexture().dispose();
+    }
+
+    @Override
+    protected void disposeTextureData(@Nonnull Pixmap preLoadData) {
+        preLoadData.dispose();
+    }
+
+    /**
+     * Get the placeholder region. The region covers a single transparent pixel.
+     *
+     * @return the placeholder region
+     */
+    @Nonnull
+    private TextureRegion getStreamingPlaceholder() {
+        if (streamingPlaceholder == null) {
+            Pixmap pixmap = new Pixmap(1, 1, Format.RGBA8888);
+            Texture tex = new Texture(pixmap, false);
+            pixmap.dispose();
+            streamingPlaceholder = new TextureRegion(tex);
+        }
+        return streamingPlaceholder;
+    }
 }
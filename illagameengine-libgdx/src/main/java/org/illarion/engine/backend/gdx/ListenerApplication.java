@@ -75,9 +75,13 @@ class ListenerApplication extends ApplicationAdapter {
         listener.render(container);
         graphics.endFrame();
 
-        SpriteBatch batch = container.getEngine().getGraphics().getSpriteBatch();
-        container.setLastFrameRenderCalls(batch.totalRenderCalls);
+        SpriteBatch batch = graphics.getSpriteBatch();
+        GdxRenderQueue renderQueue = graphics.getRenderQueue();
+        container.setLastFrameRenderStatistics(batch.totalRenderCalls, batch.maxSpritesInBatch,
+                renderQueue.getFlushCount());
         batch.totalRenderCalls = 0;
+        batch.maxSpritesInBatch = 0;
+        renderQueue.resetFlushCount();
     }
 
     /**
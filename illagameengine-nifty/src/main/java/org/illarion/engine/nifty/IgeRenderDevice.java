@@ -95,7 +95,7 @@ public class IgeRenderDevice implements RenderDevice {
     @Nullable
     @Override
     public RenderImage createImage(@Nonnull String filename, boolean filterLinear) {
-        Texture targetTexture = container.getEngine().getAssets().getTextureManager().getTexture(filename);
+        Texture targetTexture = container.getEngine().getAssets().getTextureManager().requestTexture(filename);
         if (targetTexture == null) {
             return null;
         }
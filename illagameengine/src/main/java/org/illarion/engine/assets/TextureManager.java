@@ -56,6 +56,19 @@ public interface TextureManager {
     @Nullable
     Texture getTexture(@Nonnull String name);
 
+    /**
+     * Request a specified texture. Different from {@link #getTexture(String)} this function does not wait for the
+     * image to be decoded in case the texture is stored in a file of its own. The texture returned right away has the
+     * final size and renders transparent until the image is decoded in the background and uploaded during one of
+     * the next updates. Backends that do not support this load the texture right away. Textures located on a
+     * streamed texture atlas are always loaded right away, as the GUI keeps the texture it received.
+     *
+     * @param name the name of the texture required
+     * @return the texture or {@code null} in case the texture requested does not exist
+     */
+    @Nullable
+    Texture requestTexture(@Nonnull String name);
+
     /**
      * Calling this function starts the automatic loading of all texture atlas files in all the texture directories
      * that are currently set for the texture manager.
@@ -64,6 +77,19 @@ public interface TextureManager {
      */
     void startLoading();
 
+    /**
+     * Switch the texture manager to streaming the texture atlas files. In this mode {@link #startLoading()} only
+     * reads the atlas index files. The atlas textures themselves are loaded once the first sprite located on them is
+     * rendered. Until then the sprites are drawn using a transparent placeholder. Atlas textures that were not used
+     * for a while are released again once the texture memory in use exceeds the budget.
+     * <p/>
+     * This function has to be called before the loading is started. Backends that do not support streaming ignore
+     * this call and load all textures at once.
+     *
+     * @param memoryBudget the amount of texture memory in bytes the streamed atlas textures are allowed to use
+     */
+    void enableStreaming(long memoryBudget);
+
     /**
      * Get the progress monitor that reports the loading progress of the texture manager.
      *
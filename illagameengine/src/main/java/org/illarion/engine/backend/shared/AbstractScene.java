@@ -17,10 +17,8 @@ package org.illarion.engine.backend.shared;
 
 import illarion.common.memory.MemoryPools;
 import org.illarion.engine.GameContainer;
-import org.illarion.engine.graphic.Graphics;
-import org.illarion.engine.graphic.Scene;
-import org.illarion.engine.graphic.SceneElement;
-import org.illarion.engine.graphic.SceneEvent;
+import illarion.common.types.Rectangle;
+import org.illarion.engine.graphic.*;
 import org.illarion.engine.graphic.effects.SceneEffect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,10 +41,18 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractScene.class);
 
     /**
-     * This list of elements in the scene. This list is kept sorted.
+     * The render layers of the scene. Each layer stores all elements that share the same order value. The layers are
+     * sorted so the element rendered first is located in the first layer.
      */
     @Nonnull
-    private final List<SceneElement> sceneElements;
+    private final NavigableMap<Integer, List<SceneElement>> sceneLayers;
+
+    /**
+     * The order value each element was stored with. This is required to locate the layer of a element once its order
+     * value changed.
+     */
+    @Nonnull
+    private final Map<SceneElement, Integer> elementOrders;
 
     /**
      * This is the queue of events that are published during the updates.
@@ -67,23 +73,61 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
     @Nullable
     private SceneElement[] workingArray;
 
+    /**
+     * The amount of valid elements in the working array.
+     */
+    private int workingCount;
+
+    /**
+     * The elements of the working array that are able to process events. The elements are stored in the same order
+     * as in the working array.
+     */
+    @Nullable
+    private InteractiveSceneElement[] interactiveArray;
+
+    /**
+     * The amount of valid elements in the interactive array.
+     */
+    private int interactiveCount;
+
+    /**
+     * The events that are processed during the current update.
+     */
+    @Nonnull
+    private final List<SceneEvent> frameEvents;
+
+    /**
+     * The elements hit by the pointer events of the current update. The list at a index is assigned to the event at
+     * the same index in the {@link #frameEvents}.
+     */
+    @Nonnull
+    private final List<List<InteractiveSceneElement>> frameEventHits;
+
+    /**
+     * The scene coordinates of the pointer events of the current update, stored as x and y pairs.
+     */
+    @Nonnull
+    private int[] frameEventLocations;
+
+    /**
+     * This flag is set {@code true} in case the elements of the scene changed since the last time the working array
+     * was build.
+     */
+    private boolean workingArrayDirty;
+
     /**
      * Create a new scene and setup the internal structures.
      */
     protected AbstractScene() {
-        sceneElements = new ArrayList<>();
+        sceneLayers = new TreeMap<>(Comparator.reverseOrder());
+        elementOrders = new IdentityHashMap<>();
         eventQueue = new ConcurrentLinkedQueue<>();
+        frameEvents = new ArrayList<>();
+        frameEventHits = new ArrayList<>();
+        frameEventLocations = new int[8];
         sceneEffects = new ArrayList<>();
     }
 
-    @Nullable
-    private static <T> T getFromArray(@Nonnull T[] array, int index) {
-        if (index >= array.length) {
-            return null;
-        }
-        return array[index];
-    }
-
     @Override
     public int compare(@Nonnull SceneElement o1, @Nonnull SceneElement o2) {
         return Integer.compare(o2.getOrder(), o1.getOrder());
@@ -91,37 +135,113 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
 
     @Override
     public final void addElement(@Nonnull SceneElement element) {
-        synchronized (sceneElements) {
-            int insertIndex = Collections.binarySearch(sceneElements, element, this);
-            if (insertIndex < 0) {
-                sceneElements.add(-insertIndex - 1, element);
-            } else {
-                sceneElements.add(insertIndex, element);
+        synchronized (sceneLayers) {
+            if (elementOrders.containsKey(element)) {
+                return;
             }
+            int order = element.getOrder();
+            elementOrders.put(element, order);
+            sceneLayers.computeIfAbsent(order, key -> new ArrayList<>()).add(element);
+            workingArrayDirty = true;
         }
     }
 
     @Override
     public final void updateElementLocation(@Nonnull SceneElement element) {
-        synchronized (sceneElements) {
-            // If element is not found, insertIndex = (where the element should be added * -1) - 1
-            int insertIndex = Collections.binarySearch(sceneElements, element, this);
-            // If the item wasn't found, set checkIndex = the proper location
-            int checkIndex = (insertIndex < 0) ? ((insertIndex + 1) * -1) : insertIndex;
-            // If checkIndex is outside our ArrayList, set it to the last element
-            checkIndex = (checkIndex >= sceneElements.size()) ? (checkIndex = sceneElements.size() - 1) : checkIndex;
-            SceneElement testElement = sceneElements.get(checkIndex);
-            if (!Objects.equals(testElement, element)) {
-                removeElement(element);
-                addElement(element);
+        synchronized (sceneLayers) {
+            Integer oldOrder = elementOrders.get(element);
+            if (oldOrder == null) {
+                return;
+            }
+            int newOrder = element.getOrder();
+            if (oldOrder == newOrder) {
+                return;
             }
+            removeFromLayer(oldOrder, element);
+            elementOrders.put(element, newOrder);
+            sceneLayers.computeIfAbsent(newOrder, key -> new ArrayList<>()).add(element);
+            workingArrayDirty = true;
         }
     }
 
     @Override
     public final void removeElement(@Nonnull SceneElement element) {
-        synchronized (sceneElements) {
-            sceneElements.remove(element);
+        synchronized (sceneLayers) {
+            Integer oldOrder = elementOrders.remove(element);
+            if (oldOrder != null) {
+                removeFromLayer(oldOrder, element);
+                workingArrayDirty = true;
+            }
+        }
+    }
+
+    /**
+     * Remove a element from the layer it is stored in. Empty layers are dropped.
+     *
+     * @param order the order value of the layer
+     * @param element the element to remove
+     */
+    private void removeFromLayer(int order, @Nonnull SceneElement element) {
+        List<SceneElement> layer = sceneLayers.get(order);
+        if (layer == null) {
+            LOGGER.warn("Layer {} of a scene element is missing.", order);
+            return;
+        }
+        for (int i = layer.size() - 1; i >= 0; i--) {
+            if (layer.get(i) == element) {
+                layer.remove(i);
+                break;
+            }
+        }
+        if (layer.isEmpty()) {
+            sceneLayers.remove(order);
+        }
+    }
+
+    /**
+     * Rebuild the working array from the render layers in case the elements of the scene changed.
+     */
+    private void refreshWorkingArray() {
+        synchronized (sceneLayers) {
+            if (!workingArrayDirty && (workingArray != null)) {
+                return;
+            }
+            int elementCount = elementOrders.size();
+            SceneElement[] sceneElementArray = workingArray;
+            if ((sceneElementArray == null) || (sceneElementArray.length < elementCount)) {
+                sceneElementArray = new SceneElement[elementCount];
+            }
+            int index = 0;
+            for (List<SceneElement> layer : sceneLayers.values()) {
+                for (int i = 0; i < layer.size(); i++) {
+                    sceneElementArray[index++] = layer.get(i);
+                }
+            }
+            if (index < workingCount) {
+                // drop the references to elements that were removed from the scene
+                Arrays.fill(sceneElementArray, index, Math.min(workingCount, sceneElementArray.length), null);
+            }
+
+            InteractiveSceneElement[] interactiveElementArray = interactiveArray;
+            if ((interactiveElementArray == null) || (interactiveElementArray.length < index)) {
+                interactiveElementArray = new InteractiveSceneElement[index];
+            }
+            int interactiveIndex = 0;
+            for (int i = 0; i < index; i++) {
+                if (sceneElementArray[i] instanceof InteractiveSceneElement) {
+                    interactiveElementArray[interactiveIndex++] = (InteractiveSceneElement) sceneElementArray[i];
+                }
+            }
+            if (interactiveIndex < interactiveCount) {
+                Arrays.fill(interactiveElementArray, interactiveIndex,
+                            Math.min(interactiveCount, interactiveElementArray.length), null);
+            }
+
+            workingArray = sceneElementArray;
+            workingCount = index;
+            interactiveArray = interactiveElementArray;
+            interactiveCount = interactiveIndex;
+            workingArrayDirty = false;
         }
     }
 
@@ -132,25 +252,62 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
      * @param delta the time since the last update that is reported to the elements
      */
     protected final void updateScene(@Nonnull GameContainer container, int delta) {
-        SceneElement[] sceneElementArray = workingArray;
-        int sceneElementCount;
-        synchronized (sceneElements) {
-            sceneElementCount = sceneElements.size();
-            if (sceneElementArray == null) {
-                sceneElementArray = new SceneElement[sceneElementCount];
-            }
-            sceneElementArray = sceneElements.toArray(sceneElementArray);
+        refreshWorkingArray();
+        SceneElement[] sceneElementArray = Objects.requireNonNull(workingArray);
+        int sceneElementCount = workingCount;
+
+        dispatchEvents(container, delta);
+
+        for (int i = 0; i < sceneElementCount; i++) {
+            SceneElement element = sceneElementArray[i];
+            element.update(container, delta);
         }
-        workingArray = sceneElementArray;
+    }
+
+    /**
+     * Forward all events published since the last update to the elements of the scene. The pointer events are
+     * hit-tested against the event bounds of all interactive elements in one pass, so each event is only offered to
+     * the elements located at its position.
+     *
+     * @param container the game container that is forwarded to the scene elements
+     * @param delta the time since the last update that is reported to the elements
+     */
+    private void dispatchEvents(@Nonnull GameContainer container, int delta) {
+        @Nullable SceneEvent polledEvent;
+        while ((polledEvent = eventQueue.poll()) != null) {
+            frameEvents.add(polledEvent);
+        }
+        int eventCount = frameEvents.size();
+        if (eventCount == 0) {
+            return;
+        }
+
+        coalesceEvents();
+        collectEventHits();
+
+        InteractiveSceneElement[] elementArray = Objects.requireNonNull(interactiveArray);
+        for (int i = 0; i < eventCount; i++) {
+            SceneEvent event = frameEvents.get(i);
+            if (event == null) {
+                continue;
+            }
 
-        @Nullable SceneEvent event;
-        while ((event = eventQueue.poll()) != null) {
             boolean processed = false;
-            for (int i = sceneElementCount - 1; i >= 0; i--) {
-                SceneElement element = sceneElementArray[i];
-                if (element.isEventProcessed(container, delta, event)) {
-                    processed = true;
-                    break;
+            if (event instanceof PointerSceneEvent) {
+                List<InteractiveSceneElement> hits = frameEventHits.get(i);
+                for (int j = hits.size() - 1; j >= 0; j--) {
+                    if (hits.get(j).isEventProcessed(container, delta, event)) {
+                        processed = true;
+                        break;
+                    }
+                }
+                hits.clear();
+            } else {
+                for (int j = interactiveCount - 1; j >= 0; j--) {
+                    if (elementArray[j].isEventProcessed(container, delta, event)) {
+                        processed = true;
+                        break;
+                    }
                 }
             }
             if (!processed) {
@@ -160,10 +317,69 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
             // Recycle event so it can be reused
             MemoryPools.free(event);
         }
+        frameEvents.clear();
+    }
 
-        for (int i = 0; i < sceneElementCount; i++) {
-            SceneElement element = workingArray[i];
-            element.update(container, delta);
+    /**
+     * Drop all coalescing pointer events that are followed by a newer event of the same type. The dropped events are
+     * recycled and replaced with {@code null} in the list of events.
+     */
+    private void coalesceEvents() {
+        for (int i = frameEvents.size() - 1; i > 0; i--) {
+            SceneEvent event = frameEvents.get(i);
+            if ((event == null) || !(event instanceof PointerSceneEvent) || !((PointerSceneEvent) event).isCoalescing()) {
+                continue;
+            }
+            for (int j = i - 1; j >= 0; j--) {
+                SceneEvent olderEvent = frameEvents.get(j);
+                if ((olderEvent != null) && (olderEvent.getClass() == event.getClass())) {
+                    frameEvents.set(j, null);
+                    MemoryPools.free(olderEvent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the interactive elements hit by each pointer event in the list of events. This reads the event bounds
+     * of every interactive element once and tests them against all pointer events at the same time.
+     */
+    private void collectEventHits() {
+        int eventCount = frameEvents.size();
+        while (frameEventHits.size() < eventCount) {
+            frameEventHits.add(new ArrayList<>());
+        }
+
+        if (frameEventLocations.length < (eventCount * 2)) {
+            frameEventLocations = new int[eventCount * 2];
+        }
+        boolean pointerEventFound = false;
+        for (int i = 0; i < eventCount; i++) {
+            SceneEvent event = frameEvents.get(i);
+            if (event instanceof PointerSceneEvent) {
+                PointerSceneEvent pointerEvent = (PointerSceneEvent) event;
+                frameEventLocations[i * 2] = pointerEvent.getSceneX();
+                frameEventLocations[(i * 2) + 1] = pointerEvent.getSceneY();
+                pointerEventFound = true;
+            }
+        }
+        if (!pointerEventFound) {
+            return;
+        }
+
+        InteractiveSceneElement[] elementArray = Objects.requireNonNull(interactiveArray);
+        for (int i = 0; i < interactiveCount; i++) {
+            InteractiveSceneElement element = elementArray[i];
+            Rectangle bounds = element.getEventBounds();
+            if ((bounds == null) || bounds.isEmpty()) {
+                continue;
+            }
+            for (int j = 0; j < eventCount; j++) {
+                if ((frameEvents.get(j) instanceof PointerSceneEvent) &&
+                        bounds.isInside(frameEventLocations[j * 2], frameEventLocations[(j * 2) + 1])) {
+                    frameEventHits.get(j).add(element);
+                }
+            }
         }
     }
 
@@ -178,10 +394,9 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
             return;
         }
 
-        int i = 0;
-        SceneElement element;
-        while ((element = getFromArray(sceneElementArray, ++i)) != null) {
-            element.render(graphics);
+        int sceneElementCount = workingCount;
+        for (int i = 0; i < sceneElementCount; i++) {
+            sceneElementArray[i].render(graphics);
         }
     }
 
@@ -219,7 +434,9 @@ public abstract class AbstractScene<T extends SceneEffect> implements Scene, Com
 
     @Override
     public int getElementCount() {
-        return sceneElements.size();
+        synchronized (sceneLayers) {
+            return elementOrders.size();
+        }
     }
 
     /**
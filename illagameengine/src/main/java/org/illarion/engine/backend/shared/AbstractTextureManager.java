@@ -26,11 +26,11 @@ import org.xmlpull.v1.XmlPullParserFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
 
 /**
  * This is the shared code of the texture manager that is used by all backend implementations in a similar way.
@@ -40,6 +40,66 @@ import java.util.concurrent.Executors;
 public abstract class AbstractTextureManager<T> implements TextureManager {
     private static final Logger log = LoggerFactory.getLogger(AbstractTextureManager.class);
 
+    /**
+     * The time in milliseconds that is spend during one update at most to upload streamed texture atlases.
+     */
+    private static final long STREAMING_UPLOAD_TIME = 8;
+
+    /**
+     * The time in milliseconds that is spend during one update at most to upload requested textures.
+     */
+    private static final long REQUESTED_UPLOAD_TIME = 4;
+
+    /**
+     * The signature at the start of every PNG file.
+     */
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+
+    /**
+     * The type of the header chunk of a PNG file.
+     */
+    private static final int PNG_HEADER_CHUNK = 0x49484452;
+
+    /**
+     * A texture that was requested and is decoded in the background.
+     */
+    private static final class RequestedTexture<T> {
+        /**
+         * The name of the image file.
+         */
+        @Nonnull
+        private final String fileName;
+
+        /**
+         * The placeholder texture that is handed out until the image is uploaded.
+         */
+        @Nonnull
+        private final Texture texture;
+
+        /**
+         * The task decoding the image.
+         */
+        @Nonnull
+        private final Future<T> decodingTask;
+
+        /**
+         * The streaming support of the backend that binds the placeholder to the uploaded texture.
+         */
+        @Nonnull
+        private final TextureStreamingBackend<T> backend;
+
+        RequestedTexture(
+                @Nonnull String fileName,
+                @Nonnull Texture texture,
+                @Nonnull Future<T> decodingTask,
+                @Nonnull TextureStreamingBackend<T> backend) {
+            this.fileName = fileName;
+            this.texture = texture;
+            this.decodingTask = decodingTask;
+            this.backend = backend;
+        }
+    }
+
     /**
      * These are the progress monitors for each directory.
      */
@@ -64,6 +124,13 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
     @Nonnull
     private final Map<String, Texture> textures;
 
+    /**
+     * The compiled texture atlas indices of the root directories. The textures of the sprites stored in these indices
+     * are created once they are requested for the first time.
+     */
+    @Nonnull
+    private final List<TextureAtlasIndexLoadingTask<T>> atlasIndices;
+
     /**
      * This is the progress monitor that can be used to keep track of the texture atlas loading.
      */
@@ -90,6 +157,65 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
 
     private boolean loadingStarted;
 
+    /**
+     * The streaming support of the backend in case the texture atlas files are loaded once they are used first.
+     */
+    @Nullable
+    private TextureStreamingBackend<T> streamingBackend;
+
+    /**
+     * The amount of texture memory in bytes the resident streamed atlas textures are allowed to use.
+     */
+    private long streamingMemoryBudget;
+
+    /**
+     * The amount of texture memory in bytes that is currently used by the resident streamed atlas textures.
+     */
+    private long streamingMemoryUsed;
+
+    /**
+     * The counter of the calls to {@link #update()}. It serves as clock to find the atlas textures that were not used
+     * for the longest time. The renderer reads it when marking the streamed atlas textures as used.
+     */
+    private volatile long updateCycle;
+
+    /**
+     * This executor loads the data of the streamed atlas textures in the background.
+     */
+    @Nullable
+    private ExecutorService streamingExecutor;
+
+    /**
+     * The streamed atlas textures that are currently loaded in the background. Atlas textures are added to this
+     * queue by the renderer once they are used.
+     */
+    @Nonnull
+    private final Queue<StreamedTextureAtlas<T>> pendingAtlases;
+
+    /**
+     * The streamed atlas textures that are currently resident.
+     */
+    @Nonnull
+    private final List<StreamedTextureAtlas<T>> residentAtlases;
+
+    /**
+     * The streamed atlas textures of the sprites that were registered while streaming is enabled.
+     */
+    @Nonnull
+    private final Map<String, StreamedTextureAtlas<T>> streamedSprites;
+
+    /**
+     * This executor decodes the images of the requested textures in the background.
+     */
+    @Nullable
+    private ExecutorService decodingExecutor;
+
+    /**
+     * The requested textures that are not uploaded yet.
+     */
+    @Nonnull
+    private final List<RequestedTexture<T>> requestedTextures;
+
     /**
      * Creates a new texture loader.
      */
@@ -97,8 +223,38 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
         directoryMonitors = new ArrayList<>();
         rootDirectories = new ArrayList<>();
         textures = new HashMap<>();
+        atlasIndices = new ArrayList<>();
         progressMonitor = new ProgressMonitor();
         directoriesLoaded = new ArrayList<>();
+        pendingAtlases = new ConcurrentLinkedQueue<>();
+        residentAtlases = new ArrayList<>();
+        streamedSprites = new HashMap<>();
+        requestedTextures = new ArrayList<>();
+    }
+
+    @Override
+    public void enableStreaming(long memoryBudget) {
+        if (loadingStarted) {
+            log.warn("Texture streaming has to be enabled before the loading is started.");
+            return;
+        }
+        @Nullable TextureStreamingBackend<T> backend = getStreamingBackend();
+        if (backend == null) {
+            log.info("Texture streaming is not supported by this backend. Loading all textures.");
+            return;
+        }
+        streamingBackend = backend;
+        streamingMemoryBudget = memoryBudget;
+        streamingExecutor = Executors.newFixedThreadPool(2, new PoolThreadFactory("TextureStreaming", true));
+    }
+
+    /**
+     * Check if the texture atlas files are streamed.
+     *
+     * @return {@code true} in case the atlas textures are loaded once they are used first
+     */
+    public boolean isStreamingEnabled() {
+        return streamingBackend != null;
     }
 
     @Override
@@ -132,17 +288,42 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
             if (directoriesLoaded.get(i)) {
                 continue;
             }
-            String directoryName = rootDirectories.get(i);
-            TextureAtlasListXmlLoadingTask<T> task =
-                    new TextureAtlasListXmlLoadingTask<>(parserFactory, directoryName, this,
-                            directoryMonitors.get(i), loadingExecutor);
+            TextureAtlasIndexLoadingTask<T> task = createAtlasLoadingTask(i, parserFactory, loadingExecutor);
             loadingExecutor.execute(task);
             loadingTasks.addFirst(task);
             directoriesLoaded.set(i, Boolean.TRUE);
         }
     }
 
+    /**
+     * Create the task that loads the texture atlas list of a directory. The task reads the compiled index of the
+     * atlas list and falls back to the XML definition in case the index is not available.
+     *
+     * @param directoryIndex the index of the directory
+     * @param parserFactory the factory of the XML parser
+     * @param taskExecutor the executor that takes care for executing further tasks
+     * @return the loading task
+     */
+    @Nonnull
+    private TextureAtlasIndexLoadingTask<T> createAtlasLoadingTask(
+            int directoryIndex, @Nonnull XmlPullParserFactory parserFactory, @Nullable Executor taskExecutor) {
+        String directoryName = rootDirectories.get(directoryIndex);
+        ProgressMonitor monitor = directoryMonitors.get(directoryIndex);
+        TextureAtlasListXmlLoadingTask<T> xmlTask =
+                new TextureAtlasListXmlLoadingTask<>(parserFactory, directoryName, this, monitor, taskExecutor);
+        return new TextureAtlasIndexLoadingTask<>(directoryName, directoryIndex, this, monitor, taskExecutor,
+                                                  xmlTask);
+    }
+
     public void update() {
+        updateCycle++;
+        @Nullable TextureStreamingBackend<T> backend = streamingBackend;
+        if (backend != null) {
+            updateStreaming(backend);
+        }
+        if (!requestedTextures.isEmpty()) {
+            updateRequestedTextures();
+        }
         if (isLoadingDone()) {
             return;
         }
@@ -161,6 +342,325 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
         } while ((System.currentTimeMillis() - startTime) < 100);
     }
 
+    /**
+     * Upload the streamed atlas textures that finished loading in the background and release the atlas textures that
+     * were not used for the longest time in case the memory budget is exceeded.
+     */
+    private void updateStreaming(@Nonnull TextureStreamingBackend<T> backend) {
+        long startTime = System.currentTimeMillis();
+        Iterator<StreamedTextureAtlas<T>> pendingItr = pendingAtlases.iterator();
+        while (pendingItr.hasNext()) {
+            StreamedTextureAtlas<T> atlas = pendingItr.next();
+            @Nullable Future<T> loadingTask = atlas.getLoadingTask();
+            if ((loadingTask != null) && !loadingTask.isDone()) {
+                continue;
+            }
+            pendingItr.remove();
+            atlas.setLoadingTask(null);
+            if (loadingTask != null) {
+                uploadStreamedAtlas(backend, atlas, loadingTask);
+            }
+            if ((System.currentTimeMillis() - startTime) >= STREAMING_UPLOAD_TIME) {
+                break;
+            }
+        }
+
+        long lastFrame = updateCycle - 1;
+        while (streamingMemoryUsed > streamingMemoryBudget) {
+            // The renderer keeps updating the use times, so they are not sorted but searched for the oldest one.
+            @Nullable StreamedTextureAtlas<T> oldestAtlas = null;
+            long oldestUse = lastFrame;
+            for (StreamedTextureAtlas<T> atlas : residentAtlases) {
+                long lastUsed = atlas.getLastUsed();
+                if (!atlas.isPinned() && (lastUsed < oldestUse)) {
+                    oldestAtlas = atlas;
+                    oldestUse = lastUsed;
+                }
+            }
+            if (oldestAtlas == null) {
+                // everything that remains was rendered during the last frame or is pinned
+                break;
+            }
+            synchronized (oldestAtlas) {
+                if (oldestAtlas.getLastUsed() < lastFrame) {
+                    residentAtlases.remove(oldestAtlas);
+                    releaseStreamedAtlas(backend, oldestAtlas);
+                }
+            }
+        }
+    }
+
+    /**
+     * Upload the requested textures that finished decoding in the background.
+     */
+    private void updateRequestedTextures() {
+        long startTime = System.currentTimeMillis();
+        Iterator<RequestedTexture<T>> requestItr = requestedTextures.iterator();
+        while (requestItr.hasNext()) {
+            RequestedTexture<T> request = requestItr.next();
+            if (!request.decodingTask.isDone()) {
+                continue;
+            }
+            requestItr.remove();
+            uploadRequestedTexture(request);
+            if ((System.currentTimeMillis() - startTime) >= REQUESTED_UPLOAD_TIME) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Upload the image of a requested texture and point the placeholder to the new texture. In case the image could
+     * not be loaded, the placeholder is dropped, so the texture is loaded again once its requested the next time.
+     *
+     * @param request the request with the finished decoding task
+     */
+    private void uploadRequestedTexture(@Nonnull RequestedTexture<T> request) {
+        @Nullable T preLoadData;
+        try {
+            preLoadData = request.decodingTask.get();
+        } catch (@Nonnull InterruptedException e) {
+            log.error("Loading thread got interrupted.", e);
+            Thread.currentThread().interrupt();
+            discardRequestedTexture(request);
+            return;
+        } catch (@Nonnull ExecutionException e) {
+            log.error("Failure while decoding texture: {}", request.fileName, e);
+            discardRequestedTexture(request);
+            return;
+        }
+        if (preLoadData == null) {
+            log.warn("Failed to decode texture: {}", request.fileName);
+            discardRequestedTexture(request);
+            return;
+        }
+
+        @Nullable Texture texture = loadTexture(request.fileName, preLoadData);
+        disposeTextureData(preLoadData);
+        if (texture == null) {
+            log.warn("Failed to create texture: {}", request.fileName);
+            discardRequestedTexture(request);
+            return;
+        }
+        request.backend.bindStreamingTexture(request.texture, texture, 0, 0, texture.getWidth(), texture.getHeight());
+    }
+
+    /**
+     * Remove the placeholder of a requested texture that failed to load from the known textures.
+     *
+     * @param request the failed request
+     */
+    private void discardRequestedTexture(@Nonnull RequestedTexture<T> request) {
+        textures.remove(cleanTextureName(request.fileName), request.texture);
+    }
+
+    /**
+     * Upload the texture of a streamed atlas and point all the sprites of this atlas to the new texture.
+     *
+     * @param atlas the atlas
+     * @param loadingTask the finished task that loaded the texture data
+     */
+    private void uploadStreamedAtlas(
+            @Nonnull TextureStreamingBackend<T> backend,
+            @Nonnull StreamedTextureAtlas<T> atlas,
+            @Nonnull Future<T> loadingTask) {
+        @Nullable T preLoadData;
+        try {
+            preLoadData = loadingTask.get();
+        } catch (@Nonnull InterruptedException e) {
+            log.error("Loading thread got interrupted.", e);
+            Thread.currentThread().interrupt();
+            discardStreamedAtlas(atlas);
+            return;
+        } catch (@Nonnull ExecutionException e) {
+            log.error("Failure while loading texture data.", e);
+            discardStreamedAtlas(atlas);
+            return;
+        }
+        if (preLoadData == null) {
+            log.warn("Failed to load texture data for atlas: {}", atlas.getAtlasName());
+            discardStreamedAtlas(atlas);
+            return;
+        }
+
+        @Nullable Texture atlasTexture = loadTexture(atlas.getAtlasName(), preLoadData);
+        disposeTextureData(preLoadData);
+        if (atlasTexture == null) {
+            log.warn("Failed to create texture for atlas: {}", atlas.getAtlasName());
+            discardStreamedAtlas(atlas);
+            return;
+        }
+
+        synchronized (atlas) {
+            for (int i = 0; i < atlas.getSpriteCount(); i++) {
+                int[] bounds = atlas.getSpriteBounds(i);
+                backend.bindStreamingTexture(atlas.getSpriteTexture(i), atlasTexture, bounds[0], bounds[1], bounds[2],
+                                             bounds[3]);
+            }
+            atlas.setAtlasTexture(atlasTexture);
+            atlas.loadingDone();
+        }
+        residentAtlases.add(atlas);
+        streamingMemoryUsed += getTextureMemory(atlasTexture);
+        log.debug("Streamed atlas {} is resident. Texture memory in use: {} bytes", atlas.getAtlasName(),
+                  streamingMemoryUsed);
+    }
+
+    /**
+     * Set a streamed atlas that failed to load back to unloaded, so it is requested again after a delay. Otherwise
+     * the atlas would stay in the loading state and its sprites would never be shown.
+     *
+     * @param atlas the atlas
+     */
+    private void discardStreamedAtlas(@Nonnull StreamedTextureAtlas<T> atlas) {
+        synchronized (atlas) {
+            atlas.loadingFailed(updateCycle);
+        }
+    }
+
+    /**
+     * Point all the sprites of a streamed atlas back to their placeholders and dispose the atlas texture. This has to
+     * be called while holding the monitor of the atlas.
+     *
+     * @param backend the streaming support of the backend
+     * @param atlas the atlas
+     */
+    private void releaseStreamedAtlas(
+            @Nonnull TextureStreamingBackend<T> backend, @Nonnull StreamedTextureAtlas<T> atlas) {
+        @Nullable Texture atlasTexture = atlas.getAtlasTexture();
+        if (atlasTexture == null) {
+            return;
+        }
+        for (int i = 0; i < atlas.getSpriteCount(); i++) {
+            backend.unbindStreamingTexture(atlas.getSpriteTexture(i));
+        }
+        streamingMemoryUsed -= getTextureMemory(atlasTexture);
+        disposeStreamedTexture(atlasTexture);
+        atlas.setAtlasTexture(null);
+        atlas.setState(StreamedTextureAtlas.State.Unloaded);
+        log.debug("Released streamed atlas {}. Texture memory in use: {} bytes", atlas.getAtlasName(),
+                  streamingMemoryUsed);
+    }
+
+    /**
+     * Start loading the data of a streamed atlas in the background. This is called by the atlas while holding its
+     * monitor.
+     *
+     * @param atlas the atlas to load
+     */
+    void requestStreamedAtlas(@Nonnull StreamedTextureAtlas<T> atlas) {
+        ExecutorService executor = streamingExecutor;
+        if (executor == null) {
+            throw new IllegalStateException("Texture streaming is not enabled.");
+        }
+        atlas.setLoadingTask(executor.submit(new TextureAtlasPreLoadTask<>(this, atlas.getAtlasName())));
+        pendingAtlases.add(atlas);
+    }
+
+    /**
+     * Load a streamed atlas right away and keep it resident. This has to be called in the graphics context.
+     *
+     * @param backend the streaming support of the backend
+     * @param atlas the atlas to load
+     */
+    private void loadStreamedAtlasNow(
+            @Nonnull TextureStreamingBackend<T> backend, @Nonnull StreamedTextureAtlas<T> atlas) {
+        @Nullable Future<T> loadingTask;
+        synchronized (atlas) {
+            atlas.setPinned(true);
+            if (atlas.getState() == StreamedTextureAtlas.State.Resident) {
+                return;
+            }
+            atlas.setState(StreamedTextureAtlas.State.Loading);
+            loadingTask = atlas.getLoadingTask();
+            atlas.setLoadingTask(null);
+        }
+        pendingAtlases.remove(atlas);
+        if (loadingTask == null) {
+            FutureTask<T> preLoadTask = new FutureTask<>(new TextureAtlasPreLoadTask<>(this, atlas.getAtlasName()));
+            preLoadTask.run();
+            loadingTask = preLoadTask;
+        }
+        uploadStreamedAtlas(backend, atlas, loadingTask);
+    }
+
+    /**
+     * Create a new streamed atlas.
+     *
+     * @param atlasName the name of the atlas texture
+     * @return the created atlas
+     */
+    @Nonnull
+    StreamedTextureAtlas<T> addStreamedAtlas(@Nonnull String atlasName) {
+        return new StreamedTextureAtlas<>(this, atlasName);
+    }
+
+    /**
+     * Register a sprite that is located on a streamed atlas. The texture of the sprite is a placeholder until the
+     * atlas is loaded.
+     *
+     * @param atlas the atlas the sprite is located on
+     * @param spriteName the name of the sprite
+     * @param posX the x coordinate of the sprite on the atlas
+     * @param posY the y coordinate of the sprite on the atlas
+     * @param width the width of the sprite
+     * @param height the height of the sprite
+     */
+    @Nonnull
+    Texture addStreamedSprite(
+            @Nonnull StreamedTextureAtlas<T> atlas,
+            @Nonnull String spriteName,
+            int posX,
+            int posY,
+            int width,
+            int height) {
+        TextureStreamingBackend<T> backend = streamingBackend;
+        if (backend == null) {
+            throw new IllegalStateException("Texture streaming is not enabled.");
+        }
+        Texture spriteTexture = backend.createStreamingTexture(atlas, width, height);
+        synchronized (atlas) {
+            atlas.addSprite(spriteTexture, posX, posY, width, height);
+            @Nullable Texture atlasTexture = atlas.getAtlasTexture();
+            if (atlasTexture != null) {
+                backend.bindStreamingTexture(spriteTexture, atlasTexture, posX, posY, width, height);
+            }
+        }
+        streamedSprites.put(spriteName, atlas);
+        addTexture(spriteName, spriteTexture);
+        return spriteTexture;
+    }
+
+    /**
+     * Set the compiled texture atlas index of a directory.
+     *
+     * @param directoryIndex the index of the directory
+     * @param indexTask the task that loaded the index
+     */
+    void setAtlasIndex(int directoryIndex, @Nonnull TextureAtlasIndexLoadingTask<T> indexTask) {
+        atlasIndices.set(directoryIndex, indexTask);
+    }
+
+    /**
+     * Get a texture that was already loaded.
+     *
+     * @param textureName the name of the texture
+     * @return the texture or {@code null} in case the texture is not loaded
+     */
+    @Nullable
+    Texture getLoadedTexture(@Nonnull String textureName) {
+        return textures.get(textureName);
+    }
+
+    /**
+     * Get the current update cycle.
+     *
+     * @return the amount of times {@link #update()} was called
+     */
+    long getUpdateCycle() {
+        return updateCycle;
+    }
+
     void addLoadingTask(@Nonnull TextureAtlasTask task) {
         if (loadingTasks != null) {
             loadingTasks.add(task);
@@ -220,6 +720,7 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
         directoryMonitors.add(dirProgressMonitor);
         progressMonitor.addChild(dirProgressMonitor);
         directoriesLoaded.add(Boolean.FALSE);
+        atlasIndices.add(null);
     }
 
     /**
@@ -274,7 +775,7 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
         String cleanName = cleanTextureName(name);
 
         // Checking if the texture is among already loaded textures.
-        @Nullable Texture loadedTexture = textures.get(cleanName);
+        @Nullable Texture loadedTexture = getLoadedTexture(directoryIndex, cleanName);
         if (loadedTexture != null) {
             log.trace("Found texture {} among the already loaded texture.", cleanName);
             return loadedTexture;
@@ -306,9 +807,7 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
             parserFactory.setNamespaceAware(false);
             parserFactory.setValidating(false);
 
-            TextureAtlasListXmlLoadingTask<T> task =
-                    new TextureAtlasListXmlLoadingTask<>(parserFactory, directoryName, this,
-                            directoryMonitors.get(directoryIndex), null);
+            TextureAtlasIndexLoadingTask<T> task = createAtlasLoadingTask(directoryIndex, parserFactory, null);
             if (loadingTasks == null) {
                 loadingTasks = new ConcurrentLinkedDeque<>();
                 updateTasks = new ConcurrentLinkedQueue<>();
@@ -324,7 +823,7 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
             loadingStarted = false;
 
             log.trace("Loading of directory {} is done.", directoryName);
-            Texture result = textures.get(cleanName);
+            Texture result = getLoadedTexture(directoryIndex, cleanName);
             if (result == null) {
                 log.error("Failed to load texture: {} from directory: {}", cleanName, directoryName);
             }
@@ -334,6 +833,124 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
         return null;
     }
 
+    /**
+     * Get a texture that is either already loaded or located on a texture atlas of the compiled index of the
+     * directory.
+     *
+     * @param directoryIndex the index of the directory
+     * @param cleanName the name of the texture without the file extension
+     * @return the texture or {@code null} in case the texture is not loaded
+     */
+    @Nullable
+    private Texture getLoadedTexture(int directoryIndex, @Nonnull String cleanName) {
+        @Nullable Texture loadedTexture = textures.get(cleanName);
+        if (loadedTexture != null) {
+            return loadedTexture;
+        }
+        @Nullable TextureAtlasIndexLoadingTask<T> indexTask = atlasIndices.get(directoryIndex);
+        if (indexTask != null) {
+            return indexTask.createSpriteTexture(cleanName);
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Texture requestTexture(@Nonnull String name) {
+        int directoryIndex = getFileDirectoryIndex(name);
+        @Nullable TextureStreamingBackend<T> backend = getStreamingBackend();
+        if ((directoryIndex == -1) || (backend == null)) {
+            return getTexture(name);
+        }
+
+        String cleanName = cleanTextureName(name);
+        @Nullable Texture loadedTexture = getLoadedTexture(directoryIndex, cleanName);
+        if (loadedTexture != null) {
+            // the GUI keeps using the texture it got, so a sprite on a streamed atlas has to be loaded right away
+            makeResident(cleanName);
+            return loadedTexture;
+        }
+
+        String fileName = cleanName + ".png";
+        @Nullable int[] imageSize = readImageSize(fileName);
+        if (imageSize == null) {
+            // the texture is not stored in a file of its own
+            return getTexture(directoryIndex, name);
+        }
+
+        if (decodingExecutor == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            decodingExecutor = Executors.newFixedThreadPool(threads, new PoolThreadFactory("TextureDecoding", true));
+        }
+        Texture texture = backend.createPlaceholderTexture(imageSize[0], imageSize[1]);
+        Future<T> decodingTask = decodingExecutor.submit(() -> loadTextureData(fileName));
+        requestedTextures.add(new RequestedTexture<>(fileName, texture, decodingTask, backend));
+        textures.put(cleanName, texture);
+        log.trace("Requested texture {} by direct name.", cleanName);
+        return texture;
+    }
+
+    /**
+     * Get a specified texture and make sure that its image is loaded. Textures located on a streamed atlas are
+     * loaded right away and the atlas is kept resident. This is required for textures that are used by objects
+     * that keep the texture data, like fonts, instead of fetching it every time they are rendered.
+     *
+     * @param directory the directory the texture is located in
+     * @param name the name of the texture
+     * @return the loaded texture or {@code null} in case the texture requested does not exist
+     */
+    @Nullable
+    public Texture getResidentTexture(@Nonnull String directory, @Nonnull String name) {
+        String fullName = mergePath(directory, name);
+        @Nullable Texture texture = getTexture(getDirectoryIndex(directory), fullName);
+        if (texture != null) {
+            makeResident(cleanTextureName(fullName));
+        }
+        return texture;
+    }
+
+    /**
+     * Load the streamed atlas a texture is located on right away and keep it resident.
+     *
+     * @param cleanName the name of the texture without the file extension
+     */
+    private void makeResident(@Nonnull String cleanName) {
+        @Nullable TextureStreamingBackend<T> backend = streamingBackend;
+        @Nullable StreamedTextureAtlas<T> atlas = streamedSprites.get(cleanName);
+        if ((backend != null) && (atlas != null)) {
+            loadStreamedAtlasNow(backend, atlas);
+        }
+    }
+
+    /**
+     * Read the size of a image from the header of the PNG file.
+     *
+     * @param fileName the name of the file
+     * @return the width and the height of the image or {@code null} in case the file does not exist or is no PNG
+     * file
+     */
+    @Nullable
+    private static int[] readImageSize(@Nonnull String fileName) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(fileName)) {
+            if (in == null) {
+                return null;
+            }
+            DataInputStream dIn = new DataInputStream(in);
+            long signature = dIn.readLong();
+            dIn.readInt(); // length of the header chunk
+            int chunkType = dIn.readInt();
+            if ((signature != PNG_SIGNATURE) || (chunkType != PNG_HEADER_CHUNK)) {
+                return null;
+            }
+            int width = dIn.readInt();
+            int height = dIn.readInt();
+            return new int[]{width, height};
+        } catch (@Nonnull IOException e) {
+            return null;
+        }
+    }
+
     @Nullable
     @Override
     public Texture getTexture(@Nonnull String directory, @Nonnull String name) {
@@ -380,6 +997,44 @@ public abstract class AbstractTextureManager<T> implements TextureManager {
     @Nullable
     protected abstract Texture loadTexture(@Nonnull String resource, @Nonnull T preLoadData);
 
+    /**
+     * Get the streaming support of the backend.
+     *
+     * @return the streaming support or {@code null} in case the backend is not able to stream textures
+     */
+    @Nullable
+    protected TextureStreamingBackend<T> getStreamingBackend() {
+        return null;
+    }
+
+    /**
+     * Release the resources of a streamed atlas texture that is not needed anymore.
+     *
+     * @param atlasTexture the atlas texture
+     */
+    protected void disposeStreamedTexture(@Nonnull Texture atlasTexture) {
+        atlasTexture.dispose();
+    }
+
+    /**
+     * Release the texture data once the texture was created from it.
+     *
+     * @param preLoadData the texture data
+     */
+    protected void disposeTextureData(@Nonnull T preLoadData) {
+        // nothing to do by default
+    }
+
+    /**
+     * Get the amount of texture memory a texture occupies.
+     *
+     * @param texture the texture
+     * @return the size of the texture in bytes
+     */
+    protected long getTextureMemory(@Nonnull Texture texture) {
+        return 4L * texture.getWidth() * texture.getHeight();
+    }
+
     protected void addTexture(@Nonnull String textureName, @Nonnull Texture texture) {
         textures.put(textureName, texture);
     }
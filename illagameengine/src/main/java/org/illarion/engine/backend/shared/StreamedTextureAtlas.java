@@ -0,0 +1,247 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.backend.shared;
+
+import org.illarion.engine.graphic.Texture;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * This is a texture atlas that is loaded by the texture manager once one of its sprites is rendered for the first
+ * time. The sprites of the atlas are known to the texture manager from the start. They point to a placeholder as
+ * long as the atlas texture is not resident.
+ * <p/>
+ * The renderer marks the atlas as used while the texture manager uploads and releases it. Changes of the state and
+ * of the sprites are done while holding the monitor of the atlas.
+ */
+public final class StreamedTextureAtlas<T> {
+    /**
+     * The amount of update cycles the loading of the atlas is delayed after the first failed attempt. The delay
+     * doubles with each further failed attempt.
+     */
+    private static final long RETRY_DELAY = 60;
+
+    /**
+     * The maximal amount of times the retry delay is doubled.
+     */
+    private static final int MAX_RETRY_SHIFT = 6;
+
+    /**
+     * The possible states of a streamed atlas.
+     */
+    enum State {
+        /**
+         * The atlas texture is not loaded. The sprites point to the placeholder.
+         */
+        Unloaded,
+
+        /**
+         * The atlas texture data is currently loaded in the background.
+         */
+        Loading,
+
+        /**
+         * The atlas texture is uploaded and the sprites point to it.
+         */
+        Resident
+    }
+
+    /**
+     * The texture manager that takes care of this atlas.
+     */
+    @Nonnull
+    private final AbstractTextureManager<T> textureManager;
+
+    /**
+     * The name of the atlas texture.
+     */
+    @Nonnull
+    private final String atlasName;
+
+    /**
+     * The textures of the sprites located on this atlas.
+     */
+    @Nonnull
+    private final List<Texture> spriteTextures;
+
+    /**
+     * The location of the sprites on this atlas. The list stores the x, y, width and height for each sprite in the
+     * same order as the sprite textures.
+     */
+    @Nonnull
+    private final List<int[]> spriteBounds;
+
+    /**
+     * The current state of this atlas.
+     */
+    @Nonnull
+    private volatile State state;
+
+    /**
+     * The future of the background task loading the texture data in case the atlas is currently loaded.
+     */
+    @Nullable
+    private Future<T> loadingTask;
+
+    /**
+     * The atlas texture in case its resident.
+     */
+    @Nullable
+    private Texture atlasTexture;
+
+    /**
+     * The update cycle of the texture manager when any sprite of this atlas was used the last time.
+     */
+    private volatile long lastUsed;
+
+    /**
+     * The amount of failed attempts to load the atlas since it was resident the last time.
+     */
+    private int failedLoads;
+
+    /**
+     * The update cycle before that the atlas is not requested again after loading it failed.
+     */
+    private long retryCycle;
+
+    /**
+     * This flag is {@code true} in case the atlas is used by objects that keep its texture. Such an atlas is never
+     * released.
+     */
+    private volatile boolean pinned;
+
+    /**
+     * Create a new streamed atlas.
+     *
+     * @param textureManager the texture manager that takes care of this atlas
+     * @param atlasName the name of the atlas texture
+     */
+    StreamedTextureAtlas(@Nonnull AbstractTextureManager<T> textureManager, @Nonnull String atlasName) {
+        this.textureManager = textureManager;
+        this.atlasName = atlasName;
+        spriteTextures = new ArrayList<>();
+        spriteBounds = new ArrayList<>();
+        state = State.Unloaded;
+    }
+
+    /**
+     * This function has to be called by the backend every time one of the sprites of this atlas is rendered. In
+     * case the atlas is not loaded yet, this triggers the loading.
+     */
+    public synchronized void markUsed() {
+        lastUsed = textureManager.getUpdateCycle();
+        if ((state == State.Unloaded) && (lastUsed >= retryCycle)) {
+            state = State.Loading;
+            textureManager.requestStreamedAtlas(this);
+        }
+    }
+
+    /**
+     * Check if the atlas texture is uploaded, so the sprites of this atlas show their actual image.
+     *
+     * @return {@code true} in case the atlas is resident
+     */
+    public boolean isResident() {
+        return state == State.Resident;
+    }
+
+    @Nonnull
+    String getAtlasName() {
+        return atlasName;
+    }
+
+    @Nonnull
+    State getState() {
+        return state;
+    }
+
+    void setState(@Nonnull State state) {
+        this.state = state;
+    }
+
+    /**
+     * Report that loading the atlas failed. The atlas is unloaded again and requested once the retry delay passed.
+     * This has to be called while holding the monitor of the atlas.
+     *
+     * @param updateCycle the current update cycle
+     */
+    void loadingFailed(long updateCycle) {
+        failedLoads++;
+        retryCycle = updateCycle + (RETRY_DELAY << Math.min(failedLoads - 1, MAX_RETRY_SHIFT));
+        state = State.Unloaded;
+    }
+
+    /**
+     * Report that the atlas got uploaded. This has to be called while holding the monitor of the atlas.
+     */
+    void loadingDone() {
+        failedLoads = 0;
+        state = State.Resident;
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    boolean isPinned() {
+        return pinned;
+    }
+
+    void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    @Nullable
+    Future<T> getLoadingTask() {
+        return loadingTask;
+    }
+
+    void setLoadingTask(@Nullable Future<T> loadingTask) {
+        this.loadingTask = loadingTask;
+    }
+
+    @Nullable
+    Texture getAtlasTexture() {
+        return atlasTexture;
+    }
+
+    void setAtlasTexture(@Nullable Texture atlasTexture) {
+        this.atlasTexture = atlasTexture;
+    }
+
+    void addSprite(@Nonnull Texture texture, int posX, int posY, int width, int height) {
+        spriteTextures.add(texture);
+        spriteBounds.add(new int[]{posX, posY, width, height});
+    }
+
+    int getSpriteCount() {
+        return spriteTextures.size();
+    }
+
+    @Nonnull
+    Texture getSpriteTexture(int index) {
+        return spriteTextures.get(index);
+    }
+
+    @Nonnull
+    int[] getSpriteBounds(int index) {
+        return spriteBounds.get(index);
+    }
+}
@@ -44,7 +44,7 @@ public class TextureAtlasFinalizeTask<T> implements Runnable, TextureAtlasTask {
         int height;
     }
 
-    @Nonnull
+    @Nullable
     private final FutureTask<T> preLoadTask;
     @Nonnull
     private final AbstractTextureManager<T> textureManager;
@@ -57,8 +57,18 @@ public class TextureAtlasFinalizeTask<T> implements Runnable, TextureAtlasTask {
     private final float progressToAdd;
     private boolean done;
 
+    /**
+     * Create a new finalize task.
+     *
+     * @param preLoadTask the task that loads the texture data of the atlas or {@code null} in case the atlas is
+     * streamed and only its sprites are supposed to be registered
+     * @param atlasName the name of the atlas
+     * @param textureManager the texture manager that receives the textures
+     * @param monitor the progress monitor
+     * @param progressToAdd the progress added to the monitor once this task is done
+     */
     public TextureAtlasFinalizeTask(
-            @Nonnull FutureTask<T> preLoadTask,
+            @Nullable FutureTask<T> preLoadTask,
             @Nonnull String atlasName,
             @Nonnull AbstractTextureManager<T> textureManager,
             @Nonnull ProgressMonitor monitor,
@@ -90,6 +100,19 @@ public class TextureAtlasFinalizeTask<T> implements Runnable, TextureAtlasTask {
 
     @Override
     public void run() {
+        if (preLoadTask == null) {
+            try {
+                StreamedTextureAtlas<T> atlas = textureManager.addStreamedAtlas(atlasName);
+                for (@Nonnull SpriteData data : spriteList) {
+                    textureManager.addStreamedSprite(atlas, data.spriteName, data.posX, data.posY, data.width,
+                                                     data.height);
+                }
+                monitor.setProgress(monitor.getProgress() + progressToAdd);
+            } finally {
+                done = true;
+            }
+            return;
+        }
         try {
             @Nullable T preLoadData = preLoadTask.get();
             if (preLoadData == null) {
@@ -0,0 +1,239 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.backend.shared;
+
+import illarion.common.graphics.TextureAtlasIndex;
+import illarion.common.util.ProgressMonitor;
+import org.illarion.engine.graphic.Texture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The purpose of this task is to read the compiled index of one set of texture atlas files. Once the index is
+ * loaded, the textures of the sprites are created from it when they are requested for the first time. In case the
+ * index is not available, the XML definition of the atlas files is loaded instead.
+ */
+public class TextureAtlasIndexLoadingTask<T> implements Runnable, TextureAtlasTask {
+    /**
+     * The logger that provides the logging output of this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(TextureAtlasIndexLoadingTask.class);
+
+    /**
+     * The name of the atlas. Its required to fetch the correct index file.
+     */
+    @Nonnull
+    private final String atlasName;
+
+    /**
+     * The index of the texture directory this atlas belongs to.
+     */
+    private final int directoryIndex;
+
+    /**
+     * The parent texture manager.
+     */
+    @Nonnull
+    private final AbstractTextureManager<T> textureManager;
+
+    /**
+     * The progress monitor that is supposed to keep track of this loading task.
+     */
+    @Nonnull
+    private final ProgressMonitor progressMonitor;
+
+    /**
+     * The executor that takes care for the execution of the tasks.
+     */
+    @Nullable
+    private final Executor taskExecutor;
+
+    /**
+     * The task that loads the XML definition of the atlas in case the index is not available.
+     */
+    @Nonnull
+    private final TextureAtlasListXmlLoadingTask<T> fallbackTask;
+
+    /**
+     * The index once its loaded.
+     */
+    @Nullable
+    private TextureAtlasIndex index;
+
+    /**
+     * The streamed atlas textures in the order of the index. This is only set in case the textures are streamed.
+     */
+    @Nullable
+    private StreamedTextureAtlas<T>[] streamedAtlases;
+
+    /**
+     * Stores if the task is done.
+     */
+    private volatile boolean done;
+
+    /**
+     * Create a new loading task. This task is meant to be executed concurrently.
+     *
+     * @param atlasName the name of the atlas files
+     * @param directoryIndex the index of the texture directory
+     * @param textureManager the parent texture manager
+     * @param progressMonitor the monitor of the loading progress
+     * @param taskExecutor the executor that takes care for executing further tasks
+     * @param fallbackTask the task that is executed in case the index is not available
+     */
+    public TextureAtlasIndexLoadingTask(
+            @Nonnull String atlasName,
+            int directoryIndex,
+            @Nonnull AbstractTextureManager<T> textureManager,
+            @Nonnull ProgressMonitor progressMonitor,
+            @Nullable Executor taskExecutor,
+            @Nonnull TextureAtlasListXmlLoadingTask<T> fallbackTask) {
+        this.atlasName = atlasName;
+        this.directoryIndex = directoryIndex;
+        this.textureManager = textureManager;
+        this.progressMonitor = progressMonitor;
+        this.taskExecutor = taskExecutor;
+        this.fallbackTask = fallbackTask;
+        done = false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public void run() {
+        boolean registered = false;
+        try {
+            @Nullable TextureAtlasIndex loadedIndex = loadIndex();
+            if (loadedIndex == null) {
+                fallbackTask.run();
+                return;
+            }
+            index = loadedIndex;
+
+            int atlasCount = loadedIndex.getAtlasCount();
+            if (atlasCount > 0) {
+                progressMonitor.setWeight(atlasCount);
+            }
+            if (!textureManager.isStreamingEnabled()) {
+                float progressToAdd = 1.f / atlasCount;
+                for (int i = 0; i < atlasCount; i++) {
+                    String currentAtlasName = loadedIndex.getAtlasName(i);
+                    FutureTask<T> preLoadTask = new FutureTask<>(
+                            new TextureAtlasPreLoadTask<>(textureManager, currentAtlasName));
+                    if (taskExecutor == null) {
+                        preLoadTask.run();
+                    } else {
+                        taskExecutor.execute(preLoadTask);
+                    }
+
+                    TextureAtlasFinalizeTask<T> finalizeTask = new TextureAtlasFinalizeTask<>(preLoadTask,
+                            currentAtlasName, textureManager, progressMonitor, progressToAdd);
+                    textureManager.addUpdateTask(finalizeTask);
+                    textureManager.addLoadingTask(finalizeTask);
+                }
+            }
+            textureManager.addUpdateTask(this::register);
+            registered = true;
+        } finally {
+            if (!registered) {
+                done = true;
+            }
+        }
+    }
+
+    @Nullable
+    private TextureAtlasIndex loadIndex() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(atlasName + TextureAtlasIndex.FILE_SUFFIX)) {
+            if (in == null) {
+                log.debug("No texture atlas index found for {}. Reading the XML definition.", atlasName);
+                return null;
+            }
+            return TextureAtlasIndex.read(in);
+        } catch (@Nonnull IOException e) {
+            log.warn("Failed to read texture atlas index of {}. Reading the XML definition.", atlasName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Make the index known to the texture manager. This is executed in the graphics context.
+     */
+    @SuppressWarnings("unchecked")
+    private void register() {
+        try {
+            TextureAtlasIndex loadedIndex = index;
+            if ((loadedIndex != null) && textureManager.isStreamingEnabled()) {
+                StreamedTextureAtlas<T>[] atlases = new StreamedTextureAtlas[loadedIndex.getAtlasCount()];
+                for (int i = 0; i < atlases.length; i++) {
+                    atlases[i] = textureManager.addStreamedAtlas(loadedIndex.getAtlasName(i));
+                }
+                streamedAtlases = atlases;
+                progressMonitor.setProgress(1.f);
+            }
+            textureManager.setAtlasIndex(directoryIndex, this);
+        } finally {
+            done = true;
+        }
+    }
+
+    /**
+     * Create the texture of a sprite that is stored in the index. This has to be called in the graphics context.
+     *
+     * @param spriteName the name of the sprite
+     * @return the texture of the sprite or {@code null} in case the sprite is not part of the index or its atlas is
+     * not loaded yet
+     */
+    @Nullable
+    Texture createSpriteTexture(@Nonnull String spriteName) {
+        TextureAtlasIndex loadedIndex = index;
+        if (loadedIndex == null) {
+            return null;
+        }
+        int sprite = loadedIndex.find(spriteName);
+        if (sprite == -1) {
+            return null;
+        }
+        int atlas = loadedIndex.getSpriteAtlas(sprite);
+        int posX = loadedIndex.getSpriteX(sprite);
+        int posY = loadedIndex.getSpriteY(sprite);
+        int width = loadedIndex.getSpriteWidth(sprite);
+        int height = loadedIndex.getSpriteHeight(sprite);
+
+        @Nullable StreamedTextureAtlas<T>[] atlases = streamedAtlases;
+        if (atlases != null) {
+            return textureManager.addStreamedSprite(atlases[atlas], spriteName, posX, posY, width, height);
+        }
+
+        @Nullable Texture atlasTexture = textureManager.getLoadedTexture(loadedIndex.getAtlasName(atlas));
+        if (atlasTexture == null) {
+            return null;
+        }
+        Texture spriteTexture = atlasTexture.getSubTexture(posX, posY, width, height);
+        textureManager.addTexture(spriteName, spriteTexture);
+        return spriteTexture;
+    }
+}
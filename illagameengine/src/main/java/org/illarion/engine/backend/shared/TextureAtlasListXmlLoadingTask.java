@@ -133,12 +133,15 @@ public class TextureAtlasListXmlLoadingTask<T> implements Runnable, TextureAtlas
                         case "atlas":
                             @Nullable String currentAtlasName = getAtlasTextureName(parser);
                             if (currentAtlasName != null) {
-                                FutureTask<T> preLoadTask = new FutureTask<>(
-                                        new TextureAtlasPreLoadTask<>(textureManager, currentAtlasName));
-                                if (taskExecutor == null) {
-                                    preLoadTask.run();
-                                } else {
-                                    taskExecutor.execute(preLoadTask);
+                                @Nullable FutureTask<T> preLoadTask = null;
+                                if (!textureManager.isStreamingEnabled()) {
+                                    preLoadTask = new FutureTask<>(
+                                            new TextureAtlasPreLoadTask<>(textureManager, currentAtlasName));
+                                    if (taskExecutor == null) {
+                                        preLoadTask.run();
+                                    } else {
+                                        taskExecutor.execute(preLoadTask);
+                                    }
                                 }
 
                                 float progressToAdd = (expectedAtlasCount == 0) ? 0.f : (1.f /
@@ -0,0 +1,72 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.backend.shared;
+
+import org.illarion.engine.graphic.Texture;
+
+import javax.annotation.Nonnull;
+
+/**
+ * This interface is implemented by the backends that are able to stream the texture atlas files. The texture manager
+ * only enables streaming in case the backend provides this interface.
+ *
+ * @param <T> the type of the texture data the backend loads
+ */
+public interface TextureStreamingBackend<T> {
+    /**
+     * Create the texture of a sprite located on a streamed atlas. Until the texture is bound to the atlas texture
+     * it has to render as transparent placeholder. The backend has to call {@link StreamedTextureAtlas#markUsed()}
+     * every time the texture is rendered.
+     *
+     * @param atlas the atlas the sprite is located on
+     * @param width the width of the sprite
+     * @param height the height of the sprite
+     * @return the texture of the sprite
+     */
+    @Nonnull
+    Texture createStreamingTexture(@Nonnull StreamedTextureAtlas<T> atlas, int width, int height);
+
+    /**
+     * Create a texture of a fixed size that renders as transparent placeholder until its bound to another texture
+     * using {@link #bindStreamingTexture(Texture, Texture, int, int, int, int)}.
+     *
+     * @param width the width of the texture
+     * @param height the height of the texture
+     * @return the placeholder texture
+     */
+    @Nonnull
+    Texture createPlaceholderTexture(int width, int height);
+
+    /**
+     * Point the texture of a streamed sprite to the area of the loaded atlas texture.
+     *
+     * @param spriteTexture the texture created by {@link #createStreamingTexture(StreamedTextureAtlas, int, int)}
+     * @param atlasTexture the atlas texture
+     * @param posX the x coordinate of the sprite on the atlas
+     * @param posY the y coordinate of the sprite on the atlas
+     * @param width the width of the sprite
+     * @param height the height of the sprite
+     */
+    void bindStreamingTexture(
+            @Nonnull Texture spriteTexture, @Nonnull Texture atlasTexture, int posX, int posY, int width, int height);
+
+    /**
+     * Point the texture of a streamed sprite back to the placeholder.
+     *
+     * @param spriteTexture the texture created by {@link #createStreamingTexture(StreamedTextureAtlas, int, int)}
+     */
+    void unbindStreamingTexture(@Nonnull Texture spriteTexture);
+}
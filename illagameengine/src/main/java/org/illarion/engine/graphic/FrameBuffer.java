@@ -1,7 +1,55 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
 package org.illarion.engine.graphic;
 
+import org.illarion.engine.Disposable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
 /**
+ * A frame buffer is a texture that can be used as target of render operations. Its used to store images that are
+ * assembled from multiple render operations, so they can be drawn again with a single operation.
+ *
  * @author Martin Karing &lt;nitram@illarion.org&gt;
+ * @see Graphics#createFrameBuffer(int, int)
+ * @see Graphics#beginFrameBuffer(FrameBuffer, int, int, int, int)
  */
-public interface FrameBuffer {
+@NotThreadSafe
+public interface FrameBuffer extends Disposable {
+    /**
+     * Get the texture that contains the image data of this frame buffer. Use
+     * {@link Texture#getSubTexture(int, int, int, int)} to get a area of the frame buffer.
+     *
+     * @return the texture of this frame buffer
+     */
+    @Nonnull
+    Texture getTexture();
+
+    /**
+     * Get the width of the frame buffer.
+     *
+     * @return the width in pixels
+     */
+    int getWidth();
+
+    /**
+     * Get the height of the frame buffer.
+     *
+     * @return the height in pixels
+     */
+    int getHeight();
 }
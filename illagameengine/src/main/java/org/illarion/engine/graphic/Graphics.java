@@ -256,4 +256,36 @@ public interface Graphics {
      * Calling this function while no clipping area is set has not effect.
      */
     void unsetClippingArea();
+
+    /**
+     * Create a new frame buffer that can be used as render target.
+     *
+     * @param width the width of the frame buffer
+     * @param height the height of the frame buffer
+     * @return the new frame buffer
+     */
+    @Nonnull
+    FrameBuffer createFrameBuffer(int width, int height);
+
+    /**
+     * Redirect all following render operations to a area of a frame buffer. The area is cleared to full
+     * transparency and the coordinate {@code 0, 0} of the render operations is mapped to the origin of the area.
+     * Render operations outside of the area have no effect.
+     * <p/>
+     * The alpha values written to the frame buffer are blended in a way that allows to draw the frame buffer again
+     * with alpha blending. Its not allowed to call this function while a clipping area is set or another frame
+     * buffer is active. Every call has to be followed by a call of {@link #endFrameBuffer()}.
+     *
+     * @param frameBuffer the frame buffer that is the target of the render operations
+     * @param x the x coordinate of the area
+     * @param y the y coordinate of the area
+     * @param width the width of the area
+     * @param height the height of the area
+     */
+    void beginFrameBuffer(@Nonnull FrameBuffer frameBuffer, int x, int y, int width, int height);
+
+    /**
+     * Send the following render operations to the screen again.
+     */
+    void endFrameBuffer();
 }
@@ -0,0 +1,36 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.graphic;
+
+import illarion.common.types.Rectangle;
+
+import javax.annotation.Nullable;
+
+/**
+ * This is a scene element that is able to process events. Elements of the scene that do not implement this interface
+ * never receive any events.
+ */
+public interface InteractiveSceneElement extends SceneElement {
+    /**
+     * Get the area in the scene this element processes {@link PointerSceneEvent}s in. Pointer events outside of this
+     * area are not forwarded to this element. The area has to cover every location the element could respond to.
+     *
+     * @return the area in scene coordinates or {@code null} in case the element currently does not process any
+     * pointer events
+     */
+    @Nullable
+    Rectangle getEventBounds();
+}
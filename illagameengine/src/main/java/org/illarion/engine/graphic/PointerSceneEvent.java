@@ -0,0 +1,44 @@
+/*
+ * This file is part of the Illarion project.
+ *
+ * Copyright © 2016 - Illarion e.V.
+ *
+ * Illarion is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Illarion is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package org.illarion.engine.graphic;
+
+/**
+ * This is a scene event that is bound to a location in the scene, like events triggered by the mouse. The scene uses
+ * the location to only forward the event to the elements that can be hit at this location.
+ */
+public interface PointerSceneEvent extends SceneEvent {
+    /**
+     * Get the x coordinate of the location in the scene this event is bound to.
+     *
+     * @return the x coordinate in the scene
+     */
+    int getSceneX();
+
+    /**
+     * Get the y coordinate of the location in the scene this event is bound to.
+     *
+     * @return the y coordinate in the scene
+     */
+    int getSceneY();
+
+    /**
+     * Check if this event is replaced by newer events of the same type. In case this is {@code true} only the
+     * newest event of this type that is published during one update of the scene is processed.
+     *
+     * @return {@code true} in case only the latest event of this type matters
+     */
+    boolean isCoalescing();
+}
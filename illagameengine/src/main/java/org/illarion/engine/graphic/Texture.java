@@ -54,4 +54,14 @@ public interface Texture extends Disposable {
      * @return the width of this texture in pixel.
      */
     int getWidth();
+
+    /**
+     * Check if the image data of this texture is available. Textures that are streamed render transparent until
+     * their data is loaded.
+     *
+     * @return {@code true} in case the texture shows its actual image
+     */
+    default boolean isResident() {
+        return true;
+    }
 }